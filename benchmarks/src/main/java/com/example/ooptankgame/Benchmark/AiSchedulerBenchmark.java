@@ -0,0 +1,184 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.AI.DecisionScheduler;
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Compares enemies that roll their {@link EnemyBrain} dice every frame with enemies whose
+ * decisions a {@link DecisionScheduler} spreads over frames, with 200 to 5000 enemies driving
+ * around a 128x128 tile map made by repeating the game's map. Besides rolling the dice, each
+ * decision scans the wall bitmap ahead of the enemy, a stand-in for the sight checks that make
+ * real decisions more expensive than moving.
+ *
+ * For each enemy count and mode it prints the AI time per frame, split into deciding and moving,
+ * the 99th percentile and worst frame, the decisions made and deferred per frame and the longest
+ * wait between two decisions of one enemy. Turns and shots per enemy and minute show whether the
+ * enemies still behave the same when they decide less often.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.AiSchedulerBenchmark}
+ */
+public final class AiSchedulerBenchmark {
+
+    private static final int[] ENEMY_COUNTS = {200, 1000, 5000};
+    private static final double ENEMY_SIZE = 39;
+    private static final int FRAMES = 3600; // One minute at 60 fps
+    private static final int SPEED = 2;
+    private static final long BUDGET_NANOS = 50_000;
+    private static final int SIGHT_CELLS = 160; // 640 pixels of 4 pixel wall cells
+
+    private AiSchedulerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        WallBitmap walls = WallBitmap.rasterize(BenchmarkMaps.repeat(TmxMap.load("tmx/tankgamemapnewwalls.tmx"), 128));
+        run(walls, 200, null, "warm-up", false);
+        for (int count : ENEMY_COUNTS) {
+            System.out.printf("%d enemies%n", count);
+            run(walls, count, null, "every frame", true);
+            run(walls, count, new DecisionScheduler(Math.max(1, count / 4), 0), "a quarter per frame", true);
+            run(walls, count, new DecisionScheduler(Integer.MAX_VALUE, BUDGET_NANOS),
+                    String.format("%.2f ms budget", BUDGET_NANOS / 1e6), true);
+            System.out.println();
+        }
+    }
+
+    private static void run(WallBitmap walls, int count, DecisionScheduler scheduler, String name, boolean print) {
+        SplittableRandom random = new SplittableRandom(count);
+        Enemy[] enemies = new Enemy[count];
+        for (int i = 0; i < count; i++) {
+            enemies[i] = new Enemy(new EnemyBrain(random.split()), walls, spawn(walls, random));
+            if (scheduler != null) {
+                scheduler.add(enemies[i]);
+            }
+        }
+
+        long[] frameNanos = new long[FRAMES];
+        long decideNanos = 0;
+        long moveNanos = 0;
+        long decisions = 0;
+        long deferred = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            long start = System.nanoTime();
+            if (scheduler != null) {
+                scheduler.runFrame();
+                decisions += scheduler.getLastDecisions();
+                deferred += scheduler.getLastDeferred();
+            } else {
+                for (Enemy enemy : enemies) {
+                    enemy.decide(1);
+                }
+                decisions += count;
+            }
+            long decided = System.nanoTime();
+            for (Enemy enemy : enemies) {
+                enemy.move();
+            }
+            long end = System.nanoTime();
+            decideNanos += decided - start;
+            moveNanos += end - decided;
+            frameNanos[frame] = end - start;
+        }
+        if (!print) {
+            return;
+        }
+        long turns = 0;
+        long shots = 0;
+        for (Enemy enemy : enemies) {
+            turns += enemy.turns;
+            shots += enemy.shots;
+        }
+        Arrays.sort(frameNanos);
+        System.out.printf("  %-20s %6.3f ms per frame (%.3f deciding, %.3f moving), p99 %.3f ms, worst %.2f ms%n",
+                name, (decideNanos + moveNanos) / 1e6 / FRAMES, decideNanos / 1e6 / FRAMES, moveNanos / 1e6 / FRAMES,
+                frameNanos[FRAMES * 99 / 100] / 1e6, frameNanos[FRAMES - 1] / 1e6);
+        System.out.printf("  %-20s %6.0f decisions and %.0f deferred per frame, %s, %.1f turns and %.1f shots"
+                        + " per enemy and minute%n", "", decisions / (double) FRAMES, deferred / (double) FRAMES,
+                scheduler != null ? "at most " + scheduler.getMaxWaitFrames() + " frames between decisions"
+                        : "every frame", turns / (double) count, shots / (double) count);
+    }
+
+    private static double[] spawn(WallBitmap walls, SplittableRandom random) {
+        double maxX = walls.getColumns() * walls.getCellSize() - ENEMY_SIZE;
+        double maxY = walls.getRows() * walls.getCellSize() - ENEMY_SIZE;
+        while (true) {
+            double x = random.nextInt((int) maxX);
+            double y = random.nextInt((int) maxY);
+            if (!walls.overlaps(x, y, x + ENEMY_SIZE, y + ENEMY_SIZE)) {
+                return new double[]{x, y, x + ENEMY_SIZE, y + ENEMY_SIZE};
+            }
+        }
+    }
+
+    /**
+     * An enemy as {@code EnemyAIComponent} runs it: decisions when it gets its turn, moving every frame.
+     */
+    private static final class Enemy implements DecisionScheduler.Agent {
+        final EnemyBrain brain;
+        final WallBitmap walls;
+        final double[] box;
+        Dir dir;
+        long turns = 0;
+        long shots = 0;
+        int clearAhead = 0;
+
+        Enemy(EnemyBrain brain, WallBitmap walls, double[] box) {
+            this.brain = brain;
+            this.walls = walls;
+            this.box = box;
+            this.dir = brain.initialDir();
+        }
+
+        @Override
+        public void decide(int frames) {
+            Dir next = brain.nextDir(dir, frames);
+            turns += next != dir ? 1 : 0;
+            dir = next;
+            shots += brain.wantsToShoot(frames) ? 1 : 0;
+            clearAhead = lookAhead();
+        }
+
+        private int lookAhead() {
+            int cellSize = walls.getCellSize();
+            int column = (int) ((box[0] + box[2]) / 2) / cellSize;
+            int row = (int) ((box[1] + box[3]) / 2) / cellSize;
+            int dx = dir.getDx();
+            int dy = dir.getDy();
+            for (int i = 0; i < SIGHT_CELLS; i++) {
+                column += dx;
+                row += dy;
+                if (walls.isSolid(column, row)) {
+                    return i;
+                }
+            }
+            return SIGHT_CELLS;
+        }
+
+        void move() {
+            if (step(dir) < SPEED) {
+                brain.shootWhenBlocked();
+                Dir turn = brain.turnWhenBlocked();
+                if (turn != null) {
+                    dir = turn;
+                    step(turn);
+                }
+            }
+        }
+
+        private int step(Dir moveDir) {
+            int dx = moveDir.getDx();
+            int dy = moveDir.getDy();
+            int steps = walls.stepsBeforeContact(box, dx, dy, SPEED);
+            box[0] += dx * steps;
+            box[1] += dy * steps;
+            box[2] += dx * steps;
+            box[3] += dy * steps;
+            return steps;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.Render.AtlasPacker;
+import com.example.ooptankgame.Render.TextureAtlas;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares loading the game's sprites one file at a time, as the game did, with loading the one
+ * texture atlas {@link AtlasPacker} packs them into.
+ *
+ * The textures of {@code atlas.list} are copied from the classpath into a temporary folder and
+ * packed there, so the atlas measured is the one the build makes. Each round reads and decodes
+ * every separate texture, then the atlas and its index, from memory so the disk does not count.
+ * Prints the median and best round of each, the files and bytes involved, and the pixels decoded,
+ * which grow with the atlas's unused space.
+ *
+ * The game decodes with JavaFX rather than {@link ImageIO}, both inflate and unfilter the same
+ * PNG data, so the ratio carries over. How many texture switches a frame makes is counted in the
+ * game itself, see {@code --render-stats}.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.AtlasBenchmark}
+ */
+public final class AtlasBenchmark {
+
+    private static final String ROOT = "/assets/textures/";
+    private static final int ROUNDS = 200;
+
+    private AtlasBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path folder = Files.createTempDirectory("atlas");
+        List<String> names = new ArrayList<>();
+        try (InputStream in = AtlasBenchmark.class.getResourceAsStream(ROOT + AtlasPacker.LIST)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No " + AtlasPacker.LIST + " on the classpath");
+            }
+            byte[] list = in.readAllBytes();
+            Files.write(folder.resolve(AtlasPacker.LIST), list);
+            names.addAll(AtlasPacker.readList(new String(list, StandardCharsets.UTF_8).lines().toList()).keySet());
+        }
+        List<byte[]> separate = new ArrayList<>();
+        for (String name : names) {
+            try (InputStream in = AtlasBenchmark.class.getResourceAsStream(ROOT + name)) {
+                byte[] bytes = in.readAllBytes();
+                separate.add(bytes);
+                Files.createDirectories(folder.resolve(name).getParent());
+                Files.write(folder.resolve(name), bytes);
+            }
+        }
+        TextureAtlas atlas = AtlasPacker.pack(folder);
+        byte[] atlasImage = Files.readAllBytes(folder.resolve(TextureAtlas.IMAGE));
+        byte[] atlasIndex = Files.readAllBytes(folder.resolve(TextureAtlas.INDEX));
+
+        long[] separateNanos = new long[ROUNDS];
+        long[] atlasNanos = new long[ROUNDS];
+        long separatePixels = 0;
+        long atlasPixels = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            separatePixels = 0;
+            for (byte[] bytes : separate) {
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+                separatePixels += (long) image.getWidth() * image.getHeight();
+            }
+            separateNanos[round] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            TextureAtlas index = TextureAtlas.read(new ByteArrayInputStream(atlasIndex));
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(atlasImage));
+            atlasPixels = (long) image.getWidth() * image.getHeight();
+            atlasNanos[round] = System.nanoTime() - start;
+            if (index.getRegions().size() != names.size()) {
+                throw new IllegalStateException("Atlas has " + index.getRegions().size() + " regions, " + names.size() + " listed");
+            }
+        }
+        Arrays.sort(separateNanos);
+        Arrays.sort(atlasNanos);
+        long separateBytes = separate.stream().mapToLong(bytes -> bytes.length).sum();
+
+        System.out.printf("%dx%d atlas, %.0f%% used%n", atlas.getWidth(), atlas.getHeight(), atlas.getFill() * 100);
+        System.out.printf("%-10s %6s %10s %10s %12s %12s%n", "", "files", "bytes", "pixels", "median", "best");
+        System.out.printf("%-10s %6d %,10d %,10d %9.3f ms %9.3f ms%n", "separate", names.size(), separateBytes,
+                separatePixels, separateNanos[ROUNDS / 2] / 1e6, separateNanos[0] / 1e6);
+        System.out.printf("%-10s %6d %,10d %,10d %9.3f ms %9.3f ms%n", "atlas", 2, atlasImage.length + atlasIndex.length,
+                atlasPixels, atlasNanos[ROUNDS / 2] / 1e6, atlasNanos[0] / 1e6);
+    }
+}
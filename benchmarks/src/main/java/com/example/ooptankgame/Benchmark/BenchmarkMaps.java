@@ -0,0 +1,43 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Large maps for the benchmarks, made from the game's own map. Public so the JMH benchmarks in
+ * {@code benchmarks/} can build the same maps.
+ */
+public final class BenchmarkMaps {
+
+    private BenchmarkMaps() {
+    }
+
+    /**
+     * A {@code size} x {@code size} map with the tiles and objects of {@code map} repeated.
+     */
+    public static TmxMap repeat(TmxMap map, int size) {
+        List<TmxMap.TileLayer> layers = new ArrayList<>();
+        for (TmxMap.TileLayer layer : map.getTileLayers()) {
+            int[] gids = new int[size * size];
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < size; column++) {
+                    gids[row * size + column] = layer.gid(column % layer.width(), row % layer.height());
+                }
+            }
+            layers.add(new TmxMap.TileLayer(layer.name(), size, size, gids));
+        }
+        List<TmxMap.MapObject> objects = new ArrayList<>();
+        int times = size / map.getWidth();
+        for (int ty = 0; ty < times; ty++) {
+            for (int tx = 0; tx < times; tx++) {
+                for (TmxMap.MapObject object : map.getObjects()) {
+                    objects.add(new TmxMap.MapObject(object.group(), object.type(), object.x() + tx * map.getPixelWidth(),
+                            object.y() + ty * map.getPixelHeight(), object.width(), object.height()));
+                }
+            }
+        }
+        return new TmxMap(size, size, map.getTileWidth(), map.getTileHeight(), map.getTilesets(), layers, objects);
+    }
+}
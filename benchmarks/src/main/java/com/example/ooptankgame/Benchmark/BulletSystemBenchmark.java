@@ -0,0 +1,244 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.Bullets.BulletSystem;
+import com.example.ooptankgame.Collision.SpatialGrid;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the per-frame cost of {@link BulletSystem} with one object per bullet tested against
+ * every wall and tank, which is how the physics world treats bullet entities.
+ *
+ * Both sides fly the same bullets over the walls of {@code tankgamemapnewwalls.tmx} with 40
+ * tanks parked on the map, at 60 frames per second. Every bullet that hits something or leaves
+ * the map is replaced by a new one, so the number in flight stays constant. The bullet system
+ * gets its candidates from a {@link SpatialGrid}, the baseline checks every target.
+ *
+ * Only simulation is timed. Drawing is one canvas pass in {@code BulletLayer} and cannot be
+ * measured without a display.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.BulletSystemBenchmark}
+ */
+public final class BulletSystemBenchmark {
+
+    private static final int[] BULLET_COUNTS = {100, 1_000, 5_000, 10_000};
+    private static final int TANKS = 40;
+    private static final int FRAMES = 600;
+    private static final int ROUNDS = 5;
+    private static final double DT = 1.0 / 60;
+    private static final double SPEED = 350;
+    private static final Dir[] DIRS = Dir.values();
+
+    private BulletSystemBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        TmxMap map = TmxMap.load("tmx/tankgamemapnewwalls.tmx");
+        double width = map.getPixelWidth();
+        double height = map.getPixelHeight();
+
+        List<Target> targets = new ArrayList<>();
+        for (TmxMap.MapObject wall : map.getObjects("wall")) {
+            targets.add(new Target(TankGameType.WALL, wall.x(), wall.y(), wall.width(), wall.height()));
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < TANKS; i++) {
+            TankGameType type = i == 0 ? TankGameType.PLAYER : TankGameType.ENEMY;
+            targets.add(new Target(type, 32 + random.nextDouble(width - 96), 32 + random.nextDouble(height - 96), 39, 39));
+        }
+        GridTargets grid = new GridTargets(targets);
+
+        System.out.printf("%d walls and %d tanks, %d frames per round%n", targets.size() - TANKS, TANKS, FRAMES);
+        System.out.printf("%8s %16s %16s %8s%n", "bullets", "objects ns/f", "SoA ns/f", "speedup");
+        for (int bullets : BULLET_COUNTS) {
+            long bestObjects = Long.MAX_VALUE;
+            long bestSoa = Long.MAX_VALUE;
+            long objectHits = 0;
+            long soaHits = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                ObjectBullets objects = new ObjectBullets(targets, width, height, new SplittableRandom(round));
+                objects.fill(bullets);
+                long start = System.nanoTime();
+                for (int frame = 0; frame < FRAMES; frame++) {
+                    objects.update();
+                }
+                bestObjects = Math.min(bestObjects, System.nanoTime() - start);
+                objectHits = objects.hits;
+
+                SoaBullets soa = new SoaBullets(grid, width, height, new SplittableRandom(round));
+                soa.fill(bullets);
+                start = System.nanoTime();
+                for (int frame = 0; frame < FRAMES; frame++) {
+                    soa.update();
+                }
+                bestSoa = Math.min(bestSoa, System.nanoTime() - start);
+                soaHits = soa.hits;
+            }
+            System.out.printf("%8d %16d %16d %7.1fx   (hits %d / %d)%n", bullets, bestObjects / FRAMES, bestSoa / FRAMES,
+                    bestObjects / (double) bestSoa, objectHits, soaHits);
+        }
+    }
+
+    private static final class Target {
+        private final TankGameType type;
+        private final double[] box;
+
+        private Target(TankGameType type, double x, double y, double w, double h) {
+            this.type = type;
+            this.box = new double[]{x, y, x + w, y + h};
+        }
+    }
+
+    private static final class GridTargets implements BulletSystem.Targets<Target> {
+        private final SpatialGrid<Target> grid = new SpatialGrid<>();
+
+        private GridTargets(List<Target> targets) {
+            for (Target target : targets) {
+                grid.insert(target, target.box[0], target.box[1], target.box[2], target.box[3]);
+            }
+        }
+
+        @Override
+        public void query(double minX, double minY, double maxX, double maxY, List<Target> out) {
+            grid.query(minX, minY, maxX, maxY, out);
+        }
+
+        @Override
+        public TankGameType typeOf(Target target) {
+            return target.type;
+        }
+
+        @Override
+        public void bounds(Target target, double[] out) {
+            System.arraycopy(target.box, 0, out, 0, 4);
+        }
+    }
+
+    private static final class SoaBullets implements BulletSystem.HitListener<Target> {
+        private final BulletSystem<Target> system;
+        private final GridTargets targets;
+        private final double width;
+        private final double height;
+        private final SplittableRandom random;
+        private int wanted;
+        private long hits;
+
+        private SoaBullets(GridTargets targets, double width, double height, SplittableRandom random) {
+            this.system = new BulletSystem<>(width, height, 1024);
+            this.targets = targets;
+            this.width = width;
+            this.height = height;
+            this.random = random;
+        }
+
+        private void fill(int count) {
+            wanted = count;
+            while (system.size() < wanted) {
+                spawn();
+            }
+        }
+
+        private void spawn() {
+            Dir dir = DIRS[random.nextInt(4)];
+            TankGameType owner = random.nextBoolean() ? TankGameType.PLAYER : TankGameType.ENEMY;
+            system.spawn(random.nextDouble(width), random.nextDouble(height),
+                    dir.getDx() * SPEED, dir.getDy() * SPEED, owner);
+        }
+
+        private void update() {
+            system.update(DT, targets, this);
+            // Replace the bullets that left the map
+            while (system.size() < wanted) {
+                spawn();
+            }
+        }
+
+        @Override
+        public void onHit(Target target, TankGameType targetType, TankGameType ownerType, double x, double y) {
+            hits++;
+        }
+    }
+
+    /**
+     * One object per bullet and an all-pairs test, like bullet entities in the physics world.
+     */
+    private static final class ObjectBullets {
+        private final List<Target> targets;
+        private final double width;
+        private final double height;
+        private final SplittableRandom random;
+        private final List<ObjectBullet> bullets = new ArrayList<>();
+        private int wanted;
+        private long hits;
+
+        private ObjectBullets(List<Target> targets, double width, double height, SplittableRandom random) {
+            this.targets = targets;
+            this.width = width;
+            this.height = height;
+            this.random = random;
+        }
+
+        private void fill(int count) {
+            wanted = count;
+            while (bullets.size() < wanted) {
+                spawn();
+            }
+        }
+
+        private void spawn() {
+            Dir dir = DIRS[random.nextInt(4)];
+            TankGameType owner = random.nextBoolean() ? TankGameType.PLAYER : TankGameType.ENEMY;
+            bullets.add(new ObjectBullet(random.nextDouble(width), random.nextDouble(height), dir, owner));
+        }
+
+        private void update() {
+            for (ObjectBullet bullet : bullets) {
+                bullet.x += bullet.dir.getDx() * SPEED * DT;
+                bullet.y += bullet.dir.getDy() * SPEED * DT;
+                boolean sideways = bullet.dir == Dir.LEFT || bullet.dir == Dir.RIGHT;
+                double halfW = sideways ? BulletSystem.HALF_LENGTH : BulletSystem.HALF_WIDTH;
+                double halfH = sideways ? BulletSystem.HALF_WIDTH : BulletSystem.HALF_LENGTH;
+                double minX = bullet.x - halfW;
+                double minY = bullet.y - halfH;
+                double maxX = bullet.x + halfW;
+                double maxY = bullet.y + halfH;
+                if (maxX < 0 || maxY < 0 || minX > width || minY > height) {
+                    bullet.alive = false;
+                    continue;
+                }
+                for (Target target : targets) {
+                    if (target.type != bullet.owner
+                            && minX <= target.box[2] && maxX >= target.box[0] && minY <= target.box[3] && maxY >= target.box[1]) {
+                        bullet.alive = false;
+                        hits++;
+                        break;
+                    }
+                }
+            }
+            bullets.removeIf(bullet -> !bullet.alive);
+            while (bullets.size() < wanted) {
+                spawn();
+            }
+        }
+    }
+
+    private static final class ObjectBullet {
+        private double x;
+        private double y;
+        private final Dir dir;
+        private final TankGameType owner;
+        private boolean alive = true;
+
+        private ObjectBullet(double x, double y, Dir dir, TankGameType owner) {
+            this.x = x;
+            this.y = y;
+            this.dir = dir;
+            this.owner = owner;
+        }
+    }
+}
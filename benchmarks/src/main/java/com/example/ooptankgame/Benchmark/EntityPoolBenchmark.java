@@ -0,0 +1,144 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.Factory.ObjectPool;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures how many bytes the bullet and explosion churn allocates per second of game time,
+ * once with a new entity for every shot and hit like {@code spawn("bullet")} did, and once
+ * recycled through the {@link ObjectPool} behind {@code EntityPool}.
+ *
+ * FXGL cannot run without a display here, so the entity is a stand-in that allocates the same
+ * shape of objects {@code TankEntityFactory.newBullet} builds: the entity with its component
+ * and property maps, a transform, a bounding box with one hit box, a collidable component with
+ * its ignore list, a projectile velocity and a view node. The JavaFX nodes and properties behind
+ * the real ones are not counted, so the real saving per shot is larger than the one printed.
+ *
+ * The workload fires {@code shots} bullets per second (default 120, about 40 enemies shooting
+ * as fast as the cool-down allows). Every bullet flies for 20 frames and leaves an explosion
+ * that plays for 30 frames, at 60 frames per second.
+ *
+ * Allocation is read from the current thread's allocation counter, so the JVM must support
+ * {@code com.sun.management.ThreadMXBean} (HotSpot does).
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.EntityPoolBenchmark [shots]}
+ */
+public final class EntityPoolBenchmark {
+
+    private static final int FPS = 60;
+    private static final int SECONDS = 60;
+    private static final int BULLET_FRAMES = 20;
+    private static final int EXPLOSION_FRAMES = 30;
+    private static final int ROUNDS = 5;
+
+    private EntityPoolBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int shotsPerSecond = args.length > 0 ? Integer.parseInt(args[0]) : 120;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        long bestSpawn = Long.MAX_VALUE;
+        long bestPooled = Long.MAX_VALUE;
+        ObjectPool<StandInEntity> bullets = null;
+        ObjectPool<StandInEntity> explosions = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            run(shotsPerSecond, null, null);
+            bestSpawn = Math.min(bestSpawn, threads.getCurrentThreadAllocatedBytes() - before);
+
+            bullets = new ObjectPool<>(256);
+            explosions = new ObjectPool<>(256);
+            before = threads.getCurrentThreadAllocatedBytes();
+            run(shotsPerSecond, bullets, explosions);
+            bestPooled = Math.min(bestPooled, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+
+        long shots = (long) shotsPerSecond * SECONDS;
+        System.out.printf("%d shots/s for %ds of game time (%d shots)%n", shotsPerSecond, SECONDS, shots);
+        System.out.printf("spawn per shot: %,12d bytes/s  %6.0f bytes/shot%n", bestSpawn / SECONDS, bestSpawn / (double) shots);
+        System.out.printf("pooled:         %,12d bytes/s  %6.0f bytes/shot%n", bestPooled / SECONDS, bestPooled / (double) shots);
+        System.out.println("bullets    " + bullets);
+        System.out.println("explosions " + explosions);
+    }
+
+    /**
+     * Plays the workload, spawning new stand-ins when the pools are {@code null}.
+     */
+    private static void run(int shotsPerSecond, ObjectPool<StandInEntity> bulletPool, ObjectPool<StandInEntity> explosionPool) {
+        ArrayDeque<StandInEntity> bullets = new ArrayDeque<>(512);
+        ArrayDeque<StandInEntity> explosions = new ArrayDeque<>(512);
+        long fired = 0;
+        for (int frame = 0; frame < FPS * SECONDS; frame++) {
+            // Spread the shots evenly over the frames of a second
+            long due = (long) shotsPerSecond * (frame + 1) / FPS;
+            for (; fired < due; fired++) {
+                bullets.addLast(obtain(bulletPool, frame, fired));
+            }
+            while (!bullets.isEmpty() && frame - bullets.peekFirst().spawnFrame >= BULLET_FRAMES) {
+                StandInEntity bullet = bullets.pollFirst();
+                explosions.addLast(obtain(explosionPool, frame, (long) bullet.x));
+                release(bulletPool, bullet);
+            }
+            while (!explosions.isEmpty() && frame - explosions.peekFirst().spawnFrame >= EXPLOSION_FRAMES) {
+                release(explosionPool, explosions.pollFirst());
+            }
+        }
+    }
+
+    private static StandInEntity obtain(ObjectPool<StandInEntity> pool, int frame, long position) {
+        StandInEntity entity = pool == null ? null : pool.poll();
+        if (entity == null) {
+            entity = new StandInEntity();
+        }
+        entity.reset(frame, position);
+        return entity;
+    }
+
+    private static void release(ObjectPool<StandInEntity> pool, StandInEntity entity) {
+        if (pool != null) {
+            pool.release(entity);
+        }
+    }
+
+    /**
+     * Shaped like the objects FXGL builds for one bullet entity, see the class comment.
+     */
+    private static final class StandInEntity {
+        private final Map<Class<?>, Object> components = new HashMap<>();
+        private final Map<String, Object> properties = new HashMap<>();
+        private final double[] transform = new double[9];
+        private final List<double[]> hitBoxes = new ArrayList<>(1);
+        private final List<Object> ignoredTypes = new ArrayList<>(2);
+        private final double[] velocity = new double[2];
+        private final List<Object> viewNodes = new ArrayList<>(1);
+        private int spawnFrame;
+        private double x;
+
+        private StandInEntity() {
+            hitBoxes.add(new double[]{0, 0, 8, 10});
+            viewNodes.add(new double[16]);
+            components.put(double[].class, transform);
+            components.put(List.class, hitBoxes);
+            components.put(ArrayList.class, ignoredTypes);
+            components.put(Object.class, velocity);
+            properties.put("type", "BULLET");
+        }
+
+        private void reset(int frame, long position) {
+            spawnFrame = frame;
+            x = position;
+            transform[0] = position;
+            velocity[0] = 350;
+            ignoredTypes.clear();
+            ignoredTypes.add(properties.get("type"));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Level.LevelWriter;
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares loading a level from its TMX file with loading the binary level {@code LevelCompiler}
+ * makes from it, for {@code tankgamemapnewwalls.tmx} and for a 512x512 tile map made by
+ * repeating its tiles and walls.
+ *
+ * - **Cold**: one load in a fresh JVM, which is what the game pays on every start. This includes
+ *   loading the XML parser or the reader classes. The median of several JVMs is printed.
+ * - **Warm**: the best of many loads in this JVM, the pure parsing cost.
+ *
+ * Both formats are checked to give the same map. Only reading the map is timed; building the
+ * FXGL entities from it is the same for both.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.LevelLoadBenchmark}
+ */
+public final class LevelLoadBenchmark {
+
+    private static final int COLD_RUNS = 5;
+    private static final int WARM_ROUNDS = 20;
+
+    private LevelLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2) {
+            // Child JVM, one cold load
+            long start = System.nanoTime();
+            TmxMap map = load(args[0], Path.of(args[1]));
+            long nanos = System.nanoTime() - start;
+            System.out.println(nanos + " " + map.getObjects().size());
+            return;
+        }
+
+        Path folder = Files.createTempDirectory("levels");
+        TmxMap small = TmxMap.load("tmx/tankgamemapnewwalls.tmx");
+        Path smallTmx = folder.resolve("small.tmx");
+        try (InputStream in = LevelLoadBenchmark.class.getResourceAsStream(TmxMap.LEVELS_ROOT + "tmx/tankgamemapnewwalls.tmx")) {
+            Files.copy(in, smallTmx);
+        }
+        Path bigTmx = folder.resolve("big.tmx");
+        writeTmx(BenchmarkMaps.repeat(small, 512), bigTmx);
+
+        System.out.printf("%-16s %12s %12s %12s %12s%n", "", "file", "cold", "warm", "speedup");
+        for (Path tmx : List.of(smallTmx, bigTmx)) {
+            TmxMap parsed;
+            try (InputStream in = Files.newInputStream(tmx)) {
+                parsed = TmxMap.read(in);
+            }
+            Path compiled = tmx.resolveSibling(tmx.getFileName().toString().replace(".tmx", ".tlvl"));
+            LevelWriter.write(parsed, compiled);
+            if (!same(parsed, LevelReader.read(compiled))) {
+                throw new IllegalStateException("Compiled level differs from " + tmx);
+            }
+
+            String name = parsed.getWidth() + "x" + parsed.getHeight();
+            double tmxCold = cold("tmx", tmx);
+            double tmxWarm = warm("tmx", tmx);
+            double binCold = cold("binary", compiled);
+            double binWarm = warm("binary", compiled);
+            System.out.printf("%-16s %,10d B %9.2f ms %9.2f ms%n", name + " TMX", Files.size(tmx), tmxCold, tmxWarm);
+            System.out.printf("%-16s %,10d B %9.2f ms %9.2f ms %6.1fx cold %5.1fx warm%n", name + " binary",
+                    Files.size(compiled), binCold, binWarm, tmxCold / binCold, tmxWarm / binWarm);
+        }
+
+        try (var files = Files.list(folder)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(folder);
+    }
+
+    private static TmxMap load(String format, Path file) throws IOException {
+        if (format.equals("tmx")) {
+            try (InputStream in = Files.newInputStream(file)) {
+                return TmxMap.read(in);
+            }
+        }
+        return LevelReader.read(file);
+    }
+
+    private static double cold(String format, Path file) throws IOException, InterruptedException {
+        double[] millis = new double[COLD_RUNS];
+        for (int i = 0; i < COLD_RUNS; i++) {
+            Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"), LevelLoadBenchmark.class.getName(),
+                    format, file.toString()).redirectErrorStream(true).start();
+            String line;
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                line = out.readLine();
+            }
+            if (process.waitFor() != 0 || line == null) {
+                throw new IllegalStateException("Child JVM failed: " + line);
+            }
+            millis[i] = Long.parseLong(line.split(" ")[0]) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[COLD_RUNS / 2];
+    }
+
+    private static double warm(String format, Path file) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < WARM_ROUNDS; round++) {
+            long start = System.nanoTime();
+            load(format, file);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    private static void writeTmx(TmxMap map, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write(String.format(Locale.ROOT, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>%n<map version=\"1.10\" "
+                            + "orientation=\"orthogonal\" renderorder=\"right-down\" width=\"%d\" height=\"%d\" "
+                            + "tilewidth=\"%d\" tileheight=\"%d\" infinite=\"0\">%n",
+                    map.getWidth(), map.getHeight(), map.getTileWidth(), map.getTileHeight()));
+            for (TmxMap.Tileset tileset : map.getTilesets()) {
+                out.write(String.format(Locale.ROOT, " <tileset firstgid=\"%d\" name=\"%s\" tilewidth=\"%d\" tileheight=\"%d\" "
+                                + "tilecount=\"%d\" columns=\"%d\">%n  <image source=\"%s\"/>%n </tileset>%n",
+                        tileset.firstGid(), tileset.name(), tileset.tileWidth(), tileset.tileHeight(),
+                        tileset.tileCount(), tileset.columns(), tileset.image()));
+            }
+            for (TmxMap.TileLayer layer : map.getTileLayers()) {
+                out.write(String.format(" <layer name=\"%s\" width=\"%d\" height=\"%d\">%n  <data encoding=\"csv\">%n",
+                        layer.name(), layer.width(), layer.height()));
+                StringBuilder row = new StringBuilder();
+                for (int r = 0; r < layer.height(); r++) {
+                    row.setLength(0);
+                    for (int c = 0; c < layer.width(); c++) {
+                        row.append(layer.gid(c, r));
+                        if (c < layer.width() - 1 || r < layer.height() - 1) {
+                            row.append(',');
+                        }
+                    }
+                    out.write(row.append('\n').toString());
+                }
+                out.write("</data>\n </layer>\n");
+            }
+            String group = null;
+            for (TmxMap.MapObject object : map.getObjects()) {
+                if (!object.group().equals(group)) {
+                    if (group != null) {
+                        out.write(" </objectgroup>\n");
+                    }
+                    group = object.group();
+                    out.write(" <objectgroup name=\"" + group + "\">\n");
+                }
+                out.write(String.format(Locale.ROOT, "  <object type=\"%s\" x=\"%s\" y=\"%s\" width=\"%s\" height=\"%s\"/>%n",
+                        object.type(), object.x(), object.y(), object.width(), object.height()));
+            }
+            if (group != null) {
+                out.write(" </objectgroup>\n");
+            }
+            out.write("</map>\n");
+        }
+    }
+
+    private static boolean same(TmxMap a, TmxMap b) {
+        if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight() || a.getTileWidth() != b.getTileWidth()
+                || a.getTileHeight() != b.getTileHeight() || !a.getTilesets().equals(b.getTilesets())
+                || !a.getObjects().equals(b.getObjects()) || a.getTileLayers().size() != b.getTileLayers().size()) {
+            return false;
+        }
+        for (int i = 0; i < a.getTileLayers().size(); i++) {
+            TmxMap.TileLayer x = a.getTileLayers().get(i);
+            TmxMap.TileLayer y = b.getTileLayers().get(i);
+            if (!x.name().equals(y.name()) || x.width() != y.width() || !Arrays.equals(x.gids(), y.gids())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.AI.SightGrid;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import com.example.ooptankgame.Simulation.MatchResult;
+import com.example.ooptankgame.Simulation.PlayerBot;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures what aiming through a {@link SightGrid} changes for enemy shooting, and what the
+ * raycasts cost.
+ *
+ * - **Bullets**: Plays the same seeded headless matches with enemies firing blindly and with
+ *   enemies firing only when the player is in sight ahead, and prints the enemy bullets spawned per minute
+ *   of game time, the outcomes and the simulation speed.
+ * - **Raycasts**: On a 512x512 tile map made by repeating the game's map, 1000 enemies wander
+ *   around and ask every frame whether they can see the player along their row and column, the
+ *   worst case of every enemy wanting to shoot at once. Prints the time per query and the share
+ *   answered from the cache, for a cache of one entry (no caching) and larger ones.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.LineOfSightBenchmark}
+ */
+public final class LineOfSightBenchmark {
+
+    private static final int MATCHES = 200;
+    private static final long MAX_TICKS = 60 * 60 * 5;
+    private static final int[] CACHE_SIZES = {1, 1024, 4096, 65536};
+    private static final int ENEMIES = 1000;
+    private static final int FRAMES = 3000;
+    private static final int SPEED = 2;
+
+    private LineOfSightBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        TmxMap map = TmxMap.load(HeadlessSimulation.DEFAULT_MAP);
+        matches(map, true);
+        System.out.println("Bullets, " + MATCHES + " matches of at most " + MAX_TICKS / 3600 + " minutes");
+        matches(map, false);
+        matches(map, true);
+
+        WallBitmap walls = WallBitmap.rasterize(BenchmarkMaps.repeat(map, 512));
+        raycasts(walls, 4096, false);
+        System.out.println();
+        System.out.println("Raycasts, " + ENEMIES + " enemies on a 512x512 tile map, two queries each per frame");
+        for (int cacheSize : CACHE_SIZES) {
+            raycasts(walls, cacheSize, true);
+        }
+    }
+
+    private static void matches(TmxMap map, boolean lineOfSight) {
+        long enemyShots = 0;
+        double seconds = 0;
+        long ticks = 0;
+        int wins = 0;
+        int losses = 0;
+        long start = System.nanoTime();
+        for (int seed = 1; seed <= MATCHES; seed++) {
+            HeadlessSimulation simulation = new HeadlessSimulation(map, HeadlessSimulation.DEFAULT_TIMESTEP, seed,
+                    new PlayerBot(seed));
+            simulation.setLineOfSight(lineOfSight);
+            MatchResult result = simulation.run(MAX_TICKS);
+            enemyShots += result.enemyShots();
+            seconds += result.seconds();
+            ticks += result.ticks();
+            wins += result.outcome() == MatchResult.Outcome.WIN ? 1 : 0;
+            losses += result.outcome() == MatchResult.Outcome.LOSS ? 1 : 0;
+        }
+        double wall = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %-14s %6.1f enemy bullets per minute, %d wins, %d losses, %.1f minutes on average,"
+                        + " %.0f ticks/s%n", lineOfSight ? "line of sight" : "blind fire", enemyShots / seconds * 60,
+                wins, losses, seconds / MATCHES / 60, ticks / wall);
+    }
+
+    private static void raycasts(WallBitmap walls, int cacheSize, boolean print) {
+        SightGrid grid = new SightGrid(walls, SightGrid.DEFAULT_TILE_SIZE, cacheSize);
+        SplittableRandom random = new SplittableRandom(1);
+        int width = walls.getColumns() * walls.getCellSize();
+        int height = walls.getRows() * walls.getCellSize();
+        // Enemies within a screen or two of the player, where they matter
+        int range = 1024;
+        double[] player = {width / 2.0, height / 2.0, 0};
+        double[][] enemies = new double[ENEMIES][];
+        for (int i = 0; i < ENEMIES; i++) {
+            enemies[i] = new double[]{player[0] + random.nextInt(-range, range), player[1] + random.nextInt(-range, range),
+                    random.nextInt(4)};
+        }
+        int tile = grid.getTileSize();
+        long clear = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            wander(player, random, width, height);
+            int playerColumn = (int) (player[0] / tile);
+            int playerRow = (int) (player[1] / tile);
+            for (double[] enemy : enemies) {
+                wander(enemy, random, width, height);
+                int column = (int) (enemy[0] / tile);
+                int row = (int) (enemy[1] / tile);
+                clear += grid.isClear(column, row, playerColumn, row) ? 1 : 0;
+                clear += grid.isClear(column, row, column, playerRow) ? 1 : 0;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        if (print) {
+            System.out.printf("  cache %6d entries %6.1f ns per query, %5.1f%% cached, %4.1f tiles stepped per query,"
+                            + " %.1f%% clear, %.2f ms per frame%n", cacheSize, nanos / (double) grid.getQueries(),
+                    100.0 * grid.getCacheHits() / grid.getQueries(), grid.getSteps() / (double) grid.getQueries(),
+                    100.0 * clear / grid.getQueries(), nanos / 1e6 / FRAMES);
+        }
+    }
+
+    /**
+     * Keeps going one way and now and then turns, at tank speed, as {x, y, heading}.
+     */
+    private static void wander(double[] position, SplittableRandom random, int width, int height) {
+        if (random.nextInt(60) == 0) {
+            position[2] = random.nextInt(4);
+        }
+        int heading = (int) position[2];
+        position[0] = Math.max(0, Math.min(width - 1, position[0] + (heading == 1 ? SPEED : heading == 3 ? -SPEED : 0)));
+        position[1] = Math.max(0, Math.min(height - 1, position[1] + (heading == 2 ? SPEED : heading == 0 ? -SPEED : 0)));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.AI.DecisionScheduler;
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.AI.SightGrid;
+import com.example.ooptankgame.Bullets.BulletSystem;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Measures how enemy decisions scale when a {@link DecisionScheduler} computes them on 1, 2, 4
+ * and 8 threads, for 1000 and 5000 enemies on a 128x128 tile map made by repeating the game's map.
+ *
+ * Every enemy decides every frame the way {@code EnemyAIComponent} does: it captures its state,
+ * rolls its direction and checks whether a shot would reach the player through a shared
+ * {@link SightGrid} (every frame instead of only when it wants to shoot, the worst case), and
+ * then turns, moves and counts its shot on the main thread. The player wanders around the middle
+ * of the enemies.
+ *
+ * Prints the time the scheduler takes per frame, capturing, computing and applying together, its
+ * 99th percentile and the speedup over one thread, plus a hash of where every enemy ended up and
+ * how often it shot, which is the same for every thread count. Speedups are bounded by the cores
+ * of the machine, which it prints first, and by the applying, which stays on the main thread.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.ParallelAiBenchmark}
+ */
+public final class ParallelAiBenchmark {
+
+    private static final int[] ENEMY_COUNTS = {1000, 5000};
+    private static final int[] THREADS = {1, 2, 4, 8};
+    private static final double ENEMY_SIZE = 39;
+    private static final int FRAMES = 2000;
+    private static final int SPEED = 2;
+
+    private ParallelAiBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        WallBitmap walls = WallBitmap.rasterize(BenchmarkMaps.repeat(TmxMap.load("tmx/tankgamemapnewwalls.tmx"), 128));
+        System.out.printf("%d cores available%n", Runtime.getRuntime().availableProcessors());
+        run(walls, 1000, 2, false, 0);
+        for (int count : ENEMY_COUNTS) {
+            System.out.printf("%d enemies%n", count);
+            double single = 0;
+            for (int threads : THREADS) {
+                double millis = run(walls, count, threads, true, single);
+                if (threads == 1) {
+                    single = millis;
+                }
+            }
+        }
+    }
+
+    private static double run(WallBitmap walls, int count, int threads, boolean print, double single) {
+        SightGrid sight = new SightGrid(walls);
+        DecisionScheduler scheduler = new DecisionScheduler(Integer.MAX_VALUE, 0, threads);
+        SplittableRandom random = new SplittableRandom(count);
+        double[] player = spawn(walls, random);
+        Enemy[] enemies = new Enemy[count];
+        for (int i = 0; i < count; i++) {
+            enemies[i] = new Enemy(new EnemyBrain(random.split()), walls, sight, player, spawn(walls, random));
+            scheduler.add(enemies[i]);
+        }
+        Dir playerDir = Dir.RIGHT;
+
+        long[] frameNanos = new long[FRAMES];
+        for (int frame = 0; frame < FRAMES; frame++) {
+            if (frame % 120 == 0) {
+                playerDir = Dir.values()[frame / 120 % 4];
+            }
+            Enemy.step(walls, player, playerDir);
+            long start = System.nanoTime();
+            scheduler.runFrame();
+            frameNanos[frame] = System.nanoTime() - start;
+        }
+
+        long hash = 17;
+        for (Enemy enemy : enemies) {
+            hash = hash * 31 + Double.doubleToLongBits(enemy.box[0]);
+            hash = hash * 31 + Double.doubleToLongBits(enemy.box[1]);
+            hash = hash * 31 + enemy.shots;
+        }
+        double millis = Arrays.stream(frameNanos).average().orElse(0) / 1e6;
+        if (print) {
+            Arrays.sort(frameNanos);
+            System.out.printf("  %d threads %7.3f ms per frame, p99 %.3f ms, %.2fx, result %016x%n", threads, millis,
+                    frameNanos[FRAMES * 99 / 100] / 1e6, single > 0 ? single / millis : 1.0, hash);
+        }
+        return millis;
+    }
+
+    private static double[] spawn(WallBitmap walls, SplittableRandom random) {
+        // Within a few screens of the middle, where they can see each other
+        int middle = walls.getColumns() * walls.getCellSize() / 2;
+        while (true) {
+            double x = middle + random.nextInt(-1500, 1500);
+            double y = middle + random.nextInt(-1500, 1500);
+            if (!walls.overlaps(x, y, x + ENEMY_SIZE, y + ENEMY_SIZE)) {
+                return new double[]{x, y, x + ENEMY_SIZE, y + ENEMY_SIZE};
+            }
+        }
+    }
+
+    /**
+     * An enemy as {@code EnemyAIComponent} runs it in a scheduled turn.
+     */
+    private static final class Enemy implements DecisionScheduler.ParallelAgent {
+        final EnemyBrain brain;
+        final WallBitmap walls;
+        final SightGrid sight;
+        final double[] player;
+        final double[] box;
+        Dir moveDir;
+        long shots = 0;
+
+        // Captured for compute
+        private final double[] target = new double[4];
+        private int frames;
+        private double x;
+        private double y;
+        private Dir dir;
+        private boolean shoot;
+
+        Enemy(EnemyBrain brain, WallBitmap walls, SightGrid sight, double[] player, double[] box) {
+            this.brain = brain;
+            this.walls = walls;
+            this.sight = sight;
+            this.player = player;
+            this.box = box;
+            this.moveDir = brain.initialDir();
+        }
+
+        @Override
+        public void capture(int frames) {
+            this.frames = frames;
+            x = (box[0] + box[2]) / 2;
+            y = (box[1] + box[3]) / 2;
+            dir = moveDir;
+            System.arraycopy(player, 0, target, 0, 4);
+        }
+
+        @Override
+        public void compute() {
+            dir = brain.nextDir(dir, frames);
+            boolean inSight = sight.canHit(x, y, dir, BulletSystem.HALF_WIDTH, target[0], target[1], target[2], target[3]);
+            shoot = brain.wantsToShoot(frames) && inSight;
+        }
+
+        @Override
+        public void apply() {
+            moveDir = dir;
+            if (step(walls, box, moveDir) < SPEED) {
+                Dir turn = brain.turnWhenBlocked();
+                if (turn != null) {
+                    moveDir = turn;
+                }
+            }
+            shots += shoot ? 1 : 0;
+        }
+
+        static int step(WallBitmap walls, double[] box, Dir dir) {
+            int dx = dir.getDx();
+            int dy = dir.getDy();
+            int steps = walls.stepsBeforeContact(box, dx, dy, SPEED);
+            box[0] += dx * steps;
+            box[1] += dy * steps;
+            box[2] += dx * steps;
+            box[3] += dy * steps;
+            return steps;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.AI.FlowField;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the enemy AI with 200 to 1000 enemies on the game's map and on a 512x512 tile map
+ * made by repeating it, while a player drives around at random.
+ *
+ * For each map and enemy count it prints:
+ * - **Random Roaming**: the cost per frame of the {@link EnemyBrain} rules the enemies use today,
+ *   and the share of their moves that a wall stops, which is wasted work and wasted play.
+ * - **Pursuit**: the same for enemies following one shared {@link FlowField} at the per-frame
+ *   cell budget of {@code PursuitField}, split into the search and the enemies' own steering,
+ *   the worst frame, the frames over the {@value #FRAME_BUDGET_MS} ms budget and how close the
+ *   enemies got to the player.
+ * - **A* per Tank**: what one path search per enemy would cost each time the player moves to
+ *   another cell, against one search shared by all of them.
+ *
+ * Tanks move against the walls only and pass through each other, the game's spatial index
+ * handles tank against tank the same way in both modes.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.PursuitBenchmark}
+ */
+public final class PursuitBenchmark {
+
+    private static final int[] ENEMY_COUNTS = {200, 500, 1000};
+    private static final double ENEMY_SIZE = 39;
+    private static final double PLAYER_WIDTH = 32;
+    private static final double PLAYER_HEIGHT = 30;
+    private static final int CELL_BUDGET = 8_192; // PursuitField.CELL_BUDGET
+    private static final double FRAME_BUDGET_MS = 1.0;
+    private static final int FRAMES = 3600; // One minute at 60 fps
+    private static final int SPEED = 2; // Math.round(100 px/s / 60)
+    private static final int A_STAR_SEARCHES = 50;
+    private static final Dir[] DIRS = Dir.values();
+
+    private PursuitBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        TmxMap small = TmxMap.load("tmx/tankgamemapnewwalls.tmx");
+        run("30x30 map", WallBitmap.rasterize(small));
+        run("512x512 map", WallBitmap.rasterize(BenchmarkMaps.repeat(small, 512)));
+    }
+
+    private static void run(String name, WallBitmap walls) {
+        long start = System.nanoTime();
+        FlowField field = new FlowField(walls, FlowField.DEFAULT_CELL_SIZE, ENEMY_SIZE, ENEMY_SIZE);
+        long built = System.nanoTime() - start;
+        int passable = 0;
+        for (int row = 0; row < field.getRows(); row++) {
+            for (int column = 0; column < field.getColumns(); column++) {
+                passable += field.isPassable(column, row) ? 1 : 0;
+            }
+        }
+        // Start the player where a good part of the map can reach it, enemies spawn in that part
+        SplittableRandom random = new SplittableRandom(3);
+        double[] player;
+        int reachable;
+        do {
+            player = spawn(field, 1, random, null)[0];
+            field.setTarget(player[0], player[1], player[0] + PLAYER_WIDTH, player[1] + PLAYER_HEIGHT);
+            field.update(Integer.MAX_VALUE);
+            reachable = 0;
+            for (int row = 0; row < field.getRows(); row++) {
+                for (int column = 0; column < field.getColumns(); column++) {
+                    reachable += field.distanceAt(column * field.getCellSize(), row * field.getCellSize()) >= 0 ? 1 : 0;
+                }
+            }
+        } while (reachable < passable / 4);
+        System.out.printf("%s: %dx%d cells of %d px, %,d passable, %,d of them connected to the player, built in %.1f ms%n",
+                name, field.getColumns(), field.getRows(), field.getCellSize(), passable, reachable, built / 1e6);
+
+        pursue(walls, new FlowField(walls, FlowField.DEFAULT_CELL_SIZE, ENEMY_SIZE, ENEMY_SIZE), field, player,
+                ENEMY_COUNTS[0], false); // Warm up
+        for (int enemies : ENEMY_COUNTS) {
+            roam(walls, field, enemies);
+            pursue(walls, new FlowField(walls, FlowField.DEFAULT_CELL_SIZE, ENEMY_SIZE, ENEMY_SIZE), field, player,
+                    enemies, true);
+        }
+        aStar(field, ENEMY_COUNTS);
+        System.out.println();
+    }
+
+    private static void roam(WallBitmap walls, FlowField field, int count) {
+        SplittableRandom random = new SplittableRandom(count);
+        double[][] boxes = spawn(field, count, random, field);
+        EnemyBrain[] brains = new EnemyBrain[count];
+        Dir[] dirs = new Dir[count];
+        for (int i = 0; i < count; i++) {
+            brains[i] = new EnemyBrain(random.split());
+            dirs[i] = brains[i].initialDir();
+        }
+        long moves = 0;
+        long blocked = 0;
+        long[] frameNanos = new long[FRAMES];
+        for (int frame = 0; frame < FRAMES; frame++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                dirs[i] = brains[i].nextDir(dirs[i]);
+                moves++;
+                if (move(walls, boxes[i], dirs[i], SPEED) < SPEED) {
+                    blocked++;
+                    brains[i].shootWhenBlocked();
+                    Dir turn = brains[i].turnWhenBlocked();
+                    if (turn != null) {
+                        dirs[i] = turn;
+                        moves++;
+                        blocked += move(walls, boxes[i], turn, SPEED) < SPEED ? 1 : 0;
+                    }
+                }
+            }
+            frameNanos[frame] = System.nanoTime() - start;
+        }
+        Arrays.sort(frameNanos);
+        System.out.printf("  %4d enemies  random roaming %7.3f ms per frame, worst %6.2f ms, %4.1f%% of moves blocked%n",
+                count, average(frameNanos) / 1e6, frameNanos[FRAMES - 1] / 1e6, 100.0 * blocked / moves);
+        System.out.printf("                p99 frame %.3f ms%n", frameNanos[FRAMES * 99 / 100] / 1e6);
+    }
+
+    /**
+     * @param reach a finished field around the player's start, enemies spawn where it reaches
+     */
+    private static void pursue(WallBitmap walls, FlowField field, FlowField reach, double[] playerStart, int count,
+                               boolean print) {
+        SplittableRandom random = new SplittableRandom(count);
+        double[][] boxes = spawn(reach, count, random, reach);
+        EnemyBrain[] brains = new EnemyBrain[count];
+        Dir[] dirs = new Dir[count];
+        for (int i = 0; i < count; i++) {
+            brains[i] = new EnemyBrain(random.split());
+            dirs[i] = brains[i].initialDir();
+        }
+        double[] player = {playerStart[0], playerStart[1], playerStart[0] + PLAYER_WIDTH, playerStart[1] + PLAYER_HEIGHT};
+        int startDistance = 0;
+        for (double[] box : boxes) {
+            startDistance += reach.distanceAt(box[0], box[1]);
+        }
+        Dir playerDir = Dir.RIGHT;
+
+        long moves = 0;
+        long blocked = 0;
+        long searchNanos = 0;
+        long[] frameNanos = new long[FRAMES];
+        for (int frame = 0; frame < FRAMES; frame++) {
+            // The player drives straight on and turns now and then, or when it hits a wall
+            if (frame % 90 == 0 || move(walls, player, playerDir, SPEED) < SPEED) {
+                playerDir = DIRS[random.nextInt(DIRS.length)];
+            }
+
+            long start = System.nanoTime();
+            field.setTarget(player[0], player[1], player[2], player[3]);
+            field.update(CELL_BUDGET);
+            long searched = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                double[] box = boxes[i];
+                Dir pursue = field.steer(box[0], box[1], dirs[i]);
+                int length = SPEED;
+                if (pursue != null) {
+                    dirs[i] = pursue;
+                    length = Math.min(SPEED, field.stepsToNextCell(box[0], box[1], pursue));
+                } else {
+                    dirs[i] = brains[i].nextDir(dirs[i]);
+                }
+                moves++;
+                if (move(walls, box, dirs[i], length) < length) {
+                    blocked++;
+                    // Same as EnemyAIComponent, only roaming enemies turn away from what blocks them
+                    brains[i].shootWhenBlocked();
+                    Dir turn = pursue == null ? brains[i].turnWhenBlocked() : null;
+                    if (turn != null) {
+                        dirs[i] = turn;
+                        moves++;
+                        blocked += move(walls, box, turn, SPEED) < SPEED ? 1 : 0;
+                    }
+                }
+            }
+            long end = System.nanoTime();
+            searchNanos += searched - start;
+            frameNanos[frame] = end - start;
+        }
+
+        if (!print) {
+            return;
+        }
+        int near = 0;
+        long endDistance = 0;
+        for (double[] box : boxes) {
+            int distance = field.distanceAt(box[0], box[1]);
+            near += distance >= 0 && distance <= 8 ? 1 : 0; // Within four tiles
+            endDistance += Math.max(0, distance);
+        }
+        int overBudget = 0;
+        for (long nanos : frameNanos) {
+            overBudget += nanos > FRAME_BUDGET_MS * 1e6 ? 1 : 0;
+        }
+        Arrays.sort(frameNanos);
+        System.out.printf("  %4d enemies  pursuit        %7.3f ms per frame, worst %6.2f ms, %4.1f%% of moves blocked%n",
+                count, average(frameNanos) / 1e6, frameNanos[FRAMES - 1] / 1e6, 100.0 * blocked / moves);
+        System.out.printf("                search %.3f ms per frame, %d searches, p99 frame %.3f ms, %d frames over %.1f ms%n",
+                searchNanos / 1e6 / FRAMES, field.getSearches(), frameNanos[FRAMES * 99 / 100] / 1e6, overBudget,
+                FRAME_BUDGET_MS);
+        System.out.printf("                path to the player %.1f tiles on average at the start, %.1f at the end, "
+                        + "%d of %d enemies within 4 tiles%n",
+                startDistance / 2.0 / count, endDistance / 2.0 / count, near, count);
+    }
+
+    /**
+     * Times a full flow field search against an A* search per enemy, between random cells that
+     * are connected to the player's start.
+     */
+    private static void aStar(FlowField field, int[] counts) {
+        SplittableRandom random = new SplittableRandom(7);
+        int columns = field.getColumns();
+        int rows = field.getRows();
+        double[][] ends = spawn(field, 2 * A_STAR_SEARCHES, random, field);
+        int[] heap = new int[4 * columns * rows];
+        int[] cost = new int[columns * rows];
+        int[] stamp = new int[columns * rows];
+        int[] closed = new int[columns * rows];
+        long aStarNanos = 0;
+        long expanded = 0;
+        for (int round = 1; round <= A_STAR_SEARCHES; round++) {
+            int from = cellOf(field, ends[2 * round - 2]);
+            int to = cellOf(field, ends[2 * round - 1]);
+            long start = System.nanoTime();
+            expanded += aStar(field, from, to, heap, cost, stamp, closed, round);
+            aStarNanos += System.nanoTime() - start;
+        }
+        double perSearch = aStarNanos / 1e6 / A_STAR_SEARCHES;
+
+        long fieldNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            double[] target = ends[round];
+            long start = System.nanoTime();
+            field.setTarget(target[0], target[1], target[0] + PLAYER_WIDTH, target[1] + PLAYER_HEIGHT);
+            field.update(Integer.MAX_VALUE);
+            fieldNanos = Math.min(fieldNanos, System.nanoTime() - start);
+        }
+        System.out.printf("  one flow field search for all enemies %.2f ms, one A* search %.2f ms (%,d cells),"
+                        + " so A* per enemy costs", fieldNanos / 1e6, perSearch, expanded / A_STAR_SEARCHES);
+        for (int count : counts) {
+            System.out.printf(" %,.0f ms for %d", perSearch * count, count);
+        }
+        System.out.println(" each time the player moves a cell");
+    }
+
+    private static int cellOf(FlowField field, double[] box) {
+        return (int) (box[1] / field.getCellSize()) * field.getColumns() + (int) (box[0] / field.getCellSize());
+    }
+
+    /**
+     * A* with Manhattan distance over the passable cells, returns the number of cells expanded.
+     */
+    private static int aStar(FlowField field, int from, int to, int[] heap, int[] cost, int[] stamp, int[] closed, int round) {
+        int columns = field.getColumns();
+        int rows = field.getRows();
+        int tx = to % columns;
+        int ty = to / columns;
+        int size = 0;
+        cost[from] = 0;
+        stamp[from] = round;
+        heap[size++] = from;
+        int expanded = 0;
+        while (size > 0) {
+            // Pop the cell with the lowest cost plus estimate, skipping ones already expanded
+            int cell = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, cost, tx, ty, columns);
+            if (closed[cell] == round) {
+                continue;
+            }
+            closed[cell] = round;
+            expanded++;
+            if (cell == to) {
+                break;
+            }
+            int column = cell % columns;
+            int row = cell / columns;
+            for (Dir dir : DIRS) {
+                int c = column + dir.getDx();
+                int r = row + dir.getDy();
+                int next = r * columns + c;
+                if (c < 0 || r < 0 || c >= columns || r >= rows || !field.isPassable(c, r) || closed[next] == round) {
+                    continue;
+                }
+                if (stamp[next] != round || cost[cell] + 1 < cost[next]) {
+                    stamp[next] = round;
+                    cost[next] = cost[cell] + 1;
+                    heap[size] = next;
+                    siftUp(heap, size++, cost, tx, ty, columns);
+                }
+            }
+        }
+        return expanded;
+    }
+
+    private static int score(int cell, int[] cost, int tx, int ty, int columns) {
+        return cost[cell] + Math.abs(cell % columns - tx) + Math.abs(cell / columns - ty);
+    }
+
+    private static void siftUp(int[] heap, int index, int[] cost, int tx, int ty, int columns) {
+        int cell = heap[index];
+        int score = score(cell, cost, tx, ty, columns);
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (score(heap[parent], cost, tx, ty, columns) <= score) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = cell;
+    }
+
+    private static void siftDown(int[] heap, int size, int[] cost, int tx, int ty, int columns) {
+        if (size == 0) {
+            return;
+        }
+        int index = 0;
+        int cell = heap[0];
+        int score = score(cell, cost, tx, ty, columns);
+        while (2 * index + 1 < size) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && score(heap[child + 1], cost, tx, ty, columns) < score(heap[child], cost, tx, ty, columns)) {
+                child++;
+            }
+            if (score(heap[child], cost, tx, ty, columns) >= score) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = cell;
+    }
+
+    /**
+     * Boxes at random passable cells, only ones {@code reach} leads from if it is not null.
+     */
+    private static double[][] spawn(FlowField field, int count, SplittableRandom random, FlowField reach) {
+        double[][] boxes = new double[count][];
+        for (int i = 0; i < count; i++) {
+            int cell;
+            do {
+                cell = randomPassable(field, random);
+            } while (reach != null && reach.distanceAt((cell % field.getColumns()) * field.getCellSize(),
+                    (cell / field.getColumns()) * field.getCellSize()) < 0);
+            double x = (cell % field.getColumns()) * (double) field.getCellSize();
+            double y = (cell / field.getColumns()) * (double) field.getCellSize();
+            boxes[i] = new double[]{x, y, x + ENEMY_SIZE, y + ENEMY_SIZE};
+        }
+        return boxes;
+    }
+
+    private static int randomPassable(FlowField field, SplittableRandom random) {
+        while (true) {
+            int column = random.nextInt(field.getColumns());
+            int row = random.nextInt(field.getRows());
+            if (field.isPassable(column, row)) {
+                return row * field.getColumns() + column;
+            }
+        }
+    }
+
+    private static int move(WallBitmap walls, double[] box, Dir dir, int length) {
+        int dx = dir.getDx();
+        int dy = dir.getDy();
+        int steps = walls.stepsBeforeContact(box, dx, dy, length);
+        box[0] += dx * steps;
+        box[1] += dy * steps;
+        box[2] += dx * steps;
+        box[3] += dy * steps;
+        return steps;
+    }
+
+    private static double average(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / (double) values.length;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.almasb.fxgl.ui.ProgressBar;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Profiling.RollingStats;
+import com.example.ooptankgame.Render.SpriteBatch;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the frame rate of drawing 50, 500 and 2000 tanks with their health bars, once as one
+ * image and one {@link ProgressBar} node per tank, the way {@code TankEntityFactory} builds them,
+ * and once onto a single canvas through the {@link SpriteBatch} of the {@code --canvas-render} path.
+ *
+ * Every frame each tank drives two pixels on, now and then turns or loses or regains health, and
+ * bounces off the window's edges. After a second of warm-up the benchmark counts the frames of
+ * the next five seconds and records the time between them, then moves on to the next case, and
+ * prints for each:
+ * - **Frame Rate**: frames per second and the median, 99th percentile and worst frame time.
+ * - **Scene Graph**: the number of nodes the scene has to lay out and render.
+ *
+ * JavaFX normally stops at 60 frames per second, the benchmark asks for full speed with
+ * {@code javafx.animation.fullspeed} so the frame rate shows what drawing costs. It needs a
+ * display, unlike the other benchmarks, or with {@code --headless} Monocle's headless platform,
+ * which the benchmarks jar includes. There JavaFX's software renderer draws
+ * every frame, so both ways are far slower than on a graphics card, the node scene graph most.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.RenderBenchmark [--headless]}
+ */
+public final class RenderBenchmark {
+
+    private RenderBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        if (System.getProperty("javafx.animation.fullspeed") == null) {
+            System.setProperty("javafx.animation.fullspeed", "true");
+        }
+        if (Arrays.asList(args).contains("--headless")) {
+            // Monocle's headless screen, large enough for the window, drawn by the software renderer
+            System.setProperty("glass.platform", "Monocle");
+            System.setProperty("monocle.platform", "Headless");
+            System.setProperty("headless.geometry", "1920x1200-32");
+            System.setProperty("prism.order", "sw");
+        }
+        // Not launched as the main class, which the java launcher refuses to run from the class path
+        Application.launch(Window.class, args);
+    }
+
+    /**
+     * The window the tanks are drawn in, one case after the other.
+     */
+    public static final class Window extends Application {
+
+        private static final int[] TANKS = {50, 500, 2000};
+        private static final int SIZE = 960;
+        private static final int TANK_SIZE = 39;
+        private static final int BAR_HEIGHT = 8;
+        private static final double SPEED = 2;
+        private static final long WARMUP_NANOS = 1_000_000_000L;
+        private static final long MEASURE_NANOS = 5_000_000_000L;
+
+        private AnimationTimer timer;
+        private final SplittableRandom random = new SplittableRandom(1);
+        private Image tankImage;
+        private Pane root;
+
+        // One case: the tanks and how they are drawn
+        private int tanks;
+        private boolean canvas;
+        private double[] x;
+        private double[] y;
+        private Dir[] dir;
+        private int[] hp;
+        private Group[] nodes;
+        private ImageView[] images;
+        private ProgressBar[] bars;
+        private SpriteBatch batch;
+        private int caseIndex = 0;
+        private long caseStart;
+        private long lastFrame;
+        private int frames;
+        private final RollingStats frameNanos = new RollingStats(1 << 16);
+
+        @Override
+        public void start(Stage stage) {
+            tankImage = new Image(RenderBenchmark.class.getResource("/assets/textures/tanks/yellowTank.png").toExternalForm());
+            root = new Pane();
+            stage.setScene(new Scene(root, SIZE, SIZE, Color.WHITE));
+            stage.setTitle("Render benchmark");
+            stage.show();
+            setUp();
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    frame(now);
+                }
+            };
+            timer.start();
+        }
+
+        private void setUp() {
+            tanks = TANKS[caseIndex / 2];
+            canvas = caseIndex % 2 == 1;
+            x = new double[tanks];
+            y = new double[tanks];
+            dir = new Dir[tanks];
+            hp = new int[tanks];
+            root.getChildren().clear();
+            for (int i = 0; i < tanks; i++) {
+                x[i] = random.nextDouble(SIZE - TANK_SIZE);
+                y[i] = random.nextDouble(SIZE - TANK_SIZE - BAR_HEIGHT);
+                dir[i] = Dir.values()[random.nextInt(4)];
+                hp[i] = 2;
+            }
+            if (canvas) {
+                Canvas target = new Canvas(SIZE, SIZE);
+                batch = new SpriteBatch(target);
+                root.getChildren().add(target);
+            } else {
+                nodes = new Group[tanks];
+                images = new ImageView[tanks];
+                bars = new ProgressBar[tanks];
+                for (int i = 0; i < tanks; i++) {
+                    images[i] = new ImageView(tankImage);
+                    bars[i] = new ProgressBar(false);
+                    bars[i].setFill(Color.RED);
+                    bars[i].setMaxValue(2);
+                    bars[i].setWidth(TANK_SIZE);
+                    bars[i].setHeight(BAR_HEIGHT);
+                    bars[i].setTranslateY(TANK_SIZE);
+                    bars[i].setCurrentValue(hp[i]);
+                    nodes[i] = new Group(images[i], bars[i]);
+                    root.getChildren().add(nodes[i]);
+                }
+            }
+            frameNanos.clear();
+            caseStart = 0;
+            lastFrame = 0;
+            frames = 0;
+        }
+
+        private void frame(long now) {
+            if (caseStart == 0) {
+                caseStart = now;
+            }
+            if (now - caseStart >= WARMUP_NANOS) {
+                if (lastFrame != 0 && now - caseStart > WARMUP_NANOS) {
+                    frameNanos.add(now - lastFrame);
+                    frames++;
+                }
+                if (now - caseStart >= WARMUP_NANOS + MEASURE_NANOS) {
+                    report();
+                    caseIndex++;
+                    if (caseIndex == TANKS.length * 2) {
+                        // Platform.exit() returns at once, the timer would go on into a case that does not exist
+                        timer.stop();
+                        Platform.exit();
+                        return;
+                    }
+                    setUp();
+                    return;
+                }
+            }
+            lastFrame = now;
+            move();
+            draw();
+        }
+
+        private void move() {
+            for (int i = 0; i < tanks; i++) {
+                if (random.nextInt(60) == 0) {
+                    dir[i] = Dir.values()[random.nextInt(4)];
+                }
+                if (random.nextInt(600) == 0) {
+                    hp[i] = hp[i] == 2 ? 1 : 2;
+                }
+                x[i] += dir[i].getDx() * SPEED;
+                y[i] += dir[i].getDy() * SPEED;
+                if (x[i] < 0 || y[i] < 0 || x[i] > SIZE - TANK_SIZE || y[i] > SIZE - TANK_SIZE - BAR_HEIGHT) {
+                    x[i] = Math.max(0, Math.min(SIZE - TANK_SIZE, x[i]));
+                    y[i] = Math.max(0, Math.min(SIZE - TANK_SIZE - BAR_HEIGHT, y[i]));
+                    dir[i] = Dir.values()[(dir[i].ordinal() + 2) % 4];
+                }
+            }
+        }
+
+        private void draw() {
+            if (canvas) {
+                batch.begin(0, 0);
+                for (int i = 0; i < tanks; i++) {
+                    batch.draw(tankImage, quarterTurns(dir[i]), x[i] + TANK_SIZE / 2.0, y[i] + TANK_SIZE / 2.0, 1);
+                }
+                // The bars after the tanks, as the CanvasRenderer draws them
+                for (int i = 0; i < tanks; i++) {
+                    batch.drawBar(batch.bar(Color.RED, hp[i], 2, TANK_SIZE, BAR_HEIGHT), x[i], y[i] + TANK_SIZE);
+                }
+                return;
+            }
+            for (int i = 0; i < tanks; i++) {
+                nodes[i].setTranslateX(x[i]);
+                nodes[i].setTranslateY(y[i]);
+                images[i].setRotate(quarterTurns(dir[i]) * 90);
+                if (bars[i].getCurrentValue() != hp[i]) {
+                    bars[i].setCurrentValue(hp[i]);
+                }
+            }
+        }
+
+        private static int quarterTurns(Dir dir) {
+            return switch (dir) {
+                case UP -> 0;
+                case RIGHT -> 1;
+                case DOWN -> 2;
+                case LEFT -> 3;
+            };
+        }
+
+        private void report() {
+            RollingStats.Summary summary = frameNanos.summary();
+            System.out.printf("%4d tanks, %-6s: %6.1f fps, frame p50 %6.2f ms p99 %6.2f ms max %6.2f ms, %5d scene nodes%n",
+                    tanks, canvas ? "canvas" : "nodes", frames / (MEASURE_NANOS / 1e9),
+                    summary.p50() / 1e6, summary.p99() / 1e6, summary.max() / 1e6, countNodes(root));
+        }
+
+        private static int countNodes(Parent parent) {
+            int count = 1;
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                count += child instanceof Parent p ? countNodes(p) : 1;
+            }
+            return count;
+        }
+    }
+}
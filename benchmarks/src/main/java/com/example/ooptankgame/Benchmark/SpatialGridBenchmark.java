@@ -0,0 +1,168 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.Collision.SpatialGrid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the per-frame cost of tank movement collision with and without the
+ * {@link SpatialGrid} broadphase, at 55, 500 and 5,000 wall objects.
+ *
+ * The benchmark mirrors what {@code PlayerComponent.move()} and {@code EnemyAIComponent.move()}
+ * do each frame: every tank steps one pixel at a time along its direction and tests its box
+ * against the blocking boxes after each step, stopping at the first hit. The "full scan"
+ * variant tests every wall like the old {@code getEntitiesCopy()} loop; the "grid" variant
+ * first asks the grid for the walls near the path. Both run the exact same box test.
+ *
+ * The map grows with the wall count so wall density stays the same as on
+ * {@code tankgamemapnewwalls.tmx} (55 walls on 30x30 tiles).
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.SpatialGridBenchmark}
+ */
+public final class SpatialGridBenchmark {
+
+    private static final int TILE = SpatialGrid.TILE_SIZE;
+    private static final int TANKS = 7;
+    private static final int FRAMES = 20_000;
+    private static final int ROUNDS = 5;
+    private static final int[] WALL_COUNTS = {55, 500, 5_000};
+    // 60 FPS at speed 100 px/s rounds to 2 pixel steps per frame
+    private static final int STEPS_PER_FRAME = Math.round((float) (100.0 / 60.0));
+    private static final int[][] DIRS = {{0, -1}, {1, 0}, {0, 1}, {-1, 0}};
+
+    // Consumed results so the JIT cannot drop the collision loops
+    static long sink;
+
+    private SpatialGridBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        System.out.printf("%8s %10s %16s %16s %8s%n", "walls", "map tiles", "full scan ns/f", "grid ns/f", "speedup");
+        for (int walls : WALL_COUNTS) {
+            Scenario scenario = new Scenario(walls, 42);
+            // First rounds double as warm up, keep the best round of each path
+            double full = Double.MAX_VALUE;
+            double grid = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                full = Math.min(full, scenario.run(FRAMES, false));
+                grid = Math.min(grid, scenario.run(FRAMES, true));
+            }
+            System.out.printf("%8d %10s %16.0f %16.0f %7.1fx%n",
+                    walls, scenario.tiles + "x" + scenario.tiles, full, grid, full / grid);
+        }
+    }
+
+    private static final class Scenario {
+        private final int tiles;
+        private final List<double[]> walls = new ArrayList<>();
+        private final double[][] tanks = new double[TANKS][4];
+        private final int[] tankDirs = new int[TANKS];
+        private final SpatialGrid<double[]> grid;
+        private final List<double[]> candidates = new ArrayList<>();
+        private final Random random;
+        private final long seed;
+        private long checksum;
+
+        private Scenario(int wallCount, long seed) {
+            this.seed = seed;
+            this.random = new Random(seed);
+            this.tiles = (int) Math.ceil(30 * Math.sqrt(wallCount / 55.0));
+            double size = tiles * TILE;
+
+            grid = new SpatialGrid<>(TILE, tiles, tiles);
+            for (int i = 0; i < wallCount; i++) {
+                double w = 24 + random.nextDouble() * 100;
+                double h = 24 + random.nextDouble() * 100;
+                if (random.nextBoolean()) {
+                    double t = w;
+                    w = h;
+                    h = t;
+                }
+                double x = random.nextDouble() * (size - w);
+                double y = random.nextDouble() * (size - h);
+                double[] wall = {x, y, x + w, y + h};
+                walls.add(wall);
+                grid.insert(wall, x, y, x + w, y + h);
+            }
+        }
+
+        /**
+         * Runs the given number of frames and returns the average nanoseconds per frame.
+         */
+        private double run(int frames, boolean useGrid) {
+            reset();
+            long start = System.nanoTime();
+            for (int frame = 0; frame < frames; frame++) {
+                for (int t = 0; t < TANKS; t++) {
+                    moveTank(t, useGrid);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            sink += checksum;
+            return (double) elapsed / frames;
+        }
+
+        private void reset() {
+            Random spawn = new Random(seed);
+            double size = tiles * TILE;
+            for (int t = 0; t < TANKS; t++) {
+                double x = spawn.nextDouble() * (size - 32);
+                double y = spawn.nextDouble() * (size - 30);
+                tanks[t][0] = x;
+                tanks[t][1] = y;
+                tanks[t][2] = x + 32;
+                tanks[t][3] = y + 30;
+                tankDirs[t] = spawn.nextInt(4);
+            }
+            random.setSeed(seed);
+            checksum = 0;
+        }
+
+        private void moveTank(int t, boolean useGrid) {
+            double[] tank = tanks[t];
+            int dx = DIRS[tankDirs[t]][0];
+            int dy = DIRS[tankDirs[t]][1];
+
+            List<double[]> blockList;
+            if (useGrid) {
+                candidates.clear();
+                grid.query(tank[0] + Math.min(0, dx * STEPS_PER_FRAME), tank[1] + Math.min(0, dy * STEPS_PER_FRAME),
+                        tank[2] + Math.max(0, dx * STEPS_PER_FRAME), tank[3] + Math.max(0, dy * STEPS_PER_FRAME),
+                        candidates);
+                blockList = candidates;
+            } else {
+                blockList = walls;
+            }
+
+            for (int i = 0; i < STEPS_PER_FRAME; i++) {
+                translate(tank, dx, dy);
+                boolean collision = false;
+                for (int j = 0; j < blockList.size(); j++) {
+                    if (overlaps(tank, blockList.get(j))) {
+                        collision = true;
+                        break;
+                    }
+                }
+                if (collision) {
+                    translate(tank, -dx, -dy);
+                    tankDirs[t] = random.nextInt(4);
+                    checksum++;
+                    break;
+                }
+            }
+        }
+
+        private static void translate(double[] box, int dx, int dy) {
+            box[0] += dx;
+            box[1] += dy;
+            box[2] += dx;
+            box[3] += dy;
+        }
+
+        private static boolean overlaps(double[] a, double[] b) {
+            return a[2] >= b[0] && b[2] >= a[0] && a[3] >= b[1] && b[3] >= a[1];
+        }
+    }
+}
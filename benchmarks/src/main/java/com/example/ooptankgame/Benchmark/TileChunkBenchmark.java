@@ -0,0 +1,140 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.Level.TileChunkBaker;
+import com.example.ooptankgame.Level.TileChunkStreamer;
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures chunked tile rendering the way {@code TileChunksComponent} does it, on the game's map
+ * and on a 512x512 tile map made by repeating it, with a 960x960 window following a player that
+ * drives around the map.
+ *
+ * For each map it prints:
+ * - **Scene Graph**: tile nodes of one full-map image per layer, of one node per tile, and of the
+ *   visible chunks, average and largest, along with the pixels each approach keeps in memory.
+ * - **Frame Cost**: the time {@code TileChunkStreamer.update} takes on the first frame, which bakes
+ *   every chunk in view, and on the frames after it, average and worst. This is the CPU time tile
+ *   rendering adds to a frame; the frame rate itself needs a display and is logged by
+ *   {@code --render-stats} in game.
+ *
+ * Baking runs on generated tileset pixels with the sizes of the real tilesets and a mix of
+ * opaque, transparent and half-transparent pixels, since decoding the PNG files needs JavaFX.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.TileChunkBenchmark}
+ */
+public final class TileChunkBenchmark {
+
+    private static final int VIEW_WIDTH = 960;
+    private static final int VIEW_HEIGHT = 960;
+    private static final int CACHE_SIZE = 64;
+    private static final int FRAMES = 36_000;
+    private static final double SPEED = 4; // pixels per frame
+    private static final int TURN_FRAMES = 600;
+
+    private TileChunkBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        TmxMap small = TmxMap.load("tmx/tankgamemapnewwalls.tmx");
+        run("30x30 map", small);
+        run("512x512 map", BenchmarkMaps.repeat(small, 512));
+    }
+
+    private static void run(String name, TmxMap map) {
+        int[][] pixels = new int[map.getTilesets().size()][];
+        int[] widths = new int[pixels.length];
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < pixels.length; i++) {
+            TmxMap.Tileset tileset = map.getTilesets().get(i);
+            widths[i] = tileset.columns() * tileset.tileWidth();
+            int rows = (tileset.tileCount() + tileset.columns() - 1) / tileset.columns();
+            pixels[i] = new int[widths[i] * rows * tileset.tileHeight()];
+            for (int p = 0; p < pixels[i].length; p++) {
+                // The first tileset is ground and opaque, the others are mostly see-through
+                int roll = random.nextInt(8);
+                int alpha = i == 0 || roll < 3 ? 0xFF : roll < 7 ? 0 : 0x80;
+                pixels[i][p] = (alpha << 24) | (random.nextInt() & 0xFFFFFF);
+            }
+        }
+        TileChunkBaker baker = new TileChunkBaker(map, pixels, widths, TileChunkBaker.DEFAULT_CHUNK_TILES);
+        int[] shown = {0};
+        TileChunkStreamer<int[]> streamer = new TileChunkStreamer<>(baker, new TileChunkStreamer.Sink<>() {
+            @Override
+            public int[] create(int column, int row, int[] chunkPixels, int[] recycled) {
+                // Stands in for the copy into a WritableImage
+                int[] image = recycled != null ? recycled : new int[chunkPixels.length];
+                System.arraycopy(chunkPixels, 0, image, 0, chunkPixels.length);
+                return image;
+            }
+
+            @Override
+            public void show(int[] image) {
+                shown[0]++;
+            }
+
+            @Override
+            public void hide(int[] image) {
+                shown[0]--;
+            }
+        }, CACHE_SIZE, 1);
+
+        long tiles = 0;
+        for (TmxMap.TileLayer layer : map.getTileLayers()) {
+            for (int gid : layer.gids()) {
+                tiles += gid != 0 ? 1 : 0;
+            }
+        }
+        long mapPixels = (long) map.getPixelWidth() * map.getPixelHeight();
+        System.out.printf("%s: %d layers, %,d tiles, %d chunks of %dx%d tiles%n", name, map.getTileLayers().size(),
+                tiles, baker.getChunkCount(), baker.getChunkTiles(), baker.getChunkTiles());
+        System.out.printf("  full layer images  %,9d nodes %,12d KB of pixels%n", map.getTileLayers().size(),
+                map.getTileLayers().size() * mapPixels * 4 / 1024);
+        System.out.printf("  node per tile      %,9d nodes%n", tiles);
+
+        // Drive around, the view centered on the player and kept inside the map
+        long firstFrameNanos = 0;
+        long worstFrameNanos = 0;
+        long frameNanos = 0;
+        long nodeSum = 0;
+        int nodeMax = 0;
+        int overBudget = 0;
+        double x = map.getPixelWidth() / 2.0;
+        double y = map.getPixelHeight() / 2.0;
+        double dx = SPEED;
+        double dy = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            if (frame % TURN_FRAMES == 0) {
+                int dir = random.nextInt(4);
+                dx = dir == 0 ? SPEED : dir == 1 ? -SPEED : 0;
+                dy = dir == 2 ? SPEED : dir == 3 ? -SPEED : 0;
+            }
+            x = Math.max(0, Math.min(map.getPixelWidth(), x + dx));
+            y = Math.max(0, Math.min(map.getPixelHeight(), y + dy));
+            double viewX = Math.max(0, Math.min(map.getPixelWidth() - VIEW_WIDTH, x - VIEW_WIDTH / 2.0));
+            double viewY = Math.max(0, Math.min(map.getPixelHeight() - VIEW_HEIGHT, y - VIEW_HEIGHT / 2.0));
+
+            long start = System.nanoTime();
+            streamer.update(viewX, viewY, VIEW_WIDTH, VIEW_HEIGHT);
+            long elapsed = System.nanoTime() - start;
+            if (frame == 0) {
+                firstFrameNanos = elapsed;
+            } else {
+                frameNanos += elapsed;
+                worstFrameNanos = Math.max(worstFrameNanos, elapsed);
+                overBudget += elapsed > 16_666_667 / 2 ? 1 : 0;
+            }
+            nodeSum += shown[0];
+            nodeMax = Math.max(nodeMax, shown[0]);
+        }
+        int chunkKb = baker.getChunkPixelWidth() * baker.getChunkPixelHeight() * 4 / 1024;
+        System.out.printf("  visible chunks     %9.1f nodes on average, %d at most, %,d KB cached at most%n",
+                nodeSum / (double) FRAMES, nodeMax, Math.min(CACHE_SIZE, streamer.getBakedCount()) * chunkKb);
+        System.out.printf("  first frame        %9.2f ms, bakes the %d chunks in view%n", firstFrameNanos / 1e6, nodeMax);
+        System.out.printf("  other frames       %9.3f ms on average, worst %.2f ms, %d over half a 60 fps frame%n",
+                frameNanos / 1e6 / (FRAMES - 1), worstFrameNanos / 1e6, overBudget);
+        System.out.printf("  baking             %9.2f ms per chunk, %d bakes in %d frames%n%n",
+                streamer.getAverageBakeMillis(), streamer.getBakedCount(), FRAMES);
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.ooptankgame.Benchmark;
+
+import com.example.ooptankgame.Collision.SpatialGrid;
+import com.example.ooptankgame.Collision.SweptAabb;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compares walls kept as rectangles in a {@link SpatialGrid}, the way wall entities are found
+ * through {@code EntitySpatialIndex}, with walls rasterized into a {@link WallBitmap}.
+ *
+ * For {@code tankgamemapnewwalls.tmx} and for a 510x510 tile map made by repeating its walls
+ * 17 times in each direction, it prints:
+ * - **Load**: time to build the wall grid from the parsed map versus time to rasterize it, and the
+ *   memory of the bitmap. Parsing the TMX file is the same for both and is printed on its own.
+ * - **Per Frame**: the cost of one frame of wall tests for 200 moving tanks and 1000 bullets.
+ * - **Agreement**: how many tank moves end at the same pixel as against the exact rectangles,
+ *   and the largest difference, for each cell size. Tanks start clear of the walls in every
+ *   form, and the spawn points of the map are checked against the grown walls separately.
+ *
+ * Creating the wall entities in FXGL costs far more than building the grid, so the load saving
+ * in the game is larger than the one printed here; {@code TankApp} prints its own load time.
+ *
+ * Run with: {@code java -cp benchmarks/target/benchmarks.jar com.example.ooptankgame.Benchmark.WallBitmapBenchmark}
+ */
+public final class WallBitmapBenchmark {
+
+    private static final int[] CELL_SIZES = {1, 2, 4, 8};
+    private static final int TANKS = 200;
+    private static final int BULLETS = 1000;
+    private static final int FRAMES = 2000;
+    private static final int ROUNDS = 5;
+    private static final Dir[] DIRS = Dir.values();
+
+    private WallBitmapBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        TmxMap map = TmxMap.load("tmx/tankgamemapnewwalls.tmx");
+        System.out.printf("Parsed %s in %.2f ms%n%n", "tankgamemapnewwalls.tmx", (System.nanoTime() - start) / 1e6);
+        run("30x30 map", map);
+        run("510x510 map", repeat(map, 17));
+    }
+
+    private static void run(String name, TmxMap map) {
+        List<double[]> walls = new ArrayList<>();
+        for (TmxMap.MapObject wall : map.getObjects("wall")) {
+            walls.add(new double[]{wall.x(), wall.y(), wall.x() + (int) wall.width(), wall.y() + (int) wall.height()});
+        }
+        System.out.printf("%s: %d walls, %dx%d px%n", name, walls.size(), map.getPixelWidth(), map.getPixelHeight());
+
+        // Load
+        long gridNanos = Long.MAX_VALUE;
+        SpatialGrid<double[]> grid = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            grid = new SpatialGrid<>(SpatialGrid.TILE_SIZE, map.getWidth(), map.getHeight());
+            for (double[] wall : walls) {
+                grid.insert(wall, wall[0], wall[1], wall[2], wall[3]);
+            }
+            gridNanos = Math.min(gridNanos, System.nanoTime() - start);
+        }
+        System.out.printf("  load   rectangles %8.2f ms%n", gridNanos / 1e6);
+        WallBitmap[] bitmaps = new WallBitmap[CELL_SIZES.length];
+        for (int i = 0; i < CELL_SIZES.length; i++) {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                bitmaps[i] = WallBitmap.rasterize(map, CELL_SIZES[i]);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("  load   bitmap %dpx %8.2f ms  %,11d bytes%n", CELL_SIZES[i], best / 1e6, bitmaps[i].sizeInBytes());
+        }
+
+        // Spawn points must stay clear of the grown walls, or those tanks could never move
+        for (int i = 0; i < CELL_SIZES.length; i++) {
+            int blocked = 0;
+            for (TmxMap.MapObject spawn : map.getObjects()) {
+                if (spawn.type().endsWith("SpawnPoint")
+                        && bitmaps[i].overlaps(spawn.x(), spawn.y(), spawn.x() + 39, spawn.y() + 39)) {
+                    blocked++;
+                }
+            }
+            System.out.printf("  spawn  bitmap %dpx %8d spawn points touch a wall%n", CELL_SIZES[i], blocked);
+        }
+
+        // Workload: tanks clear of the walls in every form, bullets anywhere
+        SplittableRandom random = new SplittableRandom(3);
+        double[][] tanks = new double[TANKS][];
+        for (int i = 0; i < TANKS; i++) {
+            tanks[i] = openBox(random, map, grid, bitmaps, 39, 39);
+        }
+        double[][] bullets = new double[BULLETS][];
+        for (int i = 0; i < BULLETS; i++) {
+            bullets[i] = randomBox(random, map, 16, 20);
+        }
+        int[] dirs = new int[TANKS * FRAMES];
+        for (int i = 0; i < dirs.length; i++) {
+            dirs[i] = random.nextInt(4);
+        }
+
+        List<double[]> candidates = new ArrayList<>();
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            checksum = 0;
+            for (int frame = 0; frame < FRAMES; frame++) {
+                for (int t = 0; t < TANKS; t++) {
+                    checksum += gridSteps(grid, candidates, tanks[t], DIRS[dirs[frame * TANKS + t]], 2);
+                }
+                for (double[] bullet : bullets) {
+                    checksum += gridOverlaps(grid, candidates, bullet) ? 1 : 0;
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("  frame  rectangles %8d ns  (%d tanks, %d bullets, checksum %d)%n", best / FRAMES, TANKS, BULLETS, checksum);
+        for (int i = 0; i < CELL_SIZES.length; i++) {
+            WallBitmap bitmap = bitmaps[i];
+            best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                checksum = 0;
+                for (int frame = 0; frame < FRAMES; frame++) {
+                    for (int t = 0; t < TANKS; t++) {
+                        Dir dir = DIRS[dirs[frame * TANKS + t]];
+                        checksum += bitmap.stepsBeforeContact(tanks[t], dir.getDx(), dir.getDy(), 2);
+                    }
+                    for (double[] bullet : bullets) {
+                        checksum += bitmap.overlaps(bullet[0], bullet[1], bullet[2], bullet[3]) ? 1 : 0;
+                    }
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("  frame  bitmap %dpx %8d ns  (checksum %d)%n", CELL_SIZES[i], best / FRAMES, checksum);
+        }
+
+        // Agreement of longer moves, 1 to 40 pixels, against the exact rectangles
+        for (int i = 0; i < CELL_SIZES.length; i++) {
+            SplittableRandom moves = new SplittableRandom(11);
+            int same = 0;
+            int worst = 0;
+            int count = 100_000;
+            for (int m = 0; m < count; m++) {
+                double[] tank = tanks[moves.nextInt(TANKS)];
+                Dir dir = DIRS[moves.nextInt(4)];
+                int steps = 1 + moves.nextInt(40);
+                int exact = gridSteps(grid, candidates, tank, dir, steps);
+                int approx = bitmaps[i].stepsBeforeContact(tank, dir.getDx(), dir.getDy(), steps);
+                if (exact == approx) {
+                    same++;
+                }
+                worst = Math.max(worst, Math.abs(exact - approx));
+            }
+            System.out.printf("  agree  bitmap %dpx %7.2f%% of moves identical, at most %d px apart%n",
+                    CELL_SIZES[i], 100.0 * same / count, worst);
+        }
+        System.out.println();
+    }
+
+    private static int gridSteps(SpatialGrid<double[]> grid, List<double[]> candidates, double[] tank, Dir dir, int steps) {
+        int dx = dir.getDx();
+        int dy = dir.getDy();
+        candidates.clear();
+        grid.query(tank[0] + Math.min(0, dx * steps), tank[1] + Math.min(0, dy * steps),
+                tank[2] + Math.max(0, dx * steps), tank[3] + Math.max(0, dy * steps), candidates);
+        int legal = steps;
+        for (int i = 0; i < candidates.size() && legal > 0; i++) {
+            legal = SweptAabb.stepsBeforeContact(tank, dx, dy, legal, candidates.get(i));
+        }
+        return legal;
+    }
+
+    private static boolean gridOverlaps(SpatialGrid<double[]> grid, List<double[]> candidates, double[] box) {
+        candidates.clear();
+        grid.query(box[0], box[1], box[2], box[3], candidates);
+        for (double[] wall : candidates) {
+            if (SweptAabb.overlaps(box, wall)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double[] openBox(SplittableRandom random, TmxMap map, SpatialGrid<double[]> grid,
+                                    WallBitmap[] bitmaps, double w, double h) {
+        List<double[]> candidates = new ArrayList<>();
+        search:
+        while (true) {
+            double[] box = randomBox(random, map, w, h);
+            if (gridOverlaps(grid, candidates, box)) {
+                continue;
+            }
+            for (WallBitmap bitmap : bitmaps) {
+                if (bitmap.overlaps(box[0], box[1], box[2], box[3])) {
+                    continue search;
+                }
+            }
+            return box;
+        }
+    }
+
+    private static double[] randomBox(SplittableRandom random, TmxMap map, double w, double h) {
+        // Whole pixels plus the fraction spawn points usually have
+        double x = random.nextInt(map.getPixelWidth() - (int) w) + 0.5;
+        double y = random.nextInt(map.getPixelHeight() - (int) h) + 0.25;
+        return new double[]{x, y, x + w, y + h};
+    }
+
+    private static TmxMap repeat(TmxMap map, int times) {
+        List<TmxMap.MapObject> objects = new ArrayList<>();
+        for (int ty = 0; ty < times; ty++) {
+            for (int tx = 0; tx < times; tx++) {
+                for (TmxMap.MapObject wall : map.getObjects("wall")) {
+                    objects.add(new TmxMap.MapObject(wall.group(), wall.type(),
+                            wall.x() + tx * map.getPixelWidth(), wall.y() + ty * map.getPixelHeight(), wall.width(), wall.height()));
+                }
+            }
+        }
+        return new TmxMap(map.getWidth() * times, map.getHeight() * times, map.getTileWidth(), map.getTileHeight(), List.of(), objects);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ooptankgame.Jmh;
+
+import com.almasb.fxgl.entity.GameWorld;
+import com.example.ooptankgame.AI.FlowField;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Level.TmxMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the enemy AI of a map.
+ *
+ * - **update**: One frame of a {@link JmhWorlds#world}: every enemy's
+ *   {@code EnemyAIComponent.onUpdate()} rolls for a new direction and for shooting, moves, and
+ *   when blocked rolls whether to shoot and turn, while the bullets it fired fly until they hit a
+ *   wall of the bitmap and go back to the pool. Tanks are not hit, the world has no physics.
+ * - **pursuit**: The player moves to another cell, the {@link FlowField} is searched again in
+ *   full and every enemy steers along it, the cost of a pursuit frame without a cell budget.
+ *
+ * Run with: {@code java -jar benchmarks/target/benchmarks.jar AiBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AiBenchmark {
+
+    @Param({"50", "500", "2000"})
+    public int enemies;
+
+    @Param({"30", "120", "480"})
+    public int mapSize;
+
+    private GameWorld world;
+    private FlowField field;
+    private double[][] boxes;
+    private Dir[] dirs;
+    private double[][] targets;
+    private int frame = 0;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        TmxMap map = JmhWorlds.map(mapSize);
+        world = JmhWorlds.world(map, enemies, 4);
+        WallBitmap walls = WallBitmap.rasterize(map);
+        field = new FlowField(walls, FlowField.DEFAULT_CELL_SIZE, JmhWorlds.TANK_SIZE, JmhWorlds.TANK_SIZE);
+        boxes = JmhWorlds.tanks(walls, enemies, 4);
+        targets = JmhWorlds.tanks(walls, 2, 5);
+        dirs = JmhWorlds.directions(enemies, 6);
+    }
+
+    @Benchmark
+    public GameWorld update() {
+        world.onUpdate(JmhWorlds.TPF);
+        return world;
+    }
+
+    @Benchmark
+    public int pursuit() {
+        double[] player = targets[frame++ & 1];
+        field.setTarget(player[0], player[1], player[2], player[3]);
+        field.update(Integer.MAX_VALUE);
+        int turns = 0;
+        for (int i = 0; i < boxes.length; i++) {
+            Dir dir = field.steer(boxes[i][0], boxes[i][1], dirs[i]);
+            turns += dir != dirs[i] ? 1 : 0;
+        }
+        return turns;
+    }
+}
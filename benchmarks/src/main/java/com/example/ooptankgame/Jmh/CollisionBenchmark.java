@@ -0,0 +1,101 @@
+package com.example.ooptankgame.Jmh;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.EntityGroup;
+import com.almasb.fxgl.entity.GameWorld;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Enums.TankGameType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds every pair of tanks whose bounding boxes overlap, among the tanks of a
+ * {@link JmhWorlds#world}, once per operation, the check the collision handlers and the old
+ * movement code ran each frame. Boxes are compared with FXGL's {@code Entity.isColliding()}.
+ *
+ * - **groupSnapshot**: Takes a copy of an FXGL {@link EntityGroup} of the tanks with
+ *   {@code getEntitiesCopy()} and tests every tank against every tank of the copy. Quadratic in
+ *   the number of tanks.
+ * - **spatialIndex**: Asks the world's {@link EntitySpatialIndex} for the tanks near each tank and
+ *   tests only those.
+ *
+ * Both count the same overlapping pairs, each twice.
+ *
+ * Run with: {@code java -jar benchmarks/target/benchmarks.jar CollisionBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CollisionBenchmark {
+
+    private static final TankGameType[] TANK_TYPES = {TankGameType.PLAYER, TankGameType.ENEMY};
+
+    @Param({"50", "500", "2000"})
+    public int entities;
+
+    @Param({"30", "120", "480"})
+    public int mapSize;
+
+    private EntityGroup group;
+    private EntitySpatialIndex index;
+    private List<Entity> tanks;
+    private final double[] bounds = new double[4];
+    private final List<Entity> candidates = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        GameWorld world = JmhWorlds.world(JmhWorlds.map(mapSize), entities - 1, 3);
+        group = world.getGroup(TANK_TYPES);
+        index = EntitySpatialIndex.of(world);
+        tanks = group.getEntitiesCopy();
+    }
+
+    @Benchmark
+    public int groupSnapshot() {
+        List<Entity> snapshot = group.getEntitiesCopy();
+        int pairs = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            Entity tank = snapshot.get(i);
+            for (int j = 0; j < snapshot.size(); j++) {
+                if (j != i && tank.isColliding(snapshot.get(j))) {
+                    pairs++;
+                }
+            }
+        }
+        return pairs;
+    }
+
+    @Benchmark
+    public int spatialIndex() {
+        int pairs = 0;
+        for (int i = 0; i < tanks.size(); i++) {
+            Entity tank = tanks.get(i);
+            EntitySpatialIndex.worldBounds(tank, bounds);
+            index.query(bounds[0], bounds[1], bounds[2], bounds[3], TANK_TYPES, candidates);
+            for (int j = 0; j < candidates.size(); j++) {
+                Entity other = candidates.get(j);
+                if (other != tank && tank.isColliding(other)) {
+                    pairs++;
+                }
+            }
+            candidates.clear();
+        }
+        return pairs;
+    }
+}
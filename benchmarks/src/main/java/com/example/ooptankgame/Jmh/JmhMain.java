@@ -0,0 +1,35 @@
+package com.example.ooptankgame.Jmh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks with JSON results by default, so the results of two commits can be
+ * diffed or fed to a JMH visualizer.
+ *
+ * Takes the same arguments as {@code org.openjdk.jmh.Main}. Unless {@code -rf} or {@code -rff}
+ * is given, results are written as JSON to {@code jmh-result.json} in the working directory.
+ *
+ * Run with: {@code java -jar benchmarks/target/benchmarks.jar [regexp] [-p mapSize=30] [-rff file]}
+ */
+public final class JmhMain {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private JmhMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add(DEFAULT_RESULT_FILE);
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
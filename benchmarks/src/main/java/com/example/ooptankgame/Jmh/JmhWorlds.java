@@ -0,0 +1,125 @@
+package com.example.ooptankgame.Jmh;
+
+import com.almasb.fxgl.entity.GameWorld;
+import com.example.ooptankgame.Benchmark.BenchmarkMaps;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Factory.TankEntityFactory;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import javafx.application.Platform;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Maps, tank placements and game worlds shared by the JMH benchmarks. Map sizes are in tiles and
+ * multiples of the game's 30x30 tile map, which is repeated to fill them.
+ *
+ * The worlds are standalone FXGL {@link GameWorld}s without a running game, filled by the game's
+ * {@link TankEntityFactory}. Its tanks, bullets and effects need their textures decoded, so
+ * {@link #world} first starts JavaFX on Monocle's headless platform, which needs no display.
+ */
+final class JmhWorlds {
+
+    /** Size of an enemy tank, the player is about the same. */
+    static final double TANK_SIZE = 39;
+    /** Pixels a tank moves per frame at 60 fps. */
+    static final int SPEED = 2;
+    /** Seconds per frame at 60 fps. */
+    static final double TPF = 1.0 / 60;
+
+    private static boolean javaFxStarted = false;
+
+    private JmhWorlds() {
+    }
+
+    static TmxMap map(int mapSize) {
+        TmxMap map = TmxMap.load(HeadlessSimulation.DEFAULT_MAP);
+        return mapSize == map.getWidth() ? map : BenchmarkMaps.repeat(map, mapSize);
+    }
+
+    /**
+     * Returns {@code count} tank boxes as {minX, minY, maxX, maxY}, each on free ground.
+     * Tanks may overlap each other, as they briefly do in the game when they spawn.
+     */
+    static double[][] tanks(WallBitmap walls, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int maxX = (int) (walls.getColumns() * walls.getCellSize() - TANK_SIZE);
+        int maxY = (int) (walls.getRows() * walls.getCellSize() - TANK_SIZE);
+        double[][] tanks = new double[count][];
+        for (int i = 0; i < count; i++) {
+            while (tanks[i] == null) {
+                double x = random.nextInt(maxX);
+                double y = random.nextInt(maxY);
+                if (!walls.overlaps(x, y, x + TANK_SIZE, y + TANK_SIZE)) {
+                    tanks[i] = new double[]{x, y, x + TANK_SIZE, y + TANK_SIZE};
+                }
+            }
+        }
+        return tanks;
+    }
+
+    static Dir[] directions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Dir[] dirs = new Dir[count];
+        for (int i = 0; i < count; i++) {
+            dirs[i] = Dir.values()[random.nextInt(4)];
+        }
+        return dirs;
+    }
+
+    static void translate(double[] box, double dx, double dy) {
+        box[0] += dx;
+        box[1] += dy;
+        box[2] += dx;
+        box[3] += dy;
+    }
+
+    /**
+     * A world of the map with its walls in a {@link WallBitmap}, closed at the map's edges so no
+     * tank or bullet leaves it, and a player and {@code enemies} enemies spawned by the game's
+     * factory on free ground. Every enemy moves and shoots by its own seeded generator.
+     */
+    static GameWorld world(TmxMap map, int enemies, long seed) {
+        startJavaFx();
+        WallBitmap walls = WallBitmap.rasterize(map);
+        int width = map.getPixelWidth();
+        int height = map.getPixelHeight();
+        walls.fill(0, 0, width, 1);
+        walls.fill(0, height - 1, width, height);
+        walls.fill(0, 0, 1, height);
+        walls.fill(width - 1, 0, width, height);
+        GameWorld world = new GameWorld();
+        EntitySpatialIndex.of(world).setWalls(walls);
+        world.addEntityFactory(new TankEntityFactory(world, seed, TPF));
+        double[][] boxes = tanks(walls, enemies + 1, seed);
+        world.spawn("playerSpawnPoint", boxes[0][0], boxes[0][1]);
+        for (int i = 1; i < boxes.length; i++) {
+            world.spawn("enemySpawnPoint", boxes[i][0], boxes[i][1]);
+        }
+        return world;
+    }
+
+    /**
+     * Starts JavaFX without a window, once per fork.
+     */
+    static synchronized void startJavaFx() {
+        if (javaFxStarted) {
+            return;
+        }
+        javaFxStarted = true;
+        // Before the toolkit loads: Monocle's headless glass and the software renderer
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.ooptankgame.Jmh;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Components.EnemyAIComponent;
+import com.example.ooptankgame.Components.PlayerComponent;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves the tanks of a {@link JmhWorlds#world} through the game's own components, so every move
+ * goes through {@code EntitySpatialIndex.maxSteps}: the walls in the bitmap, the other tanks
+ * looked up along the path and swept, then the entity moved and its grid cells updated.
+ *
+ * - **playerMove**: One {@code PlayerComponent.move()}, through {@code up()}, {@code right()} and
+ *   so on, among all the enemies. The player turns clockwise when it did not get anywhere.
+ * - **enemyMove**: One frame of every enemy's {@code EnemyAIComponent.move()}, through
+ *   {@code setMoveDir()}. An enemy that did not get anywhere turns clockwise for its next move.
+ * - **maxSteps**: Only the collision query of every enemy, without moving, so the state and
+ *   therefore the result does not drift over the run.
+ *
+ * Each component is stepped once before the iteration, which sets the length of its moves for
+ * a 60 fps frame.
+ * Moving does not advance the shot cool-down, so no enemy shoots while it is measured.
+ *
+ * Run with: {@code java -jar benchmarks/target/benchmarks.jar MovementBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MovementBenchmark {
+
+    private static final Dir[] DIRS = Dir.values(); // Clockwise, values() clones the array every call
+    private static final TankGameType[] ENEMY_BLOCKING_TYPES = {TankGameType.PLAYER, TankGameType.WALL, TankGameType.HEALTH_PACK};
+
+    @Param({"50", "500", "2000"})
+    public int tanks;
+
+    @Param({"30", "120", "480"})
+    public int mapSize;
+
+    private EntitySpatialIndex index;
+    private Entity player;
+    private PlayerComponent playerComponent;
+    private Dir playerDir = Dir.UP;
+    private Entity[] enemies;
+    private EnemyAIComponent[] enemyComponents;
+    private Dir[] dirs;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        GameWorld world = JmhWorlds.world(JmhWorlds.map(mapSize), tanks, 1);
+        index = EntitySpatialIndex.of(world);
+        player = world.getSingleton(TankGameType.PLAYER);
+        playerComponent = player.getComponent(PlayerComponent.class);
+        playerComponent.step(JmhWorlds.TPF);
+        List<Entity> list = world.getEntitiesByType(TankGameType.ENEMY);
+        enemies = list.toArray(new Entity[0]);
+        enemyComponents = new EnemyAIComponent[enemies.length];
+        dirs = JmhWorlds.directions(enemies.length, 2);
+        for (int i = 0; i < enemies.length; i++) {
+            enemyComponents[i] = enemies[i].getComponent(EnemyAIComponent.class);
+            enemyComponents[i].step(JmhWorlds.TPF);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double playerMove() {
+        double x = player.getX();
+        double y = player.getY();
+        // Allows one move per tick, like a held key
+        playerComponent.step(JmhWorlds.TPF);
+        switch (playerDir) {
+            case UP -> playerComponent.up();
+            case RIGHT -> playerComponent.right();
+            case DOWN -> playerComponent.down();
+            case LEFT -> playerComponent.left();
+            default -> {
+            }
+        }
+        if (player.getX() == x && player.getY() == y) {
+            playerDir = clockwise(playerDir);
+        }
+        return player.getX() + player.getY();
+    }
+
+    @Benchmark
+    public int enemyMove() {
+        int stuck = 0;
+        for (int i = 0; i < enemies.length; i++) {
+            Entity enemy = enemies[i];
+            double x = enemy.getX();
+            double y = enemy.getY();
+            enemyComponents[i].setMoveDir(dirs[i]);
+            if (enemy.getX() == x && enemy.getY() == y) {
+                dirs[i] = clockwise(dirs[i]);
+                stuck++;
+            }
+        }
+        return stuck;
+    }
+
+    @Benchmark
+    public int maxSteps() {
+        int steps = 0;
+        for (int i = 0; i < enemies.length; i++) {
+            steps += index.maxSteps(enemies[i], dirs[i], JmhWorlds.SPEED, ENEMY_BLOCKING_TYPES);
+        }
+        return steps;
+    }
+
+    private static Dir clockwise(Dir dir) {
+        return DIRS[(dir.ordinal() + 1) % DIRS.length];
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ooptankgame.Jmh;
+
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import com.example.ooptankgame.Simulation.PlayerBot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps a seeded {@link HeadlessSimulation} by one frame, the player driven by a
+ * {@link PlayerBot}: input, enemy AI, movement, shooting and bullet hits together, the way
+ * {@code TankApp} runs a frame minus the rendering. Every enemy spawn point of the map spawns an
+ * enemy, so larger maps mean more enemies, 6 per 30x30 tiles.
+ *
+ * When a match ends it starts over with the next seed, outside of the measured step.
+ *
+ * Run with: {@code java -jar benchmarks/target/benchmarks.jar SimulationBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SimulationBenchmark {
+
+    @Param({"30", "120", "480"})
+    public int mapSize;
+
+    private TmxMap map;
+    private HeadlessSimulation simulation;
+    private long seed = 0;
+
+    @Setup(Level.Trial)
+    public void loadMap() {
+        map = JmhWorlds.map(mapSize);
+    }
+
+    @Setup(Level.Invocation)
+    public void startMatch() {
+        if (simulation == null || simulation.isGameOver()) {
+            seed++;
+            simulation = new HeadlessSimulation(map, HeadlessSimulation.DEFAULT_TIMESTEP, seed, new PlayerBot(seed));
+        }
+    }
+
+    @Benchmark
+    public long step() {
+        simulation.step();
+        return simulation.getTick();
+    }
+}
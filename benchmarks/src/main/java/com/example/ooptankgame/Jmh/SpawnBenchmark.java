@@ -0,0 +1,104 @@
+package com.example.ooptankgame.Jmh;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.SpawnData;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Factory.EntityPool;
+import com.example.ooptankgame.Factory.TankEntityFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spawns and removes a wave of entities through the game's {@link TankEntityFactory} in a
+ * {@link JmhWorlds#world} with only the player, once per operation.
+ *
+ * - **enemies**: Spawns the enemies with {@code enemySpawnPoint}, each with its view, health
+ *   bar, AI and spot in the spatial index, then removes them from the world.
+ * - **pooledBullets**: Fires the bullets of the player through the {@link EntityPool}, which
+ *   reuses the bullets parked by the previous wave, up to its capacity, then releases them.
+ * - **spawnedBullets**: Spawns every bullet anew with {@code bullet} and removes it again.
+ *
+ * Run with: {@code java -jar benchmarks/target/benchmarks.jar SpawnBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpawnBenchmark {
+
+    @Param({"50", "500", "2000"})
+    public int entities;
+
+    @Param({"30", "120", "480"})
+    public int mapSize;
+
+    private GameWorld world;
+    private EntityPool pool;
+    private double[][] spots;
+    private Entity[] live;
+    private Entity player;
+    private SpawnData bulletData;
+
+    @Setup
+    public void setUp() {
+        world = JmhWorlds.world(JmhWorlds.map(mapSize), 0, 7);
+        pool = EntityPool.of(world);
+        spots = JmhWorlds.tanks(WallBitmap.rasterize(JmhWorlds.map(mapSize)), entities, 8);
+        live = new Entity[entities];
+        player = world.getSingleton(TankGameType.PLAYER);
+        bulletData = new SpawnData(0, 0).put("direction", Dir.RIGHT.getVector()).put("owner", player);
+    }
+
+    @Benchmark
+    public int enemies() {
+        for (int i = 0; i < live.length; i++) {
+            live[i] = world.spawn("enemySpawnPoint", spots[i][0], spots[i][1]);
+        }
+        return removeAll();
+    }
+
+    @Benchmark
+    public int pooledBullets() {
+        for (int i = 0; i < live.length; i++) {
+            live[i] = pool.obtain("bullet", spots[i][0], spots[i][1], bulletData);
+        }
+        for (int i = 0; i < live.length; i++) {
+            pool.release(live[i]);
+            live[i] = null;
+        }
+        return live.length;
+    }
+
+    @Benchmark
+    public int spawnedBullets() {
+        for (int i = 0; i < live.length; i++) {
+            live[i] = world.spawn("bullet", new SpawnData(spots[i][0], spots[i][1])
+                    .put("direction", Dir.RIGHT.getVector()).put("owner", player));
+        }
+        return removeAll();
+    }
+
+    private int removeAll() {
+        for (int i = 0; i < live.length; i++) {
+            world.removeEntity(live[i]);
+            live[i] = null;
+        }
+        return live.length;
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.ooptankgame.AI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * The DecisionScheduler class spreads the decisions of many enemies over several frames, so the
+ * cost of the AI per frame stops growing with the number of enemies.
+ *
+ * Key Responsibilities:
+ * - **Round Robin**: Agents take turns in the order they were added. Each frame
+ *   {@link #runFrame()} lets the next agents in line decide, up to {@code slice} of them and
+ *   only while the frame's {@code budgetNanos} lasts, and picks up where it stopped next frame.
+ *   At least one agent decides every frame, so every agent gets its turn eventually.
+ * - **Catching Up**: An agent is told how many frames passed since its last decision, so it can
+ *   weigh its choices by the time it skipped (see the {@code frames} methods of {@link EnemyBrain}).
+ * - **Instrumentation**: Counts, per frame, the time spent deciding, the decisions made and the
+ *   decisions deferred to a later frame, and the longest any agent waited. Moving, which still
+ *   runs every frame outside the scheduler, can be added with {@link #recordMovement} so the
+ *   statistics cover the whole AI. {@link #resetStatistics()} starts a new window.
+ * - **Parallel Decisions**: With more than one thread, the turns of {@link ParallelAgent}s are
+ *   taken in three phases: every agent captures the state its decision reads, then all of them
+ *   compute their decisions on a worker pool, then every agent applies its decision, in line
+ *   order. Capturing and applying run on the thread that calls {@link #runFrame()}, so only
+ *   computing has to be thread-safe. Below {@link #PARALLEL_THRESHOLD} decisions a frame the
+ *   pool costs more than it saves and the agents compute on the calling thread instead.
+ *
+ * A slice is a fixed number of decisions, so it keeps seeded matches repeatable; a time budget
+ * depends on the machine and is meant for regular play. Either can be turned off. In parallel
+ * the budget is only checked before each group of {@code PARALLEL_THRESHOLD} decisions. Which
+ * thread computes a decision never changes it, so parallel decisions are as repeatable as
+ * sequential ones.
+ */
+public final class DecisionScheduler {
+
+    /**
+     * Something that makes decisions, typically one enemy tank.
+     */
+    public interface Agent {
+        /**
+         * Makes the agent's decisions, {@code frames} frames after its last ones.
+         */
+        void decide(int frames);
+    }
+
+    /**
+     * An agent whose decisions can be computed on a worker thread.
+     */
+    public interface ParallelAgent extends Agent {
+        /**
+         * Copies what the decision reads, {@code frames} frames after the last one. Runs on the
+         * thread that calls {@link #runFrame()}.
+         */
+        void capture(int frames);
+
+        /**
+         * Makes the decision from the captured copy and state only this agent uses. May run on
+         * any thread, at the same time as the other agents' {@code compute}.
+         */
+        void compute();
+
+        /**
+         * Acts on the decision. Runs on the thread that calls {@link #runFrame()}.
+         */
+        void apply();
+
+        @Override
+        default void decide(int frames) {
+            capture(frames);
+            compute();
+            apply();
+        }
+    }
+
+    /** Fewest decisions in a frame worth handing to the worker pool. */
+    public static final int PARALLEL_THRESHOLD = 256;
+
+    private static final class Slot {
+        final Agent agent;
+        long lastFrame;
+        boolean removed = false;
+
+        Slot(Agent agent, long lastFrame) {
+            this.agent = agent;
+            this.lastFrame = lastFrame;
+        }
+    }
+
+    private final int slice;
+    private final long budgetNanos;
+    private final int threads;
+    private final ForkJoinPool pool;
+    private final List<ParallelAgent> batch = new ArrayList<>();
+    private final List<Slot> slots = new ArrayList<>();
+    private boolean anyRemoved = false;
+    private int cursor = 0;
+    private long frame = 0;
+
+    private int lastDecisions = 0;
+    private int lastDeferred = 0;
+    private long lastDecisionNanos = 0;
+
+    private long windowFrames = 0;
+    private long windowDecisions = 0;
+    private long windowDeferred = 0;
+    private long windowDecisionNanos = 0;
+    private long windowMovementNanos = 0;
+    private long windowMaxFrameNanos = 0;
+    private long windowMaxWait = 0;
+
+    /**
+     * @param slice most decisions per frame, or {@code Integer.MAX_VALUE} for no limit
+     * @param budgetNanos time after which no further decision starts in a frame, or 0 for no limit
+     */
+    public DecisionScheduler(int slice, long budgetNanos) {
+        this(slice, budgetNanos, 1);
+    }
+
+    /**
+     * @param threads threads computing decisions in parallel, 1 to decide on the calling thread only
+     */
+    public DecisionScheduler(int slice, long budgetNanos, int threads) {
+        if (slice <= 0 || budgetNanos < 0 || threads <= 0) {
+            throw new IllegalArgumentException("Need a positive slice and thread count and a budget of at least 0: "
+                    + slice + ", " + threads + ", " + budgetNanos);
+        }
+        this.slice = slice;
+        this.budgetNanos = budgetNanos;
+        this.threads = threads;
+        // Worker threads are daemons and end on their own once idle
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Adds an agent at the end of the line.
+     */
+    public void add(Agent agent) {
+        slots.add(new Slot(agent, frame));
+    }
+
+    /**
+     * Removes an agent. Safe to call while deciding.
+     */
+    public void remove(Agent agent) {
+        for (Slot slot : slots) {
+            if (slot.agent == agent && !slot.removed) {
+                slot.removed = true;
+                anyRemoved = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lets the next agents in line decide, within the slice and the time budget.
+     */
+    public void runFrame() {
+        frame++;
+        if (anyRemoved) {
+            compact();
+        }
+        int count = slots.size();
+        int decisions = 0;
+        int visited = 0;
+        long start = System.nanoTime();
+        while (visited < count && decisions < slice) {
+            if (budgetNanos > 0 && decisions > 0 && batch.isEmpty() && System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+            if (cursor >= slots.size()) {
+                cursor = 0;
+            }
+            Slot slot = slots.get(cursor++);
+            visited++;
+            if (slot.removed) {
+                continue;
+            }
+            int waited = (int) (frame - slot.lastFrame);
+            slot.lastFrame = frame;
+            windowMaxWait = Math.max(windowMaxWait, waited);
+            if (pool != null && slot.agent instanceof ParallelAgent parallel) {
+                parallel.capture(waited);
+                batch.add(parallel);
+                if (budgetNanos > 0 && batch.size() == PARALLEL_THRESHOLD) {
+                    // Settle each full group, so the budget check above sees its cost
+                    decideBatch();
+                }
+            } else {
+                slot.agent.decide(waited);
+            }
+            decisions++;
+        }
+        if (!batch.isEmpty()) {
+            decideBatch();
+        }
+        lastDecisionNanos = System.nanoTime() - start;
+        lastDecisions = decisions;
+        lastDeferred = count - visited;
+
+        windowFrames++;
+        windowDecisions += decisions;
+        windowDeferred += lastDeferred;
+        windowDecisionNanos += lastDecisionNanos;
+        windowMaxFrameNanos = Math.max(windowMaxFrameNanos, lastDecisionNanos);
+    }
+
+    private void decideBatch() {
+        // Applying may remove agents, which only marks their slots, so the batch stays as it is
+        if (batch.size() >= PARALLEL_THRESHOLD) {
+            pool.submit(() -> IntStream.range(0, batch.size()).parallel().forEach(i -> batch.get(i).compute())).join();
+        } else {
+            for (ParallelAgent agent : batch) {
+                agent.compute();
+            }
+        }
+        for (ParallelAgent agent : batch) {
+            agent.apply();
+        }
+        batch.clear();
+    }
+
+    private void compact() {
+        int kept = 0;
+        int newCursor = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            if (i == cursor) {
+                newCursor = kept;
+            }
+            if (!slot.removed) {
+                slots.set(kept++, slot);
+            }
+        }
+        if (cursor >= slots.size()) {
+            newCursor = kept;
+        }
+        slots.subList(kept, slots.size()).clear();
+        cursor = newCursor;
+        anyRemoved = false;
+    }
+
+    /**
+     * Adds time spent moving agents this frame to the statistics.
+     */
+    public void recordMovement(long nanos) {
+        windowMovementNanos += nanos;
+    }
+
+    /**
+     * Starts a new statistics window.
+     */
+    public void resetStatistics() {
+        windowFrames = 0;
+        windowDecisions = 0;
+        windowDeferred = 0;
+        windowDecisionNanos = 0;
+        windowMovementNanos = 0;
+        windowMaxFrameNanos = 0;
+        windowMaxWait = 0;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getLastDecisions() {
+        return lastDecisions;
+    }
+
+    public int getLastDeferred() {
+        return lastDeferred;
+    }
+
+    public long getLastDecisionNanos() {
+        return lastDecisionNanos;
+    }
+
+    /** Average time spent deciding per frame in this window, in milliseconds. */
+    public double getDecisionMillisPerFrame() {
+        return windowFrames == 0 ? 0 : windowDecisionNanos / 1e6 / windowFrames;
+    }
+
+    /** Average time spent moving per frame in this window, in milliseconds. */
+    public double getMovementMillisPerFrame() {
+        return windowFrames == 0 ? 0 : windowMovementNanos / 1e6 / windowFrames;
+    }
+
+    /** Longest time spent deciding in one frame of this window, in milliseconds. */
+    public double getMaxDecisionMillis() {
+        return windowMaxFrameNanos / 1e6;
+    }
+
+    public double getDecisionsPerFrame() {
+        return windowFrames == 0 ? 0 : windowDecisions / (double) windowFrames;
+    }
+
+    public double getDeferredPerFrame() {
+        return windowFrames == 0 ? 0 : windowDeferred / (double) windowFrames;
+    }
+
+    /** Most frames an agent went between two decisions in this window. */
+    public long getMaxWaitFrames() {
+        return windowMaxWait;
+    }
+}
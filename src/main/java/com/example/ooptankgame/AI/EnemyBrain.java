@@ -0,0 +1,149 @@
+package com.example.ooptankgame.AI;
+
+import com.example.ooptankgame.Enums.Dir;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The EnemyBrain class holds the random decision rules of an enemy tank, separated from
+ * the FXGL entity so that the same rules drive {@code EnemyAIComponent} in the game and the
+ * enemy tanks of the headless simulation.
+ *
+ * Key Responsibilities:
+ * - **Direction Changes**: Every frame the enemy may pick a new direction. Tanks heading up
+ *   turn more often, and the regular turn never picks {@link Dir#DOWN} so the enemies do not
+ *   drift to the bottom of the map.
+ * - **Shooting**: Every frame there is a small chance the enemy wants to shoot. The 0.35 second
+ *   cool-down itself is enforced by whoever owns the tank.
+ * - **Blocked Reactions**: When a move is stopped by a wall or the player, the enemy shoots with
+ *   a 60% chance and turns to a random direction with a 30% chance.
+ * - **Spread Out Decisions**: When a scheduler lets an enemy decide only every few frames, the
+ *   {@code frames} variants roll once with the chance of the roll coming up at least once in
+ *   that many frames, so enemies turn and shoot about as often as when deciding every frame.
+ *
+ * The default thresholds are public constants, and experiments can pass other values through
+ * {@link Settings}. All randomness comes from the {@link RandomGenerator} passed in, so two brains
+ * with equally seeded generators and equal settings make the same decisions.
+ */
+public class EnemyBrain {
+
+    /** Roll out of 1000 above which a tank heading up picks a new direction. */
+    public static final int TURN_FROM_UP_THRESHOLD = 880;
+    /** Roll out of 1000 above which a tank picks a new direction (never down). */
+    public static final int TURN_THRESHOLD = 980;
+    /** Roll out of 1000 above which a tank wants to shoot this frame. */
+    public static final int SHOOT_THRESHOLD = 980;
+    /** Chance to shoot when a move is blocked. */
+    public static final double BLOCKED_SHOOT_CHANCE = 0.6;
+    /** Chance to turn when a move is blocked. */
+    public static final double BLOCKED_TURN_CHANCE = 0.3;
+    /** Minimum time between two shots, in seconds. */
+    public static final double SHOOT_INTERVAL = 0.35;
+
+    private static final Dir[] dirs = Dir.values();
+
+    private final RandomGenerator random;
+    private final Settings settings;
+
+    public EnemyBrain(RandomGenerator random) {
+        this(random, Settings.DEFAULTS);
+    }
+
+    public EnemyBrain(RandomGenerator random, Settings settings) {
+        this.random = random;
+        this.settings = settings;
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public Dir initialDir() {
+        return dirs[random.nextInt(dirs.length)];
+    }
+
+    /**
+     * Returns the direction to move in this frame, given the current one.
+     */
+    public Dir nextDir(Dir moveDir) {
+        // Change direction based on probability but avoid downward bias
+        if (moveDir == Dir.UP && random.nextInt(1000) > settings.turnFromUpThreshold()) {
+            return dirs[random.nextInt(4)];
+        } else if (random.nextInt(1000) > settings.turnThreshold()) {
+            // Avoid moving down too frequently
+            Dir newDir;
+            do {
+                newDir = dirs[random.nextInt(4)];
+            } while (newDir == Dir.DOWN); // Prevent moving down too often
+            return newDir;
+        }
+        return moveDir;
+    }
+
+    /**
+     * Same as {@link #nextDir(Dir)}, for a decision made {@code frames} frames after the last one.
+     */
+    public Dir nextDir(Dir moveDir, int frames) {
+        if (frames <= 1) {
+            return nextDir(moveDir);
+        }
+        if (moveDir == Dir.UP && random.nextDouble() < chance(settings.turnFromUpThreshold(), frames)) {
+            return dirs[random.nextInt(4)];
+        } else if (random.nextDouble() < chance(settings.turnThreshold(), frames)) {
+            Dir newDir;
+            do {
+                newDir = dirs[random.nextInt(4)];
+            } while (newDir == Dir.DOWN);
+            return newDir;
+        }
+        return moveDir;
+    }
+
+    public boolean wantsToShoot() {
+        return random.nextInt(1000) > settings.shootThreshold();
+    }
+
+    /**
+     * Same as {@link #wantsToShoot()}, for a decision made {@code frames} frames after the last one.
+     */
+    public boolean wantsToShoot(int frames) {
+        if (frames <= 1) {
+            return wantsToShoot();
+        }
+        return random.nextDouble() < chance(settings.shootThreshold(), frames);
+    }
+
+    /**
+     * Chance that a roll out of 1000 comes up above {@code threshold} at least once in {@code frames} rolls.
+     */
+    private static double chance(int threshold, int frames) {
+        double once = Math.max(0, 999 - threshold) / 1000.0;
+        return 1 - Math.pow(1 - once, frames);
+    }
+
+    public boolean shootWhenBlocked() {
+        return random.nextDouble() < settings.blockedShootChance();
+    }
+
+    /**
+     * Returns the direction to turn to after a blocked move, or {@code null} to keep going.
+     */
+    public Dir turnWhenBlocked() {
+        if (random.nextDouble() < settings.blockedTurnChance()) {
+            return dirs[random.nextInt(4)];
+        }
+        return null;
+    }
+
+    /**
+     * The tunable numbers of the enemy AI. Thresholds are rolls out of 1000, chances are in [0, 1]
+     * and the shoot interval is in seconds.
+     */
+    public record Settings(int turnFromUpThreshold, int turnThreshold, int shootThreshold,
+                           double blockedShootChance, double blockedTurnChance, double shootInterval) {
+
+        /** The values the game ships with. */
+        public static final Settings DEFAULTS = new Settings(TURN_FROM_UP_THRESHOLD, TURN_THRESHOLD, SHOOT_THRESHOLD,
+                BLOCKED_SHOOT_CHANCE, BLOCKED_TURN_CHANCE, SHOOT_INTERVAL);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ooptankgame.AI;
+
+import com.almasb.fxgl.entity.GameWorld;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The EnemyScheduler class keeps the {@link DecisionScheduler} of a FXGL world, which every
+ * {@code EnemyAIComponent} of that world joins when it is added and leaves when it is removed.
+ *
+ * Like the {@code PursuitField}, the scheduler is optional: it only exists for a world after
+ * {@link #install}, and without it every enemy decides every frame in its own update.
+ */
+public final class EnemyScheduler {
+
+    /** Default time budget for enemy decisions per frame, in milliseconds. */
+    public static final double DEFAULT_BUDGET_MILLIS = 1.0;
+
+    private static final Map<GameWorld, DecisionScheduler> SCHEDULERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private EnemyScheduler() {
+    }
+
+    /**
+     * Creates the scheduler of the given world, see {@link DecisionScheduler#DecisionScheduler(int, long)}.
+     */
+    public static DecisionScheduler install(GameWorld world, int slice, long budgetNanos) {
+        return install(world, slice, budgetNanos, 1);
+    }
+
+    /**
+     * Creates the scheduler of the given world, computing decisions on {@code threads} threads.
+     */
+    public static DecisionScheduler install(GameWorld world, int slice, long budgetNanos, int threads) {
+        DecisionScheduler scheduler = new DecisionScheduler(slice, budgetNanos, threads);
+        SCHEDULERS.put(world, scheduler);
+        return scheduler;
+    }
+
+    /**
+     * Returns the scheduler of the given world, or {@code null} if none was installed.
+     */
+    public static DecisionScheduler of(GameWorld world) {
+        return SCHEDULERS.get(world);
+    }
+}
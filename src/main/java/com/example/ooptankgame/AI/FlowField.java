@@ -0,0 +1,356 @@
+package com.example.ooptankgame.AI;
+
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+
+import java.util.Arrays;
+
+/**
+ * The FlowField class leads any number of tanks to one target over the walls of a level. It
+ * holds, for every cell of a grid laid over the map, the number of cell steps to the target,
+ * so a tank only has to look at the cells around it to know where to go next.
+ *
+ * Key Responsibilities:
+ * - **Clearance**: A cell is passable when a tank of the given size standing with its top-left
+ *   corner on the cell's corner touches no solid cell of the {@link WallBitmap}, with one pixel
+ *   to spare. Cells are smaller than a tank, so going from one passable cell to the next never
+ *   crosses a wall either.
+ * - **Shared Search**: One breadth-first search from the cells next to the target fills in the
+ *   distances for all tanks at once, instead of one path search per tank. It only runs again
+ *   after the target has moved to another cell.
+ * - **Per-Frame Budget**: {@link #update} expands at most a given number of cells per call, so
+ *   on a large map a search is spread over several frames. Tanks keep following the last
+ *   finished field meanwhile, and a target that moves during a search is picked up by the next
+ *   one, so a search always finishes. Resetting the buffer for the next search is part of the
+ *   budget too and only touches the cells the buffer reached before. The budget is a cell count
+ *   rather than a time, so the result does not depend on how fast the machine is, which keeps
+ *   seeded matches repeatable.
+ * - **Steering**: {@link #steer} turns a tank's position into a {@link Dir}: first onto the
+ *   nearest good cell, then from cell to cell down the distances, keeping the current direction
+ *   on ties so tanks do not zigzag. {@link #stepsToNextCell} tells how far a tank can go before
+ *   it should ask again, so it stops exactly on cell corners.
+ *
+ * The field knows nothing of FXGL, {@code PursuitField} runs it for the game world.
+ */
+public final class FlowField {
+
+    /** Default cell size in pixels, half a map tile. */
+    public static final int DEFAULT_CELL_SIZE = 16;
+
+    private static final int UNREACHED = -1;
+    private static final int NO_CELL = -1;
+    private static final double ALIGNED = 0.5; // pixels off a cell corner that still count as on it
+    private static final Dir[] DIRS = Dir.values();
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final double agentWidth;
+    private final double agentHeight;
+    private final boolean[] passable;
+
+    // Two buffers, the last finished search, read by steer, and the one in progress. Each keeps
+    // the cells it reached in search order, which is the search queue and tells what to reset.
+    private int[] distances;
+    private int[] reached;
+    private int reachedCount = 0;
+    private int[] searching;
+    private int[] queue;
+    private int stale = 0; // Cells of searching still set by an older search
+    private boolean hasField = false;
+    private boolean inProgress = false;
+    private boolean seeded = false;
+    private int head = 0;
+    private int tail = 0;
+
+    private long targetCell = Long.MIN_VALUE; // Cell of the target the current or last search started from
+    private long pendingCell = Long.MIN_VALUE; // Cell of the target as last set, may be off the grid
+    private final double[] pendingBox = new double[4];
+
+    private long searches = 0;
+    private long expandedCells = 0;
+
+    /**
+     * @param walls the level's walls
+     * @param cellSize size of a square cell in pixels, smaller than the tank
+     * @param agentWidth width of the tanks' hit box
+     * @param agentHeight height of the tanks' hit box
+     */
+    public FlowField(WallBitmap walls, int cellSize, double agentWidth, double agentHeight) {
+        if (cellSize <= 0 || cellSize > agentWidth || cellSize > agentHeight) {
+            throw new IllegalArgumentException("Cell size must be positive and not larger than the tank: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.agentWidth = agentWidth;
+        this.agentHeight = agentHeight;
+        double mapWidth = (double) walls.getColumns() * walls.getCellSize();
+        double mapHeight = (double) walls.getRows() * walls.getCellSize();
+        this.columns = Math.max(1, (int) Math.floor((mapWidth - agentWidth) / cellSize) + 1);
+        this.rows = Math.max(1, (int) Math.floor((mapHeight - agentHeight) / cellSize) + 1);
+        int count = columns * rows;
+        this.passable = new boolean[count];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                double x = column * (double) cellSize;
+                double y = row * (double) cellSize;
+                passable[row * columns + column] = !walls.overlaps(x - 1, y - 1, x + agentWidth + 1, y + agentHeight + 1);
+            }
+        }
+        this.reached = new int[count];
+        this.queue = new int[count];
+        this.distances = new int[count];
+        this.searching = new int[count];
+        Arrays.fill(distances, UNREACHED);
+        Arrays.fill(searching, UNREACHED);
+    }
+
+    /**
+     * Sets the box the tanks should head for, as {minX, minY, maxX, maxY}. Starts a new search
+     * when the box moved to another cell and no search is running.
+     */
+    public void setTarget(double minX, double minY, double maxX, double maxY) {
+        pendingBox[0] = minX;
+        pendingBox[1] = minY;
+        pendingBox[2] = maxX;
+        pendingBox[3] = maxY;
+        pendingCell = (long) Math.floor(minX / cellSize) << 32 | ((long) Math.floor(minY / cellSize) & 0xFFFFFFFFL);
+        if (!inProgress && pendingCell != targetCell) {
+            start();
+        }
+    }
+
+    /**
+     * Expands at most {@code cellBudget} cells of the running search, returns {@code true} if a
+     * search finished during this call.
+     */
+    public boolean update(int cellBudget) {
+        if (!inProgress) {
+            return false;
+        }
+        int budget = cellBudget;
+        // Reset what an older search left in the buffer, instead of filling all of it
+        while (stale > 0 && budget > 0) {
+            searching[queue[--stale]] = UNREACHED;
+            budget--;
+        }
+        if (stale > 0) {
+            return false;
+        }
+        if (!seeded) {
+            seed();
+            seeded = true;
+            if (tail == 0) {
+                // Nowhere near the target to start from, keep following the last field
+                inProgress = false;
+                return false;
+            }
+        }
+        int expanded = 0;
+        while (head < tail && budget > 0) {
+            int cell = queue[head++];
+            int next = searching[cell] + 1;
+            int column = cell % columns;
+            int row = cell / columns;
+            if (column > 0) {
+                visit(cell - 1, next);
+            }
+            if (column < columns - 1) {
+                visit(cell + 1, next);
+            }
+            if (row > 0) {
+                visit(cell - columns, next);
+            }
+            if (row < rows - 1) {
+                visit(cell + columns, next);
+            }
+            budget--;
+            expanded++;
+        }
+        expandedCells += expanded;
+        if (head < tail) {
+            return false;
+        }
+        int[] finished = searching;
+        searching = distances;
+        distances = finished;
+        int[] finishedQueue = queue;
+        queue = reached;
+        reached = finishedQueue;
+        stale = reachedCount;
+        reachedCount = tail;
+        hasField = true;
+        inProgress = false;
+        searches++;
+        if (pendingCell != targetCell) {
+            start();
+        }
+        return true;
+    }
+
+    private void visit(int cell, int distance) {
+        if (passable[cell] && searching[cell] == UNREACHED) {
+            searching[cell] = distance;
+            queue[tail++] = cell;
+        }
+    }
+
+    private void start() {
+        inProgress = true;
+        seeded = false;
+        head = 0;
+        tail = 0;
+    }
+
+    private void seed() {
+        targetCell = pendingCell;
+        // Every passable cell from which the tank's box is within a cell of the target's
+        int c0 = Math.max(0, (int) Math.floor((pendingBox[0] - cellSize - agentWidth) / cellSize));
+        int r0 = Math.max(0, (int) Math.floor((pendingBox[1] - cellSize - agentHeight) / cellSize));
+        int c1 = Math.min(columns - 1, (int) Math.ceil((pendingBox[2] + cellSize) / cellSize));
+        int r1 = Math.min(rows - 1, (int) Math.ceil((pendingBox[3] + cellSize) / cellSize));
+        for (int row = r0; row <= r1; row++) {
+            for (int column = c0; column <= c1; column++) {
+                double x = column * (double) cellSize;
+                double y = row * (double) cellSize;
+                boolean near = x + agentWidth >= pendingBox[0] - cellSize && x <= pendingBox[2] + cellSize
+                        && y + agentHeight >= pendingBox[1] - cellSize && y <= pendingBox[3] + cellSize;
+                if (near) {
+                    visit(row * columns + column, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the direction a tank with its top-left corner at ({@code x}, {@code y}) should go,
+     * or {@code null} if it is next to the target or no finished field leads it there.
+     *
+     * @param current the direction the tank is going now, kept when it is as good as any other
+     */
+    public Dir steer(double x, double y, Dir current) {
+        if (!hasField) {
+            return null;
+        }
+        // The best of the up to four cell corners around the tank
+        int c0 = (int) Math.floor(x / cellSize);
+        int r0 = (int) Math.floor(y / cellSize);
+        int best = NO_CELL;
+        double bestOffset = Double.MAX_VALUE;
+        for (int row = r0; row <= r0 + 1; row++) {
+            for (int column = c0; column <= c0 + 1; column++) {
+                int cell = cellIndex(column, row);
+                if (cell == NO_CELL || distances[cell] == UNREACHED) {
+                    continue;
+                }
+                double offset = Math.abs(column * cellSize - x) + Math.abs(row * cellSize - y);
+                if (best == NO_CELL || distances[cell] < distances[best]
+                        || distances[cell] == distances[best] && offset < bestOffset) {
+                    best = cell;
+                    bestOffset = offset;
+                }
+            }
+        }
+        if (best == NO_CELL) {
+            return null;
+        }
+        double offsetX = (best % columns) * (double) cellSize - x;
+        double offsetY = (best / columns) * (double) cellSize - y;
+        Dir flow = downhill(best, current);
+        boolean alignedX = Math.abs(offsetX) < ALIGNED;
+        boolean alignedY = Math.abs(offsetY) < ALIGNED;
+        if (alignedX && alignedY) {
+            return flow;
+        }
+        // Get onto the cell, across the way out of it first
+        boolean horizontal = flow == null || flow == Dir.LEFT || flow == Dir.RIGHT;
+        if (horizontal ? !alignedY : alignedX) {
+            return offsetY < 0 ? Dir.UP : Dir.DOWN;
+        }
+        return offsetX < 0 ? Dir.LEFT : Dir.RIGHT;
+    }
+
+    private Dir downhill(int cell, Dir current) {
+        int distance = distances[cell];
+        if (distance == 0) {
+            return null;
+        }
+        if (current != null && distanceTo(cell, current) == distance - 1) {
+            return current;
+        }
+        for (Dir dir : DIRS) {
+            if (distanceTo(cell, dir) == distance - 1) {
+                return dir;
+            }
+        }
+        return null;
+    }
+
+    private int distanceTo(int cell, Dir dir) {
+        int neighbour = cellIndex(cell % columns + dir.getDx(), cell / columns + dir.getDy());
+        return neighbour == NO_CELL ? UNREACHED : distances[neighbour];
+    }
+
+    /**
+     * Returns how many whole pixels a tank at ({@code x}, {@code y}) can move along {@code dir}
+     * before it reaches the next cell corner on that axis, at least 1.
+     */
+    public int stepsToNextCell(double x, double y, Dir dir) {
+        double position = dir == Dir.LEFT || dir == Dir.RIGHT ? x : y;
+        int sign = dir == Dir.RIGHT || dir == Dir.DOWN ? 1 : -1;
+        double next = sign > 0
+                ? (Math.floor((position + ALIGNED) / cellSize) + 1) * cellSize
+                : (Math.ceil((position - ALIGNED) / cellSize) - 1) * cellSize;
+        return Math.max(1, (int) Math.ceil(Math.abs(next - position) - ALIGNED));
+    }
+
+    private int cellIndex(long column, long row) {
+        if (column < 0 || row < 0 || column >= columns || row >= rows) {
+            return NO_CELL;
+        }
+        return (int) row * columns + (int) column;
+    }
+
+    /**
+     * Cell steps from the cell at the tank's top-left corner to the target, or -1 if unknown.
+     */
+    public int distanceAt(double x, double y) {
+        int cell = cellIndex((long) Math.floor(x / cellSize), (long) Math.floor(y / cellSize));
+        return cell == NO_CELL || !hasField ? UNREACHED : distances[cell];
+    }
+
+    public boolean isPassable(int column, int row) {
+        int cell = cellIndex(column, row);
+        return cell != NO_CELL && passable[cell];
+    }
+
+    /** {@code true} while a search is spread over several updates. */
+    public boolean isSearching() {
+        return inProgress;
+    }
+
+    /** Number of finished searches. */
+    public long getSearches() {
+        return searches;
+    }
+
+    /** Number of cells expanded by all searches so far. */
+    public long getExpandedCells() {
+        return expandedCells;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCellCount() {
+        return columns * rows;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ooptankgame.AI;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.example.ooptankgame.Bullets.BulletSystem;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LineOfSight class tells the enemies of a FXGL world whether a shot would reach the player,
+ * using one {@link SightGrid} over the level's walls.
+ *
+ * Key Responsibilities:
+ * - **Target Tracking**: {@link #onUpdate} takes the player's hit box once per frame, so every
+ *   enemy checks against the same box.
+ * - **Aiming**: {@link #canHit} is {@code true} when the player is in line with the enemy along
+ *   the direction it faces and no wall is in the way; otherwise the enemy holds its fire.
+ * - **Instrumentation**: Counts how often enemies asked and how often the player was in sight,
+ *   for the render statistics.
+ * - **Thread Safety**: Between two calls of {@link #onUpdate}, {@link #canHit(double, double, Dir)}
+ *   may be called from the worker threads of a {@link DecisionScheduler}.
+ *
+ * Like the {@code PursuitField}, line of sight is per world: it only exists after
+ * {@link #install}, and without it enemies fire whenever they decide to shoot.
+ */
+public final class LineOfSight {
+
+    private static final Map<GameWorld, LineOfSight> SIGHTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final SightGrid grid;
+    private final double[] target = new double[4];
+    private final double[] shooter = new double[4];
+    private boolean hasTarget = false;
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder inSight = new LongAdder();
+
+    private LineOfSight(WallBitmap walls) {
+        this.grid = new SightGrid(walls);
+    }
+
+    /**
+     * Creates the line of sight of the given world over the level's walls.
+     */
+    public static LineOfSight install(GameWorld world, WallBitmap walls) {
+        LineOfSight sight = new LineOfSight(walls);
+        SIGHTS.put(world, sight);
+        return sight;
+    }
+
+    /**
+     * Returns the line of sight of the given world, or {@code null} if none was installed.
+     */
+    public static LineOfSight of(GameWorld world) {
+        return SIGHTS.get(world);
+    }
+
+    /**
+     * Moves the target to the player's current hit box.
+     */
+    public void onUpdate(Entity player) {
+        hasTarget = player.isActive();
+        if (hasTarget) {
+            EntitySpatialIndex.worldBounds(player, target);
+        }
+    }
+
+    /**
+     * Returns {@code true} if a bullet the enemy fires along {@code dir} would reach the player.
+     */
+    public boolean canHit(Entity enemy, Dir dir) {
+        EntitySpatialIndex.worldBounds(enemy, shooter);
+        return canHit((shooter[0] + shooter[2]) / 2, (shooter[1] + shooter[3]) / 2, dir);
+    }
+
+    /**
+     * Returns {@code true} if a bullet fired along {@code dir} by an enemy centered at
+     * ({@code x}, {@code y}) would reach the player.
+     */
+    public boolean canHit(double x, double y, Dir dir) {
+        if (!hasTarget) {
+            return false;
+        }
+        checks.increment();
+        boolean hit = grid.canHit(x, y, dir, BulletSystem.HALF_WIDTH, target[0], target[1], target[2], target[3]);
+        if (hit) {
+            inSight.increment();
+        }
+        return hit;
+    }
+
+    public SightGrid getGrid() {
+        return grid;
+    }
+
+    public long getChecks() {
+        return checks.sum();
+    }
+
+    public long getInSight() {
+        return inSight.sum();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.ooptankgame.AI;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The PursuitField class runs one {@link FlowField} towards the player for a FXGL world, which
+ * every {@code EnemyAIComponent} of that world follows instead of wandering at random.
+ *
+ * Key Responsibilities:
+ * - **Target Tracking**: {@link #onUpdate} hands the player's hit box to the field once per
+ *   frame, which starts a new search whenever the player has moved to another cell.
+ * - **Budget**: Each frame expands at most {@link #CELL_BUDGET} cells of a running search, so
+ *   the cost of pursuit per frame is bounded no matter how large the map is, and the enemies'
+ *   own share of it is a few array reads each.
+ * - **Instrumentation**: Keeps the time of the last and the slowest update, for the render
+ *   statistics.
+ *
+ * Like the {@code BulletLayer}, pursuit is optional: it only exists for a world after
+ * {@link #install}, and {@link #of} returns {@code null} otherwise.
+ */
+public final class PursuitField {
+
+    /** Size of the enemy hit box, which the 39x39 tank texture sets. */
+    public static final double ENEMY_SIZE = 39;
+    /** Cells a search may expand per frame, about a fifth of a millisecond. */
+    public static final int CELL_BUDGET = 8_192;
+
+    private static final Map<GameWorld, PursuitField> FIELDS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final FlowField field;
+    private final double[] bounds = new double[4];
+    private long lastUpdateNanos = 0;
+    private long maxUpdateNanos = 0;
+
+    private PursuitField(WallBitmap walls) {
+        this.field = new FlowField(walls, FlowField.DEFAULT_CELL_SIZE, ENEMY_SIZE, ENEMY_SIZE);
+    }
+
+    /**
+     * Creates the pursuit field of the given world over the level's walls.
+     */
+    public static PursuitField install(GameWorld world, WallBitmap walls) {
+        PursuitField pursuit = new PursuitField(walls);
+        FIELDS.put(world, pursuit);
+        return pursuit;
+    }
+
+    /**
+     * Returns the pursuit field of the given world, or {@code null} if none was installed.
+     */
+    public static PursuitField of(GameWorld world) {
+        return FIELDS.get(world);
+    }
+
+    /**
+     * Moves the target to the player's current hit box and advances the search.
+     */
+    public void onUpdate(Entity player) {
+        long start = System.nanoTime();
+        if (player.isActive()) {
+            EntitySpatialIndex.worldBounds(player, bounds);
+            field.setTarget(bounds[0], bounds[1], bounds[2], bounds[3]);
+        }
+        field.update(CELL_BUDGET);
+        lastUpdateNanos = System.nanoTime() - start;
+        maxUpdateNanos = Math.max(maxUpdateNanos, lastUpdateNanos);
+    }
+
+    /**
+     * Returns the direction an enemy should go, or {@code null} to let it roam.
+     */
+    public Dir steer(Entity enemy, Dir current) {
+        return field.steer(enemy.getX(), enemy.getY(), current);
+    }
+
+    /**
+     * Returns how many pixels an enemy can go along {@code dir} before it should steer again.
+     */
+    public int stepsToNextCell(Entity enemy, Dir dir) {
+        return field.stepsToNextCell(enemy.getX(), enemy.getY(), dir);
+    }
+
+    public FlowField getFlowField() {
+        return field;
+    }
+
+    public long getLastUpdateNanos() {
+        return lastUpdateNanos;
+    }
+
+    public long getMaxUpdateNanos() {
+        return maxUpdateNanos;
+    }
+}
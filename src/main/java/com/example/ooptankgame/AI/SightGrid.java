@@ -0,0 +1,255 @@
+package com.example.ooptankgame.AI;
+
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The SightGrid class tells whether one tile of a level can be seen from another, so enemies
+ * only shoot at a target they can actually hit instead of firing blindly into walls.
+ *
+ * Key Responsibilities:
+ * - **Opaque Tiles**: The level is looked at in 32 pixel tiles. A tile blocks sight when at
+ *   least half of its {@link WallBitmap} cells are solid, so the slivers that walls drawn slightly
+ *   off the grid leave in the next tile do not block anything.
+ * - **Raycasting**: {@link #isClear} walks a ray from the center of one tile to the center of
+ *   the other with a DDA, one step per tile border it crosses, and stops at the first opaque tile.
+ *   A ray through the exact corner of four tiles is blocked if either tile beside the corner is.
+ *   The two end tiles never block, they are where the shooter and the target are.
+ * - **Caching**: Results are kept per tile pair in a fixed-size direct-mapped table, so looking
+ *   up a pair costs the same as one step of a ray and the table never grows. Both the table and
+ *   the opaque tiles are rebuilt when the wall bitmap's {@link WallBitmap#getVersion version}
+ *   changes.
+ * - **Aiming**: {@link #canHit} tells whether a bullet fired along one of the four directions
+ *   would reach the target's box with nothing in the way.
+ * - **Thread Safety**: Queries may run on several threads at once, as long as the walls do not
+ *   change meanwhile. A cache entry holds both the tile pair and the result in one {@code long}
+ *   that is read and written whole, so a thread sees either a complete entry or a miss.
+ *
+ * Tiles outside the grid are clamped to its border.
+ */
+public final class SightGrid {
+
+    /** Tile size in pixels, the tile size of the game's maps. */
+    public static final int DEFAULT_TILE_SIZE = 32;
+    /** Entries in the cache of tile pairs, 32 KB. */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    private final WallBitmap walls;
+    private final int tileSize;
+    private final int columns;
+    private final int rows;
+    private final long[] opaque;
+    private volatile int wallsVersion;
+    // ((pair key + 1) << 1) | clear, 0 for an empty slot
+    private final AtomicLongArray cache;
+    private final int cacheMask;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder steps = new LongAdder();
+
+    public SightGrid(WallBitmap walls) {
+        this(walls, DEFAULT_TILE_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param walls the level's walls
+     * @param tileSize tile size in pixels, a multiple of the bitmap's cell size
+     * @param cacheSize entries in the cache of tile pairs, a power of two
+     */
+    public SightGrid(WallBitmap walls, int tileSize, int cacheSize) {
+        if (tileSize <= 0 || tileSize % walls.getCellSize() != 0) {
+            throw new IllegalArgumentException("Tile size must be a multiple of the wall cell size "
+                    + walls.getCellSize() + ": " + tileSize);
+        }
+        if (cacheSize <= 0 || Integer.bitCount(cacheSize) != 1) {
+            throw new IllegalArgumentException("Cache size must be a power of two: " + cacheSize);
+        }
+        this.walls = walls;
+        this.tileSize = tileSize;
+        this.columns = (walls.getColumns() * walls.getCellSize() + tileSize - 1) / tileSize;
+        this.rows = (walls.getRows() * walls.getCellSize() + tileSize - 1) / tileSize;
+        this.opaque = new long[(int) (((long) columns * rows + 63) >>> 6)];
+        this.cache = new AtomicLongArray(cacheSize);
+        this.cacheMask = cacheSize - 1;
+        rebuild();
+    }
+
+    private synchronized void refresh() {
+        if (walls.getVersion() != wallsVersion) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        Arrays.fill(opaque, 0);
+        for (int i = 0; i < cache.length(); i++) {
+            cache.setOpaque(i, 0);
+        }
+        int cells = tileSize / walls.getCellSize();
+        int half = (cells * cells + 1) / 2;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int solid = 0;
+                for (int r = row * cells; r < (row + 1) * cells; r++) {
+                    for (int c = column * cells; c < (column + 1) * cells; c++) {
+                        if (walls.isSolid(c, r)) {
+                            solid++;
+                        }
+                    }
+                }
+                if (solid >= half) {
+                    int index = row * columns + column;
+                    opaque[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+        wallsVersion = walls.getVersion();
+    }
+
+    public boolean isOpaque(int column, int row) {
+        if (column < 0 || row < 0 || column >= columns || row >= rows) {
+            return false;
+        }
+        int index = row * columns + column;
+        return (opaque[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns {@code true} if no opaque tile lies between the two tiles.
+     */
+    public boolean isClear(int fromColumn, int fromRow, int toColumn, int toRow) {
+        if (walls.getVersion() != wallsVersion) {
+            refresh();
+        }
+        queries.increment();
+        fromColumn = clamp(fromColumn, columns);
+        fromRow = clamp(fromRow, rows);
+        toColumn = clamp(toColumn, columns);
+        toRow = clamp(toRow, rows);
+        long from = (long) fromRow * columns + fromColumn;
+        long to = (long) toRow * columns + toColumn;
+        if (from == to) {
+            return true;
+        }
+        // Sight goes both ways, so both orders share one entry
+        long key = Math.min(from, to) * columns * rows + Math.max(from, to);
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & cacheMask;
+        long entry = cache.getOpaque(slot);
+        if (entry != 0 && entry >>> 1 == key + 1) {
+            cacheHits.increment();
+            return (entry & 1) != 0;
+        }
+        boolean clear = from < to
+                ? cast(fromColumn, fromRow, toColumn, toRow)
+                : cast(toColumn, toRow, fromColumn, fromRow);
+        cache.setOpaque(slot, (key + 1) << 1 | (clear ? 1 : 0));
+        return clear;
+    }
+
+    /**
+     * Walks the tiles a ray between the two tile centers crosses, in order.
+     */
+    private boolean cast(int c0, int r0, int c1, int r1) {
+        int stepC = Integer.signum(c1 - c0);
+        int stepR = Integer.signum(r1 - r0);
+        int nc = Math.abs(c1 - c0);
+        int nr = Math.abs(r1 - r0);
+        int column = c0;
+        int row = r0;
+        int i = 0;
+        int j = 0;
+        while (i < nc || j < nr) {
+            // The ray crosses its i-th column border at (2i + 1) / 2nc of the way and its j-th row
+            // border at (2j + 1) / 2nr, compared here without dividing
+            long columnCross = (2L * i + 1) * nr;
+            long rowCross = (2L * j + 1) * nc;
+            if (j >= nr || (i < nc && columnCross < rowCross)) {
+                column += stepC;
+                i++;
+            } else if (i >= nc || rowCross < columnCross) {
+                row += stepR;
+                j++;
+            } else {
+                if (isOpaque(column + stepC, row) || isOpaque(column, row + stepR)) {
+                    steps.add(i + j);
+                    return false;
+                }
+                column += stepC;
+                row += stepR;
+                i++;
+                j++;
+            }
+            if (column == c1 && row == r1) {
+                break;
+            }
+            if (isOpaque(column, row)) {
+                steps.add(i + j);
+                return false;
+            }
+        }
+        steps.add(i + j);
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if a bullet {@code 2 * halfWidth} wide, fired along {@code dir} by a
+     * shooter centered at ({@code x}, {@code y}), would reach the target box without a wall in
+     * the way.
+     */
+    public boolean canHit(double x, double y, Dir dir, double halfWidth,
+                          double minX, double minY, double maxX, double maxY) {
+        int column = tileOf(x, columns);
+        int row = tileOf(y, rows);
+        // Sight only has to reach the near side of the target
+        if (dir == Dir.LEFT || dir == Dir.RIGHT) {
+            if (y + halfWidth < minY || y - halfWidth > maxY || (dir == Dir.RIGHT ? maxX < x : minX > x)) {
+                return false;
+            }
+            return isClear(column, row, tileOf(Math.max(minX, Math.min(maxX, x)), columns), row);
+        }
+        if (x + halfWidth < minX || x - halfWidth > maxX || (dir == Dir.DOWN ? maxY < y : minY > y)) {
+            return false;
+        }
+        return isClear(column, row, column, tileOf(Math.max(minY, Math.min(maxY, y)), rows));
+    }
+
+    private int tileOf(double position, int count) {
+        return clamp((int) Math.floor(position / tileSize), count);
+    }
+
+    private static int clamp(int tile, int count) {
+        return Math.max(0, Math.min(count - 1, tile));
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /** Number of {@link #isClear} calls so far. */
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    /** Number of {@link #isClear} calls answered from the cache. */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /** Number of tiles rays have stepped through. */
+    public long getSteps() {
+        return steps.sum();
+    }
+}
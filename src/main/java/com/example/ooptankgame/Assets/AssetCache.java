@@ -0,0 +1,181 @@
+package com.example.ooptankgame.Assets;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The AssetCache class loads named assets on background threads and hands them out once they are
+ * loaded, so decoding images and reading levels happens while something else is on screen
+ * instead of on the JavaFX thread when the asset is first needed.
+ *
+ * Key Responsibilities:
+ * - **Loading**: {@link #load} starts loading an asset on a small pool of daemon threads. A
+ *   name is only loaded once, asking again for it does nothing.
+ * - **Reading**: {@link #get} returns an asset, waiting for it if it is still loading. A loader
+ *   may read other assets the same way, for example the tilesets of a level once it is read.
+ * - **Failures**: A failed load is kept and thrown by every {@link #get} of that asset, an
+ *   {@link IOException} as an {@link UncheckedIOException}.
+ * - **Timing**: How long each asset took to load, on which thread, and when it was ready after
+ *   the cache was made, for the loading screen and the startup log (see {@link #format}).
+ *
+ * Plain Java, {@code GameAssets} fills it with the game's textures and level.
+ */
+public final class AssetCache implements AutoCloseable {
+
+    /**
+     * Loads one asset, on a background thread.
+     */
+    public interface Loader<T> {
+        T load() throws Exception;
+    }
+
+    /**
+     * How long the asset {@code name} took to load, and when it was ready after the cache was made.
+     */
+    public record LoadTime(String name, String thread, long nanos, long readyNanos) {
+    }
+
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<Object>> assets = new ConcurrentHashMap<>();
+    private final List<LoadTime> times = new ArrayList<>(); // Guarded by itself
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final int threads;
+    private final long created = System.nanoTime();
+
+    public AssetCache(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one loading thread, got " + threads);
+        }
+        this.threads = threads;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "asset-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts loading the asset {@code name} with {@code loader}, unless it is loading or loaded already.
+     */
+    public void load(String name, Loader<?> loader) {
+        assets.computeIfAbsent(name, key -> CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return loader.load();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load " + key, e);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to load " + key, e);
+            } finally {
+                long end = System.nanoTime();
+                synchronized (times) {
+                    times.add(new LoadTime(key, Thread.currentThread().getName(), end - start, end - created));
+                }
+                loaded.incrementAndGet();
+            }
+        }, executor));
+    }
+
+    /**
+     * Returns the asset {@code name}, waiting for it if it is still loading.
+     *
+     * @throws IllegalArgumentException if the asset was never asked to load
+     */
+    public <T> T get(String name, Class<T> type) {
+        CompletableFuture<Object> asset = assets.get(name);
+        if (asset == null) {
+            throw new IllegalArgumentException("Asset " + name + " was not loaded");
+        }
+        try {
+            return type.cast(asset.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public boolean contains(String name) {
+        return assets.containsKey(name);
+    }
+
+    /**
+     * Waits until every asset asked for so far has loaded or failed.
+     */
+    public void awaitAll() {
+        for (CompletableFuture<Object> asset : assets.values()) {
+            try {
+                asset.join();
+            } catch (CompletionException e) {
+                // Thrown again by get, to whoever needs the asset
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    public int getRequested() {
+        return assets.size();
+    }
+
+    public int getLoaded() {
+        return loaded.get();
+    }
+
+    /** Share of the assets asked for so far that have loaded, 0 to 1. */
+    public double getProgress() {
+        int requested = assets.size();
+        return requested == 0 ? 1 : Math.min(1, loaded.get() / (double) requested);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * The assets loaded so far, in the order they were ready.
+     */
+    public List<LoadTime> getLoadTimes() {
+        synchronized (times) {
+            List<LoadTime> copy = new ArrayList<>(times);
+            copy.sort(Comparator.comparingLong(LoadTime::readyNanos));
+            return copy;
+        }
+    }
+
+    /**
+     * One line per loaded asset with its load time, thread and when it was ready, slowest first.
+     */
+    public String format() {
+        List<LoadTime> loadTimes = getLoadTimes();
+        loadTimes.sort(Comparator.comparingLong(LoadTime::nanos).reversed());
+        StringBuilder text = new StringBuilder(String.format("%-40s %10s %10s  %s%n", "asset", "load", "ready at", "thread"));
+        long total = 0;
+        for (LoadTime time : loadTimes) {
+            text.append(String.format("%-40s %7.1f ms %7.1f ms  %s%n", time.name(), time.nanos() / 1e6,
+                    time.readyNanos() / 1e6, time.thread()));
+            total += time.nanos();
+        }
+        long last = loadTimes.stream().mapToLong(LoadTime::readyNanos).max().orElse(0);
+        text.append(String.format("%d assets, %.1f ms of loading on %d threads, all ready %.1f ms after the start%n",
+                loadTimes.size(), total / 1e6, threads, last / 1e6));
+        return text.toString();
+    }
+}
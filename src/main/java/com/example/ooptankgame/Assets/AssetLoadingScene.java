@@ -0,0 +1,65 @@
+package com.example.ooptankgame.Assets;
+
+import com.almasb.fxgl.app.scene.LoadingScene;
+import com.almasb.fxgl.dsl.FXGL;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.util.List;
+
+/**
+ * The AssetLoadingScene class is the loading screen FXGL shows while the game starts a match. In
+ * place of FXGL's own progress bar it shows how far {@link GameAssets} got with preloading and the
+ * last assets it loaded, with their load times.
+ */
+public class AssetLoadingScene extends LoadingScene {
+
+    private static final double BAR_WIDTH = 400;
+    private static final double BAR_HEIGHT = 16;
+    private static final int SHOWN = 8;
+
+    private final Rectangle bar = new Rectangle(0, BAR_HEIGHT, Color.LIGHTGREEN);
+    private final Text title = new Text("Loading");
+    private final Text assets = new Text();
+
+    public AssetLoadingScene() {
+        double width = FXGL.getAppWidth();
+        double height = FXGL.getAppHeight();
+        Rectangle background = new Rectangle(width, height, Color.BLACK);
+        Rectangle frame = new Rectangle(BAR_WIDTH, BAR_HEIGHT, Color.TRANSPARENT);
+        frame.setStroke(Color.WHITE);
+        for (Rectangle rectangle : new Rectangle[]{frame, bar}) {
+            rectangle.setTranslateX((width - BAR_WIDTH) / 2);
+            rectangle.setTranslateY(height / 2);
+        }
+        title.setFill(Color.WHITE);
+        title.setFont(Font.font(20));
+        title.setTranslateX((width - BAR_WIDTH) / 2);
+        title.setTranslateY(height / 2 - 16);
+        assets.setFill(Color.GRAY);
+        assets.setFont(Font.font("Monospaced", 12));
+        assets.setTranslateX((width - BAR_WIDTH) / 2);
+        assets.setTranslateY(height / 2 + BAR_HEIGHT + 24);
+        getContentRoot().getChildren().setAll(background, frame, bar, title, assets);
+    }
+
+    @Override
+    public void onUpdate(double tpf) {
+        GameAssets game = GameAssets.get();
+        if (game == null) {
+            return;
+        }
+        AssetCache cache = game.getCache();
+        bar.setWidth(BAR_WIDTH * cache.getProgress());
+        title.setText(String.format("Loading %d of %d assets", cache.getLoaded(), cache.getRequested()));
+        List<AssetCache.LoadTime> times = cache.getLoadTimes();
+        StringBuilder text = new StringBuilder();
+        for (int i = Math.max(0, times.size() - SHOWN); i < times.size(); i++) {
+            AssetCache.LoadTime time = times.get(i);
+            text.append(String.format("%-40s %6.1f ms%n", time.name(), time.nanos() / 1e6));
+        }
+        assets.setText(text.toString());
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.ooptankgame.Assets;
+
+import com.almasb.fxgl.dsl.FXGL;
+import com.example.ooptankgame.Level.CompiledLevelLoader;
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Level.TileChunkBaker;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Render.AtlasPacker;
+import com.example.ooptankgame.Render.AtlasTextures;
+import com.example.ooptankgame.Render.TextureAtlas;
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * The GameAssets class preloads what the game needs to start a match on background threads,
+ * into an {@link AssetCache}, while the {@link AssetLoadingScene} is on screen.
+ *
+ * Key Responsibilities:
+ * - **Textures**: The texture atlas, or when there is none every texture of {@code atlas.list}
+ *   on its own, so the factory's animations, the sprites and the Game Over image are decoded
+ *   before the first frame rather than on the JavaFX thread when first used.
+ * - **Level**: The map, from its compiled level if the build made one, and its tilesets, decoded
+ *   and handed to a {@link TileChunkBaker}, once the map is read.
+ * - **Reading**: {@link #image}, {@link #level} and {@link #tiles} return preloaded assets and
+ *   load anything that was not preloaded on the spot, like a map picked by a replay.
+ *
+ * The game preloads once, from {@code TankApp.onPreInit}, and the assets are shared by the whole
+ * game. Loading times per asset are in {@link #getCache()}.
+ */
+public final class GameAssets {
+
+    private static final String TEXTURES = "/assets/textures/";
+    private static final String ATLAS = "textures/" + TextureAtlas.IMAGE;
+
+    private static GameAssets shared;
+
+    private final AssetCache cache;
+
+    private GameAssets(String mapName, int threads) {
+        this.cache = new AssetCache(threads);
+        // The level first, it is the largest and its tilesets can only start once it is read
+        URL compiled = LevelReader.find(mapName);
+        cache.load(levelKey(mapName), () -> compiled != null ? LevelReader.read(compiled) : TmxMap.load(mapName));
+        if (compiled != null) {
+            cache.load(tilesKey(mapName), () -> CompiledLevelLoader.chunkBaker(cache.get(levelKey(mapName), TmxMap.class),
+                    compiled, TileChunkBaker.DEFAULT_CHUNK_TILES));
+        }
+        if (AtlasTextures.isAvailable()) {
+            cache.load(ATLAS, AtlasTextures::get);
+        } else {
+            for (String name : listedTextures().keySet()) {
+                cache.load(textureKey(name), () -> decode(name));
+            }
+        }
+    }
+
+    /**
+     * Starts preloading the textures and the map {@code mapName}, unless that was done already,
+     * and returns the game's assets.
+     */
+    public static synchronized GameAssets preload(String mapName) {
+        if (shared == null) {
+            int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+            shared = new GameAssets(mapName, threads);
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the game's assets, or {@code null} if nothing was preloaded.
+     */
+    public static synchronized GameAssets get() {
+        return shared;
+    }
+
+    /**
+     * The texture {@code name} under {@code assets/textures}, preloaded if it was and decoded now otherwise.
+     */
+    public static Image image(String name) {
+        GameAssets assets = get();
+        if (assets != null && assets.cache.contains(textureKey(name))) {
+            return assets.cache.get(textureKey(name), Image.class);
+        }
+        return FXGL.image(name);
+    }
+
+    /**
+     * The map {@code mapName}, from its compiled level if there is one.
+     */
+    public TmxMap level(String mapName) {
+        if (cache.contains(levelKey(mapName))) {
+            return cache.get(levelKey(mapName), TmxMap.class);
+        }
+        return LevelReader.load(mapName);
+    }
+
+    /**
+     * The tile chunk baker of the compiled level {@code mapName} at {@code compiled}, with its tilesets decoded.
+     */
+    public TileChunkBaker tiles(String mapName, URL compiled) {
+        if (cache.contains(tilesKey(mapName))) {
+            return cache.get(tilesKey(mapName), TileChunkBaker.class);
+        }
+        return CompiledLevelLoader.chunkBaker(level(mapName), compiled, TileChunkBaker.DEFAULT_CHUNK_TILES);
+    }
+
+    public AssetCache getCache() {
+        return cache;
+    }
+
+    private static Map<String, Integer> listedTextures() {
+        try (InputStream in = GameAssets.class.getResourceAsStream(TEXTURES + AtlasPacker.LIST)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No " + AtlasPacker.LIST + " on the classpath");
+            }
+            return AtlasPacker.readList(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + AtlasPacker.LIST, e);
+        }
+    }
+
+    private static Image decode(String name) {
+        URL url = GameAssets.class.getResource(TEXTURES + name);
+        if (url == null) {
+            throw new IllegalArgumentException("No such texture on the classpath: " + TEXTURES + name);
+        }
+        Image image = new Image(url.toExternalForm());
+        if (image.isError()) {
+            throw new IllegalArgumentException("Failed to decode " + name, image.getException());
+        }
+        return image;
+    }
+
+    private static String textureKey(String name) {
+        return "textures/" + name;
+    }
+
+    private static String levelKey(String mapName) {
+        return "levels/" + mapName;
+    }
+
+    private static String tilesKey(String mapName) {
+        return "levels/" + mapName + " tilesets";
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.ooptankgame.Bullets;
+
+import com.almasb.fxgl.app.scene.GameView;
+import com.almasb.fxgl.app.scene.Viewport;
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.CollisionHandler.BulletEnemyHandler;
+import com.example.ooptankgame.CollisionHandler.BulletPlayerHandler;
+import com.example.ooptankgame.CollisionHandler.BulletWallHandler;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Render.AtlasTextures;
+import com.example.ooptankgame.Render.SpriteBatch;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static com.example.ooptankgame.Enums.TankGameType.*;
+
+/**
+ * The BulletLayer class connects a {@link BulletSystem} to the FXGL world, for matches with far
+ * more bullets in flight than the physics world and the scene graph can handle as entities.
+ *
+ * Key Responsibilities:
+ * - **Firing**: {@link #fire} takes the same position and direction the tank components put
+ *   into the {@code bullet} SpawnData and adds a row to the bullet system instead.
+ * - **Broadphase**: Uses the world's {@link EntitySpatialIndex} to find the walls and tanks near
+ *   each bullet, so no bullet is ever tested against the whole world. When the index holds the
+ *   level's walls as a {@code WallBitmap}, bullets test the bitmap instead.
+ * - **Hit Events**: Passes every hit to the same {@link BulletWallHandler}, {@link BulletEnemyHandler}
+ *   and {@link BulletPlayerHandler} code that reacts to bullet entity collisions, so explosions,
+ *   damage, score and game over behave the same in both modes.
+ * - **Rendering**: Draws all bullets onto a single {@link Canvas} in the game scene, one pass per
+ *   frame, instead of one texture node per bullet. The sprite is turned once per direction up
+ *   front, so drawing is a plain image copy. The canvas is the size of the window and moves with
+ *   the viewport, so bullets out of view are not drawn at all. Bullets move in ticks of the
+ *   game's fixed timestep but are drawn once per frame, pulled back along their flight by the
+ *   part of the tick the frame is behind, so they fly smoothly at any frame rate.
+ *
+ * The layer is optional: it only exists for a world after {@link #install}, and {@link #of}
+ * returns {@code null} otherwise, in which case the tanks keep spawning bullet entities.
+ */
+public final class BulletLayer implements BulletSystem.Targets<Entity>, BulletSystem.HitListener<Entity> {
+
+    /** Projectile speed of the {@code bullet} entity. */
+    public static final double SPEED = 350;
+
+    private static final Map<GameWorld, BulletLayer> LAYERS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final TankGameType[] TARGET_TYPES = {WALL, PLAYER, ENEMY};
+    private static final int Z_INDEX = 100;
+
+    private final GameWorld world;
+    private final BulletSystem<Entity> system;
+    private final EntitySpatialIndex index;
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+    // Bullet sprite scaled by 2, turned for each Dir, indexed by ordinal
+    private final Image[] sprites = new Image[Dir.values().length];
+
+    private final BulletWallHandler wallHandler = new BulletWallHandler();
+    private final BulletEnemyHandler enemyHandler = new BulletEnemyHandler();
+    private final BulletPlayerHandler playerHandler = new BulletPlayerHandler();
+    private double lastStep = 0;
+
+    private BulletLayer(GameWorld world, double width, double height) {
+        this.world = world;
+        this.system = new BulletSystem<>(width, height, 1024);
+        this.index = EntitySpatialIndex.of(world);
+        system.setWalls(index.getWalls());
+        this.canvas = new Canvas(FXGL.getAppWidth(), FXGL.getAppHeight());
+        this.graphics = canvas.getGraphicsContext2D();
+        graphics.setImageSmoothing(false);
+
+        // The texture points right, same as the entity at rotation 0
+        Image sprite = AtlasTextures.image("bullet/bullet.png");
+        sprites[Dir.RIGHT.ordinal()] = sprite;
+        sprites[Dir.DOWN.ordinal()] = SpriteBatch.rotateClockwise(sprite);
+        sprites[Dir.LEFT.ordinal()] = SpriteBatch.rotateClockwise(sprites[Dir.DOWN.ordinal()]);
+        sprites[Dir.UP.ordinal()] = SpriteBatch.rotateClockwise(sprites[Dir.LEFT.ordinal()]);
+        FXGL.getGameScene().addGameView(new GameView(canvas, Z_INDEX));
+    }
+
+    /**
+     * Creates the layer for the given world and adds its canvas to the game scene. Bullets that
+     * leave the {@code width} x {@code height} world are dropped.
+     */
+    public static BulletLayer install(GameWorld world, double width, double height) {
+        BulletLayer layer = new BulletLayer(world, width, height);
+        LAYERS.put(world, layer);
+        return layer;
+    }
+
+    /**
+     * Returns the layer of the given world, or {@code null} if none was installed.
+     */
+    public static BulletLayer of(GameWorld world) {
+        return LAYERS.get(world);
+    }
+
+    /**
+     * Fires a bullet for {@code owner}. {@code x} and {@code y} are the spawn position of the
+     * unscaled 8x10 texture, exactly what the tanks put into the {@code bullet} SpawnData.
+     */
+    public void fire(Entity owner, Dir dir, double x, double y) {
+        system.spawn(x + 4, y + 5, dir.getDx() * SPEED, dir.getDy() * SPEED,
+                (TankGameType) owner.getType());
+    }
+
+    /**
+     * Moves the bullets by {@code dt} seconds and applies their hits.
+     */
+    public void update(double dt) {
+        system.update(dt, this, this);
+        lastStep = dt;
+    }
+
+    /**
+     * Redraws the bullets where they were {@code 1 - alpha} of the last update ago, {@code alpha}
+     * being how far the frame is past the last tick, from 0 to 1.
+     */
+    public void draw(double alpha) {
+        double behind = (1 - alpha) * lastStep;
+        Viewport viewport = FXGL.getGameScene().getViewport();
+        double left = viewport.getX();
+        double top = viewport.getY();
+        canvas.setTranslateX(left);
+        canvas.setTranslateY(top);
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (int i = 0; i < system.size(); i++) {
+            double vx = system.getVelocityX(i);
+            double vy = system.getVelocityY(i);
+            double x = system.getX(i) - vx * behind - left;
+            double y = system.getY(i) - vy * behind - top;
+            if (x < -BulletSystem.HALF_WIDTH || y < -BulletSystem.HALF_WIDTH
+                    || x > canvas.getWidth() + BulletSystem.HALF_WIDTH || y > canvas.getHeight() + BulletSystem.HALF_WIDTH) {
+                continue;
+            }
+            Dir dir;
+            if (Math.abs(vx) >= Math.abs(vy)) {
+                dir = vx >= 0 ? Dir.RIGHT : Dir.LEFT;
+            } else {
+                dir = vy >= 0 ? Dir.DOWN : Dir.UP;
+            }
+            Image sprite = sprites[dir.ordinal()];
+            double w = sprite.getWidth() * 2;
+            double h = sprite.getHeight() * 2;
+            graphics.drawImage(sprite, x - w / 2, y - h / 2, w, h);
+        }
+    }
+
+    @Override
+    public void query(double minX, double minY, double maxX, double maxY, List<Entity> out) {
+        index.query(minX, minY, maxX, maxY, TARGET_TYPES, out);
+    }
+
+    @Override
+    public TankGameType typeOf(Entity target) {
+        return (TankGameType) target.getType();
+    }
+
+    @Override
+    public void bounds(Entity target, double[] out) {
+        EntitySpatialIndex.worldBounds(target, out);
+    }
+
+    @Override
+    public void onHit(Entity target, TankGameType targetType, TankGameType ownerType, double x, double y) {
+        switch (targetType) {
+            case WALL -> wallHandler.onBulletHit(world, x, y);
+            case ENEMY -> enemyHandler.onBulletHit(target);
+            case PLAYER -> playerHandler.onBulletHit(x, y, target);
+            default -> {
+            }
+        }
+    }
+
+    public int getBulletCount() {
+        return system.size();
+    }
+
+    public void clear() {
+        system.clear();
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.ooptankgame.Bullets;
+
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.TankGameType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The BulletSystem class simulates bullets as rows of primitive arrays instead of one FXGL
+ * entity each, so that thousands of them can be in flight at once.
+ *
+ * Key Responsibilities:
+ * - **Storage**: Center position, velocity and owner type of every live bullet sit in parallel
+ *   arrays. A dead bullet is swapped with the last one, so live bullets are always packed in
+ *   {@code [0, size())} and the update loop never skips holes.
+ * - **Flight**: {@link #update} advances every bullet in one tight loop and drops the ones that
+ *   leave the world.
+ * - **Collision**: Each bullet asks the {@link Targets} broadphase for the walls and tanks near
+ *   its box and runs the exact overlap test only on those. Like the {@code CollidableComponent}
+ *   of the bullet entity, a bullet never hits tanks of its owner's type and ignores health packs.
+ *   When the level's walls are a {@link WallBitmap}, the wall test is a bitmap lookup and the
+ *   broadphase only has to return tanks.
+ * - **Hit Events**: Every hit is reported to a {@link HitListener} with the target and the
+ *   bullet's center, which is what {@code BulletWallHandler}, {@code BulletEnemyHandler} and
+ *   {@code BulletPlayerHandler} need to react to it.
+ *
+ * The hit box, {@link #bounds}, matches the {@code bullet} entity: its 8x10 texture, which points
+ * right, scaled by 2 around its center and turned to face the direction of flight. A bullet
+ * flying sideways is 16 wide and 20 high, one flying up or down is 20 wide and 16 high. When a
+ * bullet overlaps several targets in the same frame a wall wins over a tank. The headless
+ * simulation uses the same box, {@link #canHit} rule and order.
+ *
+ * The system itself has no JavaFX dependency; {@code BulletLayer} connects it to the FXGL world
+ * and draws it.
+ *
+ * @param <T> the type of the walls and tanks bullets collide with
+ */
+public final class BulletSystem<T> {
+
+    /** Half of the bullet's length along its direction of flight. */
+    public static final double HALF_LENGTH = 8;
+    /** Half of the bullet's width across its direction of flight. */
+    public static final double HALF_WIDTH = 10;
+
+    /**
+     * The walls and tanks bullets can hit, usually backed by a spatial grid.
+     */
+    public interface Targets<T> {
+        /**
+         * Appends every wall, player and enemy that may overlap the rectangle to {@code out}.
+         * Extra candidates are fine, they are filtered by the exact test.
+         */
+        void query(double minX, double minY, double maxX, double maxY, List<T> out);
+
+        TankGameType typeOf(T target);
+
+        /** Writes the target's world bounds into {@code out} as {minX, minY, maxX, maxY}. */
+        void bounds(T target, double[] out);
+    }
+
+    /**
+     * Receives the hits of an {@link #update}. The bullet is already gone when it is called.
+     * {@code target} is {@code null} for a wall of the {@link WallBitmap}.
+     */
+    public interface HitListener<T> {
+        void onHit(T target, TankGameType targetType, TankGameType ownerType, double x, double y);
+    }
+
+    private static final TankGameType[] TYPES = TankGameType.values();
+
+    private final double worldWidth;
+    private final double worldHeight;
+    private float[] x;
+    private float[] y;
+    private float[] vx;
+    private float[] vy;
+    private byte[] owner;
+    private int size = 0;
+
+    private final List<T> candidates = new ArrayList<>();
+    private final double[] box = new double[4];
+    private final double[] targetBox = new double[4];
+    private WallBitmap walls;
+
+    public BulletSystem(double worldWidth, double worldHeight) {
+        this(worldWidth, worldHeight, 256);
+    }
+
+    /**
+     * @param worldWidth bullets past this x are dropped
+     * @param worldHeight bullets past this y are dropped
+     * @param capacity initial number of bullets, the arrays grow past this if needed
+     */
+    public BulletSystem(double worldWidth, double worldHeight, int capacity) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        capacity = Math.max(1, capacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        owner = new byte[capacity];
+    }
+
+    /**
+     * Adds a bullet centered on the given point. Returns its index, which stays valid until the
+     * next {@link #update}.
+     */
+    public int spawn(double centerX, double centerY, double velocityX, double velocityY, TankGameType ownerType) {
+        if (size == x.length) {
+            grow();
+        }
+        int i = size++;
+        x[i] = (float) centerX;
+        y[i] = (float) centerY;
+        vx[i] = (float) velocityX;
+        vy[i] = (float) velocityY;
+        owner[i] = (byte) ownerType.ordinal();
+        return i;
+    }
+
+    /**
+     * Moves every bullet by {@code dt} seconds and resolves its hits. Bullets spawned by the
+     * listener while the update runs are moved in the same update.
+     */
+    public void update(double dt, Targets<T> targets, HitListener<T> listener) {
+        float step = (float) dt;
+        int i = 0;
+        while (i < size) {
+            float cx = x[i] + vx[i] * step;
+            float cy = y[i] + vy[i] * step;
+            x[i] = cx;
+            y[i] = cy;
+
+            bounds(cx, cy, vx[i], vy[i], box);
+            double minX = box[0];
+            double minY = box[1];
+            double maxX = box[2];
+            double maxY = box[3];
+            if (maxX < 0 || maxY < 0 || minX > worldWidth || minY > worldHeight) {
+                remove(i);
+                continue;
+            }
+
+            TankGameType ownerType = TYPES[owner[i]];
+            T hit = null;
+            TankGameType hitType = null;
+            if (walls != null && walls.overlaps(minX, minY, maxX, maxY)) {
+                hitType = TankGameType.WALL;
+            }
+            candidates.clear();
+            if (hitType == null) {
+                targets.query(minX, minY, maxX, maxY, candidates);
+            }
+            for (int c = 0; c < candidates.size(); c++) {
+                T target = candidates.get(c);
+                TankGameType type = targets.typeOf(target);
+                if (hitType == TankGameType.WALL || !canHit(ownerType, type)) {
+                    continue;
+                }
+                targets.bounds(target, targetBox);
+                // Inclusive test, same as the movement code and the headless simulation
+                if (minX <= targetBox[2] && maxX >= targetBox[0] && minY <= targetBox[3] && maxY >= targetBox[1]) {
+                    hit = target;
+                    hitType = type;
+                }
+            }
+            candidates.clear();
+
+            if (hitType == null) {
+                i++;
+                continue;
+            }
+            // Gone before the listener runs, it may spawn new bullets or clear the system
+            remove(i);
+            listener.onHit(hit, hitType, ownerType, cx, cy);
+        }
+    }
+
+    /**
+     * Writes the hit box of a bullet centered at ({@code centerX}, {@code centerY}) and flying
+     * along ({@code velocityX}, {@code velocityY}) into {@code out} as {minX, minY, maxX, maxY}.
+     */
+    public static void bounds(double centerX, double centerY, double velocityX, double velocityY, double[] out) {
+        boolean sideways = Math.abs(velocityX) >= Math.abs(velocityY);
+        double halfW = sideways ? HALF_LENGTH : HALF_WIDTH;
+        double halfH = sideways ? HALF_WIDTH : HALF_LENGTH;
+        out[0] = centerX - halfW;
+        out[1] = centerY - halfH;
+        out[2] = centerX + halfW;
+        out[3] = centerY + halfH;
+    }
+
+    /**
+     * Whether a bullet fired by a tank of {@code ownerType} hits a {@code targetType}: walls and
+     * tanks of the other side, never health packs.
+     */
+    public static boolean canHit(TankGameType ownerType, TankGameType targetType) {
+        return targetType != ownerType && (targetType == TankGameType.WALL
+                || targetType == TankGameType.PLAYER || targetType == TankGameType.ENEMY);
+    }
+
+    private void remove(int i) {
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        owner[i] = owner[last];
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        owner = Arrays.copyOf(owner, capacity);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sets the bitmap of the level's static walls, or {@code null} to hit wall targets only.
+     */
+    public void setWalls(WallBitmap walls) {
+        this.walls = walls;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getX(int i) {
+        return x[i];
+    }
+
+    public double getY(int i) {
+        return y[i];
+    }
+
+    public double getVelocityX(int i) {
+        return vx[i];
+    }
+
+    public double getVelocityY(int i) {
+        return vy[i];
+    }
+
+    public TankGameType getOwnerType(int i) {
+        return TYPES[owner[i]];
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ooptankgame.Bullets;
+
+/**
+ * The TankGun class holds the shooting rules of one tank, so {@code PlayerComponent},
+ * {@code EnemyAIComponent} and the {@code HeadlessSimulation} cool down and place their shots
+ * the same way.
+ *
+ * Key Responsibilities:
+ * - **Cool-down**: {@link #advance} adds the simulated time of a tick before the tank acts in
+ *   it, and the gun is {@link #isReady() ready} once a whole interval passed since the last shot.
+ *   Counting ticks the same way everywhere keeps the first shot of a match on the same tick.
+ * - **Spawn Point**: {@link #spawnX} and {@link #spawnY} give where the bullet's unscaled
+ *   texture goes, 4 pixels left of the tank's center and {@code offsetY} below it.
+ *
+ * A gun is plain state without JavaFX, it allocates nothing.
+ */
+public final class TankGun {
+
+    /** Player shot cool-down in seconds. */
+    public static final double PLAYER_INTERVAL = 0.35;
+    public static final double PLAYER_OFFSET_Y = -4.5;
+    public static final double ENEMY_OFFSET_Y = -4;
+    /** Half the width of the bullet texture, which is centered on the tank. */
+    private static final double OFFSET_X = -4;
+
+    private final double interval;
+    private final double offsetY;
+    private double sinceShot = 0;
+
+    /**
+     * @param interval seconds between two shots
+     * @param offsetY vertical offset of the bullet from the tank's center
+     */
+    public TankGun(double interval, double offsetY) {
+        this.interval = interval;
+        this.offsetY = offsetY;
+    }
+
+    /**
+     * Lets {@code seconds} of simulated time pass.
+     */
+    public void advance(double seconds) {
+        sinceShot += seconds;
+    }
+
+    /** Whether the gun cooled down since the last shot. */
+    public boolean isReady() {
+        return sinceShot >= interval;
+    }
+
+    /**
+     * Starts the cool-down of a shot just fired.
+     */
+    public void fired() {
+        sinceShot = 0;
+    }
+
+    public double spawnX(double centerX) {
+        return centerX + OFFSET_X;
+    }
+
+    public double spawnY(double centerY) {
+        return centerY + offsetY;
+    }
+
+    public double getInterval() {
+        return interval;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.ooptankgame.Collision;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.EntityWorldListener;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.components.BoundingBoxComponent;
+import com.almasb.fxgl.entity.components.TransformComponent;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import javafx.beans.InvalidationListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static com.example.ooptankgame.Enums.TankGameType.*;
+
+/**
+ * The EntitySpatialIndex class keeps a {@link SpatialGrid} in sync with the entities of a
+ * FXGL {@link GameWorld} so that tank movement only has to test the walls, tanks and health
+ * packs that are actually near it.
+ *
+ * Key Responsibilities:
+ * - **World Tracking**: Registers itself as an {@link EntityWorldListener}, so walls and health
+ *   packs spawned by {@code setLevelFromMap} and tanks spawned by the factory are indexed as
+ *   they are added, and dropped again when they are removed from the world.
+ * - **Translate Tracking**: Listens to the x, y and angle of every indexed entity and re-buckets
+ *   it whenever it moves or turns, no matter which code moved it.
+ * - **Queries**: Answers "what could block this tank if it moves this far in this direction",
+ *   filtered by entity type and excluding the tank itself, and "what is near this rectangle",
+ *   which the {@code BulletLayer} uses as the broadphase for its bullets.
+ * - **Movement Resolution**: Combines that query with the {@link TankMove} rules to tell a tank
+ *   how far it may move in one pass, which both tank components use instead of stepping pixel by
+ *   pixel.
+ *
+ * - **Static Walls**: When the level's walls were rasterized into a {@link WallBitmap} with
+ *   {@link #setWalls}, wall tests go to the bitmap instead of wall entities.
+ *
+ * There is one index per world, created lazily by {@link #of(GameWorld)}.
+ */
+public final class EntitySpatialIndex implements EntityWorldListener {
+
+    private static final Map<GameWorld, EntitySpatialIndex> INDICES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final SpatialGrid<Entity> grid = new SpatialGrid<>(SpatialGrid.TILE_SIZE);
+    private final Map<Entity, InvalidationListener> listeners = new IdentityHashMap<>();
+    private final double[] bounds = new double[4];
+    private final double[] moverBounds = new double[4];
+    private final List<Entity> candidates = new ArrayList<>();
+    private final TankMove<Entity> move = new TankMove<>();
+    private WallBitmap walls;
+
+    private EntitySpatialIndex(GameWorld world) {
+        world.addWorldListener(this);
+        for (Entity entity : world.getEntities()) {
+            onEntityAdded(entity);
+        }
+    }
+
+    /**
+     * Returns the index for the given world, creating and populating it on first use.
+     */
+    public static EntitySpatialIndex of(GameWorld world) {
+        return INDICES.computeIfAbsent(world, EntitySpatialIndex::new);
+    }
+
+    @Override
+    public void onEntityAdded(Entity entity) {
+        if (!isIndexed(entity) || listeners.containsKey(entity)) {
+            return;
+        }
+        // An invalidation listener, a change listener would box the old and new value of every move.
+        // refresh() reads the position and angle again, which makes them report the next change.
+        InvalidationListener listener = observable -> refresh(entity);
+        TransformComponent transform = entity.getTransformComponent();
+        transform.xProperty().addListener(listener);
+        transform.yProperty().addListener(listener);
+        transform.angleProperty().addListener(listener);
+        listeners.put(entity, listener);
+
+        worldBounds(entity, bounds);
+        grid.insert(entity, bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    @Override
+    public void onEntityRemoved(Entity entity) {
+        InvalidationListener listener = listeners.remove(entity);
+        if (listener == null) {
+            return;
+        }
+        TransformComponent transform = entity.getTransformComponent();
+        transform.xProperty().removeListener(listener);
+        transform.yProperty().removeListener(listener);
+        transform.angleProperty().removeListener(listener);
+        grid.remove(entity);
+    }
+
+    /**
+     * Appends to {@code out} every indexed entity of one of the given types that could collide
+     * with {@code mover} while it travels {@code distance} pixels along {@code dir}. The mover
+     * itself is never reported.
+     */
+    public void queryAlong(Entity mover, Dir dir, double distance, TankGameType[] types, List<Entity> out) {
+        worldBounds(mover, bounds);
+        double dx = dir.getDx() * distance;
+        double dy = dir.getDy() * distance;
+        double minX = bounds[0] + Math.min(0, dx);
+        double minY = bounds[1] + Math.min(0, dy);
+        double maxX = bounds[2] + Math.max(0, dx);
+        double maxY = bounds[3] + Math.max(0, dy);
+
+        int start = out.size();
+        query(minX, minY, maxX, maxY, types, out);
+
+        // Drop the mover itself, in place
+        int kept = start;
+        for (int i = start; i < out.size(); i++) {
+            Entity candidate = out.get(i);
+            if (candidate != mover) {
+                out.set(kept++, candidate);
+            }
+        }
+        for (int i = out.size() - 1; i >= kept; i--) {
+            out.remove(i);
+        }
+    }
+
+    /**
+     * Appends to {@code out} every indexed entity of one of the given types whose cells overlap
+     * the rectangle. Like {@link SpatialGrid#query} this is a candidate set, callers still run
+     * the exact overlap test.
+     */
+    public void query(double minX, double minY, double maxX, double maxY, TankGameType[] types, List<Entity> out) {
+        int start = out.size();
+        grid.query(minX, minY, maxX, maxY, out);
+
+        // Drop anything of a type the caller does not collide with, in place
+        int kept = start;
+        for (int i = start; i < out.size(); i++) {
+            Entity candidate = out.get(i);
+            if (isAnyType(candidate, types)) {
+                out.set(kept++, candidate);
+            }
+        }
+        for (int i = out.size() - 1; i >= kept; i--) {
+            out.remove(i);
+        }
+    }
+
+    /**
+     * Returns how many of the requested one-pixel {@code steps} along {@code dir} the mover can
+     * take before touching an entity of one of the given types. This gives the same result as
+     * translating one pixel at a time and stopping before the first colliding step.
+     */
+    public int maxSteps(Entity mover, Dir dir, int steps, TankGameType[] types) {
+        if (steps <= 0) {
+            return 0;
+        }
+        candidates.clear();
+        queryAlong(mover, dir, steps, types, candidates);
+
+        worldBounds(mover, moverBounds);
+        move.start(moverBounds, dir, steps);
+        if (walls != null && containsType(types, WALL)) {
+            move.againstWalls(walls);
+        }
+        for (int i = 0; i < candidates.size() && move.isMoving(); i++) {
+            worldBounds(candidates.get(i), bounds);
+            move.against(bounds, candidates.get(i));
+        }
+        candidates.clear();
+        return move.getSteps();
+    }
+
+    public int size() {
+        return grid.size();
+    }
+
+    /**
+     * Sets the bitmap holding the level's static walls, or {@code null} if walls are entities.
+     */
+    public void setWalls(WallBitmap walls) {
+        this.walls = walls;
+    }
+
+    public WallBitmap getWalls() {
+        return walls;
+    }
+
+    private void refresh(Entity entity) {
+        worldBounds(entity, bounds);
+        grid.update(entity, bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    /**
+     * Writes the axis-aligned world bounds of the entity's bounding box into
+     * {@code out} as {minX, minY, maxX, maxY}, taking the entity's rotation about its
+     * rotation origin into account.
+     */
+    public static void worldBounds(Entity entity, double[] out) {
+        // Through the properties, FXGL's getters box every value they return
+        TransformComponent transform = entity.getTransformComponent();
+        BoundingBoxComponent bbox = entity.getBoundingBoxComponent();
+        double x = transform.xProperty().get();
+        double y = transform.yProperty().get();
+        double minX = bbox.minXLocalProperty().get();
+        double minY = bbox.minYLocalProperty().get();
+        double maxX = minX + bbox.widthProperty().get();
+        double maxY = minY + bbox.heightProperty().get();
+
+        double angle = transform.angleProperty().get();
+        if (angle == 0) {
+            out[0] = x + minX;
+            out[1] = y + minY;
+            out[2] = x + maxX;
+            out[3] = y + maxY;
+            return;
+        }
+
+        // Rotate the four corners around the rotation origin, same as the hit box corners
+        double originX = transform.rotationOriginXProperty().get();
+        double originY = transform.rotationOriginYProperty().get();
+        double cos = Math.cos(Math.toRadians(angle));
+        double sin = Math.sin(Math.toRadians(angle));
+        // The tanks only ever turn in steps of 90 degrees, snap so corners stay exact
+        cos = Math.rint(cos * 1e9) / 1e9;
+        sin = Math.rint(sin * 1e9) / 1e9;
+
+        out[0] = Double.POSITIVE_INFINITY;
+        out[1] = Double.POSITIVE_INFINITY;
+        out[2] = Double.NEGATIVE_INFINITY;
+        out[3] = Double.NEGATIVE_INFINITY;
+        for (int corner = 0; corner < 4; corner++) {
+            double localX = (corner & 1) == 0 ? minX : maxX;
+            double localY = (corner & 2) == 0 ? minY : maxY;
+            double dx = localX - originX;
+            double dy = localY - originY;
+            double worldX = x + originX + dx * cos - dy * sin;
+            double worldY = y + originY + dx * sin + dy * cos;
+            out[0] = Math.min(out[0], worldX);
+            out[1] = Math.min(out[1], worldY);
+            out[2] = Math.max(out[2], worldX);
+            out[3] = Math.max(out[3], worldY);
+        }
+    }
+
+    /**
+     * Moves the entity by the given pixels, like {@code Entity.translate()} without boxing the old
+     * and new coordinates, which the JIT cannot always optimize away.
+     */
+    public static void translate(Entity entity, double dx, double dy) {
+        TransformComponent transform = entity.getTransformComponent();
+        transform.xProperty().set(transform.xProperty().get() + dx);
+        transform.yProperty().set(transform.yProperty().get() + dy);
+    }
+
+    /**
+     * Turns the entity to the given angle, like {@code Entity.setRotation()} without boxing it.
+     */
+    public static void rotate(Entity entity, double angle) {
+        entity.getTransformComponent().angleProperty().set(angle);
+    }
+
+    private static boolean isIndexed(Entity entity) {
+        return entity.isType(WALL) || entity.isType(PLAYER) || entity.isType(ENEMY) || entity.isType(HEALTH_PACK);
+    }
+
+    private static boolean containsType(TankGameType[] types, TankGameType type) {
+        for (TankGameType candidate : types) {
+            if (candidate == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAnyType(Entity entity, TankGameType[] types) {
+        for (TankGameType type : types) {
+            if (entity.isType(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.ooptankgame.Collision;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * The SpatialGrid class is a uniform-grid broadphase used to find the few items that
+ * could possibly overlap a given rectangle, instead of testing every item in the world.
+ *
+ * Key Responsibilities:
+ * - **Bucketing**: Each item is stored in every cell its axis-aligned bounds touch. Cells
+ *   are square and keyed on the tile size of the TMX map (32px), so a tank covers at most
+ *   a 2x2 block of cells and a typical wall only a handful.
+ * - **Maintenance**: Items can be inserted, moved and removed. Moving an item only touches
+ *   the cell lists when its cell range actually changes, which for a tank creeping a few
+ *   pixels per frame is rare.
+ * - **Queries**: A query walks the cells under a rectangle and appends each distinct item
+ *   once, using a per-query stamp instead of a Set so that queries do not allocate.
+ *
+ * The grid only knows rectangles, not entities, so it works the same for the FXGL world
+ * (see {@link EntitySpatialIndex}) and for code that runs without JavaFX. The grid grows
+ * on demand when an item is placed beyond its current extent; negative coordinates are
+ * clamped into the first row/column.
+ *
+ * @param <T> the type of item stored in the grid
+ */
+public final class SpatialGrid<T> {
+
+    /** Default cell size, matching the tile size of the TMX maps. */
+    public static final int TILE_SIZE = 32;
+
+    private final int cellSize;
+    private final IdentityHashMap<T, Entry<T>> entries = new IdentityHashMap<>();
+    private ArrayList<Entry<T>>[] cells;
+    private int columns;
+    private int rows;
+    private int queryStamp = 0;
+
+    public SpatialGrid() {
+        this(TILE_SIZE);
+    }
+
+    public SpatialGrid(int cellSize) {
+        this(cellSize, 30, 30);
+    }
+
+    /**
+     * @param cellSize size of one square cell in pixels
+     * @param columns initial number of columns, the grid grows past this if needed
+     * @param rows initial number of rows, the grid grows past this if needed
+     */
+    public SpatialGrid(int cellSize, int columns, int rows) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, columns);
+        this.rows = Math.max(1, rows);
+        this.cells = newCells(this.columns * this.rows);
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(T item) {
+        return entries.containsKey(item);
+    }
+
+    /**
+     * Adds an item with the given world bounds. Inserting an item that is already
+     * present behaves like {@link #update}.
+     */
+    public void insert(T item, double minX, double minY, double maxX, double maxY) {
+        Entry<T> entry = entries.get(item);
+        if (entry != null) {
+            update(item, minX, minY, maxX, maxY);
+            return;
+        }
+        entry = new Entry<>(item);
+        entries.put(item, entry);
+        setRange(entry, minX, minY, maxX, maxY);
+        addToCells(entry);
+    }
+
+    /**
+     * Moves an item to new world bounds. Items that are not in the grid are ignored.
+     */
+    public void update(T item, double minX, double minY, double maxX, double maxY) {
+        Entry<T> entry = entries.get(item);
+        if (entry == null) {
+            return;
+        }
+        ensureCovers(maxX, maxY);
+        int minCx = cellX(minX);
+        int minCy = cellY(minY);
+        int maxCx = cellX(maxX);
+        int maxCy = cellY(maxY);
+        if (minCx == entry.minCx && minCy == entry.minCy && maxCx == entry.maxCx && maxCy == entry.maxCy) {
+            return;
+        }
+        removeFromCells(entry);
+        setRange(entry, minX, minY, maxX, maxY);
+        addToCells(entry);
+    }
+
+    public void remove(T item) {
+        Entry<T> entry = entries.remove(item);
+        if (entry != null) {
+            removeFromCells(entry);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        for (ArrayList<Entry<T>> cell : cells) {
+            if (cell != null) {
+                cell.clear();
+            }
+        }
+    }
+
+    /**
+     * Appends every item whose cells overlap the given rectangle to {@code out}. Each item
+     * is reported once. The result is a candidate set: callers still run the exact test.
+     * The list is not cleared first so several queries can be merged into one buffer.
+     */
+    public void query(double minX, double minY, double maxX, double maxY, List<? super T> out) {
+        int minCx = cellX(minX);
+        int minCy = cellY(minY);
+        int maxCx = cellX(maxX);
+        int maxCy = cellY(maxY);
+
+        int stamp = nextStamp();
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                ArrayList<Entry<T>> cell = cells[cy * columns + cx];
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    Entry<T> entry = cell.get(i);
+                    if (entry.stamp != stamp) {
+                        entry.stamp = stamp;
+                        out.add(entry.item);
+                    }
+                }
+            }
+        }
+    }
+
+    private int nextStamp() {
+        queryStamp++;
+        if (queryStamp == 0) {
+            // Wrapped around, reset every stamp so an old value cannot match by accident
+            for (Entry<T> entry : entries.values()) {
+                entry.stamp = 0;
+            }
+            queryStamp = 1;
+        }
+        return queryStamp;
+    }
+
+    private void setRange(Entry<T> entry, double minX, double minY, double maxX, double maxY) {
+        ensureCovers(maxX, maxY);
+        entry.minCx = cellX(minX);
+        entry.minCy = cellY(minY);
+        entry.maxCx = cellX(maxX);
+        entry.maxCy = cellY(maxY);
+    }
+
+    private void addToCells(Entry<T> entry) {
+        for (int cy = entry.minCy; cy <= entry.maxCy; cy++) {
+            for (int cx = entry.minCx; cx <= entry.maxCx; cx++) {
+                int index = cy * columns + cx;
+                ArrayList<Entry<T>> cell = cells[index];
+                if (cell == null) {
+                    cell = new ArrayList<>(4);
+                    cells[index] = cell;
+                }
+                cell.add(entry);
+            }
+        }
+    }
+
+    private void removeFromCells(Entry<T> entry) {
+        for (int cy = entry.minCy; cy <= entry.maxCy; cy++) {
+            for (int cx = entry.minCx; cx <= entry.maxCx; cx++) {
+                ArrayList<Entry<T>> cell = cells[cy * columns + cx];
+                // Swap-remove, order inside a cell does not matter
+                int last = cell.size() - 1;
+                for (int i = 0; i <= last; i++) {
+                    if (cell.get(i) == entry) {
+                        cell.set(i, cell.get(last));
+                        cell.remove(last);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureCovers(double maxX, double maxY) {
+        int neededColumns = (int) Math.floor(maxX / cellSize) + 1;
+        int neededRows = (int) Math.floor(maxY / cellSize) + 1;
+        if (neededColumns <= columns && neededRows <= rows) {
+            return;
+        }
+        // Grow geometrically so a stream of far-away inserts does not rebuild every time
+        int newColumns = Math.max(columns, Math.max(neededColumns, columns * 2));
+        int newRows = Math.max(rows, Math.max(neededRows, rows * 2));
+        ArrayList<Entry<T>>[] newCells = newCells(newColumns * newRows);
+        for (int cy = 0; cy < rows; cy++) {
+            System.arraycopy(cells, cy * columns, newCells, cy * newColumns, columns);
+        }
+        cells = newCells;
+        columns = newColumns;
+        rows = newRows;
+    }
+
+    private int cellX(double x) {
+        return clamp((int) Math.floor(x / cellSize), columns);
+    }
+
+    private int cellY(double y) {
+        return clamp((int) Math.floor(y / cellSize), rows);
+    }
+
+    private static int clamp(int cell, int count) {
+        return cell < 0 ? 0 : Math.min(cell, count - 1);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> ArrayList<Entry<T>>[] newCells(int count) {
+        return (ArrayList<Entry<T>>[]) new ArrayList[count];
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private int minCx, minCy, maxCx, maxCy;
+        private int stamp;
+
+        private Entry(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.ooptankgame.Collision;
+
+import com.example.ooptankgame.Enums.Dir;
+
+/**
+ * The TankMove class holds the movement rules of every tank, so the game's components, the
+ * headless simulation and the network client's prediction resolve a move the same way instead of
+ * each keeping a copy.
+ *
+ * Key Responsibilities:
+ * - **Speed**: {@link #length} turns the seconds of a tick into the whole pixels a tank moves,
+ *   with the same rounding of the float the components always used.
+ * - **Turning**: {@link #turnedBounds} gives a tank's box facing a direction. The tank entities
+ *   turn about the center of their bounding box, which is where FXGL's {@code EntityBuilder.bbox()}
+ *   puts the rotation origin, so a tank facing left or right has the width and height of its box
+ *   swapped around the same center. {@link EntitySpatialIndex#worldBounds} gives the same box for
+ *   an entity turned that way.
+ * - **Resolving**: {@link #start} takes the mover's turned box, then {@link #against} and
+ *   {@link #againstWalls} cut the move short at the first obstacle with {@link SweptAabb}, in one
+ *   pass over whatever obstacles the caller's broadphase found. The obstacle that stopped the move
+ *   is kept, a health pack stopping a tank is picked up.
+ *
+ * An instance is reused move after move and allocates nothing.
+ *
+ * @param <T> the type of the obstacles
+ */
+public final class TankMove<T> {
+
+    /** Tank speed in pixels per second. */
+    public static final double SPEED = 100;
+
+    private final double[] mover = new double[4];
+    private int dx;
+    private int dy;
+    private int length;
+    private int steps;
+    private T blocker;
+
+    /**
+     * Returns how many whole pixels a tank moves in {@code seconds}.
+     */
+    public static int length(double seconds) {
+        return Math.round((float) (seconds * SPEED));
+    }
+
+    /**
+     * Writes the box of a tank at ({@code x}, {@code y}) with a {@code width} x {@code height}
+     * bounding box, turned to face {@code dir}, into {@code out} as {minX, minY, maxX, maxY}.
+     * Facing up is the unturned box.
+     */
+    public static void turnedBounds(double x, double y, double width, double height, Dir dir, double[] out) {
+        if (dir.getDx() == 0) {
+            out[0] = x;
+            out[1] = y;
+            out[2] = x + width;
+            out[3] = y + height;
+            return;
+        }
+        double centerX = x + width / 2;
+        double centerY = y + height / 2;
+        out[0] = centerX - height / 2;
+        out[1] = centerY - width / 2;
+        out[2] = centerX + height / 2;
+        out[3] = centerY + width / 2;
+    }
+
+    /**
+     * Starts resolving a move of {@code length} pixels along {@code dir} for a tank whose box,
+     * already turned to face {@code dir}, is {@code bounds}.
+     */
+    public void start(double[] bounds, Dir dir, int length) {
+        System.arraycopy(bounds, 0, mover, 0, 4);
+        this.dx = dir.getDx();
+        this.dy = dir.getDy();
+        this.length = Math.max(0, length);
+        this.steps = this.length;
+        this.blocker = null;
+    }
+
+    /**
+     * Writes the area the move can still sweep into {@code out}, for the broadphase query.
+     */
+    public void sweptBounds(double[] out) {
+        out[0] = mover[0] + Math.min(0, dx * steps);
+        out[1] = mover[1] + Math.min(0, dy * steps);
+        out[2] = mover[2] + Math.max(0, dx * steps);
+        out[3] = mover[3] + Math.max(0, dy * steps);
+    }
+
+    /**
+     * Cuts the move short before {@code bounds}, remembering {@code obstacle} if it is now the
+     * one that stops the tank. Pass {@code null} for obstacles that are never picked up.
+     */
+    public void against(double[] bounds, T obstacle) {
+        if (steps == 0) {
+            return;
+        }
+        int legal = SweptAabb.stepsBeforeContact(mover, dx, dy, steps, bounds);
+        if (legal < steps) {
+            steps = legal;
+            blocker = obstacle;
+        }
+    }
+
+    /**
+     * Cuts the move short before the walls of the bitmap.
+     */
+    public void againstWalls(WallBitmap walls) {
+        if (steps == 0) {
+            return;
+        }
+        int legal = walls.stepsBeforeContact(mover, dx, dy, steps);
+        if (legal < steps) {
+            steps = legal;
+            blocker = null;
+        }
+    }
+
+    /** Whether any of the move is left to cut, once it is 0 no obstacle matters. */
+    public boolean isMoving() {
+        return steps > 0;
+    }
+
+    /** Pixels the tank can move. */
+    public int getSteps() {
+        return steps;
+    }
+
+    /** Whether something stopped the tank short of the whole move. */
+    public boolean isBlocked() {
+        return steps < length;
+    }
+
+    /** What stopped the tank, {@code null} if nothing did or it was an obstacle passed as {@code null}. */
+    public T getBlocker() {
+        return blocker;
+    }
+}
@@ -2,10 +2,11 @@ package com.example.ooptankgame.CollisionHandler;
 
 import com.almasb.fxgl.dsl.components.HealthIntComponent;
 import com.almasb.fxgl.entity.Entity;
-import com.almasb.fxgl.physics.CollisionHandler;
 import com.example.ooptankgame.Enums.TankGameType;
-import static com.almasb.fxgl.dsl.FXGL.inc;
-import static com.almasb.fxgl.dsl.FXGL.spawn;
+import com.example.ooptankgame.Events.GameEvents;
+import com.example.ooptankgame.Factory.EntityPool;
+import com.example.ooptankgame.Telemetry.GameTelemetry;
+import com.example.ooptankgame.Telemetry.TelemetryLog;
 
 /*
 "BulletEnemyHandler" class is responsible for handling the interaction
@@ -14,25 +15,37 @@ say that this class uses Observer Pattern as it tells the GUI to update
 removing bullet from world and removing Tanks if health is zero.
  */
 
-public class BulletEnemyHandler extends CollisionHandler {
+public class BulletEnemyHandler extends ProfiledCollisionHandler {
     public BulletEnemyHandler() {
         super(TankGameType.BULLET, TankGameType.ENEMY);
     }
-    protected void onCollisionBegin(Entity bullet, Entity enemy) {
-        // Spawns an explosion from our Factory
-        spawn("explode", enemy.getCenter().getX() - 32, enemy.getCenter().getY() - 32);
+    protected void onContact(Entity bullet, Entity enemy) {
+        EntityPool pool = EntityPool.of(bullet.getWorld());
 
-        // Removes the bullet from the game world
-        bullet.removeFromWorld();
+        // Returns the bullet to the pool, if it already hit something else this frame we are done
+        if (!pool.release(bullet)) {
+            return;
+        }
+
+        onBulletHit(enemy);
+    }
+
+    // What happens to an enemy hit by a bullet, also used by the BulletLayer
+    public void onBulletHit(Entity enemy) {
+        // Spawns an explosion from our Factory, reusing a finished one if there is one
+        EntityPool.of(enemy.getWorld()).obtain("explode", enemy.getCenter().getX() - 32, enemy.getCenter().getY() - 32);
 
         HealthIntComponent hp = enemy.getComponent(HealthIntComponent.class);
-        hp.damage(1);
+        // The rules count the enemy as destroyed when its HP reaches zero
+        hp.setValue(GameEvents.of(enemy.getWorld()).enemyHit(hp.getValue()));
+        TelemetryLog telemetry = GameTelemetry.of(enemy.getWorld());
+        if (telemetry != null) {
+            telemetry.hit(TankGameType.ENEMY, hp.getValue(), enemy.getX(), enemy.getY());
+        }
 
         // If an enemy tanks HP reaches zero we remove it from the world as its dead
         if(hp.isZero()) {
             enemy.removeFromWorld();
-            inc("score", 10);
-            inc("destroyedEnemy", 1);
         }
     }
 
@@ -1,21 +1,12 @@
 package com.example.ooptankgame.CollisionHandler;
 
-import com.almasb.fxgl.dsl.FXGL;
 import com.almasb.fxgl.dsl.components.HealthIntComponent;
 import com.almasb.fxgl.entity.Entity;
-import com.almasb.fxgl.physics.CollisionHandler;
-import com.almasb.fxgl.texture.Texture;
-import com.example.ooptankgame.Components.PlayerComponent;
 import com.example.ooptankgame.Enums.TankGameType;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-
-import java.util.ArrayList;
-import java.util.List;
-
-import static com.almasb.fxgl.dsl.FXGL.*;
-import static com.almasb.fxgl.dsl.FXGLForKtKt.getGameScene;
-import static com.almasb.fxgl.dsl.FXGLForKtKt.inc;
+import com.example.ooptankgame.Events.GameEvents;
+import com.example.ooptankgame.Factory.EntityPool;
+import com.example.ooptankgame.Telemetry.GameTelemetry;
+import com.example.ooptankgame.Telemetry.TelemetryLog;
 
 /*
 "BulletPlayerHandler" class is responsible for handling the interaction
@@ -24,38 +15,36 @@ say that this class uses Observer Pattern as it tells the GUI to update
 removing bullet from world and removing Tanks if health is zero.
  */
 
-public class BulletPlayerHandler extends CollisionHandler {
+public class BulletPlayerHandler extends ProfiledCollisionHandler {
 
     public BulletPlayerHandler() {
         super(TankGameType.BULLET, TankGameType.PLAYER);
     }
-    public void onCollisionBegin(Entity bullet, Entity player) {
-        // Spawns an explosion from our Factory
-        spawn("explode", bullet.getCenter().getX() - 32, bullet.getCenter().getY() - 32);
+    protected void onContact(Entity bullet, Entity player) {
+        EntityPool pool = EntityPool.of(bullet.getWorld());
 
-        // Removes the bullet from the game world
-        bullet.removeFromWorld();
+        // Returns the bullet to the pool, if it already hit something else this frame we are done
+        if (!pool.release(bullet)) {
+            return;
+        }
 
-        HealthIntComponent hp = player.getComponent(HealthIntComponent.class);
-        hp.damage(1);
-        // If a player tanks HP reaches zero the game is over so we display the Game Over.png
-        if(hp.isZero() && geti("lives") != 0) {
-            inc("lives", -1);
-            hp.setValue(hp.getValue() + 2);
+        onBulletHit(bullet.getCenter().getX(), bullet.getCenter().getY(), player);
+    }
+
+    // What happens to the player hit by a bullet centered at (x, y), also used by the BulletLayer
+    public void onBulletHit(double x, double y, Entity player) {
+        // Spawns an explosion from our Factory, reusing a finished one if there is one
+        EntityPool.of(player.getWorld()).obtain("explode", x - 32, y - 32);
 
+        HealthIntComponent hp = player.getComponent(HealthIntComponent.class);
+        // The rules take the hit, and a life when the HP reaches zero, TankApp shows Game Over when it drains the events
+        hp.setValue(GameEvents.of(player.getWorld()).playerHit(hp.getValue()));
+        TelemetryLog telemetry = GameTelemetry.of(player.getWorld());
+        if (telemetry != null) {
+            telemetry.hit(TankGameType.PLAYER, hp.getValue(), player.getX(), player.getY());
         }
-        if(hp.isZero() && geti("lives") == 0){
+        if (hp.isZero()) {
             player.removeFromWorld();
-            set("gameOver", true);
-            Texture texture = FXGL.getAssetLoader().loadTexture("ui/GameOver.png");
-            texture.setTranslateX((32 * 30) / 2);
-            texture.setTranslateY((32 * 30) / 2);
-            texture.setScaleX(5);
-            texture.setScaleY(5);
-
-            Rectangle darkOverlay = new Rectangle(FXGL.getAppWidth(), FXGL.getAppHeight(), Color.rgb(0, 0, 0, .7));
-            FXGL.getGameScene().addUINode(darkOverlay);
-            FXGL.getGameScene().addUINode(texture);
         }
     }
 
@@ -1,9 +1,9 @@
 package com.example.ooptankgame.CollisionHandler;
 
 import com.almasb.fxgl.entity.Entity;
-import com.almasb.fxgl.physics.CollisionHandler;
+import com.almasb.fxgl.entity.GameWorld;
 import com.example.ooptankgame.Enums.TankGameType;
-import static com.almasb.fxgl.dsl.FXGL.spawn;
+import com.example.ooptankgame.Factory.EntityPool;
 
 /*
 "BulletWallHandler" class is responsible for handling the interaction
@@ -12,19 +12,28 @@ say that this class uses Observer Pattern as it tells the GUI to update
 removing bullet from world and removing Tanks if health is zero.
  */
 
-public class BulletWallHandler extends CollisionHandler {
+public class BulletWallHandler extends ProfiledCollisionHandler {
 
     public BulletWallHandler() {
         super(TankGameType.BULLET, TankGameType.WALL);
     }
 
     @Override
-    protected void onCollisionBegin(Entity bullet, Entity wall) {
+    protected void onContact(Entity bullet, Entity wall) {
+        GameWorld world = bullet.getWorld();
+        EntityPool pool = EntityPool.of(world);
 
-        // Spawns an explosion from our Factory
-        spawn("explode", bullet.getCenter().getX() - 32, bullet.getCenter().getY() - 32);
+        // Returns the bullet to the pool, if it already hit something else this frame we are done
+        if (!pool.release(bullet)) {
+            return;
+        }
 
-        // Removes the bullet from the game world
-        bullet.removeFromWorld();
+        onBulletHit(world, bullet.getCenter().getX(), bullet.getCenter().getY());
+    }
+
+    // What happens when a bullet centered at (x, y) hits a wall of the world, also used by the BulletLayer
+    public void onBulletHit(GameWorld world, double x, double y) {
+        // Spawns an explosion from our Factory, reusing a finished one if there is one
+        EntityPool.of(world).obtain("explode", x - 32, y - 32);
     }
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.example.ooptankgame.CollisionHandler;
 
 import com.almasb.fxgl.dsl.components.HealthIntComponent;
 import com.almasb.fxgl.entity.Entity;
-import com.almasb.fxgl.physics.CollisionHandler;
 import com.example.ooptankgame.Enums.TankGameType;
-import static com.almasb.fxgl.dsl.FXGL.spawn;
+import com.example.ooptankgame.Events.GameEvents;
+import com.example.ooptankgame.Factory.EntityPool;
+import com.example.ooptankgame.Telemetry.GameTelemetry;
+import com.example.ooptankgame.Telemetry.TelemetryLog;
 
 /*
 "EnemyHealthPackHandler" class is responsible for handling the interaction
@@ -13,23 +15,24 @@ say that this class uses Observer Pattern as it tells the GUI to update
 removing bullet from world and removing Tanks if health is zero.
  */
 
-public class EnemyHealthPackHandler extends CollisionHandler {
+public class EnemyHealthPackHandler extends ProfiledCollisionHandler {
     public EnemyHealthPackHandler() {
         super(TankGameType.ENEMY, TankGameType.HEALTH_PACK);
     }
 
-    public void onCollisionBegin(Entity enemy, Entity healthPack) {
-        // Spawns a heal from our Factory
-        spawn("heal", enemy.getCenter().getX() - 32, enemy.getCenter().getY() - 32);
+    protected void onContact(Entity enemy, Entity healthPack) {
+        // Spawns a heal from our Factory, reusing a finished one if there is one
+        EntityPool.of(enemy.getWorld()).obtain("heal", enemy.getCenter().getX() - 32, enemy.getCenter().getY() - 32);
 
         // Removes the Health Pack from the game world
         healthPack.removeFromWorld();
 
-        // If a enemy tanks HP isn't already at its max capacity we will increment their health by +1
+        // If a tanks HP isn't already at its max capacity the rules increment it by +1
         HealthIntComponent hp = enemy.getComponent(HealthIntComponent.class);
-        if (hp.getValue() < hp.getMaxValue()) {
-            System.out.println("Enemy health pack collided!");
-            hp.setValue(hp.getValue() + 1);
+        hp.setValue(GameEvents.of(enemy.getWorld()).healthPackPicked(false, hp.getValue()));
+        TelemetryLog telemetry = GameTelemetry.of(enemy.getWorld());
+        if (telemetry != null) {
+            telemetry.pickup(TankGameType.ENEMY, hp.getValue(), enemy.getX(), enemy.getY());
         }
     }
 }
\ No newline at end of file
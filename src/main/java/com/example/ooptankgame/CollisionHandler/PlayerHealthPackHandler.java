@@ -2,10 +2,11 @@ package com.example.ooptankgame.CollisionHandler;
 
 import com.almasb.fxgl.dsl.components.HealthIntComponent;
 import com.almasb.fxgl.entity.Entity;
-import com.almasb.fxgl.physics.CollisionHandler;
 import com.example.ooptankgame.Enums.TankGameType;
-import static com.almasb.fxgl.dsl.FXGL.spawn;
-import static com.almasb.fxgl.dsl.FXGLForKtKt.inc;
+import com.example.ooptankgame.Events.GameEvents;
+import com.example.ooptankgame.Factory.EntityPool;
+import com.example.ooptankgame.Telemetry.GameTelemetry;
+import com.example.ooptankgame.Telemetry.TelemetryLog;
 
 /*
 "PlayerHealthPackHandler" class is responsible for handling the interaction
@@ -14,23 +15,23 @@ say that this class uses Observer Pattern as it tells the GUI to update
 removing bullet from world and removing Tanks if health is zero.
  */
 
-public class PlayerHealthPackHandler extends CollisionHandler {
+public class PlayerHealthPackHandler extends ProfiledCollisionHandler {
     public PlayerHealthPackHandler() {
         super(TankGameType.PLAYER, TankGameType.HEALTH_PACK);
     }
-    public void onCollisionBegin(Entity player, Entity healthPack) {
-        // Spawns a heal from our Factory
-        spawn("heal", player.getCenter().getX() - 32, player.getCenter().getY() - 32);
+    protected void onContact(Entity player, Entity healthPack) {
+        // Spawns a heal from our Factory, reusing a finished one if there is one
+        EntityPool.of(player.getWorld()).obtain("heal", player.getCenter().getX() - 32, player.getCenter().getY() - 32);
 
         // Removes the Health Pack from the game world
         healthPack.removeFromWorld();
-        inc("score", 5);
 
-        // If a enemy tanks HP isn't already at its max capacity we will increment their health by +1
+        // If a tanks HP isn't already at its max capacity the rules increment it by +1
         HealthIntComponent hp = player.getComponent(HealthIntComponent.class);
-        if (hp.getValue() < hp.getMaxValue()) {
-            System.out.println("Player health pack collided!");
-            hp.setValue(hp.getValue() + 1);
+        hp.setValue(GameEvents.of(player.getWorld()).healthPackPicked(true, hp.getValue()));
+        TelemetryLog telemetry = GameTelemetry.of(player.getWorld());
+        if (telemetry != null) {
+            telemetry.pickup(TankGameType.PLAYER, hp.getValue(), player.getX(), player.getY());
         }
     }
 
@@ -0,0 +1,33 @@
+package com.example.ooptankgame.CollisionHandler;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.physics.CollisionHandler;
+import com.example.ooptankgame.Enums.FramePhase;
+import com.example.ooptankgame.Profiling.FrameProfiler;
+import com.example.ooptankgame.Profiling.WorldProfiler;
+
+/*
+"ProfiledCollisionHandler" is the base of the game's collision handlers. It times every
+collision the physics world reports as FramePhase.COLLISIONS when the world has a profiler,
+and leaves what happens on a collision to onContact in the handlers.
+ */
+
+public abstract class ProfiledCollisionHandler extends CollisionHandler {
+
+    protected ProfiledCollisionHandler(Object a, Object b) {
+        super(a, b);
+    }
+
+    @Override
+    protected final void onCollisionBegin(Entity a, Entity b) {
+        FrameProfiler profiler = WorldProfiler.of(a.getWorld());
+        long start = profiler != null ? System.nanoTime() : 0;
+        onContact(a, b);
+        if (profiler != null) {
+            profiler.add(FramePhase.COLLISIONS, System.nanoTime() - start);
+        }
+    }
+
+    // What happens when the two entities start touching
+    protected abstract void onContact(Entity a, Entity b);
+}
@@ -0,0 +1,69 @@
+package com.example.ooptankgame.Components;
+
+import com.almasb.fxgl.dsl.components.ProjectileComponent;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.component.Component;
+import com.almasb.fxgl.entity.components.BoundingBoxComponent;
+import com.example.ooptankgame.Bullets.BulletSystem;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.CollisionHandler.BulletWallHandler;
+import com.example.ooptankgame.Enums.FramePhase;
+import com.example.ooptankgame.Factory.EntityPool;
+import com.example.ooptankgame.Profiling.FrameProfiler;
+import com.example.ooptankgame.Profiling.WorldProfiler;
+import javafx.geometry.Point2D;
+
+/**
+ * The BulletWallComponent class stops a bullet entity at the level's walls when those walls are
+ * a {@link WallBitmap} instead of wall entities, since the physics world then has no wall to
+ * report a collision with.
+ *
+ * Every frame it tests the bullet's box against the bitmap and, on contact, releases the bullet
+ * and runs the same {@link BulletWallHandler} reaction a wall entity collision would. When the
+ * walls are entities the component does nothing and {@code BulletWallHandler} is called by the
+ * physics world as before.
+ */
+public class BulletWallComponent extends Component {
+
+    private static final BulletWallHandler WALL_HANDLER = new BulletWallHandler();
+
+    public ProjectileComponent projectile;
+    public BoundingBoxComponent bbox;
+    private final double[] box = new double[4];
+    private EntitySpatialIndex spatialIndex; // Looked up on the first update, once the entity is in its world
+    private FrameProfiler profiler; // Same, null unless the game runs with --profile
+    private boolean joined = false;
+
+    @Override
+    public void onUpdate(double tpf) {
+        if (!joined) {
+            joined = true;
+            spatialIndex = EntitySpatialIndex.of(entity.getWorld());
+            profiler = WorldProfiler.of(entity.getWorld());
+        }
+        long start = profiler != null ? System.nanoTime() : 0;
+        stopAtWalls();
+        if (profiler != null) {
+            profiler.add(FramePhase.BULLETS, System.nanoTime() - start);
+        }
+    }
+
+    private void stopAtWalls() {
+        WallBitmap walls = spatialIndex.getWalls();
+        if (walls == null) {
+            return;
+        }
+        // The center from the bounding box and the velocity as it is, getCenter() and
+        // getDirection() build a new point every call
+        double x = bbox.getMinXWorld() + bbox.getWidth() / 2;
+        double y = bbox.getMinYWorld() + bbox.getHeight() / 2;
+        Point2D velocity = projectile.getVelocity();
+        // Same box as the bullet system: the scaled texture turned to the direction of flight
+        BulletSystem.bounds(x, y, velocity.getX(), velocity.getY(), box);
+        GameWorld world = entity.getWorld();
+        if (walls.overlaps(box[0], box[1], box[2], box[3]) && EntityPool.of(world).release(entity)) {
+            WALL_HANDLER.onBulletHit(world, x, y);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.ooptankgame.Components;
+
+import com.almasb.fxgl.entity.component.Component;
+import com.almasb.fxgl.texture.AnimatedTexture;
+import com.example.ooptankgame.Enums.FramePhase;
+import com.example.ooptankgame.Factory.EntityPool;
+import com.example.ooptankgame.Profiling.FrameProfiler;
+import com.example.ooptankgame.Profiling.WorldProfiler;
+import javafx.util.Duration;
+
+/**
+ * The EffectComponent class plays a one-shot animation, like the explosion after a hit or the
+ * heal after a health pack pickup, and hands its entity back to the {@link EntityPool} once the
+ * animation time is over.
+ *
+ * It takes the place of {@code ExpireCleanComponent}, which removes the entity from the world:
+ * here the entity and its {@link AnimatedTexture} survive and are played again the next time
+ * the effect is spawned.
+ */
+public class EffectComponent extends Component {
+
+    private final AnimatedTexture texture;
+    private final double duration;
+    private double elapsed = 0;
+    private FrameProfiler profiler; // Looked up on the first update, null unless the game runs with --profile
+    private boolean joined = false;
+
+    public EffectComponent(AnimatedTexture texture, Duration duration) {
+        this.texture = texture;
+        this.duration = duration.toSeconds();
+    }
+
+    @Override
+    public void onAdded() {
+        texture.play();
+    }
+
+    @Override
+    public void onUpdate(double tpf) {
+        if (!joined) {
+            joined = true;
+            profiler = WorldProfiler.of(entity.getWorld());
+        }
+        long start = profiler != null ? System.nanoTime() : 0;
+        elapsed += tpf;
+        if (elapsed >= duration) {
+            EntityPool.of(entity.getWorld()).release(entity);
+        }
+        if (profiler != null) {
+            profiler.add(FramePhase.EFFECTS, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Plays the animation again from its first frame.
+     */
+    public void restart() {
+        elapsed = 0;
+        texture.play();
+        resume();
+    }
+
+    /**
+     * Stops the animation and the timer until the next {@link #restart()}.
+     */
+    public void stop() {
+        texture.stop();
+        pause();
+    }
+}
@@ -1,19 +1,27 @@
 package com.example.ooptankgame.Components;
 
-import com.almasb.fxgl.core.math.FXGLMath;
-import com.almasb.fxgl.core.math.Vec2;
-import com.almasb.fxgl.core.util.LazyValue;
-import com.almasb.fxgl.dsl.FXGL;
-import com.almasb.fxgl.entity.Entity;
-import com.almasb.fxgl.entity.EntityGroup;
 import com.almasb.fxgl.entity.SpawnData;
 import com.almasb.fxgl.entity.component.Component;
 import com.almasb.fxgl.entity.components.BoundingBoxComponent;
-import com.almasb.fxgl.time.LocalTimer;
+import com.example.ooptankgame.AI.DecisionScheduler;
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.AI.EnemyScheduler;
+import com.example.ooptankgame.AI.LineOfSight;
+import com.example.ooptankgame.AI.PursuitField;
+import com.example.ooptankgame.Bullets.BulletLayer;
+import com.example.ooptankgame.Bullets.TankGun;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.TankMove;
 import com.example.ooptankgame.Enums.Dir;
-import javafx.util.Duration;
-import java.util.List;
-import java.util.Random;
+import com.example.ooptankgame.Enums.FramePhase;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Factory.EntityPool;
+import com.example.ooptankgame.Loop.FixedStepLoop;
+import com.example.ooptankgame.Profiling.FrameProfiler;
+import com.example.ooptankgame.Profiling.WorldProfiler;
+import com.example.ooptankgame.Telemetry.GameTelemetry;
+import com.example.ooptankgame.Telemetry.TelemetryLog;
+import java.util.SplittableRandom;
 import static com.example.ooptankgame.Enums.TankGameType.*;
 /**
  * The EnemyAIComponent class defines the behavior of enemy entities in the tank game.
@@ -21,17 +29,35 @@ import static com.example.ooptankgame.Enums.TankGameType.*;
  * shooting mechanics, and collision detection with other entities in the game.
  *
  * Key Responsibilities:
- * - **Movement**: The class implements simple AI movement logic, allowing enemies to
+ * - **Movement**: The class implements simple AI movement logic (the rules live in
+ *   {@link EnemyBrain} so the headless simulation can share them), allowing enemies to
  *   change direction randomly while avoiding downward movement too frequently. The
  *   enemies will move in one of four directions (up, down, left, right) based on a
  *   probability mechanism.
- * - **Shooting**: Enemies can shoot bullets at defined intervals (every 0.35 seconds)
- *   based on random chance. The shooting direction aligns with the current movement direction.
+ * - **Pursuit**: When the world has a {@link PursuitField}, the enemy follows its shared flow
+ *   field towards the player instead, one cell at a time, and only roams at random where the
+ *   field has no way for it. Pursuing enemies still shoot when blocked but do not turn away.
+ * - **Shooting**: Enemies can shoot bullets at defined intervals (every 0.35 seconds), kept by a
+ *   {@link TankGun}, based on random chance. The shooting direction aligns with the current movement direction.
+ *   When the world has a {@link LineOfSight}, an enemy only fires if the player is straight
+ *   ahead with no wall in between, instead of wasting bullets on walls.
+ * - **Scheduled Decisions**: When the world has a {@link DecisionScheduler} (see
+ *   {@link EnemyScheduler}), the direction and shooting rolls run when the scheduler gives this
+ *   enemy its turn, weighed by the frames since its last one, and each update only moves. A turn
+ *   reads a copy of the enemy's state, so the scheduler can compute it on a worker thread and
+ *   leave turning and shooting to the FX thread.
+ * - **Determinism**: Every random choice comes from the brain's own generator, and with a fixed
+ *   timestep both movement and the shot cool-down advance by the same amount each tick, so an
+ *   enemy seeded the same way behaves the same way on every run. When the world has a
+ *   {@link FixedStepLoop}, the enemy moves in the loop's ticks instead of once per frame, so it
+ *   covers the same ground at any frame rate, and its view is drawn between the last two ticks.
  * - **Collision Detection**: During movement, the component checks for collisions with
  *   other entities (such as walls and players). If a collision is detected, it prevents
  *   further movement in that direction and may trigger shooting or change direction.
- * - **Entity Interaction**: It utilizes lazy loading to efficiently access groups of entities
- *   (like players and walls) for collision checks without incurring unnecessary overhead.
+ * - **Entity Interaction**: It lazily looks up the world's {@link EntitySpatialIndex} and only
+ *   checks the players, walls and health packs close to its path during movement.
+ * - **Allocation-Free Updates**: Like the player, it moves by the whole-pixel deltas of
+ *   {@link Dir} and refills one {@link SpawnData} per shot, so a frame of roaming creates no garbage.
  *
  * This design encapsulates all enemy-related behaviors within a single component, promoting
  * modularity and reusability in the game's architecture. The component interacts with other
@@ -39,37 +65,160 @@ import static com.example.ooptankgame.Enums.TankGameType.*;
  * and game logic.
  */
 
-public class EnemyAIComponent extends Component {
+public class EnemyAIComponent extends Component implements FixedStepLoop.Stepped {
 
     public BoundingBoxComponent bbox;
-    private LocalTimer shootTimer = FXGL.newLocalTimer();
-    private Random random = new Random();
-    private double speed = 0;
+    private final EnemyBrain brain;
+    private final double fixedTimestep;
+    private final TankGun gun;
+    private int length = 0; // Pixels per move
     private Dir moveDir;
-    private LazyValue<EntityGroup> blocks = new LazyValue<>(() -> entity.getWorld().getGroup(PLAYER, WALL, HEALTH_PACK));
-    private boolean canMove;
-    private static Dir[] dirs = Dir.values();
+    private static final TankGameType[] BLOCKING_TYPES = {PLAYER, WALL, HEALTH_PACK};
+    private int stepLimit = Integer.MAX_VALUE; // Pixels to the next flow field cell while pursuing
+    private boolean pursuing = false;
+    private EntitySpatialIndex spatialIndex; // Looked up on the first update, once the entity is in its world
+    private DecisionScheduler scheduler; // Same
+    private PursuitField pursuit; // Same, null unless the game runs with --pursuit
+    private LineOfSight sight; // Same, null with --blind-fire
+    private FrameProfiler profiler; // Same, null unless the game runs with --profile
+    private FixedStepLoop loop; // Same
+    private boolean joined = false;
+    private final Decision agent = new Decision();
+    private final SpawnData bulletData = new SpawnData(0, 0); // Refilled for every shot
+
+    public EnemyAIComponent() {
+        this(new EnemyBrain(new SplittableRandom()), 0);
+    }
+
+    /**
+     * @param brain the decision rules, owning the random generator of this enemy
+     * @param fixedTimestep seconds to advance per update without a {@link FixedStepLoop}, or 0 to
+     *                      use the frame time FXGL passes in
+     */
+    public EnemyAIComponent(EnemyBrain brain, double fixedTimestep) {
+        this.brain = brain;
+        this.fixedTimestep = fixedTimestep;
+        this.gun = new TankGun(brain.getSettings().shootInterval(), TankGun.ENEMY_OFFSET_Y);
+    }
 
     @Override
     public void onUpdate(double tpf) {
-        speed = tpf * 100;
+        join();
+        if (loop == null) {
+            step(fixedTimestep > 0 ? fixedTimestep : tpf);
+        }
+    }
 
-        // Change direction based on probability but avoid downward bias
-        if (moveDir == Dir.UP && random.nextInt(1000) > 880) {
-            moveDir = dirs[random.nextInt(4)];
-        } else if (random.nextInt(1000) > 980) {
-            // Avoid moving down too frequently
-            Dir newDir;
-            do {
-                newDir = dirs[random.nextInt(4)];
-            } while (newDir == Dir.DOWN); // Prevent moving down too often
-            moveDir = newDir;
+    // The first update, or the first step when the caller drives the component itself
+    private void join() {
+        if (joined) {
+            return;
+        }
+        joined = true;
+        spatialIndex = EntitySpatialIndex.of(entity.getWorld());
+        pursuit = PursuitField.of(entity.getWorld());
+        sight = LineOfSight.of(entity.getWorld());
+        profiler = WorldProfiler.of(entity.getWorld());
+        scheduler = EnemyScheduler.of(entity.getWorld());
+        if (scheduler != null) {
+            scheduler.add(agent);
+        }
+        loop = FixedStepLoop.of(entity.getWorld());
+        if (loop != null) {
+            loop.add(this);
+            loop.track(entity);
         }
+    }
 
-        setMoveDir(moveDir);
+    @Override
+    public void step(double dt) {
+        join();
+        long start = scheduler != null || profiler != null ? System.nanoTime() : 0;
+        length = TankMove.length(dt);
+        gun.advance(dt);
 
-        // Random shooting logic remains unchanged
-        if (random.nextInt(1000) > 980) {
+        Dir pursue = pursuit != null ? pursuit.steer(entity, moveDir) : null;
+        pursuing = pursue != null;
+        if (pursuing) {
+            stepLimit = pursuit.stepsToNextCell(entity, pursue);
+            setMoveDir(pursue);
+            stepLimit = Integer.MAX_VALUE;
+        } else if (scheduler != null) {
+            // Keep the direction picked by the last decision
+            setMoveDir(moveDir);
+        } else {
+            // Change direction based on probability but avoid downward bias
+            setMoveDir(brain.nextDir(moveDir));
+        }
+
+        if (scheduler == null && brain.wantsToShoot()) {
+            fire();
+        }
+        if (scheduler != null || profiler != null) {
+            long nanos = System.nanoTime() - start;
+            if (scheduler != null) {
+                scheduler.recordMovement(nanos);
+            }
+            if (profiler != null) {
+                profiler.add(FramePhase.ENEMIES, nanos);
+            }
+        }
+    }
+
+    /**
+     * The rolls of one scheduled turn: the same as {@link #fire()} and the direction roll of
+     * {@link #step}, only split so that {@link #compute()} reads nothing but the copy taken
+     * in {@link #capture} and the enemy's own brain.
+     */
+    private final class Decision implements DecisionScheduler.ParallelAgent {
+        private final double[] box = new double[4];
+        private int frames;
+        private Dir dir;
+        private boolean keepDir;
+        private boolean cooledDown;
+        private LineOfSight lineOfSight;
+        private boolean shoot;
+
+        @Override
+        public void capture(int frames) {
+            this.frames = frames;
+            dir = moveDir;
+            keepDir = pursuing;
+            cooledDown = gun.isReady();
+            lineOfSight = sight;
+            if (lineOfSight != null) {
+                EntitySpatialIndex.worldBounds(entity, box);
+            }
+        }
+
+        @Override
+        public void compute() {
+            if (!keepDir) {
+                dir = brain.nextDir(dir, frames);
+            }
+            shoot = brain.wantsToShoot(frames) && (lineOfSight == null
+                    || cooledDown && lineOfSight.canHit((box[0] + box[2]) / 2, (box[1] + box[3]) / 2, dir));
+        }
+
+        @Override
+        public void apply() {
+            moveDir = dir;
+            if (shoot) {
+                shoot();
+            }
+        }
+    }
+
+    /**
+     * Shoots if the player is in sight ahead, or blindly when the world has no line of sight.
+     */
+    private void fire() {
+        if (sight == null) {
+            shoot();
+            return;
+        }
+        // Skip the raycast while the gun is still cooling down
+        if (gun.isReady() && sight.canHit(entity, moveDir)) {
             shoot();
         }
     }
@@ -86,73 +235,78 @@ public class EnemyAIComponent extends Component {
         }
     }
     public void shoot() {
-        if (!shootTimer.elapsed(Duration.seconds(.35))){
+        if (!gun.isReady()) {
             return;
         }
-        FXGL.spawn("bullet", new SpawnData(getEntity().getCenter().add(-4, -4))
-                .put("direction", moveDir.getVector())
-                .put("owner", entity)
-        );
-        shootTimer.capture();
+        double x = gun.spawnX(bbox.getMinXWorld() + bbox.getWidth() / 2);
+        double y = gun.spawnY(bbox.getMinYWorld() + bbox.getHeight() / 2);
+        BulletLayer bullets = BulletLayer.of(entity.getWorld());
+        if (bullets != null) {
+            bullets.fire(entity, moveDir, x, y);
+        } else {
+            EntityPool.of(entity.getWorld()).obtain("bullet", x, y, bulletData
+                    .put("direction", moveDir.getVector())
+                    .put("owner", entity)
+            );
+        }
+        TelemetryLog telemetry = GameTelemetry.of(entity.getWorld());
+        if (telemetry != null) {
+            telemetry.shot(ENEMY, moveDir, x, y);
+        }
+        gun.fired();
     }
     private void right() {
-        getEntity().setRotation(90);
+        EntitySpatialIndex.rotate(entity, 90);
         move();
     }
 
     private void left() {
-        getEntity().setRotation(270);
+        EntitySpatialIndex.rotate(entity, 270);
         move();
 
     }
 
     private void down() {
-        getEntity().setRotation(180);
+        EntitySpatialIndex.rotate(entity, 180);
         move();
 
     }
 
     private void up() {
-        getEntity().setRotation(0);
+        EntitySpatialIndex.rotate(entity, 0);
         move();
 
     }
     @Override
     public void onAdded() {
-        moveDir = dirs[random.nextInt(dirs.length)];
+        moveDir = brain.initialDir();
     }
-    private Vec2 velocity = new Vec2();
 
+    @Override
+    public void onRemoved() {
+        if (scheduler != null) {
+            scheduler.remove(agent);
+        }
+        if (loop != null) {
+            loop.remove(this);
+            loop.untrack(entity);
+        }
+    }
     private void move() {
-        velocity.set((float) (moveDir.getVector().getX()*speed), (float) (moveDir.getVector().getY()*speed));
-        int length = Math.round(velocity.length());
-        velocity.normalizeLocal();
-
-        List<Entity> blockList = blocks.get().getEntitiesCopy();
-        for (int i = 0; i < length; i++) {
-            entity.translate(velocity.x, velocity.y);
-            boolean collision = false;
-            Entity entityTemp;
-            for (int j = 0; j < blockList.size(); j++) {
-                entityTemp = blockList.get(j);
-                if (entityTemp == entity) {
-                    continue;
-                }
-                if (entityTemp.getBoundingBoxComponent().isCollidingWith(bbox)) {
-                    collision = true;
-                    break;
-                }
+        int limit = Math.min(length, stepLimit);
+
+        // Work out in one pass how far we get before hitting something, then move there
+        int steps = spatialIndex.maxSteps(entity, moveDir, limit, BLOCKING_TYPES);
+        if (steps > 0) {
+            EntitySpatialIndex.translate(entity, moveDir.getDx() * steps, moveDir.getDy() * steps);
+        }
+        if (steps < limit) {
+            if (brain.shootWhenBlocked()) {
+                fire();
             }
-            if (collision) {
-                entity.translate(-velocity.x, -velocity.y);
-                if (FXGLMath.randomBoolean(0.6)) {
-                    shoot();
-                }
-                if (FXGLMath.randomBoolean(0.3)) {
-                    setMoveDir(Dir.values()[random.nextInt(4)]);
-                }
-
-                break;
+            Dir turn = stepLimit == Integer.MAX_VALUE ? brain.turnWhenBlocked() : null;
+            if (turn != null) {
+                setMoveDir(turn);
             }
         }
     }
@@ -1,19 +1,18 @@
 package com.example.ooptankgame.Components;
-import com.almasb.fxgl.core.math.Vec2;
-import com.almasb.fxgl.core.util.LazyValue;
-import com.almasb.fxgl.dsl.FXGL;
-import com.almasb.fxgl.entity.Entity;
-import com.almasb.fxgl.entity.EntityGroup;
 import com.almasb.fxgl.entity.SpawnData;
 import com.almasb.fxgl.entity.component.Component;
 import com.almasb.fxgl.entity.components.BoundingBoxComponent;
-import com.almasb.fxgl.time.LocalTimer;
+import com.example.ooptankgame.Bullets.BulletLayer;
+import com.example.ooptankgame.Bullets.TankGun;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.TankMove;
 import com.example.ooptankgame.Enums.Dir;
-import javafx.util.Duration;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Factory.EntityPool;
+import com.example.ooptankgame.Loop.FixedStepLoop;
+import com.example.ooptankgame.Telemetry.GameTelemetry;
+import com.example.ooptankgame.Telemetry.TelemetryLog;
 
-import java.util.List;
-
-import static com.almasb.fxgl.dsl.FXGLForKtKt.spawn;
 import static com.example.ooptankgame.Enums.TankGameType.*;
 /**
  * The PlayerComponent class represents the behavior and properties of the player entity
@@ -23,72 +22,128 @@ import static com.example.ooptankgame.Enums.TankGameType.*;
  * Key Responsibilities:
  * - **Movement**: The class allows the player to move in four directions (up, down, left, right)
  *   by updating the entity's position based on user input. It handles movement speed and direction
- *   while ensuring that the player cannot move more than once per frame.
- * - **Shooting**: The player can shoot bullets at a defined interval (0.35 seconds). When shooting,
- *   it spawns a bullet entity in the direction the player is facing.
+ *   while ensuring that the player cannot move more than once per tick.
+ * - **Fixed Timestep**: When the world has a {@link FixedStepLoop}, the component joins it on its
+ *   first update and advances in the loop's ticks, whatever the frame rate; its view is drawn
+ *   between the last two ticks. Without a loop it advances once per frame.
+ * - **Shooting**: The player can shoot bullets at a defined interval (0.35 seconds), kept by a
+ *   {@link TankGun}. When shooting, it spawns a bullet entity in the direction the player is
+ *   facing. The interval is counted in simulated time, so with a fixed timestep it depends on the
+ *   tick count and not on the wall clock.
+ *   Every shot is a {@code SHOT} event of the world's {@link GameTelemetry}.
+ * - **Allocation-Free Updates**: Movement steps by the whole-pixel deltas of {@link Dir} and shooting
+ *   refills one {@link SpawnData}, so holding down a key creates no garbage frame after frame.
  * - **Collision Detection**: The component checks for collisions with other entities (such as walls,
  *   enemies, and health packs) during movement. If a collision is detected, it prevents further movement
  *   in that direction.
- * - **Entity Interaction**: It utilizes lazy loading to access groups of entities (like enemies and walls)
- *   for efficient collision checks without unnecessary overhead.
+ * - **Entity Interaction**: It queries the world's {@link EntitySpatialIndex} for the enemies, walls and
+ *   health packs near its path, so collision checks only look at entities that could actually be hit.
  *
  * This design encapsulates all player-related behaviors in a single component, promoting modularity
  * and reusability within the game's architecture. The component interacts with other parts of the game
  * through the FXGL framework, leveraging its capabilities for entity management and game logic.
  */
 
-public class PlayerComponent extends Component {
+public class PlayerComponent extends Component implements FixedStepLoop.Stepped {
 
-    private boolean movedThisFrame = false;
-    private double speed = 0;
-    private Vec2 velocity = new Vec2();
+    private boolean movedThisTick = false;
+    private int length = 0; // Pixels per move
     public BoundingBoxComponent bbox;
-    private LazyValue<EntityGroup> blocks = new LazyValue<>(() -> entity.getWorld().getGroup(ENEMY, WALL, HEALTH_PACK));
-    private final LocalTimer shootTimer = FXGL.newLocalTimer();
+    private static final TankGameType[] BLOCKING_TYPES = {ENEMY, WALL, HEALTH_PACK};
+    private final double fixedTimestep;
+    private final TankGun gun = new TankGun(TankGun.PLAYER_INTERVAL, TankGun.PLAYER_OFFSET_Y);
     private Dir moveDir = Dir.UP;
+    private final SpawnData bulletData = new SpawnData(0, 0); // Refilled for every shot
+    private EntitySpatialIndex spatialIndex; // Looked up on the first update, once the entity is in its world
+    private FixedStepLoop loop; // Same
+    private boolean joined = false;
+
+    public PlayerComponent() {
+        this(0);
+    }
+
+    /**
+     * @param fixedTimestep seconds to advance per update without a {@link FixedStepLoop}, or 0 to
+     *                      use the frame time FXGL passes in
+     */
+    public PlayerComponent(double fixedTimestep) {
+        this.fixedTimestep = fixedTimestep;
+    }
 
     @Override
     public void onUpdate(double tpf) {
-        speed = tpf * 100;
-        movedThisFrame = false;
+        join();
+        if (loop == null) {
+            step(fixedTimestep > 0 ? fixedTimestep : tpf);
+        }
+    }
+
+    // The first update, or the first step or move when the caller drives the component itself
+    private void join() {
+        if (joined) {
+            return;
+        }
+        joined = true;
+        spatialIndex = EntitySpatialIndex.of(entity.getWorld());
+        loop = FixedStepLoop.of(entity.getWorld());
+        if (loop != null) {
+            loop.add(this);
+            loop.track(entity);
+        }
+    }
+
+    @Override
+    public void step(double dt) {
+        join();
+        length = TankMove.length(dt);
+        gun.advance(dt);
+        movedThisTick = false;
+    }
+
+    @Override
+    public void onRemoved() {
+        if (loop != null) {
+            loop.remove(this);
+            loop.untrack(entity);
+        }
     }
     public void right() {
-        if (movedThisFrame) {
+        if (movedThisTick) {
             return;
         }
-        movedThisFrame = true;
-        getEntity().setRotation(90);
+        movedThisTick = true;
+        EntitySpatialIndex.rotate(entity, 90);
         moveDir = Dir.RIGHT;
         move();
     }
 
     public void left() {
-        if (movedThisFrame) {
+        if (movedThisTick) {
             return;
         }
-        movedThisFrame = true;
-        getEntity().setRotation(270);
+        movedThisTick = true;
+        EntitySpatialIndex.rotate(entity, 270);
         moveDir = Dir.LEFT;
         move();
 
     }
 
     public void down() {
-        if (movedThisFrame) {
+        if (movedThisTick) {
             return;
         }
-        movedThisFrame = true;
-        getEntity().setRotation(180);
+        movedThisTick = true;
+        EntitySpatialIndex.rotate(entity, 180);
         moveDir = Dir.DOWN;
         move();
     }
 
     public void up() {
-        if (movedThisFrame) {
+        if (movedThisTick) {
             return;
         }
-        movedThisFrame = true;
-        getEntity().setRotation(0);
+        movedThisTick = true;
+        EntitySpatialIndex.rotate(entity, 0);
         moveDir = Dir.UP;
         move();
     }
@@ -97,35 +152,35 @@ public class PlayerComponent extends Component {
         if (!getEntity().isActive()) {
             return;
         }
-        velocity.set((float) (moveDir.getVector().getX()*speed), (float) (moveDir.getVector().getY()*speed));
-        int length = Math.round(velocity.length());
-        velocity.normalizeLocal();
-        List<Entity> blockList  = blocks.get().getEntitiesCopy();
-        for (int i = 0; i < length; i++) {
-            entity.translate(velocity.x, velocity.y);
-            boolean collision = false;
-            for (Entity value : blockList) {
-                if (value.getBoundingBoxComponent().isCollidingWith(bbox)) {
-                    collision = true;
-                    break;
-                }
-            }
-            if (collision) {
-                entity.translate(-velocity.x, -velocity.y);
-                break;
-            }
+        join();
+        // Work out in one pass how far we get before hitting something, then move there
+        int steps = spatialIndex.maxSteps(entity, moveDir, length, BLOCKING_TYPES);
+        if (steps > 0) {
+            EntitySpatialIndex.translate(entity, moveDir.getDx() * steps, moveDir.getDy() * steps);
         }
     }
 
     public void shoot() {
-        if (!shootTimer.elapsed(Duration.seconds(0.35))) {
+        if (!gun.isReady()) {
             return;
         }
-        System.out.println("Pew pew");
-        spawn("bullet", new SpawnData(getEntity().getCenter().add(-4, -4.5))
-                .put("direction", moveDir.getVector())
-                .put("owner", entity));
-        shootTimer.capture();
+        // The center from the bounding box directly, getCenter() builds a new point every call
+        double x = gun.spawnX(bbox.getMinXWorld() + bbox.getWidth() / 2);
+        double y = gun.spawnY(bbox.getMinYWorld() + bbox.getHeight() / 2);
+        BulletLayer bullets = BulletLayer.of(entity.getWorld());
+        if (bullets != null) {
+            bullets.fire(entity, moveDir, x, y);
+        } else {
+            // Bullets are recycled through the pool instead of built anew for every shot
+            EntityPool.of(entity.getWorld()).obtain("bullet", x, y, bulletData
+                    .put("direction", moveDir.getVector())
+                    .put("owner", entity));
+        }
+        TelemetryLog telemetry = GameTelemetry.of(entity.getWorld());
+        if (telemetry != null) {
+            telemetry.shot(PLAYER, moveDir, x, y);
+        }
+        gun.fired();
     }
 
 }
@@ -0,0 +1,74 @@
+package com.example.ooptankgame.Components;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.SpawnData;
+import com.almasb.fxgl.entity.component.Component;
+import com.example.ooptankgame.Factory.EntityPool;
+
+/**
+ * The PooledComponent class marks an entity that is recycled through the {@link EntityPool}
+ * instead of being removed from the world when it is done, like bullets and the explosion and
+ * heal effects.
+ *
+ * Key Responsibilities:
+ * - **Identity**: Remembers the spawn name the entity was built with, which is the pool it
+ *   goes back to.
+ * - **State**: Knows whether the entity is in play or parked, so releasing the same bullet from
+ *   two collision handlers in one frame only returns it to the pool once.
+ * - **Reset**: Delegates to the {@link Lifecycle} given by {@code TankEntityFactory}, which knows
+ *   which components of the entity have to be switched off when parked and reset when reused.
+ *
+ * A parked entity stays in the world, invisible and out of collision, because FXGL cleans up
+ * the components of an entity once it is removed.
+ */
+public class PooledComponent extends Component {
+
+    /**
+     * How an entity kind is put to rest and brought back. Implemented by {@code TankEntityFactory}.
+     */
+    public interface Lifecycle {
+        /** Resets the entity for a new use, its position has already been set. */
+        void reuse(Entity entity, SpawnData data);
+
+        /** Takes the entity out of play until it is reused. */
+        void park(Entity entity);
+    }
+
+    private final String spawnName;
+    private final Lifecycle lifecycle;
+    private boolean inUse = true;
+
+    public PooledComponent(String spawnName, Lifecycle lifecycle) {
+        this.spawnName = spawnName;
+        this.lifecycle = lifecycle;
+    }
+
+    public String getSpawnName() {
+        return spawnName;
+    }
+
+    public boolean isInUse() {
+        return inUse;
+    }
+
+    /**
+     * Brings a parked entity back into play at the given position.
+     */
+    public void reuse(double x, double y, SpawnData data) {
+        inUse = true;
+        entity.setPosition(x, y);
+        lifecycle.reuse(entity, data);
+    }
+
+    /**
+     * Takes the entity out of play. Returns {@code false} if it was already parked.
+     */
+    public boolean park() {
+        if (!inUse) {
+            return false;
+        }
+        inUse = false;
+        lifecycle.park(entity);
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.ooptankgame.Components;
+
+import com.almasb.fxgl.dsl.components.HealthIntComponent;
+import com.almasb.fxgl.entity.component.Component;
+import com.almasb.fxgl.texture.AnimatedTexture;
+import com.example.ooptankgame.Loop.FixedStepLoop;
+import com.example.ooptankgame.Render.CanvasRenderer;
+import com.example.ooptankgame.Render.SpriteBatch;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * The SpriteComponent class is what an entity drawn by the {@link CanvasRenderer} has instead of
+ * view nodes: the image to draw and, for tanks, the health to show under it.
+ *
+ * Key Responsibilities:
+ * - **Sprites**: A tank or bullet is its image turned to the entity's rotation, an effect is the
+ *   current frame of its {@link AnimatedTexture}, which this component plays since the texture
+ *   is not in the scene graph to be played by FXGL.
+ * - **Health Bars**: A tank's bar is drawn under it from a picture the {@link SpriteBatch} keeps
+ *   per health value, looked up again only when the health changed.
+ * - **Interpolation**: Tanks are drawn where their {@link FixedStepLoop} view is, between their
+ *   last two ticks, like the view nodes they replace.
+ *
+ * The component joins the world's renderer on its first update, once the entity is in its world.
+ */
+public class SpriteComponent extends Component {
+
+    private static final int BAR_WIDTH = 39;
+    private static final int BAR_HEIGHT = 8;
+
+    private final Image image;
+    private final AnimatedTexture texture;
+    private final HealthIntComponent health;
+    private final Color barColor;
+    private final CanvasRenderer.Layer layer;
+    private CanvasRenderer renderer; // Looked up on the first update, once the entity is in its world
+    private FixedStepLoop.View view;
+    private boolean joined = false;
+    private int shownHealth = Integer.MIN_VALUE;
+    private Image bar;
+
+    /**
+     * A sprite without a health bar, like a bullet.
+     */
+    public SpriteComponent(Image image, CanvasRenderer.Layer layer) {
+        this(image, null, null, null, layer);
+    }
+
+    /**
+     * A tank with its health bar in {@code barColor}.
+     */
+    public SpriteComponent(Image image, HealthIntComponent health, Color barColor) {
+        this(image, null, health, barColor, CanvasRenderer.Layer.TANKS);
+    }
+
+    /**
+     * An animated effect.
+     */
+    public SpriteComponent(AnimatedTexture texture) {
+        this(null, texture, null, null, CanvasRenderer.Layer.EFFECTS);
+    }
+
+    private SpriteComponent(Image image, AnimatedTexture texture, HealthIntComponent health, Color barColor,
+                            CanvasRenderer.Layer layer) {
+        this.image = image;
+        this.texture = texture;
+        this.health = health;
+        this.barColor = barColor;
+        this.layer = layer;
+    }
+
+    @Override
+    public void onUpdate(double tpf) {
+        if (!joined) {
+            joined = true;
+            renderer = CanvasRenderer.of(entity.getWorld());
+            if (renderer != null) {
+                renderer.add(this);
+            }
+            FixedStepLoop loop = FixedStepLoop.of(entity.getWorld());
+            if (loop != null && layer == CanvasRenderer.Layer.TANKS) {
+                view = loop.track(entity);
+            }
+        }
+        if (texture != null) {
+            texture.onUpdate(tpf);
+        }
+    }
+
+    @Override
+    public void onRemoved() {
+        if (renderer != null) {
+            renderer.remove(this);
+        }
+    }
+
+    /**
+     * Draws the entity as it is now, unless it is hidden.
+     */
+    public void draw(SpriteBatch batch) {
+        if (!entity.getViewComponent().isVisible()) {
+            return;
+        }
+        double x = renderX();
+        double y = renderY();
+        double scale = entity.getScaleX();
+        if (texture != null) {
+            Image sheet = texture.getImage();
+            Rectangle2D frame = texture.getViewport();
+            if (frame == null) {
+                frame = new Rectangle2D(0, 0, sheet.getWidth(), sheet.getHeight());
+            }
+            batch.drawRegion(sheet, frame.getMinX(), frame.getMinY(), frame.getWidth(), frame.getHeight(),
+                    x + frame.getWidth() / 2, y + frame.getHeight() / 2, scale);
+            return;
+        }
+        batch.draw(image, SpriteBatch.quarterTurns(entity.getRotation()),
+                x + image.getWidth() / 2, y + image.getHeight() / 2, scale);
+    }
+
+    /**
+     * Draws the health bar under the entity, if it has one and is not hidden.
+     */
+    public void drawBar(SpriteBatch batch) {
+        if (health == null || !entity.getViewComponent().isVisible()) {
+            return;
+        }
+        if (health.getValue() != shownHealth) {
+            shownHealth = health.getValue();
+            bar = batch.bar(barColor, shownHealth, health.getMaxValue(), BAR_WIDTH, BAR_HEIGHT);
+        }
+        batch.drawBar(bar, renderX(), renderY() + image.getHeight());
+    }
+
+    private double renderX() {
+        return view != null ? view.getRenderX() : entity.getX();
+    }
+
+    private double renderY() {
+        return view != null ? view.getRenderY() : entity.getY();
+    }
+
+    public CanvasRenderer.Layer getLayer() {
+        return layer;
+    }
+}
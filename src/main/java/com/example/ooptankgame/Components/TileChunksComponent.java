@@ -0,0 +1,101 @@
+package com.example.ooptankgame.Components;
+
+import com.almasb.fxgl.app.scene.Viewport;
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.component.Component;
+import com.example.ooptankgame.Enums.FramePhase;
+import com.example.ooptankgame.Level.TileChunkBaker;
+import com.example.ooptankgame.Level.TileChunkStreamer;
+import com.example.ooptankgame.Profiling.FrameProfiler;
+import com.example.ooptankgame.Profiling.WorldProfiler;
+import javafx.scene.Group;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * The TileChunksComponent class shows the tile layers of a level as chunk images, with only the
+ * chunks the viewport can see in the scene graph.
+ *
+ * Every frame it passes the viewport to a {@link TileChunkStreamer}, which decides which chunks
+ * are baked, cached, shown and hidden; this component turns its decisions into image views under
+ * its entity's view. Chunks without any tile never get a node.
+ *
+ * The entity it sits on should be at the origin of the world, which is where the level loader puts it.
+ */
+public class TileChunksComponent extends Component {
+
+    /** Default number of baked chunks to keep, 64 MB with 512x512 pixel chunks. */
+    public static final int DEFAULT_CACHE_SIZE = 64;
+    /** Chunks baked per frame while scrolling, each takes a few milliseconds. */
+    public static final int BAKES_PER_FRAME = 1;
+
+    private final Group chunks = new Group();
+    private final TileChunkStreamer<ImageView> streamer;
+    private FrameProfiler profiler; // Looked up on the first update, null unless the game runs with --profile
+    private boolean joined = false;
+    private Viewport viewport; // The game scene's unless one was given, looked up on the first update
+
+    public TileChunksComponent(TileChunkBaker baker) {
+        this(baker, DEFAULT_CACHE_SIZE);
+    }
+
+    public TileChunksComponent(TileChunkBaker baker, int cacheSize) {
+        this(baker, cacheSize, null);
+    }
+
+    /**
+     * @param viewport the view to show the chunks of, or {@code null} for the game scene's
+     */
+    public TileChunksComponent(TileChunkBaker baker, int cacheSize, Viewport viewport) {
+        this.viewport = viewport;
+        this.streamer = new TileChunkStreamer<>(baker, new TileChunkStreamer.Sink<>() {
+            @Override
+            public ImageView create(int column, int row, int[] pixels, ImageView recycled) {
+                int width = baker.getChunkPixelWidth();
+                int height = baker.getChunkPixelHeight();
+                ImageView view = recycled != null ? recycled : new ImageView(new WritableImage(width, height));
+                WritableImage image = (WritableImage) view.getImage();
+                image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+                view.setTranslateX(column * (double) width);
+                view.setTranslateY(row * (double) height);
+                return view;
+            }
+
+            @Override
+            public void show(ImageView view) {
+                chunks.getChildren().add(view);
+            }
+
+            @Override
+            public void hide(ImageView view) {
+                chunks.getChildren().remove(view);
+            }
+        }, cacheSize, BAKES_PER_FRAME);
+    }
+
+    @Override
+    public void onAdded() {
+        entity.getViewComponent().addChild(chunks);
+    }
+
+    @Override
+    public void onUpdate(double tpf) {
+        if (!joined) {
+            joined = true;
+            profiler = WorldProfiler.of(entity.getWorld());
+            if (viewport == null) {
+                viewport = FXGL.getGameScene().getViewport();
+            }
+        }
+        long start = profiler != null ? System.nanoTime() : 0;
+        streamer.update(viewport.getX(), viewport.getY(), viewport.getWidth(), viewport.getHeight());
+        if (profiler != null) {
+            profiler.add(FramePhase.TILES, System.nanoTime() - start);
+        }
+    }
+
+    public TileChunkStreamer<ImageView> getStreamer() {
+        return streamer;
+    }
+}
@@ -5,19 +5,32 @@ import javafx.geometry.Point2D;
 
 public enum Dir {
 
-    UP(new Point2D(0, -1)),
-    RIGHT(new Point2D(1, 0)),
-    DOWN(new Point2D(0, 1)),
-    LEFT(new Point2D(-1, 0));
+    UP(0, -1),
+    RIGHT(1, 0),
+    DOWN(0, 1),
+    LEFT(-1, 0);
 
     public final Point2D vector;
-
-    Dir(Point2D vector) {
-        this.vector = vector;
+    // The same direction as whole pixels per step, for hot paths that should not unpack the vector
+    private final int dx;
+    private final int dy;
+
+    Dir(int dx, int dy) {
+        this.vector = new Point2D(dx, dy);
+        this.dx = dx;
+        this.dy = dy;
     }
 
     public Point2D getVector() {
         return vector;
     }
 
-}
\ No newline at end of file
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+
+}
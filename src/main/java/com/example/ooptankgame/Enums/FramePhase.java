@@ -0,0 +1,31 @@
+package com.example.ooptankgame.Enums;
+
+/**
+ * The parts of a frame the {@code FrameProfiler} times separately, in the order they are shown.
+ * Phases may nest: a bullet spawned while an enemy updates counts towards both
+ * {@link #ENEMIES} and {@link #SPAWNS}.
+ */
+public enum FramePhase {
+
+    INPUT("input"),
+    AI("enemy AI"),
+    ENEMIES("enemies"),
+    BULLETS("bullets"),
+    EFFECTS("effects"),
+    TILES("tiles"),
+    SPRITES("sprites"),
+    COLLISIONS("collisions"),
+    SPAWNS("spawns"),
+    LAYOUT("layout"),
+    FRAME("frame");
+
+    private final String label;
+
+    FramePhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.ooptankgame.Enums;
+
+/**
+ * The gameplay events the collision rules report to the rest of the game through the
+ * {@code GameEventQueue}, each with one number describing it.
+ */
+public enum GameEventType {
+
+    /** An enemy lost its last hit point. The value is the points it was worth. */
+    ENEMY_DESTROYED,
+    /** A bullet hit the player. The value is the lives left after the hit. */
+    PLAYER_HIT,
+    /** A tank drove over a health pack. The value is the points it gave, 0 for an enemy. */
+    HEALTH_PACK_PICKED,
+    /** The match is decided. The value is 1 if the player won and 0 if the player lost. */
+    GAME_OVER
+}
@@ -0,0 +1,15 @@
+package com.example.ooptankgame.Enums;
+
+/**
+ * How much the game's telemetry records, from everything to nothing. Each
+ * {@link TelemetryType} has the lowest level it is recorded at.
+ */
+public enum TelemetryLevel {
+
+    /** Every event, including one per frame. */
+    DEBUG,
+    /** The gameplay events: shots, hits, pickups and spawns. */
+    INFO,
+    /** Nothing. */
+    OFF
+}
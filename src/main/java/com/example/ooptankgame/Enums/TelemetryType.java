@@ -0,0 +1,45 @@
+package com.example.ooptankgame.Enums;
+
+/**
+ * The kinds of events the game's telemetry records, each a fixed-size record with a subject, a
+ * value, a position and one extra number, whose meaning depends on the kind.
+ */
+public enum TelemetryType {
+
+    /**
+     * A tank fired. Subject: the {@link TankGameType} ordinal of the tank, value: the {@link Dir}
+     * ordinal it fired in, position: where the bullet starts.
+     */
+    SHOT(TelemetryLevel.INFO),
+    /**
+     * A bullet hit a tank. Subject: the {@link TankGameType} ordinal of the tank, value: its
+     * health left, position: the tank's.
+     */
+    HIT(TelemetryLevel.INFO),
+    /**
+     * A tank drove over a health pack. Subject: the {@link TankGameType} ordinal of the tank,
+     * value: its health after, position: the tank's.
+     */
+    PICKUP(TelemetryLevel.INFO),
+    /**
+     * A pooled entity was obtained. Subject: the hash code of its spawn name, value: 1 if a parked
+     * one was reused and 0 if it was built, position: where it appeared.
+     */
+    SPAWN(TelemetryLevel.INFO),
+    /**
+     * A frame was updated. Subject: the simulation ticks it ran, value: the frame time in
+     * microseconds, extra: the microseconds the game's own update took.
+     */
+    FRAME(TelemetryLevel.DEBUG);
+
+    private final TelemetryLevel level;
+
+    TelemetryType(TelemetryLevel level) {
+        this.level = level;
+    }
+
+    /** Lowest level at which the event is recorded. */
+    public TelemetryLevel getLevel() {
+        return level;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ooptankgame.Events;
+
+import com.example.ooptankgame.Enums.GameEventType;
+
+import java.util.Arrays;
+
+/**
+ * The GameEventQueue class collects the gameplay events of a frame so the code reacting to
+ * them, the score and lives on screen or the Game Over overlay, runs once per frame instead of
+ * inside the physics step that caused them.
+ *
+ * Key Responsibilities:
+ * - **Appending**: {@link #add} stores the type and value of an event in two parallel arrays,
+ *   so reporting an event builds no object. The arrays only grow when a frame has more events
+ *   than any frame before it.
+ * - **Draining**: {@link #drain} hands every event to a {@link Listener} in the order they were
+ *   added and empties the queue. Events added while draining are handed out in the same drain.
+ *
+ * Like the rest of the match state, the queue is not thread-safe and is only used from the
+ * thread running the game.
+ */
+public final class GameEventQueue {
+
+    /** Events a new queue has room for before it grows. */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final GameEventType[] TYPES = GameEventType.values();
+
+    /**
+     * Receives the events of a {@link #drain}.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onEvent(GameEventType type, int value);
+    }
+
+    private byte[] types;
+    private int[] values;
+    private int size;
+    private long added;
+
+    public GameEventQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GameEventQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        types = new byte[capacity];
+        values = new int[capacity];
+    }
+
+    public void add(GameEventType type, int value) {
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        types[size] = (byte) type.ordinal();
+        values[size] = value;
+        size++;
+        added++;
+    }
+
+    /**
+     * Hands every queued event to {@code listener} and empties the queue. Returns the number of
+     * events handed out.
+     */
+    public int drain(Listener listener) {
+        int drained = 0;
+        while (drained < size) {
+            listener.onEvent(TYPES[types[drained]], values[drained]);
+            drained++;
+        }
+        size = 0;
+        return drained;
+    }
+
+    /** Drops the queued events without handing them out. */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Number of events added over the life of the queue. */
+    public long getAdded() {
+        return added;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ooptankgame.Events;
+
+import com.almasb.fxgl.entity.GameWorld;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The GameEvents class gives the collision handlers of a FXGL world the {@link MatchRules} of
+ * the match being played in it.
+ *
+ * Key Responsibilities:
+ * - **Lookup**: {@link #of} returns the world's rules, which the handlers apply instead of
+ *   changing FXGL's global vars, so no property listener runs inside the physics step.
+ * - **Setup**: {@link #install} creates the rules of a new match. {@code TankApp} drains their
+ *   {@link GameEventQueue} once per frame and only then updates the score, lives and Game Over
+ *   overlay.
+ *
+ * Like the {@code LineOfSight}, the rules are per world and only exist after {@link #install}.
+ */
+public final class GameEvents {
+
+    private static final Map<GameWorld, MatchRules> RULES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private GameEvents() {
+    }
+
+    /**
+     * Starts a new match in the given world and returns its rules.
+     */
+    public static MatchRules install(GameWorld world) {
+        MatchRules rules = new MatchRules();
+        RULES.put(world, rules);
+        return rules;
+    }
+
+    /**
+     * Returns the rules of the given world, or {@code null} if none were installed.
+     */
+    public static MatchRules of(GameWorld world) {
+        return RULES.get(world);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.ooptankgame.Events;
+
+import com.example.ooptankgame.Enums.GameEventType;
+
+/**
+ * The MatchRules class keeps the score, lives and destroyed enemies of a match and decides
+ * what a collision means for them, without JavaFX, so the collision handlers of the game and
+ * the {@code HeadlessSimulation} play by the same rules.
+ *
+ * Key Responsibilities:
+ * - **Health**: Tanks have {@link #TANK_HEALTH} hit points, a bullet takes one and a health pack
+ *   gives one back.
+ * - **Scoring**: A destroyed enemy is worth 10 points and a health pack picked up by the
+ *   player 5.
+ * - **Lives**: A player hit down to no health loses a life and gets 2 health back, a player hit
+ *   down to no health with no lives left is destroyed.
+ * - **End Conditions**: The match is over when {@link #ENEMIES_TO_WIN} enemies are destroyed or
+ *   when the player is destroyed, whichever comes first.
+ * - **Events**: Every rule applied adds a {@link GameEventType} to the {@link GameEventQueue},
+ *   which the game drains once per frame to update the bindings and UI. The counters themselves
+ *   are up to date at once, so the next collision of the same frame already sees them.
+ */
+public final class MatchRules {
+
+    public static final int START_LIVES = 3;
+    /** The match is won when this many enemies are destroyed. */
+    public static final int ENEMIES_TO_WIN = 6;
+    public static final int ENEMY_POINTS = 10;
+    public static final int HEALTH_PACK_POINTS = 5;
+    /** Hit points every tank starts with and can heal up to. */
+    public static final int TANK_HEALTH = 2;
+    /** Health a player gets back when losing a life. */
+    public static final int HEALTH_PER_LIFE = 2;
+
+    private final GameEventQueue events;
+    private int lives = START_LIVES;
+    private int score = 0;
+    private int destroyedEnemy = 0;
+    private boolean gameOver = false;
+    private boolean won = false;
+
+    public MatchRules() {
+        this(new GameEventQueue());
+    }
+
+    public MatchRules(GameEventQueue events) {
+        this.events = events;
+    }
+
+    /**
+     * A bullet hit an enemy with {@code health} hit points. Returns its health after the hit,
+     * the enemy is destroyed when that is no health.
+     */
+    public int enemyHit(int health) {
+        health--;
+        if (health <= 0) {
+            enemyDestroyed();
+        }
+        return health;
+    }
+
+    private void enemyDestroyed() {
+        score += ENEMY_POINTS;
+        destroyedEnemy++;
+        events.add(GameEventType.ENEMY_DESTROYED, ENEMY_POINTS);
+        if (destroyedEnemy == ENEMIES_TO_WIN) {
+            end(true);
+        }
+    }
+
+    /**
+     * A bullet hit the player with {@code health} hit points. Returns the player's health after
+     * the hit, which is more when the hit cost a life. The player is destroyed if that is still
+     * no health.
+     */
+    public int playerHit(int health) {
+        health--;
+        if (health <= 0 && lives != 0) {
+            lives--;
+            health += HEALTH_PER_LIFE;
+        }
+        events.add(GameEventType.PLAYER_HIT, lives);
+        if (health <= 0 && lives == 0) {
+            end(false);
+        }
+        return health;
+    }
+
+    /**
+     * A tank with {@code health} hit points drove over a health pack, {@code byPlayer} tells
+     * whether it was the player. Returns the tank's health after healing, at most
+     * {@link #TANK_HEALTH}.
+     */
+    public int healthPackPicked(boolean byPlayer, int health) {
+        int points = byPlayer ? HEALTH_PACK_POINTS : 0;
+        score += points;
+        events.add(GameEventType.HEALTH_PACK_PICKED, points);
+        return Math.min(health + 1, TANK_HEALTH);
+    }
+
+    private void end(boolean won) {
+        if (gameOver) {
+            return;
+        }
+        gameOver = true;
+        this.won = won;
+        events.add(GameEventType.GAME_OVER, won ? 1 : 0);
+    }
+
+    public GameEventQueue getEvents() {
+        return events;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDestroyedEnemy() {
+        return destroyedEnemy;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /** Whether the player won, only meaningful once the match is over. */
+    public boolean isWon() {
+        return won;
+    }
+}
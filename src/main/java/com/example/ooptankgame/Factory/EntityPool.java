@@ -0,0 +1,176 @@
+package com.example.ooptankgame.Factory;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.EntityWorldListener;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.SpawnData;
+import com.example.ooptankgame.Components.PooledComponent;
+import com.example.ooptankgame.Enums.FramePhase;
+import com.example.ooptankgame.Profiling.FrameProfiler;
+import com.example.ooptankgame.Profiling.WorldProfiler;
+import com.example.ooptankgame.Telemetry.GameTelemetry;
+import com.example.ooptankgame.Telemetry.TelemetryLog;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The EntityPool class recycles the short-lived entities of the game, bullets and the explosion
+ * and heal effects, so firing and hitting do not build a new entity, components and texture
+ * view every time only to throw them away a few hundred milliseconds later.
+ *
+ * Key Responsibilities:
+ * - **Obtaining**: {@link #obtain} hands out a parked entity of the requested spawn name, reset
+ *   for the new {@link SpawnData}, and only falls back to spawning through the
+ *   {@link TankEntityFactory} when none is parked. Obtaining a parked entity allocates nothing
+ *   when the caller reuses its {@link SpawnData}.
+ * - **Releasing**: {@link #release} is what the collision handlers call instead of
+ *   {@code removeFromWorld()}. Pooled entities are parked (hidden, not collidable, not updated)
+ *   and kept for reuse, anything else is simply removed from the world.
+ * - **World Tracking**: Listens to the world so a parked entity that gets removed anyway, for
+ *   example when the level is reset, is never handed out again.
+ * - **Profiling**: Obtaining and releasing count as {@link FramePhase#SPAWNS} when the world has
+ *   a {@link WorldProfiler}, and every obtained entity is a {@code SPAWN} event of the world's
+ *   {@link GameTelemetry}.
+ *
+ * Entities opt in with a {@link PooledComponent}, which the factory adds to the kinds it wants
+ * pooled. There is one pool per world, created lazily by {@link #of(GameWorld)}.
+ */
+public final class EntityPool implements EntityWorldListener {
+
+    /** Maximum number of parked entities kept per spawn name. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /** Data of the spawns that only need a position, like the effects. */
+    private static final SpawnData NO_DATA = new SpawnData(0, 0);
+
+    private static final Map<GameWorld, EntityPool> POOLS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final GameWorld world;
+    private final Map<String, ObjectPool<Entity>> pools = new HashMap<>();
+    private long spawned;
+
+    private EntityPool(GameWorld world) {
+        this.world = world;
+        world.addWorldListener(this);
+    }
+
+    /**
+     * Returns the pool for the given world, creating it on first use.
+     */
+    public static EntityPool of(GameWorld world) {
+        return POOLS.computeIfAbsent(world, EntityPool::new);
+    }
+
+    /**
+     * Same as {@code spawn(spawnName, data)}, but reuses a parked entity when there is one.
+     */
+    public Entity obtain(String spawnName, SpawnData data) {
+        return obtain(spawnName, data.getX(), data.getY(), data);
+    }
+
+    /**
+     * Same as {@code spawn(spawnName, x, y)}, but reuses a parked entity when there is one.
+     */
+    public Entity obtain(String spawnName, double x, double y) {
+        return obtain(spawnName, x, y, NO_DATA);
+    }
+
+    /**
+     * Same as {@link #obtain(String, SpawnData)} with the position given apart from the data, so a
+     * caller firing every few frames can keep one {@link SpawnData} and only {@code put} the new
+     * values into it. The data is only read during the call, never kept.
+     */
+    public Entity obtain(String spawnName, double x, double y, SpawnData data) {
+        FrameProfiler profiler = WorldProfiler.of(world);
+        long start = profiler != null ? System.nanoTime() : 0;
+        Entity entity = poolFor(spawnName).poll();
+        boolean reused = entity != null;
+        if (entity == null) {
+            spawned++;
+            // The factory reads the position from the data, which cannot be moved once built
+            SpawnData spawnData = new SpawnData(x, y);
+            data.getData().forEach(spawnData::put);
+            entity = world.spawn(spawnName, spawnData);
+        } else {
+            entity.getComponent(PooledComponent.class).reuse(x, y, data);
+        }
+        if (profiler != null) {
+            profiler.add(FramePhase.SPAWNS, System.nanoTime() - start);
+        }
+        TelemetryLog telemetry = GameTelemetry.of(world);
+        if (telemetry != null) {
+            telemetry.spawn(spawnName, reused, x, y);
+        }
+        return entity;
+    }
+
+    /**
+     * Takes an entity out of play: pooled entities are parked for reuse, others are removed from
+     * the world. Returns {@code false} if the entity was already released, so a handler can tell
+     * that another handler dealt with the same bullet in this frame.
+     */
+    public boolean release(Entity entity) {
+        FrameProfiler profiler = WorldProfiler.of(world);
+        long start = profiler != null ? System.nanoTime() : 0;
+        boolean released = park(entity);
+        if (profiler != null) {
+            profiler.add(FramePhase.SPAWNS, System.nanoTime() - start);
+        }
+        return released;
+    }
+
+    private boolean park(Entity entity) {
+        if (!entity.hasComponent(PooledComponent.class)) {
+            if (!entity.isActive()) {
+                return false;
+            }
+            entity.removeFromWorld();
+            return true;
+        }
+        PooledComponent pooled = entity.getComponent(PooledComponent.class);
+        if (!pooled.park()) {
+            return false;
+        }
+        if (!poolFor(pooled.getSpawnName()).release(entity)) {
+            // Pool is full, let this one go
+            entity.removeFromWorld();
+        }
+        return true;
+    }
+
+    @Override
+    public void onEntityAdded(Entity entity) {
+    }
+
+    @Override
+    public void onEntityRemoved(Entity entity) {
+        if (entity.hasComponent(PooledComponent.class)) {
+            ObjectPool<Entity> pool = pools.get(entity.getComponent(PooledComponent.class).getSpawnName());
+            if (pool != null) {
+                pool.discard(entity);
+            }
+        }
+    }
+
+    private ObjectPool<Entity> poolFor(String spawnName) {
+        ObjectPool<Entity> pool = pools.get(spawnName);
+        if (pool == null) {
+            pool = new ObjectPool<>(DEFAULT_CAPACITY);
+            pools.put(spawnName, pool);
+        }
+        return pool;
+    }
+
+    /** Number of entities built through the factory because nothing was parked. */
+    public long getSpawned() {
+        return spawned;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityPool" + pools + ", " + spawned + " spawned";
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.ooptankgame.Factory;
+
+import java.util.ArrayDeque;
+
+/**
+ * The ObjectPool class keeps released objects around so they can be handed out again instead
+ * of building new ones. It is the bookkeeping half of {@link EntityPool} and does not know what
+ * it stores, so it has no JavaFX dependency.
+ *
+ * Key Responsibilities:
+ * - **Reuse**: {@link #poll()} returns the most recently released object, or {@code null} when
+ *   the pool is empty and the caller has to create one. Resetting the object is up to the caller.
+ * - **Bounding**: At most {@code capacity} idle objects are kept. {@link #release} refuses more,
+ *   so a burst of shots does not pin its peak number of bullets forever.
+ * - **Statistics**: Counts how many objects were asked for, how many of them were reused and
+ *   how many releases were turned away, which is what the benchmark and tuning look at.
+ *
+ * Objects are kept in LIFO order so the most recently used one, which is likely still in
+ * cache, is handed out first. The pool is not thread-safe; FXGL only touches it from the
+ * JavaFX application thread.
+ *
+ * @param <T> the type of pooled object
+ */
+public final class ObjectPool<T> {
+
+    private final ArrayDeque<T> idle;
+    private final int capacity;
+    private long requests;
+    private long reused;
+    private long dropped;
+
+    public ObjectPool(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        this.idle = new ArrayDeque<>(Math.min(capacity, 64));
+    }
+
+    /**
+     * Returns an idle object, or {@code null} if there is none and a new one must be created.
+     */
+    public T poll() {
+        requests++;
+        T item = idle.pollFirst();
+        if (item != null) {
+            reused++;
+        }
+        return item;
+    }
+
+    /**
+     * Puts an object back for reuse. Returns {@code false}, leaving the object to the caller,
+     * when the pool is already holding {@code capacity} idle objects.
+     */
+    public boolean release(T item) {
+        if (idle.size() >= capacity) {
+            dropped++;
+            return false;
+        }
+        idle.addFirst(item);
+        return true;
+    }
+
+    /**
+     * Forgets an idle object that was destroyed elsewhere, e.g. an entity removed together with its world.
+     */
+    public boolean discard(T item) {
+        return idle.removeFirstOccurrence(item);
+    }
+
+    public void clear() {
+        idle.clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /** Number of {@link #poll()} calls. */
+    public long getRequests() {
+        return requests;
+    }
+
+    /** Number of {@link #poll()} calls that returned a pooled object. */
+    public long getReused() {
+        return reused;
+    }
+
+    /** Number of releases refused because the pool was full. */
+    public long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ObjectPool[idle %d/%d, %d requests, %d reused, %d dropped]",
+                idle.size(), capacity, requests, reused, dropped);
+    }
+}
@@ -1,11 +1,12 @@
 package com.example.ooptankgame.Factory;
 
+import com.almasb.fxgl.dsl.EntityBuilder;
 import com.almasb.fxgl.dsl.FXGL;
-import com.almasb.fxgl.dsl.components.ExpireCleanComponent;
 import com.almasb.fxgl.dsl.components.HealthIntComponent;
 import com.almasb.fxgl.dsl.components.ProjectileComponent;
 import com.almasb.fxgl.entity.Entity;
 import com.almasb.fxgl.entity.EntityFactory;
+import com.almasb.fxgl.entity.GameWorld;
 import com.almasb.fxgl.entity.SpawnData;
 import com.almasb.fxgl.entity.Spawns;
 import com.almasb.fxgl.entity.components.CollidableComponent;
@@ -14,12 +15,22 @@ import com.almasb.fxgl.physics.PhysicsComponent;
 import com.almasb.fxgl.texture.AnimatedTexture;
 import com.almasb.fxgl.texture.AnimationChannel;
 import com.almasb.fxgl.ui.ProgressBar;
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.Components.BulletWallComponent;
+import com.example.ooptankgame.Components.EffectComponent;
 import com.example.ooptankgame.Components.EnemyAIComponent;
 import com.example.ooptankgame.Components.PlayerComponent;
+import com.example.ooptankgame.Components.PooledComponent;
+import com.example.ooptankgame.Components.SpriteComponent;
 import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Events.MatchRules;
+import com.example.ooptankgame.Render.AtlasTextures;
+import com.example.ooptankgame.Render.CanvasRenderer;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
+
+import java.util.SplittableRandom;
 /**
  * The TankEntityFactory class is responsible for creating various game entities
  * in the My Tank Game using the FXGL framework. It implements the EntityFactory
@@ -35,8 +46,20 @@ import javafx.util.Duration;
  * - Create wall entities with specified dimensions and physical properties.
  * - Spawn player and enemy tanks with health management and AI behavior.
  * - Generate bullet entities with direction and speed, ensuring proper collision handling.
- * - Produce animated explosion and healing effects that clean up after a set duration.
+ * - Produce animated explosion and healing effects that go back to the pool after a set duration.
+ * - Tell the {@link EntityPool} how bullets and effects are parked and reused, so those
+ *   short-lived entities are built once and then recycled.
  * - Provide health pack entities that players can collect to restore health.
+ * - Build tanks, bullets and effects without view nodes, with a {@link SpriteComponent} instead,
+ *   when the world has a {@link CanvasRenderer} to draw them.
+ * - Take the views, sprites and animation channels from the texture atlas the build packed,
+ *   through {@link AtlasTextures}, which falls back to the separate textures without one. Either
+ *   way they were decoded by the preloading before the factory is made, so its animation
+ *   channels cost no decoding.
+ * - Give every enemy its own random generator, split off the match seed in spawn order, so a
+ *   match started with the same seed and a fixed timestep plays out the same way.
+ * - Look up the canvas renderer of FXGL's game world, or of a standalone
+ *   {@link GameWorld} it was made for, so it also spawns outside a running game.
  *
  * This design promotes modularity and reusability within the game's architecture,
  * making it easier to manage entity creation and extend functionality as needed.
@@ -44,6 +67,41 @@ import javafx.util.Duration;
 
 public class TankEntityFactory implements EntityFactory {
 
+    private static final int TANK_SIZE = 39; // Both tank textures are 39x39
+    private final SplittableRandom random;
+    private final double fixedTimestep;
+    private final GameWorld world;
+
+    /**
+     * A factory for a regular match: a random seed and the frame time FXGL passes to the components.
+     */
+    public TankEntityFactory() {
+        this(new SplittableRandom().nextLong(), 0);
+    }
+
+    /**
+     * @param seed the match seed every enemy generator is split from
+     * @param fixedTimestep seconds the tanks advance per tick, or 0 to use the frame time
+     */
+    public TankEntityFactory(long seed, double fixedTimestep) {
+        this(null, seed, fixedTimestep);
+    }
+
+    /**
+     * @param world the world the entities are spawned into, or {@code null} for FXGL's game world
+     * @param seed the match seed every enemy generator is split from
+     * @param fixedTimestep seconds the tanks advance per tick, or 0 to use the frame time
+     */
+    public TankEntityFactory(GameWorld world, long seed, double fixedTimestep) {
+        this.random = new SplittableRandom(seed);
+        this.fixedTimestep = fixedTimestep;
+        this.world = world;
+    }
+
+    private GameWorld world() {
+        return world != null ? world : FXGL.getGameWorld();
+    }
+
     @Spawns("wall")
     public Entity newWall(SpawnData data) {
         return FXGL.entityBuilder(data)
@@ -56,85 +114,162 @@ public class TankEntityFactory implements EntityFactory {
     }
     @Spawns("enemySpawnPoint")
     public Entity enemySpawnPoint(SpawnData data) {
-        HealthIntComponent hpComponent = new HealthIntComponent(2);
-        ProgressBar hpView = new ProgressBar(false);
-        hpView.setFill(Color.RED);
-        hpView.setMaxValue(2);
-        hpView.setWidth(39);
-        hpView.setHeight(8);
-        hpView.setTranslateY(39);
-        hpView.currentValueProperty().bind(hpComponent.valueProperty());
-        return FXGL.entityBuilder(data)
+        HealthIntComponent hpComponent = new HealthIntComponent(MatchRules.TANK_HEALTH);
+        EntityBuilder builder = FXGL.entityBuilder(data)
                 .type(TankGameType.ENEMY)
-                .bbox(BoundingShape.box(32, 30))
-                .viewWithBBox("tanks/yellowTank.png")
-                .with(new EnemyAIComponent())
-                .view(hpView)
+                .bbox(BoundingShape.box(32, 30));
+        if (drawnOnCanvas()) {
+            // Same second box viewWithBBox takes from the texture
+            builder.bbox(BoundingShape.box(TANK_SIZE, TANK_SIZE))
+                    .with(new SpriteComponent(AtlasTextures.image("tanks/yellowTank.png"), hpComponent, Color.RED));
+        } else {
+            builder.viewWithBBox(AtlasTextures.texture("tanks/yellowTank.png"))
+                    .view(healthBar(hpComponent, Color.RED));
+        }
+        return builder
+                .with(new EnemyAIComponent(new EnemyBrain(random.split()), fixedTimestep))
                 .with(hpComponent)
                 .collidable()
                 .build();
     }
     @Spawns("playerSpawnPoint")
     public Entity newPlayer(SpawnData data) {
-        HealthIntComponent hpComponent = new HealthIntComponent(2);
-        ProgressBar hpView = new ProgressBar(false);
-        hpView.setFill(Color.LIGHTGREEN);
-        hpView.setMaxValue(2);
-        hpView.setWidth(39);
-        hpView.setHeight(8);
-        hpView.setTranslateY(39);
-        hpView.currentValueProperty().bind(hpComponent.valueProperty());
-        return FXGL.entityBuilder(data)
+        HealthIntComponent hpComponent = new HealthIntComponent(MatchRules.TANK_HEALTH);
+        EntityBuilder builder = FXGL.entityBuilder(data)
                 .type(TankGameType.PLAYER)
-                .bbox(BoundingShape.box(32, 30))
-                .view("tanks/greenTank.png")
-                .view(hpView)
-                .with(new PlayerComponent())
+                .bbox(BoundingShape.box(32, 30));
+        if (drawnOnCanvas()) {
+            builder.with(new SpriteComponent(AtlasTextures.image("tanks/greenTank.png"), hpComponent, Color.LIGHTGREEN));
+        } else {
+            builder.view(AtlasTextures.texture("tanks/greenTank.png"))
+                    .view(healthBar(hpComponent, Color.LIGHTGREEN));
+        }
+        return builder
+                .with(new PlayerComponent(fixedTimestep))
                 .with(hpComponent)
                 .collidable()
                 .build();
     }
+
+    private static ProgressBar healthBar(HealthIntComponent hpComponent, Color fill) {
+        ProgressBar hpView = new ProgressBar(false);
+        hpView.setFill(fill);
+        hpView.setMaxValue(2);
+        hpView.setWidth(TANK_SIZE);
+        hpView.setHeight(8);
+        hpView.setTranslateY(TANK_SIZE);
+        hpView.currentValueProperty().bind(hpComponent.valueProperty());
+        return hpView;
+    }
+
+    // Tanks, bullets and effects have no view nodes when the world draws them on a canvas
+    private boolean drawnOnCanvas() {
+        return CanvasRenderer.of(world()) != null;
+    }
     @Spawns("bullet")
     public Entity newBullet(SpawnData data) {
         double speed = 350;
         Entity owner = data.get("owner");
         CollidableComponent collidableComponent = new CollidableComponent(true);
         collidableComponent.addIgnoredType(owner.getType());
-        return FXGL.entityBuilder(data)
-                .type(TankGameType.BULLET)
-                .viewWithBBox("bullet/bullet.png")
+        EntityBuilder builder = FXGL.entityBuilder(data)
+                .type(TankGameType.BULLET);
+        if (drawnOnCanvas()) {
+            builder.bbox(BoundingShape.box(8, 10))
+                    .with(new SpriteComponent(AtlasTextures.image("bullet/bullet.png"), CanvasRenderer.Layer.BULLETS));
+        } else {
+            builder.viewWithBBox(AtlasTextures.texture("bullet/bullet.png"));
+        }
+        return builder
                 .scale(2, 2)
                 .with(collidableComponent)
                 .with(new ProjectileComponent(data.get("direction"), speed))
+                .with(new BulletWallComponent())
+                .with(new PooledComponent("bullet", BULLET_LIFECYCLE))
                 .build();
     }
     private final Duration explodeAnimeTime = Duration.seconds(0.5);
     private final Duration healAnimeTime = Duration.seconds(1);
-    private  final AnimationChannel explodeAc = new AnimationChannel(FXGL.image("animations/explosion.png"), explodeAnimeTime,9);
-    private  final AnimationChannel healAc = new AnimationChannel(FXGL.image("animations/heal.png"), healAnimeTime,11);
+    private  final AnimationChannel explodeAc = AtlasTextures.channel("animations/explosion.png", explodeAnimeTime,9);
+    private  final AnimationChannel healAc = AtlasTextures.channel("animations/heal.png", healAnimeTime,11);
 
     @Spawns("explode")
     public Entity newExplode(SpawnData data) {
-        return FXGL.entityBuilder(data)
-                .view(new AnimatedTexture(explodeAc).play())
-                .with(new ExpireCleanComponent(explodeAnimeTime))
+        AnimatedTexture texture = new AnimatedTexture(explodeAc);
+        return effectView(FXGL.entityBuilder(data), texture)
+                .with(new EffectComponent(texture, explodeAnimeTime))
+                .with(new PooledComponent("explode", EFFECT_LIFECYCLE))
                 .build();
     }
 
     @Spawns("heal")
     public Entity newHeal(SpawnData data) {
-        return FXGL.entityBuilder(data)
-                .view(new AnimatedTexture(healAc).play())
+        AnimatedTexture texture = new AnimatedTexture(healAc);
+        return effectView(FXGL.entityBuilder(data), texture)
                 .scale(2, 2)
-                .with(new ExpireCleanComponent(healAnimeTime))
+                .with(new EffectComponent(texture, healAnimeTime))
+                .with(new PooledComponent("heal", EFFECT_LIFECYCLE))
                 .build();
     }
 
+    private EntityBuilder effectView(EntityBuilder builder, AnimatedTexture texture) {
+        return drawnOnCanvas() ? builder.with(new SpriteComponent(texture)) : builder.view(texture);
+    }
+
+    private static final TankGameType[] TANK_TYPES = {TankGameType.PLAYER, TankGameType.ENEMY};
+
+    /**
+     * A parked bullet keeps its components but is hidden, ignored by the physics world and
+     * stops flying. Reusing it points it at the new direction and makes it ignore its new owner.
+     */
+    private static final PooledComponent.Lifecycle BULLET_LIFECYCLE = new PooledComponent.Lifecycle() {
+        @Override
+        public void reuse(Entity bullet, SpawnData data) {
+            Entity owner = data.get("owner");
+            CollidableComponent collidable = bullet.getComponent(CollidableComponent.class);
+            for (TankGameType type : TANK_TYPES) {
+                collidable.removeIgnoredType(type);
+            }
+            collidable.addIgnoredType(owner.getType());
+            collidable.setValue(true);
+            ProjectileComponent projectile = bullet.getComponent(ProjectileComponent.class);
+            projectile.setDirection(data.get("direction"));
+            projectile.resume();
+            bullet.getComponent(BulletWallComponent.class).resume();
+            bullet.getViewComponent().setVisible(true);
+        }
+
+        @Override
+        public void park(Entity bullet) {
+            bullet.getComponent(CollidableComponent.class).setValue(false);
+            bullet.getComponent(ProjectileComponent.class).pause();
+            bullet.getComponent(BulletWallComponent.class).pause();
+            bullet.getViewComponent().setVisible(false);
+        }
+    };
+
+    /**
+     * A parked effect is hidden with its animation stopped, reusing it plays it from the start.
+     */
+    private static final PooledComponent.Lifecycle EFFECT_LIFECYCLE = new PooledComponent.Lifecycle() {
+        @Override
+        public void reuse(Entity effect, SpawnData data) {
+            effect.getComponent(EffectComponent.class).restart();
+            effect.getViewComponent().setVisible(true);
+        }
+
+        @Override
+        public void park(Entity effect) {
+            effect.getComponent(EffectComponent.class).stop();
+            effect.getViewComponent().setVisible(false);
+        }
+    };
+
         @Spawns("healthpack")
     public Entity newHealthPack(SpawnData data) {
         return FXGL.entityBuilder(data)
                 .type(TankGameType.HEALTH_PACK)
-                .view("items/healthpack.png")
+                .view(AtlasTextures.texture("items/healthpack.png"))
                 .bbox(BoundingShape.box(32, 30))
                 .collidable()
                 .build();
@@ -0,0 +1,79 @@
+package com.example.ooptankgame.Level;
+
+import java.util.function.IntConsumer;
+
+/**
+ * The ChunkCuller class keeps track of which chunks of a chunk grid a viewport can see, and
+ * reports the chunks that come into view and go out of view as the viewport moves.
+ *
+ * A chunk is visible when it overlaps the viewport grown by {@code margin} pixels on each side.
+ * The margin gives a chunk time to be baked before it scrolls into view, and means a viewport
+ * that wobbles around a chunk border does not keep attaching and detaching the same chunks.
+ * Chunks are numbered row by row, the same as {@link TileChunkBaker}.
+ */
+final class ChunkCuller {
+
+    private final int chunkColumns;
+    private final int chunkRows;
+    private final int chunkWidth;
+    private final int chunkHeight;
+    private final double margin;
+
+    // Visible range, inclusive, empty while c0 > c1
+    private int c0 = 0;
+    private int c1 = -1;
+    private int r0 = 0;
+    private int r1 = -1;
+
+    public ChunkCuller(int chunkColumns, int chunkRows, int chunkWidth, int chunkHeight, double margin) {
+        this.chunkColumns = chunkColumns;
+        this.chunkRows = chunkRows;
+        this.chunkWidth = chunkWidth;
+        this.chunkHeight = chunkHeight;
+        this.margin = margin;
+    }
+
+    /**
+     * Moves the viewport to the given rectangle in world pixels. Calls {@code leave} for every
+     * chunk that is no longer visible, then {@code enter} for every chunk that just became visible.
+     *
+     * @return {@code true} if the set of visible chunks changed
+     */
+    public boolean update(double x, double y, double width, double height, IntConsumer enter, IntConsumer leave) {
+        int n0 = clamp((int) Math.floor((x - margin) / chunkWidth), chunkColumns);
+        int n1 = clamp((int) Math.floor((x + width + margin) / chunkWidth), chunkColumns);
+        int m0 = clamp((int) Math.floor((y - margin) / chunkHeight), chunkRows);
+        int m1 = clamp((int) Math.floor((y + height + margin) / chunkHeight), chunkRows);
+        if (n0 == c0 && n1 == c1 && m0 == r0 && m1 == r1) {
+            return false;
+        }
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (c < n0 || c > n1 || r < m0 || r > m1) {
+                    leave.accept(r * chunkColumns + c);
+                }
+            }
+        }
+        for (int r = m0; r <= m1; r++) {
+            for (int c = n0; c <= n1; c++) {
+                if (c < c0 || c > c1 || r < r0 || r > r1) {
+                    enter.accept(r * chunkColumns + c);
+                }
+            }
+        }
+        c0 = n0;
+        c1 = n1;
+        r0 = m0;
+        r1 = m1;
+        return true;
+    }
+
+    private static int clamp(int cell, int count) {
+        return cell < 0 ? 0 : Math.min(cell, count - 1);
+    }
+
+    /** Number of chunks currently visible. */
+    public int getVisibleCount() {
+        return c0 > c1 ? 0 : (c1 - c0 + 1) * (r1 - r0 + 1);
+    }
+}
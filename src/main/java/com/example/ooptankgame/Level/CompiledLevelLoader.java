@@ -0,0 +1,114 @@
+package com.example.ooptankgame.Level;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.SpawnData;
+import com.almasb.fxgl.entity.level.Level;
+import com.almasb.fxgl.entity.level.LevelLoader;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Components.TileChunksComponent;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CompiledLevelLoader class builds an FXGL {@link Level} from a compiled level file, in place
+ * of the TMX loader behind {@code setLevelFromMap}.
+ *
+ * Key Responsibilities:
+ * - **Tile Layers**: Instead of one full-map image per tile layer, adds a single entity with a
+ *   {@link TileChunksComponent}, which bakes the layers into chunk images and only keeps the
+ *   chunks in view in the scene graph. It is added first, so it is drawn under everything else,
+ *   like the tile layers of the TMX loader.
+ * - **Objects**: Spawns every object through the world's entity factories by its type, with the
+ *   position and the whole-pixel {@code width} and {@code height} in its SpawnData, so the
+ *   {@code TankEntityFactory} methods see the same data as with the TMX loader.
+ * - **Wall Bitmap**: When the world's {@link EntitySpatialIndex} already has the walls as a
+ *   {@link WallBitmap}, the {@code wall} objects are not spawned at all.
+ */
+public final class CompiledLevelLoader implements LevelLoader {
+
+    @Override
+    public Level load(URL url, GameWorld world) {
+        return build(LevelReader.read(url), url, world);
+    }
+
+    /**
+     * Builds the level of an already loaded map. Tileset images are resolved against
+     * {@code mapUrl}, the location of the map file.
+     */
+    public static Level build(TmxMap map, URL mapUrl, GameWorld world) {
+        return build(map, chunkBaker(map, mapUrl, TileChunkBaker.DEFAULT_CHUNK_TILES), world);
+    }
+
+    /**
+     * Builds the level of an already loaded map whose tilesets were already loaded into {@code baker}.
+     */
+    public static Level build(TmxMap map, TileChunkBaker baker, GameWorld world) {
+        List<Entity> entities = new ArrayList<>();
+        Entity tiles = new Entity();
+        tiles.addComponent(new TileChunksComponent(baker));
+        entities.add(tiles);
+        boolean bitmapWalls = EntitySpatialIndex.of(world).getWalls() != null;
+        for (TmxMap.MapObject object : map.getObjects()) {
+            if (bitmapWalls && object.type().equals("wall")) {
+                continue;
+            }
+            SpawnData data = new SpawnData(object.x(), object.y());
+            data.put("type", object.type());
+            data.put("width", (int) object.width());
+            data.put("height", (int) object.height());
+            entities.add(world.create(object.type(), data));
+        }
+        return new Level(map.getPixelWidth(), map.getPixelHeight(), entities);
+    }
+
+    /**
+     * Loads the tileset images of the map and returns a baker for its tile layers. Safe to call
+     * off the JavaFX thread, the images are only decoded and read.
+     */
+    public static TileChunkBaker chunkBaker(TmxMap map, URL mapUrl, int chunkTiles) {
+        int count = map.getTilesets().size();
+        int[][] pixels = new int[count][];
+        int[] widths = new int[count];
+        for (int i = 0; i < count; i++) {
+            Image image = new Image(resolve(mapUrl, map.getTilesets().get(i).image()));
+            int width = (int) image.getWidth();
+            int height = (int) image.getHeight();
+            pixels[i] = new int[width * height];
+            widths[i] = width;
+            image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels[i], 0, width);
+        }
+        return new TileChunkBaker(map, pixels, widths, chunkTiles);
+    }
+
+    /**
+     * Resolves a tileset image path of the map against the map's location, a {@code file:} URL when
+     * running from the build output and a {@code jar:} URL when running from the game's jar.
+     */
+    static String resolve(URL mapUrl, String path) {
+        try {
+            URI relative = new URI(null, null, path, null); // Quotes spaces and the like in the path
+            URI map = mapUrl.toURI();
+            if (!map.isOpaque()) {
+                return map.resolve(relative).toURL().toExternalForm();
+            }
+            // A jar: URL is opaque to URI, only the entry after "!/" is a path to resolve against
+            String text = map.toString();
+            int entry = text.indexOf("!/");
+            if (entry < 0) {
+                throw new IllegalArgumentException("Cannot resolve " + path + " against " + mapUrl);
+            }
+            return text.substring(0, entry + 1) + new URI(text.substring(entry + 1)).resolve(relative);
+        } catch (URISyntaxException | MalformedURLException e) {
+            throw new IllegalArgumentException("Bad tileset image path: " + path, e);
+        }
+    }
+}
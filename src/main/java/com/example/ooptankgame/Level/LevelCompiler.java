@@ -0,0 +1,59 @@
+package com.example.ooptankgame.Level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Build step that compiles every TMX map under the given folders into a compiled level file
+ * next to it, e.g. {@code tankgamemapnewwalls.tmx} to {@code tankgamemapnewwalls.tlvl}.
+ *
+ * Maven runs it on {@code target/classes/assets/levels} in the {@code process-classes} phase,
+ * so the compiled levels end up in the jar next to the maps they were made from. A compiled
+ * level newer than its map is left alone.
+ *
+ * Run with: {@code java com.example.ooptankgame.Level.LevelCompiler <folder>...}
+ */
+public final class LevelCompiler {
+
+    private LevelCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: LevelCompiler <folder>...");
+            System.exit(2);
+        }
+        for (String arg : args) {
+            Path folder = Path.of(arg);
+            if (!Files.isDirectory(folder)) {
+                System.err.println("No such folder, skipped: " + folder);
+                continue;
+            }
+            List<Path> maps;
+            try (Stream<Path> files = Files.walk(folder)) {
+                maps = files.filter(file -> file.getFileName().toString().endsWith(".tmx")).sorted().toList();
+            }
+            for (Path map : maps) {
+                compile(map);
+            }
+        }
+    }
+
+    private static void compile(Path map) throws IOException {
+        Path target = map.resolveSibling(LevelFormat.compiledName(map.getFileName().toString()));
+        if (Files.exists(target) && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(map)) >= 0) {
+            return;
+        }
+        TmxMap parsed;
+        try (InputStream in = Files.newInputStream(map)) {
+            parsed = TmxMap.read(in);
+        }
+        LevelWriter.write(parsed, target);
+        System.out.printf("Compiled %s (%,d bytes) to %s (%,d bytes)%n", map.getFileName(), Files.size(map),
+                target.getFileName(), Files.size(target));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ooptankgame.Level;
+
+/**
+ * Layout of a compiled level file ({@code .tlvl}), shared by {@link LevelWriter} and
+ * {@link LevelReader}. All numbers are big-endian and every section starts on a 4-byte boundary.
+ *
+ * <pre>
+ * header:   "TLVL"  magic
+ *           i32     format version
+ *           i32 x 4 width and height in tiles, tile width and height in pixels
+ * strings:  i32     count, then per string: i32 byte length, UTF-8 bytes, padding
+ * tilesets: i32     count, then per tileset: i32 x 9 first gid, name, tile width, tile height,
+ *                   tile count, columns, spacing, margin, image
+ * layers:   i32     count, then per layer: i32 name, i32 width, i32 height,
+ *                   i32 bytes per gid (1, 2 or 4), width * height gids, padding
+ * objects:  i32     count, then per object: i32 group, i32 type, f64 x 4 x, y, width, height
+ * </pre>
+ *
+ * Names, types and image paths are indices into the string table, -1 for none. Gids are stored
+ * in the smallest width that holds the largest gid of the layer, which is one or two bytes for
+ * any map made from a few tilesets.
+ */
+final class LevelFormat {
+
+    static final int MAGIC = ('T' << 24) | ('L' << 16) | ('V' << 8) | 'L';
+    static final int VERSION = 1;
+    static final String EXTENSION = ".tlvl";
+
+    private LevelFormat() {
+    }
+
+    /**
+     * Name of the compiled file of a TMX map, e.g. {@code tmx/map.tmx} to {@code tmx/map.tlvl}.
+     */
+    static String compiledName(String mapName) {
+        int dot = mapName.lastIndexOf('.');
+        int slash = mapName.lastIndexOf('/');
+        return (dot > slash ? mapName.substring(0, dot) : mapName) + EXTENSION;
+    }
+
+    static int padding(int size) {
+        return (4 - (size & 3)) & 3;
+    }
+}
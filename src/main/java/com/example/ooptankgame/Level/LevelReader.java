@@ -0,0 +1,148 @@
+package com.example.ooptankgame.Level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads compiled level files written by {@link LevelWriter} back into a {@link TmxMap}, without
+ * any XML parsing. See {@link LevelFormat} for the layout.
+ *
+ * Key Responsibilities:
+ * - **Finding**: {@link #find} returns the compiled file the build made next to a TMX map, if
+ *   there is one.
+ * - **Memory Mapping**: A level on the file system, which is where {@code mvn javafx:run} and
+ *   the IDE load resources from, is mapped into memory and decoded straight from the page cache.
+ *   A level inside the jar cannot be mapped and is read into one buffer instead.
+ * - **Fallback**: {@link #load} falls back to parsing the TMX file when the level was not
+ *   compiled, so a build without the compile step still runs.
+ */
+public final class LevelReader {
+
+    private LevelReader() {
+    }
+
+    /**
+     * Loads a map by its TMX name, e.g. {@code load("tmx/tankgamemapnewwalls.tmx")}, from the
+     * compiled file if the build made one and from the TMX file otherwise.
+     */
+    public static TmxMap load(String mapName) {
+        URL compiled = find(mapName);
+        return compiled != null ? read(compiled) : TmxMap.load(mapName);
+    }
+
+    /**
+     * Returns the compiled file of a TMX map on the classpath, or {@code null} if there is none.
+     */
+    public static URL find(String mapName) {
+        return LevelReader.class.getResource(TmxMap.LEVELS_ROOT + LevelFormat.compiledName(mapName));
+    }
+
+    public static TmxMap read(URL url) {
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return read(Path.of(url.toURI()));
+            }
+            try (InputStream in = url.openStream()) {
+                return read(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read level " + url, e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Not a valid level location: " + url, e);
+        }
+    }
+
+    public static TmxMap read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static TmxMap read(ByteBuffer buffer) {
+        if (buffer.getInt() != LevelFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a compiled level");
+        }
+        int version = buffer.getInt();
+        if (version != LevelFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported level version " + version);
+        }
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int tileWidth = buffer.getInt();
+        int tileHeight = buffer.getInt();
+
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            skipPadding(buffer);
+        }
+
+        int tilesetCount = buffer.getInt();
+        List<TmxMap.Tileset> tilesets = new ArrayList<>(tilesetCount);
+        for (int i = 0; i < tilesetCount; i++) {
+            tilesets.add(new TmxMap.Tileset(buffer.getInt(), string(strings, buffer.getInt()), buffer.getInt(),
+                    buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                    string(strings, buffer.getInt())));
+        }
+
+        int layerCount = buffer.getInt();
+        List<TmxMap.TileLayer> layers = new ArrayList<>(layerCount);
+        for (int i = 0; i < layerCount; i++) {
+            String name = string(strings, buffer.getInt());
+            int layerWidth = buffer.getInt();
+            int layerHeight = buffer.getInt();
+            int bytesPerGid = buffer.getInt();
+            int[] gids = new int[layerWidth * layerHeight];
+            switch (bytesPerGid) {
+                case 1 -> {
+                    for (int g = 0; g < gids.length; g++) {
+                        gids[g] = buffer.get() & 0xFF;
+                    }
+                }
+                case 2 -> {
+                    for (int g = 0; g < gids.length; g++) {
+                        gids[g] = buffer.getShort() & 0xFFFF;
+                    }
+                }
+                case 4 -> {
+                    buffer.asIntBuffer().get(gids);
+                    buffer.position(buffer.position() + gids.length * 4);
+                }
+                default -> throw new IllegalArgumentException("Unsupported gid size " + bytesPerGid);
+            }
+            skipPadding(buffer);
+            layers.add(new TmxMap.TileLayer(name, layerWidth, layerHeight, gids));
+        }
+
+        int objectCount = buffer.getInt();
+        List<TmxMap.MapObject> objects = new ArrayList<>(objectCount);
+        for (int i = 0; i < objectCount; i++) {
+            String group = string(strings, buffer.getInt());
+            String type = string(strings, buffer.getInt());
+            objects.add(new TmxMap.MapObject(group, type == null ? "" : type,
+                    buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble()));
+        }
+        return new TmxMap(width, height, tileWidth, tileHeight, tilesets, layers, objects);
+    }
+
+    private static String string(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    private static void skipPadding(ByteBuffer buffer) {
+        buffer.position(buffer.position() + LevelFormat.padding(buffer.position()));
+    }
+}
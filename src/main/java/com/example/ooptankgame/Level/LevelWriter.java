@@ -0,0 +1,134 @@
+package com.example.ooptankgame.Level;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link TmxMap} as a compiled level file. See {@link LevelFormat} for the layout.
+ */
+public final class LevelWriter {
+
+    private LevelWriter() {
+    }
+
+    public static void write(TmxMap map, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(map, out);
+        }
+    }
+
+    public static void write(TmxMap map, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        out.writeInt(LevelFormat.MAGIC);
+        out.writeInt(LevelFormat.VERSION);
+        out.writeInt(map.getWidth());
+        out.writeInt(map.getHeight());
+        out.writeInt(map.getTileWidth());
+        out.writeInt(map.getTileHeight());
+
+        StringTable strings = new StringTable();
+        for (TmxMap.Tileset tileset : map.getTilesets()) {
+            strings.add(tileset.name());
+            strings.add(tileset.image());
+        }
+        for (TmxMap.TileLayer layer : map.getTileLayers()) {
+            strings.add(layer.name());
+        }
+        for (TmxMap.MapObject object : map.getObjects()) {
+            strings.add(object.group());
+            strings.add(object.type());
+        }
+        out.writeInt(strings.values.size());
+        for (String value : strings.values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            pad(out);
+        }
+
+        out.writeInt(map.getTilesets().size());
+        for (TmxMap.Tileset tileset : map.getTilesets()) {
+            out.writeInt(tileset.firstGid());
+            out.writeInt(strings.indexOf(tileset.name()));
+            out.writeInt(tileset.tileWidth());
+            out.writeInt(tileset.tileHeight());
+            out.writeInt(tileset.tileCount());
+            out.writeInt(tileset.columns());
+            out.writeInt(tileset.spacing());
+            out.writeInt(tileset.margin());
+            out.writeInt(strings.indexOf(tileset.image()));
+        }
+
+        out.writeInt(map.getTileLayers().size());
+        for (TmxMap.TileLayer layer : map.getTileLayers()) {
+            int[] gids = layer.gids();
+            int bytesPerGid = bytesPerGid(gids);
+            out.writeInt(strings.indexOf(layer.name()));
+            out.writeInt(layer.width());
+            out.writeInt(layer.height());
+            out.writeInt(bytesPerGid);
+            for (int gid : gids) {
+                switch (bytesPerGid) {
+                    case 1 -> out.writeByte(gid);
+                    case 2 -> out.writeShort(gid);
+                    default -> out.writeInt(gid);
+                }
+            }
+            pad(out);
+        }
+
+        out.writeInt(map.getObjects().size());
+        for (TmxMap.MapObject object : map.getObjects()) {
+            out.writeInt(strings.indexOf(object.group()));
+            out.writeInt(strings.indexOf(object.type()));
+            out.writeDouble(object.x());
+            out.writeDouble(object.y());
+            out.writeDouble(object.width());
+            out.writeDouble(object.height());
+        }
+        out.flush();
+    }
+
+    private static int bytesPerGid(int[] gids) {
+        int max = 0;
+        for (int gid : gids) {
+            // Flip flags live in the top bits, such a gid needs all four bytes
+            if (gid < 0) {
+                return 4;
+            }
+            max = Math.max(max, gid);
+        }
+        return max <= 0xFF ? 1 : max <= 0xFFFF ? 2 : 4;
+    }
+
+    private static void pad(DataOutputStream out) throws IOException {
+        for (int i = LevelFormat.padding(out.size()); i > 0; i--) {
+            out.writeByte(0);
+        }
+    }
+
+    private static final class StringTable {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        private void add(String value) {
+            if (value != null && !indices.containsKey(value)) {
+                indices.put(value, values.size());
+                values.add(value);
+            }
+        }
+
+        private int indexOf(String value) {
+            return value == null ? -1 : indices.get(value);
+        }
+    }
+}
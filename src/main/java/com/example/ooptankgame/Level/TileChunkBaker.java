@@ -0,0 +1,191 @@
+package com.example.ooptankgame.Level;
+
+import java.util.Arrays;
+
+/**
+ * The TileChunkBaker class cuts the tile layers of a map into square chunks and draws each chunk,
+ * all of its layers blended in map order, into one ARGB pixel buffer.
+ *
+ * Key Responsibilities:
+ * - **Chunk Geometry**: A chunk is {@code chunkTiles} x {@code chunkTiles} tiles; chunks on the
+ *   right and bottom border may be cut short by the map. Chunks are numbered row by row.
+ * - **Baking**: {@link #bake} draws every tile of every layer in the chunk with source-over
+ *   blending, so one image per chunk replaces the full-map image of every layer.
+ * - **Empty Chunks**: {@link #isEmpty} tells from the gids alone whether a chunk has any tile,
+ *   so the renderer never creates a node for a chunk with nothing in it.
+ *
+ * Pixels are non-premultiplied ARGB ints, the format of {@code PixelFormat.getIntArgbInstance()},
+ * so the baker needs no JavaFX and can run on any thread. Tiles that stick out of their grid cell
+ * are clipped to their chunk, and tile flip flags are ignored.
+ */
+public final class TileChunkBaker {
+
+    /** Default chunk size, 16x16 tiles or 512x512 pixels with the game's 32 pixel tiles. */
+    public static final int DEFAULT_CHUNK_TILES = 16;
+
+    private static final int GID_MASK = 0x1FFFFFFF;
+
+    private final TmxMap map;
+    private final int chunkTiles;
+    private final int chunkColumns;
+    private final int chunkRows;
+    private final int[][] tilesetPixels;
+    private final int[] tilesetWidths;
+    private final boolean[] empty;
+
+    /**
+     * @param map the map, its tile layers are drawn in order
+     * @param tilesetPixels ARGB pixels of each tileset image, in the order of {@link TmxMap#getTilesets()}
+     * @param tilesetWidths width in pixels of each tileset image
+     * @param chunkTiles width and height of a chunk in tiles
+     */
+    public TileChunkBaker(TmxMap map, int[][] tilesetPixels, int[] tilesetWidths, int chunkTiles) {
+        if (chunkTiles <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkTiles);
+        }
+        if (tilesetPixels.length != map.getTilesets().size() || tilesetWidths.length != tilesetPixels.length) {
+            throw new IllegalArgumentException("Need the pixels of all " + map.getTilesets().size() + " tilesets");
+        }
+        this.map = map;
+        this.chunkTiles = chunkTiles;
+        this.chunkColumns = Math.max(1, (map.getWidth() + chunkTiles - 1) / chunkTiles);
+        this.chunkRows = Math.max(1, (map.getHeight() + chunkTiles - 1) / chunkTiles);
+        this.tilesetPixels = tilesetPixels;
+        this.tilesetWidths = tilesetWidths;
+        this.empty = new boolean[chunkColumns * chunkRows];
+        for (int chunk = 0; chunk < empty.length; chunk++) {
+            empty[chunk] = !hasTiles(chunk % chunkColumns, chunk / chunkColumns);
+        }
+    }
+
+    private boolean hasTiles(int chunkColumn, int chunkRow) {
+        for (TmxMap.TileLayer layer : map.getTileLayers()) {
+            int c1 = Math.min(layer.width(), (chunkColumn + 1) * chunkTiles);
+            int r1 = Math.min(layer.height(), (chunkRow + 1) * chunkTiles);
+            for (int row = chunkRow * chunkTiles; row < r1; row++) {
+                for (int column = chunkColumn * chunkTiles; column < c1; column++) {
+                    if ((layer.gid(column, row) & GID_MASK) != 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draws the chunk into {@code out}, which must hold {@link #getChunkPixelWidth()} x
+     * {@link #getChunkPixelHeight()} pixels row by row. Pixels of the map outside the chunk's
+     * tiles are left transparent.
+     */
+    public void bake(int chunkColumn, int chunkRow, int[] out) {
+        int width = getChunkPixelWidth();
+        int height = getChunkPixelHeight();
+        Arrays.fill(out, 0, width * height, 0);
+        if (isEmpty(chunkColumn, chunkRow)) {
+            return;
+        }
+        int tileWidth = map.getTileWidth();
+        int tileHeight = map.getTileHeight();
+        for (TmxMap.TileLayer layer : map.getTileLayers()) {
+            int c1 = Math.min(layer.width(), (chunkColumn + 1) * chunkTiles);
+            int r1 = Math.min(layer.height(), (chunkRow + 1) * chunkTiles);
+            for (int row = chunkRow * chunkTiles; row < r1; row++) {
+                for (int column = chunkColumn * chunkTiles; column < c1; column++) {
+                    int gid = layer.gid(column, row) & GID_MASK;
+                    if (gid == 0) {
+                        continue;
+                    }
+                    int t = tilesetOf(gid);
+                    TmxMap.Tileset tileset = map.getTilesets().get(t);
+                    int local = gid - tileset.firstGid();
+                    int sx = tileset.margin() + (local % tileset.columns()) * (tileset.tileWidth() + tileset.spacing());
+                    int sy = tileset.margin() + (local / tileset.columns()) * (tileset.tileHeight() + tileset.spacing());
+                    // Tiles taller than the grid stick out upwards, as in Tiled
+                    int dx = (column - chunkColumn * chunkTiles) * tileWidth;
+                    int dy = (row - chunkRow * chunkTiles + 1) * tileHeight - tileset.tileHeight();
+                    drawTile(tilesetPixels[t], tilesetWidths[t], sx, sy, tileset.tileWidth(), tileset.tileHeight(),
+                            out, width, height, dx, dy);
+                }
+            }
+        }
+    }
+
+    private int tilesetOf(int gid) {
+        // Tilesets are sorted by first gid, the last one at or below the gid owns it
+        int t = map.getTilesets().size() - 1;
+        while (t > 0 && map.getTilesets().get(t).firstGid() > gid) {
+            t--;
+        }
+        return t;
+    }
+
+    private static void drawTile(int[] src, int srcWidth, int sx, int sy, int w, int h,
+                                 int[] dst, int dstWidth, int dstHeight, int dx, int dy) {
+        int y0 = Math.max(0, -dy);
+        int y1 = Math.min(h, dstHeight - dy);
+        int x0 = Math.max(0, -dx);
+        int x1 = Math.min(w, dstWidth - dx);
+        int srcHeight = src.length / srcWidth;
+        y1 = Math.min(y1, srcHeight - sy);
+        x1 = Math.min(x1, srcWidth - sx);
+        for (int y = y0; y < y1; y++) {
+            int s = (sy + y) * srcWidth + sx;
+            int d = (dy + y) * dstWidth + dx;
+            for (int x = x0; x < x1; x++) {
+                int color = src[s + x];
+                int alpha = color >>> 24;
+                if (alpha == 0xFF) {
+                    dst[d + x] = color;
+                } else if (alpha != 0) {
+                    dst[d + x] = blend(color, dst[d + x]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Source-over blending of two non-premultiplied ARGB colors.
+     */
+    private static int blend(int src, int dst) {
+        int sa = src >>> 24;
+        int da = dst >>> 24;
+        int keep = da * (255 - sa) / 255;
+        int a = sa + keep;
+        if (a == 0) {
+            return 0;
+        }
+        int r = (((src >> 16) & 0xFF) * sa + ((dst >> 16) & 0xFF) * keep) / a;
+        int g = (((src >> 8) & 0xFF) * sa + ((dst >> 8) & 0xFF) * keep) / a;
+        int b = ((src & 0xFF) * sa + (dst & 0xFF) * keep) / a;
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    public boolean isEmpty(int chunkColumn, int chunkRow) {
+        return empty[chunkRow * chunkColumns + chunkColumn];
+    }
+
+    public int getChunkTiles() {
+        return chunkTiles;
+    }
+
+    public int getChunkColumns() {
+        return chunkColumns;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    public int getChunkCount() {
+        return chunkColumns * chunkRows;
+    }
+
+    public int getChunkPixelWidth() {
+        return chunkTiles * map.getTileWidth();
+    }
+
+    public int getChunkPixelHeight() {
+        return chunkTiles * map.getTileHeight();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.ooptankgame.Level;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The TileChunkStreamer class decides, frame by frame, which chunk images of a map exist and which
+ * are shown, for a viewport moving over the map.
+ *
+ * Key Responsibilities:
+ * - **Culling**: A {@link ChunkCuller} reports the chunks that come into view and go out of view.
+ *   Chunks that left the view are hidden right away.
+ * - **Spread Out Baking**: Chunks that come into view are queued and at most
+ *   {@code bakesPerFrame} of them are baked per frame, so scrolling a whole row of chunks into
+ *   view does not stall one frame. The culler's margin means a queued chunk is not on screen yet.
+ *   Only the very first fill bakes everything at once, since the view would be empty otherwise.
+ * - **Caching**: Baked images are kept in a least recently used cache of {@code cacheSize}
+ *   chunks, shown ones are never evicted.
+ * - **Recycling**: Evicted images are handed back to the sink to be filled with the next chunk,
+ *   so once the cache is full scrolling allocates no new images and causes no GC pauses.
+ *
+ * The images themselves are made by a {@link Sink}, which keeps this class free of JavaFX:
+ * {@code TileChunksComponent} turns chunks into image views, the benchmark keeps pixel arrays.
+ *
+ * @param <T> the type of a baked chunk image
+ */
+public final class TileChunkStreamer<T> {
+
+    /**
+     * Creates, shows and hides chunk images.
+     */
+    public interface Sink<T> {
+        /**
+         * Makes the image of a chunk from its freshly baked pixels, which are reused afterwards.
+         * {@code recycled} is an image evicted from the cache to fill instead of making a new
+         * one, or null.
+         */
+        T create(int column, int row, int[] pixels, T recycled);
+
+        void show(T image);
+
+        void hide(T image);
+    }
+
+    private final TileChunkBaker baker;
+    private final ChunkCuller culler;
+    private final Sink<T> sink;
+    private final int bakesPerFrame;
+    private final int cacheSize;
+    private final Map<Integer, T> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final BitSet visible;
+    private final BitSet shown;
+    private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+    private final int[] pixels;
+    private T spare;
+
+    private int shownCount = 0;
+    private long bakedCount = 0;
+    private long bakeNanos = 0;
+
+    public TileChunkStreamer(TileChunkBaker baker, Sink<T> sink, int cacheSize, int bakesPerFrame) {
+        this.baker = baker;
+        this.sink = sink;
+        this.cacheSize = Math.max(1, cacheSize);
+        this.bakesPerFrame = Math.max(1, bakesPerFrame);
+        // Half a chunk of margin, so a chunk can be baked before it scrolls into view
+        this.culler = new ChunkCuller(baker.getChunkColumns(), baker.getChunkRows(),
+                baker.getChunkPixelWidth(), baker.getChunkPixelHeight(), baker.getChunkPixelWidth() / 2.0);
+        this.visible = new BitSet(baker.getChunkCount());
+        this.shown = new BitSet(baker.getChunkCount());
+        this.pixels = new int[baker.getChunkPixelWidth() * baker.getChunkPixelHeight()];
+    }
+
+    /**
+     * Moves the viewport to the given rectangle in world pixels and shows, bakes and hides chunks.
+     */
+    public void update(double x, double y, double width, double height) {
+        culler.update(x, y, width, height, this::enter, this::leave);
+        int budget = shownCount == 0 ? Integer.MAX_VALUE : bakesPerFrame;
+        while (budget > 0 && !pending.isEmpty()) {
+            int chunk = pending.poll();
+            if (!visible.get(chunk) || shown.get(chunk)) {
+                continue;
+            }
+            T image = cache.get(chunk);
+            if (image == null) {
+                image = bake(chunk);
+                budget--;
+            }
+            show(chunk, image);
+        }
+    }
+
+    private void enter(int chunk) {
+        if (baker.isEmpty(chunk % baker.getChunkColumns(), chunk / baker.getChunkColumns())) {
+            return;
+        }
+        visible.set(chunk);
+        T image = cache.get(chunk);
+        if (image != null) {
+            show(chunk, image);
+        } else {
+            pending.add(chunk);
+        }
+    }
+
+    private void leave(int chunk) {
+        visible.clear(chunk);
+        if (shown.get(chunk)) {
+            shown.clear(chunk);
+            shownCount--;
+            sink.hide(cache.get(chunk));
+        }
+    }
+
+    private void show(int chunk, T image) {
+        shown.set(chunk);
+        shownCount++;
+        sink.show(image);
+    }
+
+    private T bake(int chunk) {
+        long start = System.nanoTime();
+        int column = chunk % baker.getChunkColumns();
+        int row = chunk / baker.getChunkColumns();
+        baker.bake(column, row, pixels);
+        evict(cacheSize - 1);
+        T image = sink.create(column, row, pixels, spare);
+        spare = null;
+        cache.put(chunk, image);
+        bakeNanos += System.nanoTime() - start;
+        bakedCount++;
+        return image;
+    }
+
+    private void evict(int keep) {
+        var entries = cache.entrySet().iterator();
+        while (cache.size() > keep && entries.hasNext()) {
+            var entry = entries.next();
+            int chunk = entry.getKey();
+            if (!shown.get(chunk) && !visible.get(chunk)) {
+                spare = entry.getValue();
+                entries.remove();
+            }
+        }
+    }
+
+    /** Number of chunk images shown right now. */
+    public int getShownCount() {
+        return shownCount;
+    }
+
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    /** Number of chunks waiting to be baked. */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /** Number of chunks baked so far, including ones baked again after leaving the cache. */
+    public long getBakedCount() {
+        return bakedCount;
+    }
+
+    public double getAverageBakeMillis() {
+        return bakedCount == 0 ? 0 : bakeNanos / 1e6 / bakedCount;
+    }
+}
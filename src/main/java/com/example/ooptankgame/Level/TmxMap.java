@@ -0,0 +1,267 @@
+package com.example.ooptankgame.Level;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The TmxMap class is a plain-Java view of a Tiled TMX map: its size, its tilesets, its CSV tile
+ * layers and the objects of its object layers. It reads the same files FXGL's {@code setLevelFromMap}
+ * loads, but without JavaFX, so the map can be used where there is no FXGL engine running.
+ *
+ * Only what the game uses is read: orthogonal maps with embedded tilesets, CSV-encoded tile
+ * layers and rectangle objects. Object types are taken from the {@code type} attribute, or from
+ * {@code class} as written by newer versions of Tiled.
+ */
+public final class TmxMap {
+
+    /** Classpath location of the maps, same folder FXGL loads {@code tmx/...} from. */
+    public static final String LEVELS_ROOT = "/assets/levels/";
+
+    private final int width;
+    private final int height;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final List<Tileset> tilesets;
+    private final List<TileLayer> tileLayers;
+    private final List<MapObject> objects;
+
+    public TmxMap(int width, int height, int tileWidth, int tileHeight, List<TileLayer> tileLayers, List<MapObject> objects) {
+        this(width, height, tileWidth, tileHeight, List.of(), tileLayers, objects);
+    }
+
+    public TmxMap(int width, int height, int tileWidth, int tileHeight, List<Tileset> tilesets,
+                  List<TileLayer> tileLayers, List<MapObject> objects) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.tilesets = Collections.unmodifiableList(tilesets);
+        this.tileLayers = Collections.unmodifiableList(tileLayers);
+        this.objects = Collections.unmodifiableList(objects);
+    }
+
+    /**
+     * Loads a map from the classpath, e.g. {@code load("tmx/tankgamemapnewwalls.tmx")}.
+     */
+    public static TmxMap load(String mapName) {
+        try (InputStream in = TmxMap.class.getResourceAsStream(LEVELS_ROOT + mapName)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No such map on the classpath: " + LEVELS_ROOT + mapName);
+            }
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read map " + mapName, e);
+        }
+    }
+
+    public static TmxMap read(InputStream in) {
+        try {
+            XMLStreamReader xml = XMLInputFactory.newFactory().createXMLStreamReader(in);
+            try {
+                return read(xml);
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Malformed TMX map", e);
+        }
+    }
+
+    private static TmxMap read(XMLStreamReader xml) throws XMLStreamException {
+        int width = 0;
+        int height = 0;
+        int tileWidth = 0;
+        int tileHeight = 0;
+        List<Tileset> tilesets = new ArrayList<>();
+        List<TileLayer> layers = new ArrayList<>();
+        List<MapObject> objects = new ArrayList<>();
+
+        Tileset tileset = null;
+        String layerName = null;
+        int layerWidth = 0;
+        int layerHeight = 0;
+        String groupName = null;
+
+        while (xml.hasNext()) {
+            if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (xml.getLocalName()) {
+                case "map" -> {
+                    width = intAttribute(xml, "width");
+                    height = intAttribute(xml, "height");
+                    tileWidth = intAttribute(xml, "tilewidth");
+                    tileHeight = intAttribute(xml, "tileheight");
+                }
+                case "tileset" -> {
+                    if (xml.getAttributeValue(null, "source") != null) {
+                        throw new IllegalArgumentException("Only embedded tilesets are supported, got: "
+                                + xml.getAttributeValue(null, "source"));
+                    }
+                    tileset = new Tileset(
+                            intAttribute(xml, "firstgid"),
+                            xml.getAttributeValue(null, "name"),
+                            intAttribute(xml, "tilewidth"),
+                            intAttribute(xml, "tileheight"),
+                            intAttribute(xml, "tilecount"),
+                            intAttribute(xml, "columns"),
+                            intAttribute(xml, "spacing"),
+                            intAttribute(xml, "margin"),
+                            null);
+                }
+                case "image" -> {
+                    // The image of the tileset just opened, image layers are not used
+                    if (tileset != null) {
+                        tilesets.add(new Tileset(tileset.firstGid(), tileset.name(), tileset.tileWidth(), tileset.tileHeight(),
+                                tileset.tileCount(), tileset.columns(), tileset.spacing(), tileset.margin(),
+                                xml.getAttributeValue(null, "source")));
+                        tileset = null;
+                    }
+                }
+                case "layer" -> {
+                    layerName = xml.getAttributeValue(null, "name");
+                    layerWidth = intAttribute(xml, "width");
+                    layerHeight = intAttribute(xml, "height");
+                }
+                case "data" -> {
+                    String encoding = xml.getAttributeValue(null, "encoding");
+                    if (!"csv".equals(encoding)) {
+                        throw new IllegalArgumentException("Only CSV tile layers are supported, got: " + encoding);
+                    }
+                    layers.add(new TileLayer(layerName, layerWidth, layerHeight, parseCsv(xml.getElementText(), layerWidth * layerHeight)));
+                }
+                case "objectgroup" -> groupName = xml.getAttributeValue(null, "name");
+                case "object" -> {
+                    String type = xml.getAttributeValue(null, "type");
+                    if (type == null) {
+                        type = xml.getAttributeValue(null, "class");
+                    }
+                    objects.add(new MapObject(
+                            groupName,
+                            type == null ? "" : type,
+                            doubleAttribute(xml, "x"),
+                            doubleAttribute(xml, "y"),
+                            doubleAttribute(xml, "width"),
+                            doubleAttribute(xml, "height")));
+                }
+                default -> {
+                }
+            }
+        }
+        return new TmxMap(width, height, tileWidth, tileHeight, tilesets, layers, objects);
+    }
+
+    private static int[] parseCsv(String text, int size) {
+        int[] gids = new int[size];
+        int index = 0;
+        long value = 0;
+        boolean inNumber = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                inNumber = true;
+            } else if (inNumber) {
+                gids[index++] = (int) value;
+                value = 0;
+                inNumber = false;
+            }
+        }
+        if (inNumber) {
+            gids[index] = (int) value;
+        }
+        return gids;
+    }
+
+    private static int intAttribute(XMLStreamReader xml, String name) {
+        String value = xml.getAttributeValue(null, name);
+        return value == null ? 0 : Integer.parseInt(value);
+    }
+
+    private static double doubleAttribute(XMLStreamReader xml, String name) {
+        String value = xml.getAttributeValue(null, name);
+        return value == null ? 0 : Double.parseDouble(value);
+    }
+
+    /** Width of the map in tiles. */
+    public int getWidth() {
+        return width;
+    }
+
+    /** Height of the map in tiles. */
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    public int getPixelWidth() {
+        return width * tileWidth;
+    }
+
+    public int getPixelHeight() {
+        return height * tileHeight;
+    }
+
+    public List<Tileset> getTilesets() {
+        return tilesets;
+    }
+
+    public List<TileLayer> getTileLayers() {
+        return tileLayers;
+    }
+
+    public List<MapObject> getObjects() {
+        return objects;
+    }
+
+    /**
+     * Returns the objects with the given spawn type, e.g. {@code "wall"} or {@code "enemySpawnPoint"}.
+     */
+    public List<MapObject> getObjects(String type) {
+        List<MapObject> result = new ArrayList<>();
+        for (MapObject object : objects) {
+            if (object.type().equals(type)) {
+                result.add(object);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * An embedded tileset. {@code image} is the path of its image relative to the map file.
+     */
+    public record Tileset(int firstGid, String name, int tileWidth, int tileHeight, int tileCount, int columns,
+                          int spacing, int margin, String image) {
+    }
+
+    /**
+     * A CSV tile layer, {@code gids} holds one global tile id per tile in row-major order, 0 for empty.
+     */
+    public record TileLayer(String name, int width, int height, int[] gids) {
+        public int gid(int column, int row) {
+            return gids[row * width + column];
+        }
+    }
+
+    /**
+     * A rectangle object from an object layer, in pixels. {@code type} is the name the
+     * {@code TankEntityFactory} spawns it with.
+     */
+    public record MapObject(String group, String type, double x, double y, double width, double height) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.ooptankgame.Loop;
+
+import com.example.ooptankgame.Profiling.RollingStats;
+
+import java.util.Locale;
+
+/**
+ * The FixedStepClock class decides how many simulation ticks of a fixed length each rendered
+ * frame runs, so the game plays the same whether it draws 30 or 144 frames per second.
+ *
+ * Key Responsibilities:
+ * - **Accumulator**: {@link #advance} adds the frame's time to what is left over from earlier
+ *   frames and returns the number of whole ticks due. The remainder carries over, so over time
+ *   the simulation runs at exactly {@link #getTicksPerSecond()}.
+ * - **Spiral-of-Death Protection**: A frame runs at most {@code maxTicksPerFrame} ticks. When a
+ *   hitch leaves more due, the excess is dropped and counted instead of being caught up, since
+ *   catching up would make the next frame even slower. The game then briefly runs slower than
+ *   real time rather than freezing.
+ * - **Interpolation**: {@link #getAlpha()} is how far the render time is past the last tick, as a
+ *   fraction of a tick, for drawing between the previous and the current tick.
+ * - **Statistics**: The time of every tick and of every frame, kept apart in two
+ *   {@link RollingStats}, so a slow simulation and a slow renderer can be told apart.
+ *
+ * A lockstep clock runs exactly one tick per frame, whatever the frame time, for matches whose
+ * frames are already fixed and must stay repeatable. The clock is plain Java and knows nothing
+ * about FXGL, {@link FixedStepLoop} drives a game world with it.
+ */
+public final class FixedStepClock {
+
+    public static final int DEFAULT_TICKS_PER_SECOND = 60;
+    /** Ticks a frame may run before the rest is dropped, 83ms of game time at 60 Hz. */
+    public static final int DEFAULT_MAX_TICKS_PER_FRAME = 5;
+    /** Ticks and frames the statistics are taken over, ten seconds at 60 Hz. */
+    public static final int STATS_WINDOW = 600;
+    // Frame times are not exact multiples of the tick, a tick this close to due counts as due
+    private static final double EPSILON = 1e-9;
+
+    private final int ticksPerSecond;
+    private final double tickSeconds;
+    private final int maxTicksPerFrame;
+    private final boolean lockstep;
+    private double accumulator = 0;
+    private double alpha = 0;
+
+    private long ticks = 0;
+    private long frames = 0;
+    private long droppedTicks = 0;
+    private long overloadedFrames = 0;
+    private final RollingStats tickNanos = new RollingStats(STATS_WINDOW);
+    private final RollingStats frameNanos = new RollingStats(STATS_WINDOW);
+
+    /**
+     * @param ticksPerSecond simulation rate
+     * @param maxTicksPerFrame ticks one frame may run at most
+     * @param lockstep run one tick per frame instead of accumulating the frame time
+     */
+    public FixedStepClock(int ticksPerSecond, int maxTicksPerFrame, boolean lockstep) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
+        }
+        if (maxTicksPerFrame <= 0) {
+            throw new IllegalArgumentException("Ticks per frame must be positive: " + maxTicksPerFrame);
+        }
+        this.ticksPerSecond = ticksPerSecond;
+        this.tickSeconds = 1.0 / ticksPerSecond;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+        this.lockstep = lockstep;
+    }
+
+    public FixedStepClock(int ticksPerSecond) {
+        this(ticksPerSecond, DEFAULT_MAX_TICKS_PER_FRAME, false);
+    }
+
+    /**
+     * Adds a frame of {@code frameSeconds} and returns the number of ticks to run for it.
+     */
+    public int advance(double frameSeconds) {
+        frames++;
+        frameNanos.add(Math.round(frameSeconds * 1e9));
+        if (lockstep) {
+            ticks++;
+            alpha = 1;
+            return 1;
+        }
+        accumulator += Math.max(0, frameSeconds);
+        int due = (int) ((accumulator + EPSILON) / tickSeconds);
+        if (due > maxTicksPerFrame) {
+            droppedTicks += due - maxTicksPerFrame;
+            overloadedFrames++;
+            accumulator -= (due - maxTicksPerFrame) * tickSeconds;
+            due = maxTicksPerFrame;
+        }
+        accumulator = Math.max(0, accumulator - due * tickSeconds);
+        alpha = Math.min(1, accumulator / tickSeconds);
+        ticks += due;
+        return due;
+    }
+
+    /**
+     * Records how long one tick took to simulate, in nanoseconds.
+     */
+    public void recordTick(long nanos) {
+        tickNanos.add(nanos);
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    /** Seconds of game time one tick simulates. */
+    public double getTickSeconds() {
+        return tickSeconds;
+    }
+
+    public int getMaxTicksPerFrame() {
+        return maxTicksPerFrame;
+    }
+
+    public boolean isLockstep() {
+        return lockstep;
+    }
+
+    /** Fraction of a tick the last frame is past the last tick, from 0 up to 1. */
+    public double getAlpha() {
+        return alpha;
+    }
+
+    /** Ticks run since the clock started. */
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    /** Ticks that were due but dropped by the spiral-of-death protection. */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    /** Frames that had more ticks due than they were allowed to run. */
+    public long getOverloadedFrames() {
+        return overloadedFrames;
+    }
+
+    /** Time each of the last ticks took to simulate, in nanoseconds. */
+    public RollingStats getTickNanos() {
+        return tickNanos;
+    }
+
+    /** Time between the last frames, in nanoseconds. */
+    public RollingStats getFrameNanos() {
+        return frameNanos;
+    }
+
+    /**
+     * Returns the median, 99th percentile and worst tick and frame time in milliseconds and the
+     * dropped ticks, on two lines.
+     */
+    public String format() {
+        RollingStats.Summary tick = tickNanos.summary();
+        RollingStats.Summary frame = frameNanos.summary();
+        return String.format(Locale.ROOT, "%-11s %7.3f %7.3f %7.3f%n%-11s %7.3f %7.3f %7.3f%n%d Hz, %d ticks dropped%n",
+                "sim tick", tick.p50() / 1e6, tick.p99() / 1e6, tick.max() / 1e6,
+                "render", frame.p50() / 1e6, frame.p99() / 1e6, frame.max() / 1e6,
+                ticksPerSecond, droppedTicks);
+    }
+}
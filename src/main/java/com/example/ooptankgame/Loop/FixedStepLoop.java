@@ -0,0 +1,179 @@
+package com.example.ooptankgame.Loop;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import javafx.scene.transform.Translate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The FixedStepLoop class runs the simulation of a FXGL world in ticks of a {@link FixedStepClock}
+ * instead of once per rendered frame, and draws the moving entities between their last two ticks.
+ *
+ * Key Responsibilities:
+ * - **Ticking**: {@link #runFrame} asks the clock how many ticks the frame is due and runs them:
+ *   first every {@link Stepped} component in the order it joined, then the game's own tick, the
+ *   input and AI. Every tick advances by the same {@link FixedStepClock#getTickSeconds()}, so a
+ *   slow frame runs a few more ticks of the usual size instead of one long move.
+ * - **Timing**: The time of every tick is recorded on the clock, apart from the frame time.
+ * - **Interpolation**: Each {@link #track tracked} entity remembers where it was before the tick.
+ *   After the frame's ticks its view, not the entity, is shifted back towards that position by
+ *   what is left of the tick, so a tank moving a few pixels per tick glides at any frame rate
+ *   while collisions still see the position of the last tick. Jumps longer than
+ *   {@link #SNAP_DISTANCE}, such as a respawn, are not interpolated.
+ *
+ * Like the {@code BulletLayer}, the loop is per world and only exists after {@link #install};
+ * components check {@link #of} and update themselves with the frame time when it is {@code null}.
+ */
+public final class FixedStepLoop {
+
+    /**
+     * Part of the simulation that advances once per tick.
+     */
+    public interface Stepped {
+        void step(double dt);
+    }
+
+    /**
+     * The interpolated view of a tracked entity.
+     */
+    public static final class View {
+        private final Entity entity;
+        private final Translate offset = new Translate();
+        private double previousX;
+        private double previousY;
+
+        private View(Entity entity) {
+            this.entity = entity;
+            this.previousX = entity.getX();
+            this.previousY = entity.getY();
+        }
+
+        /** Position the entity is drawn at this frame. */
+        public double getRenderX() {
+            return entity.getX() + offset.getX();
+        }
+
+        public double getRenderY() {
+            return entity.getY() + offset.getY();
+        }
+    }
+
+    /** Pixels an entity may move in one tick and still be interpolated. */
+    public static final double SNAP_DISTANCE = 64;
+
+    private static final Map<GameWorld, FixedStepLoop> LOOPS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final FixedStepClock clock;
+    private final List<Stepped> stepped = new ArrayList<>();
+    private int cursor = 0; // Index of the Stepped running, so one removed meanwhile is not skipped
+    private final Map<Entity, View> views = new HashMap<>();
+    private final List<View> tracked = new ArrayList<>();
+
+    private FixedStepLoop(FixedStepClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Creates the loop of the given world, ticking on {@code clock}.
+     */
+    public static FixedStepLoop install(GameWorld world, FixedStepClock clock) {
+        FixedStepLoop loop = new FixedStepLoop(clock);
+        LOOPS.put(world, loop);
+        return loop;
+    }
+
+    /**
+     * Returns the loop of the given world, or {@code null} if none was installed.
+     */
+    public static FixedStepLoop of(GameWorld world) {
+        return LOOPS.get(world);
+    }
+
+    public void add(Stepped part) {
+        stepped.add(part);
+    }
+
+    public void remove(Stepped part) {
+        int index = stepped.indexOf(part);
+        if (index < 0) {
+            return;
+        }
+        stepped.remove(index);
+        if (index <= cursor) {
+            cursor--;
+        }
+    }
+
+    /**
+     * Starts interpolating the view of {@code entity} and returns it. Tracking an entity twice
+     * returns the same view.
+     */
+    public View track(Entity entity) {
+        View view = views.get(entity);
+        if (view == null) {
+            view = new View(entity);
+            views.put(entity, view);
+            tracked.add(view);
+            entity.getViewComponent().getParent().getTransforms().add(view.offset);
+        }
+        return view;
+    }
+
+    public void untrack(Entity entity) {
+        View view = views.remove(entity);
+        if (view != null) {
+            tracked.remove(view);
+            entity.getViewComponent().getParent().getTransforms().remove(view.offset);
+        }
+    }
+
+    /**
+     * Runs the ticks due for a frame of {@code tpf} seconds, calling {@code tick} once per tick
+     * after the components stepped, then moves the tracked views to the render time. Returns the
+     * number of ticks run.
+     */
+    public int runFrame(double tpf, Runnable tick) {
+        int due = clock.advance(tpf);
+        double dt = clock.getTickSeconds();
+        for (int i = 0; i < due; i++) {
+            long start = System.nanoTime();
+            for (int t = 0; t < tracked.size(); t++) {
+                View view = tracked.get(t);
+                view.previousX = view.entity.getX();
+                view.previousY = view.entity.getY();
+            }
+            for (cursor = 0; cursor < stepped.size(); cursor++) {
+                stepped.get(cursor).step(dt);
+            }
+            tick.run();
+            clock.recordTick(System.nanoTime() - start);
+        }
+        interpolate();
+        return due;
+    }
+
+    private void interpolate() {
+        double behind = 1 - clock.getAlpha();
+        for (int i = 0; i < tracked.size(); i++) {
+            View view = tracked.get(i);
+            double dx = view.previousX - view.entity.getX();
+            double dy = view.previousY - view.entity.getY();
+            if (Math.abs(dx) + Math.abs(dy) > SNAP_DISTANCE) {
+                dx = 0;
+                dy = 0;
+            }
+            view.offset.setX(dx * behind);
+            view.offset.setY(dy * behind);
+        }
+    }
+
+    public FixedStepClock getClock() {
+        return clock;
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.ooptankgame.Network;
+
+import com.example.ooptankgame.Collision.SpatialGrid;
+import com.example.ooptankgame.Collision.TankMove;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Profiling.RollingStats;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import com.example.ooptankgame.Simulation.PlayerInput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ClientPrediction class moves a networked player's own tank the moment a key is pressed,
+ * instead of a round trip later when the server's snapshot arrives, and corrects it when the
+ * server disagrees.
+ *
+ * Key Responsibilities:
+ * - **Prediction**: {@link #predict} plays one tick of input on the local copy of the tank with
+ *   the same {@link TankMove} as {@code PlayerComponent} and the server, with the tank's box
+ *   turned to face the move, against the map's walls, the health packs still there and the
+ *   other tanks where and how the last snapshot put them. The
+ *   input is kept with its command sequence until the server acks it.
+ * - **Reconciliation**: {@link #reconcile} starts again from the tank the server sent, drops
+ *   the commands the snapshot already contains and replays the rest. When that lands somewhere
+ *   else than the prediction did, it counts as a correction.
+ * - **Smoothing**: A correction does not make the tank jump: the difference is kept as a render
+ *   offset that fades out over {@link #SMOOTHING_SECONDS}, so the tank slides to where it
+ *   belongs while the prediction itself is already right.
+ * - **Statistics**: Corrections and their size, in hundredths of a pixel.
+ *
+ * Shots are not predicted, bullets only appear once the server fired them.
+ */
+public final class ClientPrediction {
+
+    /** Seconds over which a correction fades out on screen. */
+    public static final double SMOOTHING_SECONDS = 0.1;
+    /** Differences below this many pixels are rounding, not a correction. */
+    private static final double TOLERANCE = 0.01;
+    private static final int MAX_PENDING = 256;
+
+    /**
+     * A wall or health pack, {@code pack} is the health pack's index or -1 for a wall.
+     */
+    private record Body(double[] box, int pack) {
+    }
+
+    private final SpatialGrid<Body> statics;
+    private final List<Body> candidates = new ArrayList<>();
+    private final int length;
+
+    // Commands sent but not acked yet, a ring
+    private final int[] pendingSequences = new int[MAX_PENDING];
+    private final int[] pendingInputs = new int[MAX_PENDING];
+    private int firstPending = 0;
+    private int pending = 0;
+
+    private final TankMove<Body> move = new TankMove<>();
+    private final double[] box = new double[4];
+    private final double[] other = new double[4];
+    private double x;
+    private double y;
+    private boolean[] packTaken = new boolean[0];
+    private Dir dir = Dir.UP;
+    private boolean active = false;
+    private double offsetX;
+    private double offsetY;
+
+    private long predicted = 0;
+    private long corrections = 0;
+    private final RollingStats correctionSizes = new RollingStats(4096);
+
+    /**
+     * @param map the map the server plays, from the welcome
+     * @param ticksPerSecond the server's tick rate, from the welcome
+     */
+    public ClientPrediction(TmxMap map, int ticksPerSecond) {
+        this.length = TankMove.length(1.0 / ticksPerSecond);
+        this.statics = new SpatialGrid<>(SpatialGrid.TILE_SIZE, map.getWidth(), map.getHeight());
+        int packs = 0;
+        // Same boxes and order as the HeadlessSimulation, so moves stop at the same pixel
+        for (TmxMap.MapObject object : map.getObjects()) {
+            if (object.type().equals("wall")) {
+                insert(new Body(new double[]{object.x(), object.y(),
+                        object.x() + (int) object.width(), object.y() + (int) object.height()}, -1));
+            } else if (object.type().equals("healthpack")) {
+                insert(new Body(new double[]{object.x(), object.y(), object.x() + HeadlessSimulation.HEALTH_PACK_WIDTH,
+                        object.y() + HeadlessSimulation.HEALTH_PACK_HEIGHT}, packs++));
+            }
+        }
+    }
+
+    private void insert(Body body) {
+        statics.insert(body, body.box[0], body.box[1], body.box[2], body.box[3]);
+    }
+
+    /**
+     * Plays the input of one tick on the own tank right away. {@code sequence} is the number the
+     * command was sent with.
+     */
+    public void predict(ClientWorld world, int sequence, int input) {
+        if (!active) {
+            return;
+        }
+        if (pending == MAX_PENDING) {
+            // The server stopped acking, the oldest can no longer be replayed
+            firstPending = (firstPending + 1) % MAX_PENDING;
+            pending--;
+        }
+        if (world.isGameOver()) {
+            input = PlayerInput.NONE; // The server plays nothing between matches
+        }
+        int last = (firstPending + pending) % MAX_PENDING;
+        pendingSequences[last] = sequence;
+        pendingInputs[last] = input;
+        pending++;
+        apply(world, input);
+        predicted++;
+    }
+
+    /**
+     * Takes the own tank from the snapshot just applied to {@code world} and replays the commands
+     * the server has not played yet. Call after every snapshot.
+     */
+    public void reconcile(ClientWorld world) {
+        int id = world.getTankId();
+        if (id < 0 || id >= world.getTankCount() || !world.isAlive(id)) {
+            active = false;
+            pending = 0;
+            return;
+        }
+        double predictedX = x;
+        double predictedY = y;
+        boolean wasActive = active;
+
+        int ack = world.getInputAck();
+        while (pending > 0 && pendingSequences[firstPending] - ack <= 0) {
+            firstPending = (firstPending + 1) % MAX_PENDING;
+            pending--;
+        }
+        x = world.getX(id);
+        y = world.getY(id);
+        dir = world.getDir(id);
+        if (packTaken.length != world.getHealthPackCount()) {
+            packTaken = new boolean[world.getHealthPackCount()];
+        }
+        for (int i = 0; i < packTaken.length; i++) {
+            packTaken[i] = !world.isHealthPackAlive(i);
+        }
+        active = true;
+        for (int i = 0; i < pending; i++) {
+            apply(world, pendingInputs[(firstPending + i) % MAX_PENDING]);
+        }
+
+        double errorX = predictedX - x;
+        double errorY = predictedY - y;
+        if (wasActive && (Math.abs(errorX) > TOLERANCE || Math.abs(errorY) > TOLERANCE)) {
+            corrections++;
+            correctionSizes.add(Math.round(Math.hypot(errorX, errorY) * 100));
+            offsetX += errorX;
+            offsetY += errorY;
+        }
+    }
+
+    /**
+     * Forgets the commands and the offset, for a new match or a new connection.
+     */
+    public void reset() {
+        pending = 0;
+        active = false;
+        offsetX = 0;
+        offsetY = 0;
+    }
+
+    /**
+     * Lets the render offset of past corrections fade by {@code seconds} of frame time.
+     */
+    public void advance(double seconds) {
+        double keep = Math.exp(-seconds / SMOOTHING_SECONDS);
+        offsetX = Math.abs(offsetX * keep) < TOLERANCE ? 0 : offsetX * keep;
+        offsetY = Math.abs(offsetY * keep) < TOLERANCE ? 0 : offsetY * keep;
+    }
+
+    private void apply(ClientWorld world, int input) {
+        Dir next = PlayerInput.direction(input);
+        if (next == null) {
+            return;
+        }
+        dir = next;
+        TankMove.turnedBounds(x, y, HeadlessSimulation.PLAYER_WIDTH, HeadlessSimulation.PLAYER_HEIGHT, dir, box);
+        move.start(box, dir, length);
+
+        move.sweptBounds(other);
+        candidates.clear();
+        statics.query(other[0], other[1], other[2], other[3], candidates);
+        for (int i = 0; i < candidates.size() && move.isMoving(); i++) {
+            Body body = candidates.get(i);
+            if (body.pack < 0 || !packTaken[body.pack]) {
+                move.against(body.box, body);
+            }
+        }
+        for (int id = 0; id < world.getTankCount() && move.isMoving(); id++) {
+            if (id == world.getTankId() || !world.isAlive(id)) {
+                continue;
+            }
+            boolean enemy = world.getType(id) == TankGameType.ENEMY;
+            TankMove.turnedBounds(world.getX(id), world.getY(id),
+                    enemy ? HeadlessSimulation.ENEMY_SIZE : HeadlessSimulation.PLAYER_WIDTH,
+                    enemy ? HeadlessSimulation.ENEMY_SIZE : HeadlessSimulation.PLAYER_HEIGHT, world.getDir(id), other);
+            move.against(other, null);
+        }
+
+        x += dir.getDx() * move.getSteps();
+        y += dir.getDy() * move.getSteps();
+        Body blocker = move.getBlocker();
+        if (blocker != null && blocker.pack >= 0) {
+            packTaken[blocker.pack] = true;
+        }
+    }
+
+    /** Whether the own tank is on the map and predicted. */
+    public boolean isActive() {
+        return active;
+    }
+
+    /** Predicted position, where the tank is once the server played every command sent. */
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /** Position to draw the tank at, the prediction plus what is left of past corrections. */
+    public double getRenderX() {
+        return x + offsetX;
+    }
+
+    public double getRenderY() {
+        return y + offsetY;
+    }
+
+    public Dir getDir() {
+        return dir;
+    }
+
+    /** Commands sent that the server has not played yet. */
+    public int getPending() {
+        return pending;
+    }
+
+    /** Ticks of input predicted. */
+    public long getPredicted() {
+        return predicted;
+    }
+
+    public long getCorrections() {
+        return corrections;
+    }
+
+    /** Size of the last 4096 corrections, in hundredths of a pixel. */
+    public RollingStats getCorrectionSizes() {
+        return correctionSizes;
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.ooptankgame.Network;
+
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The ClientWorld class is a client's copy of the server's match, rebuilt from the welcome and
+ * snapshot messages without JavaFX, so a renderer or a load test can read it.
+ *
+ * Key Responsibilities:
+ * - **Full Snapshots**: Replace the whole state.
+ * - **Delta Snapshots**: Change only the tank fields that were sent. Bullets the client knows
+ *   first fly on by one tick at {@link HeadlessSimulation#BULLET_SPEED}, as they do on the
+ *   server, then the new bullets are added and the removed ones dropped.
+ * - **Match State**: Score, lives, destroyed enemies and whether the match was won or lost.
+ * - **Acks**: The last of this client's inputs the server played, for {@link ClientPrediction}.
+ *
+ * Snapshots have to be applied in the order the server sent them, each delta builds on the
+ * one before.
+ */
+public final class ClientWorld {
+
+    private static final Dir[] DIRS = Dir.values();
+    private static final TankGameType[] TYPES = TankGameType.values();
+
+    /**
+     * A bullet as the client knows it, moved along by the client between snapshots.
+     */
+    public static final class Bullet {
+        private final int id;
+        private double centerX;
+        private double centerY;
+        private final Dir dir;
+        private final TankGameType ownerType;
+
+        private Bullet(int id, double centerX, double centerY, Dir dir, TankGameType ownerType) {
+            this.id = id;
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.dir = dir;
+            this.ownerType = ownerType;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public double getCenterX() {
+            return centerX;
+        }
+
+        public double getCenterY() {
+            return centerY;
+        }
+
+        public Dir getDir() {
+            return dir;
+        }
+
+        public TankGameType getOwnerType() {
+            return ownerType;
+        }
+    }
+
+    private int tankId = -1;
+    private int ticksPerSecond = 60;
+    private String map;
+    private int tick = -1;
+    private int snapshots;
+    private int inputAck = 0;
+
+    private int tanks;
+    private TankGameType[] type = new TankGameType[16];
+    private float[] x = new float[16];
+    private float[] y = new float[16];
+    private Dir[] dir = new Dir[16];
+    private int[] hp = new int[16];
+    private boolean[] alive = new boolean[16];
+    private final List<Bullet> bullets = new ArrayList<>();
+    private boolean[] packAlive = new boolean[0];
+    private int score;
+    private int lives;
+    private int destroyedEnemy;
+    private int outcome;
+
+    /**
+     * Applies a welcome message, read from just after its type byte.
+     */
+    public void applyWelcome(ByteBuffer in) {
+        tankId = in.getShort();
+        ticksPerSecond = in.getShort();
+        map = NetProtocol.getString(in);
+    }
+
+    /**
+     * Applies an ack message, read from just after its type byte. It belongs to the snapshot
+     * that follows it.
+     */
+    public void applyAck(ByteBuffer in) {
+        inputAck = in.getInt();
+    }
+
+    /**
+     * Applies a snapshot message, read from just after its type byte.
+     *
+     * @throws IllegalArgumentException if the snapshot refers to a tank the client never got
+     */
+    public void applySnapshot(ByteBuffer in) {
+        tick = in.getInt();
+        int flags = in.get();
+        boolean full = (flags & SnapshotEncoder.FLAG_FULL) != 0;
+        if (full) {
+            tanks = 0;
+            bullets.clear();
+        } else {
+            double step = HeadlessSimulation.BULLET_SPEED / ticksPerSecond;
+            for (int i = 0; i < bullets.size(); i++) {
+                Bullet bullet = bullets.get(i);
+                bullet.centerX += bullet.dir.getDx() * step;
+                bullet.centerY += bullet.dir.getDy() * step;
+            }
+        }
+        if ((flags & SnapshotEncoder.FLAG_MATCH) != 0) {
+            score = in.getInt();
+            lives = in.get();
+            destroyedEnemy = in.get();
+            outcome = in.get();
+        }
+
+        int count = in.getShort();
+        for (int i = 0; i < count; i++) {
+            readTank(in);
+        }
+        count = in.getShort();
+        for (int i = 0; i < count; i++) {
+            bullets.add(new Bullet(in.getInt(), in.getFloat(), in.getFloat(), DIRS[in.get()], TYPES[in.get()]));
+        }
+        count = in.getShort();
+        for (int i = 0; i < count; i++) {
+            int id = in.getInt();
+            bullets.removeIf(bullet -> bullet.id == id);
+        }
+        if (full) {
+            packAlive = new boolean[in.getShort()];
+            Arrays.fill(packAlive, true);
+        }
+        count = in.getShort();
+        for (int i = 0; i < count; i++) {
+            packAlive[in.getShort()] = false;
+        }
+        snapshots++;
+    }
+
+    private void readTank(ByteBuffer in) {
+        int id = in.getShort();
+        int fields = in.get();
+        if ((fields & SnapshotEncoder.FIELD_SPAWN) != 0) {
+            ensureTanks(id + 1);
+            type[id] = TYPES[in.get()];
+        } else if (id >= tanks) {
+            throw new IllegalArgumentException("Snapshot changes unknown tank " + id);
+        }
+        if ((fields & SnapshotEncoder.FIELD_POSITION) != 0) {
+            x[id] = in.getFloat();
+            y[id] = in.getFloat();
+        }
+        if ((fields & SnapshotEncoder.FIELD_DIR) != 0) {
+            dir[id] = DIRS[in.get()];
+        }
+        if ((fields & SnapshotEncoder.FIELD_HP) != 0) {
+            hp[id] = in.get();
+        }
+        if ((fields & SnapshotEncoder.FIELD_ALIVE) != 0) {
+            alive[id] = in.get() != 0;
+        }
+    }
+
+    private void ensureTanks(int count) {
+        if (count > type.length) {
+            int capacity = Math.max(count, type.length * 2);
+            type = Arrays.copyOf(type, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            dir = Arrays.copyOf(dir, capacity);
+            hp = Arrays.copyOf(hp, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+        }
+        tanks = Math.max(tanks, count);
+    }
+
+    /** Id of this client's own tank, -1 before the welcome. */
+    public int getTankId() {
+        return tankId;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public String getMap() {
+        return map;
+    }
+
+    /** Server tick of the last snapshot, -1 before the first. */
+    public int getTick() {
+        return tick;
+    }
+
+    /** Sequence of the last input or command the server played, as of the last snapshot. */
+    public int getInputAck() {
+        return inputAck;
+    }
+
+    /** Number of snapshots applied. */
+    public int getSnapshots() {
+        return snapshots;
+    }
+
+    public int getTankCount() {
+        return tanks;
+    }
+
+    public TankGameType getType(int id) {
+        return type[id];
+    }
+
+    public float getX(int id) {
+        return x[id];
+    }
+
+    public float getY(int id) {
+        return y[id];
+    }
+
+    public Dir getDir(int id) {
+        return dir[id];
+    }
+
+    public int getHp(int id) {
+        return hp[id];
+    }
+
+    public boolean isAlive(int id) {
+        return alive[id];
+    }
+
+    /** The bullets in flight, in ascending id order. */
+    public List<Bullet> getBullets() {
+        return bullets;
+    }
+
+    public int getHealthPackCount() {
+        return packAlive.length;
+    }
+
+    public boolean isHealthPackAlive(int index) {
+        return packAlive[index];
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getDestroyedEnemy() {
+        return destroyedEnemy;
+    }
+
+    public boolean isGameOver() {
+        return outcome != 0;
+    }
+
+    /** Whether the match was won, only meaningful once it is over. */
+    public boolean isWon() {
+        return outcome == 1;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.ooptankgame.Network;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * The GameClient class is the connection of one player to a {@link GameServer}. It sends the
+ * player's input and keeps a {@link ClientWorld} up to date with the snapshots that arrive.
+ *
+ * Key Responsibilities:
+ * - **Input**: {@link #sendInput} sends the input the player holds, only when it changed, since
+ *   the server keeps playing the last one it got. A client predicting its own tank sends
+ *   {@link #sendCommand} every tick instead.
+ * - **Polling**: {@link #poll} reads whatever arrived without blocking and applies every
+ *   complete message, so a game loop or a load test driving many clients can call it once per
+ *   frame. A {@link SnapshotListener} sees the world after every snapshot, also when one poll
+ *   applies several.
+ *
+ * Not thread-safe, a client belongs to the loop that polls it.
+ */
+public final class GameClient implements AutoCloseable {
+
+    /**
+     * Called after each snapshot is applied.
+     */
+    @FunctionalInterface
+    public interface SnapshotListener {
+        void onSnapshot(ClientWorld world, boolean full);
+    }
+
+    private final SocketChannel channel;
+    private final ClientWorld world = new ClientWorld();
+    private ByteBuffer in = ByteBuffer.allocate(1 << 16);
+    private final ByteBuffer out = ByteBuffer.allocate(256);
+    private int sequence = 0;
+    private int lastInput = -1;
+    private long bytesReceived = 0;
+    private SnapshotListener listener;
+
+    private GameClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Connects to a server, waiting until the connection is made.
+     *
+     * @throws UncheckedIOException if the server cannot be reached
+     */
+    public static GameClient connect(String host, int port) {
+        try {
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            return new GameClient(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot connect to " + host + ":" + port, e);
+        }
+    }
+
+    /**
+     * Sends the {@code PlayerInput} flags the player holds from now on, if they changed.
+     */
+    public void sendInput(int input) {
+        if (input == lastInput) {
+            return;
+        }
+        lastInput = input;
+        out.clear();
+        NetProtocol.writeInput(out, ++sequence, input);
+        send();
+    }
+
+    /**
+     * Sends the input of one tick and returns its sequence number, which the server acks once it
+     * played it.
+     */
+    public int sendCommand(int input) {
+        out.clear();
+        NetProtocol.writeCommand(out, ++sequence, input);
+        send();
+        return sequence;
+    }
+
+    private void send() {
+        out.flip();
+        try {
+            // A handful of bytes always fits the socket's send buffer unless the server stopped reading
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lost connection to server", e);
+        }
+    }
+
+    /**
+     * Reads what the server sent and applies every complete message to the {@link #getWorld()}.
+     * Returns the number of messages applied, or -1 once the server closed the connection.
+     */
+    public int poll() {
+        int messages = 0;
+        try {
+            while (true) {
+                if (!in.hasRemaining()) {
+                    in = grow(in);
+                }
+                int read = channel.read(in);
+                if (read < 0) {
+                    return messages > 0 ? messages : -1;
+                }
+                if (read == 0) {
+                    break;
+                }
+                bytesReceived += read;
+                messages += applyFrames();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lost connection to server", e);
+        }
+        return messages;
+    }
+
+    private int applyFrames() {
+        in.flip();
+        int messages = 0;
+        int length;
+        while ((length = NetProtocol.completeFrame(in)) > 0) {
+            int end = in.position() + NetProtocol.FRAME_HEADER + length;
+            in.position(in.position() + NetProtocol.FRAME_HEADER);
+            byte type = in.get();
+            switch (type) {
+                case NetProtocol.WELCOME -> world.applyWelcome(in);
+                case NetProtocol.ACK -> world.applyAck(in);
+                case NetProtocol.SNAPSHOT -> {
+                    boolean full = (in.get(in.position() + 4) & SnapshotEncoder.FLAG_FULL) != 0;
+                    world.applySnapshot(in);
+                    if (listener != null) {
+                        listener.onSnapshot(world, full);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown message type: " + type);
+            }
+            in.position(end);
+            messages++;
+        }
+        in.compact();
+        return messages;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    public void setSnapshotListener(SnapshotListener listener) {
+        this.listener = listener;
+    }
+
+    public ClientWorld getWorld() {
+        return world;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
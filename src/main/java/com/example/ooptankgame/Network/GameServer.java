@@ -0,0 +1,475 @@
+package com.example.ooptankgame.Network;
+
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Profiling.RollingStats;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import com.example.ooptankgame.Simulation.PlayerController;
+import com.example.ooptankgame.Simulation.PlayerInput;
+import com.example.ooptankgame.Simulation.SimTank;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The GameServer class runs the authoritative match for networked players: it owns the only
+ * {@link HeadlessSimulation}, plays the input its clients send and sends every client the
+ * resulting state each tick.
+ *
+ * Key Responsibilities:
+ * - **Connections**: Accepts clients and reads their input on a non-blocking selector, between
+ *   ticks and on the same thread, so the simulation never waits on a socket.
+ * - **Player Slots**: Every client drives a player tank. The first slot is the map's player,
+ *   the others are added with {@link HeadlessSimulation#addPlayer}. A client that leaves frees
+ *   its slot, whose tank stands still until the next client takes it over.
+ * - **Input**: A slot plays the input its client holds, or, for a client predicting its own
+ *   tank, one queued command per tick. Each client is told the last one played with an ack in
+ *   front of the snapshot, only when it changed.
+ * - **Snapshots**: After each tick the {@link SnapshotEncoder} writes one delta, which is copied
+ *   to every client. A client that just joined, and every client when a match starts, gets a
+ *   welcome and a full snapshot instead.
+ * - **Malformed Input**: A client whose frame is not a well-formed input or command, or is longer
+ *   than its read buffer, is dropped on its own; the other clients and the tick carry on.
+ * - **Slow Clients**: A client that does not read fast enough collects unsent bytes, once that
+ *   is more than {@link #MAX_PENDING_BYTES} it is dropped rather than slowing the server down.
+ * - **Match Cycle**: Once a match is over the server waits {@link #RESTART_SECONDS}, then starts
+ *   a new one with the next seed for the same clients.
+ * - **Statistics**: Tick time, including encoding and sending, and the bytes sent and received.
+ *
+ * {@link #tick()} can be driven by a caller, like the load test does, or by {@link #run} at
+ * the server's tick rate.
+ */
+public final class GameServer implements AutoCloseable {
+
+    /** Unsent bytes after which a client is dropped, a few seconds of full snapshots. */
+    public static final int MAX_PENDING_BYTES = 1 << 20;
+    /** Seconds the result of a match stays up before the next one starts. */
+    public static final double RESTART_SECONDS = 3;
+
+    /**
+     * Commands a slot keeps waiting, 100ms at 60 Hz. The burst that arrives after a stall would
+     * otherwise delay every later command by as long as the stall lasted, so the oldest are
+     * dropped and the client corrects its prediction instead.
+     */
+    public static final int MAX_QUEUED_COMMANDS = 6;
+
+    /**
+     * A player tank and the input it plays, taken over by the client in it.
+     */
+    private static final class Slot implements PlayerController {
+        private Connection connection;
+        private SimTank tank;
+        private int input = PlayerInput.NONE;
+        // Ring of commands not played yet, one is played per tick
+        private final int[] commandSequences = new int[MAX_QUEUED_COMMANDS];
+        private final int[] commands = new int[MAX_QUEUED_COMMANDS];
+        private int firstCommand = 0;
+        private int queuedCommands = 0;
+        private int played = 0;
+
+        @Override
+        public int nextInput(HeadlessSimulation simulation) {
+            if (queuedCommands == 0) {
+                return input;
+            }
+            played = commandSequences[firstCommand];
+            int command = commands[firstCommand];
+            firstCommand = (firstCommand + 1) % MAX_QUEUED_COMMANDS;
+            queuedCommands--;
+            return command;
+        }
+
+        private void hold(int sequence, int input) {
+            this.input = input;
+            played = sequence;
+        }
+
+        private void queue(int sequence, int command) {
+            if (queuedCommands == MAX_QUEUED_COMMANDS) {
+                firstCommand = (firstCommand + 1) % MAX_QUEUED_COMMANDS;
+                queuedCommands--;
+            }
+            int last = (firstCommand + queuedCommands) % MAX_QUEUED_COMMANDS;
+            commandSequences[last] = sequence;
+            commands[last] = command;
+            queuedCommands++;
+        }
+
+        private void free() {
+            connection = null;
+            input = PlayerInput.NONE;
+            queuedCommands = 0;
+            played = 0;
+        }
+    }
+
+    private static final class Connection {
+        private final SocketChannel channel;
+        private ByteBuffer in = ByteBuffer.allocate(256);
+        private ByteBuffer out = ByteBuffer.allocate(1 << 14);
+        private Slot slot;
+        private boolean needsFull = true;
+        private int ackSent = 0;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final TmxMap map;
+    private final String mapName;
+    private final int ticksPerSecond;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final SnapshotEncoder encoder = new SnapshotEncoder();
+    private final List<Slot> slots = new ArrayList<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private long seed;
+    private HeadlessSimulation simulation;
+    private long overTicks = 0;
+    private int matches = 0;
+    private volatile boolean running = false;
+
+    private final RollingStats tickNanos = new RollingStats(1024);
+    private long ticks = 0;
+    private long bytesSent = 0;
+    private long bytesReceived = 0;
+    private long deltaBytes = 0;
+    private long fullBytes = 0;
+
+    /**
+     * Opens the server socket. Clients can connect at once, they join with the first tick.
+     *
+     * @param port port to listen on, 0 for any free one
+     * @param seed seed of the first match, every next match uses the next seed
+     * @throws UncheckedIOException if the port cannot be opened
+     */
+    public GameServer(TmxMap map, String mapName, int ticksPerSecond, long seed, int port) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
+        }
+        this.map = map;
+        this.mapName = mapName;
+        this.ticksPerSecond = ticksPerSecond;
+        this.seed = seed;
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            selector = Selector.open();
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen on port " + port, e);
+        }
+        startMatch();
+    }
+
+    private void startMatch() {
+        encoder.reset();
+        if (slots.isEmpty()) {
+            slots.add(new Slot());
+        }
+        simulation = new HeadlessSimulation(map, 1.0 / ticksPerSecond, seed, slots.get(0));
+        slots.get(0).tank = simulation.getPlayer();
+        for (int i = 1; i < slots.size(); i++) {
+            slots.get(i).tank = simulation.addPlayer(slots.get(i));
+        }
+        for (Connection connection : connections) {
+            connection.needsFull = true;
+        }
+        overTicks = 0;
+        matches++;
+    }
+
+    /**
+     * Accepts new clients, reads their input, advances the match by one tick and sends the
+     * snapshots.
+     */
+    public void tick() {
+        long start = System.nanoTime();
+        pollNetwork();
+
+        if (!simulation.isGameOver()) {
+            simulation.step();
+        } else {
+            // Nothing is played between matches, but the commands of the tick are used up as if it was
+            for (Slot slot : slots) {
+                slot.nextInput(simulation);
+            }
+            if (++overTicks > RESTART_SECONDS * ticksPerSecond) {
+                seed++;
+                startMatch();
+            }
+        }
+
+        ByteBuffer delta = encoder.writeDelta(simulation);
+        ByteBuffer full = null;
+        for (Connection connection : connections) {
+            if (connection.needsFull) {
+                if (full == null) {
+                    // Same state as the delta, the baseline stays as it is
+                    full = encoder.writeFull(simulation);
+                }
+                ensureOut(connection, full.remaining() + 32 + mapName.length() * 3);
+                NetProtocol.writeWelcome(connection.out, connection.slot.tank.getId(), ticksPerSecond, mapName);
+                writeAck(connection);
+                append(connection, full);
+                fullBytes += full.remaining();
+                connection.needsFull = false;
+            } else {
+                if (connection.slot.played != connection.ackSent) {
+                    ensureOut(connection, delta.remaining() + 16);
+                    writeAck(connection);
+                }
+                append(connection, delta);
+                deltaBytes += delta.remaining();
+            }
+        }
+        flush();
+        ticks++;
+        tickNanos.add(System.nanoTime() - start);
+    }
+
+    private static void writeAck(Connection connection) {
+        NetProtocol.writeAck(connection.out, connection.slot.played);
+        connection.ackSent = connection.slot.played;
+    }
+
+    /**
+     * Runs ticks at the server's rate until {@link #stop()} is called, calling {@code afterTick}
+     * after each one on the server's thread, where the statistics can be read.
+     */
+    public void run(Runnable afterTick) {
+        running = true;
+        long period = 1_000_000_000L / ticksPerSecond;
+        long next = System.nanoTime();
+        while (running) {
+            tick();
+            afterTick.run();
+            next += period;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else if (wait < -period) {
+                // Too far behind to catch up, carry on from now instead of bursting ticks
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    private void pollNetwork() {
+        try {
+            selector.selectNow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+            if (key.isAcceptable()) {
+                accept();
+            } else if (key.isReadable()) {
+                read((Connection) key.attachment());
+            }
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel;
+        try {
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Connection connection = new Connection(channel);
+                try {
+                    connection.slot = takeSlot(connection);
+                } catch (IllegalStateException e) {
+                    channel.close(); // The map is full
+                    continue;
+                }
+                channel.register(selector, SelectionKey.OP_READ, connection);
+                connections.add(connection);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Slot takeSlot(Connection connection) {
+        for (Slot slot : slots) {
+            if (slot.connection == null) {
+                slot.connection = connection;
+                return slot;
+            }
+        }
+        Slot slot = new Slot();
+        slot.tank = simulation.addPlayer(slot);
+        slot.connection = connection;
+        slots.add(slot);
+        return slot;
+    }
+
+    private void read(Connection connection) {
+        try {
+            int read;
+            // A client that predicts sends a command every tick, after a stall they arrive in bursts
+            while ((read = connection.channel.read(connection.in)) > 0) {
+                bytesReceived += read;
+                ByteBuffer in = connection.in.flip();
+                int length;
+                // A frame that could never fit the buffer would never complete, so it is refused
+                while ((length = NetProtocol.completeFrame(in, in.capacity() - NetProtocol.FRAME_HEADER)) > 0) {
+                    if (length != NetProtocol.INPUT_PAYLOAD) {
+                        throw new IllegalArgumentException("Bad input frame length: " + length);
+                    }
+                    int end = in.position() + NetProtocol.FRAME_HEADER + length;
+                    in.position(in.position() + NetProtocol.FRAME_HEADER);
+                    byte type = in.get();
+                    int sequence = in.getInt();
+                    int input = in.get();
+                    switch (type) {
+                        case NetProtocol.INPUT -> connection.slot.hold(sequence, input);
+                        case NetProtocol.COMMAND -> connection.slot.queue(sequence, input);
+                        default -> throw new IllegalArgumentException("Clients only send input");
+                    }
+                    in.position(end);
+                }
+                in.compact();
+            }
+            if (read < 0) {
+                drop(connection);
+            }
+        } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+            // A broken or malformed client only loses its own connection, the tick goes on
+            drop(connection);
+        }
+    }
+
+    private static void ensureOut(Connection connection, int bytes) {
+        if (connection.out.remaining() < bytes) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(connection.out.capacity() * 2, connection.out.position() + bytes));
+            connection.out.flip();
+            connection.out = bigger.put(connection.out);
+        }
+    }
+
+    private static void append(Connection connection, ByteBuffer frame) {
+        ensureOut(connection, frame.remaining());
+        int position = frame.position();
+        connection.out.put(frame);
+        frame.position(position);
+    }
+
+    private void flush() {
+        for (int i = connections.size() - 1; i >= 0; i--) {
+            Connection connection = connections.get(i);
+            try {
+                connection.out.flip();
+                bytesSent += connection.channel.write(connection.out);
+                connection.out.compact();
+                if (connection.out.position() > MAX_PENDING_BYTES) {
+                    drop(connection);
+                }
+            } catch (IOException e) {
+                drop(connection);
+            }
+        }
+    }
+
+    private void drop(Connection connection) {
+        connections.remove(connection);
+        connection.slot.free();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+
+    /** Port the server listens on, useful when it was opened on port 0. */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public HeadlessSimulation getSimulation() {
+        return simulation;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    /** Number of matches started, counting the one being played. */
+    public int getMatches() {
+        return matches;
+    }
+
+    public int getClientCount() {
+        return connections.size();
+    }
+
+    /** Nanoseconds of the last 1024 ticks, from reading input to handing the snapshots to the sockets. */
+    public RollingStats getTickNanos() {
+        return tickNanos;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /** Bytes of delta snapshots queued for clients, summed over all clients. */
+    public long getDeltaBytes() {
+        return deltaBytes;
+    }
+
+    /** Bytes of full snapshots queued for clients, summed over all clients. */
+    public long getFullBytes() {
+        return fullBytes;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            for (Connection connection : connections) {
+                connection.channel.close();
+            }
+            connections.clear();
+            selector.close();
+            serverChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
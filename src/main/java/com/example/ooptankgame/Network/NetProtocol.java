@@ -0,0 +1,133 @@
+package com.example.ooptankgame.Network;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The wire format between the {@link GameServer} and its clients. Every message travels over
+ * TCP as a frame: a 4 byte big-endian payload length, then the payload, whose first byte is the
+ * message type.
+ *
+ * Messages:
+ * - **Input** (client to server): {@code int sequence, byte input}, the {@code PlayerInput} bits
+ *   the client holds from now on. The server plays the latest one every tick.
+ * - **Command** (client to server): {@code int sequence, byte input}, the input of exactly one
+ *   tick, sent every tick by a client that predicts its own tank. The server plays them in
+ *   order, one per tick, and nothing when it has none.
+ * - **Ack** (server to client): {@code int sequence}, the last input or command the server
+ *   played, sent before the snapshot of the tick it was played in whenever it changed.
+ * - **Welcome** (server to client): {@code short tankId, short ticksPerSecond, string map}, sent
+ *   when a client joins and whenever a new match starts, before the full snapshot.
+ * - **Snapshot** (server to client): the state of one tick, see {@link SnapshotEncoder}.
+ *
+ * Strings are a {@code short} byte count followed by the UTF-8 bytes.
+ *
+ * TCP delivers every snapshot in order, so a delta only has to be relative to the snapshot
+ * sent the tick before and never needs acknowledging. Acks only tell a predicting client which
+ * of its commands the snapshot already contains.
+ */
+public final class NetProtocol {
+
+    public static final int DEFAULT_PORT = 7777;
+
+    public static final byte INPUT = 1;
+    public static final byte WELCOME = 2;
+    public static final byte SNAPSHOT = 3;
+    public static final byte COMMAND = 4;
+    public static final byte ACK = 5;
+
+    /** Bytes of the length in front of every payload. */
+    public static final int FRAME_HEADER = 4;
+    /** Largest payload accepted, anything bigger is treated as a broken connection. */
+    public static final int MAX_PAYLOAD = 1 << 20;
+    /** Payload of an input or command: the type, the sequence and the input. */
+    public static final int INPUT_PAYLOAD = 6;
+
+    private NetProtocol() {
+    }
+
+    /**
+     * Reserves the frame header at the current position and returns where it is, for
+     * {@link #endFrame} to fill in once the payload is written.
+     */
+    public static int beginFrame(ByteBuffer out) {
+        int start = out.position();
+        out.putInt(0);
+        return start;
+    }
+
+    public static void endFrame(ByteBuffer out, int start) {
+        out.putInt(start, out.position() - start - FRAME_HEADER);
+    }
+
+    /**
+     * Returns the payload length of the frame at the buffer's position if all of it has arrived,
+     * or -1 to wait for more bytes.
+     *
+     * @throws IllegalArgumentException if the length is out of range
+     */
+    public static int completeFrame(ByteBuffer in) {
+        return completeFrame(in, MAX_PAYLOAD);
+    }
+
+    /**
+     * Like {@link #completeFrame(ByteBuffer)}, with a smaller limit for a reader whose buffer
+     * could never hold a {@link #MAX_PAYLOAD} frame.
+     *
+     * @throws IllegalArgumentException if the length is out of range
+     */
+    public static int completeFrame(ByteBuffer in, int maxPayload) {
+        if (in.remaining() < FRAME_HEADER) {
+            return -1;
+        }
+        int length = in.getInt(in.position());
+        if (length <= 0 || length > maxPayload) {
+            throw new IllegalArgumentException("Bad frame length: " + length);
+        }
+        return in.remaining() - FRAME_HEADER >= length ? length : -1;
+    }
+
+    public static void writeInput(ByteBuffer out, int sequence, int input) {
+        writeInput(out, INPUT, sequence, input);
+    }
+
+    public static void writeCommand(ByteBuffer out, int sequence, int input) {
+        writeInput(out, COMMAND, sequence, input);
+    }
+
+    private static void writeInput(ByteBuffer out, byte type, int sequence, int input) {
+        int frame = beginFrame(out);
+        out.put(type);
+        out.putInt(sequence);
+        out.put((byte) input);
+        endFrame(out, frame);
+    }
+
+    public static void writeAck(ByteBuffer out, int sequence) {
+        int frame = beginFrame(out);
+        out.put(ACK);
+        out.putInt(sequence);
+        endFrame(out, frame);
+    }
+
+    public static void writeWelcome(ByteBuffer out, int tankId, int ticksPerSecond, String map) {
+        int frame = beginFrame(out);
+        out.put(WELCOME);
+        out.putShort((short) tankId);
+        out.putShort((short) ticksPerSecond);
+        putString(out, map);
+        endFrame(out, frame);
+    }
+
+    public static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    public static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.ooptankgame.Network;
+
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Profiling.RollingStats;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+
+/**
+ * Command line entry point for running a dedicated {@link GameServer}, no display needed.
+ *
+ * <pre>
+ * java -cp OOPTankGame.jar com.example.ooptankgame.Network.ServerMain [options]
+ *   --port &lt;n&gt;       port to listen on, default 7777
+ *   --map &lt;name&gt;     TMX map under assets/levels, default tmx/tankgamemapnewwalls.tmx
+ *   --seed &lt;long&gt;    seed of the first match, default 1
+ *   --hz &lt;n&gt;        tick rate, default 60
+ * </pre>
+ *
+ * Prints the number of clients, the tick time and the bandwidth every 5 seconds.
+ */
+public final class ServerMain {
+
+    private static final int REPORT_SECONDS = 5;
+
+    private ServerMain() {
+    }
+
+    public static void main(String[] args) {
+        String mapName = HeadlessSimulation.DEFAULT_MAP;
+        long seed = 1;
+        int hz = 60;
+        int port = NetProtocol.DEFAULT_PORT;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--map" -> mapName = require(args[i], value);
+                case "--seed" -> seed = Long.parseLong(require(args[i], value));
+                case "--hz" -> hz = Integer.parseInt(require(args[i], value));
+                case "--port" -> port = Integer.parseInt(require(args[i], value));
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+            i++;
+        }
+
+        GameServer server = new GameServer(LevelReader.load(mapName), mapName, hz, seed, port);
+        System.out.printf("Serving %s on port %d at %d ticks/s%n", mapName, server.getPort(), hz);
+        long reportTicks = (long) REPORT_SECONDS * hz;
+        long[] lastSent = {0};
+        server.run(() -> {
+            if (server.getTicks() % reportTicks != 0) {
+                return;
+            }
+            RollingStats.Summary tick = server.getTickNanos().summary();
+            long sent = server.getBytesSent() - lastSent[0];
+            lastSent[0] = server.getBytesSent();
+            System.out.printf("%d clients, tick p50 %.3fms p99 %.3fms max %.3fms, sending %.1f KB/s%n",
+                    server.getClientCount(), tick.p50() / 1e6, tick.p99() / 1e6, tick.max() / 1e6,
+                    sent / 1024.0 / REPORT_SECONDS);
+        });
+    }
+
+    private static String require(String option, String value) {
+        if (value == null) {
+            System.err.println("Missing value for " + option);
+            System.exit(2);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.ooptankgame.Network;
+
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import com.example.ooptankgame.Simulation.SimBody;
+import com.example.ooptankgame.Simulation.SimBullet;
+import com.example.ooptankgame.Simulation.SimTank;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The SnapshotEncoder class turns the state of a {@link HeadlessSimulation} into snapshot
+ * frames, either complete or only with what changed since the snapshot before.
+ *
+ * Key Responsibilities:
+ * - **Delta Snapshots**: {@link #writeDelta} compares every tank with the values last sent and
+ *   only writes the fields that changed: position, direction, HP and whether it is alive. Bullets
+ *   fly in a straight line at a known speed, so only new bullets are written, with the position
+ *   they have this tick, and the ids of bullets that are gone. Picked up health packs and the
+ *   score, lives and end of the match are only written when they change.
+ * - **Full Snapshots**: {@link #writeFull} writes everything, for a client that just joined or a
+ *   new match.
+ * - **Encoding Once**: The deltas do not depend on the client, the server encodes them once per
+ *   tick and sends the same bytes to every client.
+ *
+ * Snapshot payload, after the {@link NetProtocol#SNAPSHOT} type byte:
+ * <pre>
+ * int tick, byte flags (FULL, MATCH)
+ * MATCH:  int score, byte lives, byte destroyedEnemies, byte outcome (0 playing, 1 won, 2 lost)
+ * short tanks,   each: short id, byte fields, [byte type], [float x, float y], [byte dir], [byte hp], [byte alive]
+ * short bullets, each: int id, float centerX, float centerY, byte dir, byte ownerType
+ * short removed bullets, each: int id
+ * FULL:   short healthPacks
+ * short picked health packs, each: short index
+ * </pre>
+ * Tank fields are only present when their bit is set in {@code fields}.
+ */
+public final class SnapshotEncoder {
+
+    public static final int FLAG_FULL = 1;
+    public static final int FLAG_MATCH = 1 << 1;
+
+    public static final int FIELD_POSITION = 1;
+    public static final int FIELD_DIR = 1 << 1;
+    public static final int FIELD_HP = 1 << 2;
+    public static final int FIELD_ALIVE = 1 << 3;
+    /** The tank is new to the receiver, its type follows the field bits. */
+    public static final int FIELD_SPAWN = 1 << 4;
+    private static final int ALL_FIELDS = FIELD_POSITION | FIELD_DIR | FIELD_HP | FIELD_ALIVE | FIELD_SPAWN;
+
+    // What the clients were sent last, the baseline of the next delta
+    private int tanks;
+    private float[] x = new float[16];
+    private float[] y = new float[16];
+    private byte[] dir = new byte[16];
+    private byte[] hp = new byte[16];
+    private boolean[] alive = new boolean[16];
+    private int bullets;
+    private int[] bulletIds = new int[64];
+    private boolean[] packAlive = new boolean[0];
+    private int score = -1;
+    private int lives = -1;
+    private int destroyed = -1;
+    private int outcome = -1;
+
+    private ByteBuffer delta = ByteBuffer.allocate(4096);
+    private ByteBuffer full = ByteBuffer.allocate(4096);
+
+    /**
+     * Forgets what was sent, for a new match. The next snapshot has to be a full one.
+     */
+    public void reset() {
+        tanks = 0;
+        bullets = 0;
+        packAlive = new boolean[0];
+        score = -1;
+        lives = -1;
+        destroyed = -1;
+        outcome = -1;
+    }
+
+    /**
+     * Writes a frame with what changed since the last snapshot and makes the current state the
+     * baseline. The returned buffer is ready to be read and only valid until the next call.
+     */
+    public ByteBuffer writeDelta(HeadlessSimulation simulation) {
+        delta = ensureCapacity(delta, simulation);
+        ByteBuffer out = delta;
+        int frame = NetProtocol.beginFrame(out);
+        out.put(NetProtocol.SNAPSHOT);
+        out.putInt((int) simulation.getTick());
+        int flags = out.position();
+        out.put((byte) 0);
+        if (matchChanged(simulation)) {
+            out.put(flags, (byte) FLAG_MATCH);
+            writeMatch(out, simulation);
+        }
+
+        List<SimTank> current = simulation.getTanks();
+        int countAt = out.position();
+        out.putShort((short) 0);
+        int written = 0;
+        for (int id = 0; id < current.size(); id++) {
+            SimTank tank = current.get(id);
+            int fields = id >= tanks ? ALL_FIELDS : changedFields(id, tank);
+            if (fields != 0) {
+                writeTank(out, id, tank, fields);
+                written++;
+            }
+        }
+        out.putShort(countAt, (short) written);
+
+        // Both lists are in ascending id order, new ones are missing from the baseline and the other way round
+        List<SimBullet> flying = simulation.getBullets();
+        countAt = out.position();
+        out.putShort((short) 0);
+        written = 0;
+        int old = 0;
+        for (int i = 0; i < flying.size(); i++) {
+            SimBullet bullet = flying.get(i);
+            while (old < bullets && bulletIds[old] < bullet.getId()) {
+                old++;
+            }
+            if (old == bullets || bulletIds[old] != bullet.getId()) {
+                writeBullet(out, bullet);
+                written++;
+            }
+        }
+        out.putShort(countAt, (short) written);
+        countAt = out.position();
+        out.putShort((short) 0);
+        written = 0;
+        int now = 0;
+        for (int i = 0; i < bullets; i++) {
+            while (now < flying.size() && flying.get(now).getId() < bulletIds[i]) {
+                now++;
+            }
+            if (now == flying.size() || flying.get(now).getId() != bulletIds[i]) {
+                out.putInt(bulletIds[i]);
+                written++;
+            }
+        }
+        out.putShort(countAt, (short) written);
+
+        List<SimBody> packs = simulation.getHealthPacks();
+        countAt = out.position();
+        out.putShort((short) 0);
+        written = 0;
+        for (int i = 0; i < packs.size(); i++) {
+            if ((i >= packAlive.length || packAlive[i]) && !packs.get(i).isAlive()) {
+                out.putShort((short) i);
+                written++;
+            }
+        }
+        out.putShort(countAt, (short) written);
+        NetProtocol.endFrame(out, frame);
+
+        remember(simulation);
+        return out.flip();
+    }
+
+    /**
+     * Writes a frame with the whole state and makes it the baseline. The returned buffer is ready
+     * to be read and only valid until the next call.
+     */
+    public ByteBuffer writeFull(HeadlessSimulation simulation) {
+        full = ensureCapacity(full, simulation);
+        ByteBuffer out = full;
+        int frame = NetProtocol.beginFrame(out);
+        out.put(NetProtocol.SNAPSHOT);
+        out.putInt((int) simulation.getTick());
+        out.put((byte) (FLAG_FULL | FLAG_MATCH));
+        writeMatch(out, simulation);
+
+        List<SimTank> current = simulation.getTanks();
+        out.putShort((short) current.size());
+        for (int id = 0; id < current.size(); id++) {
+            writeTank(out, id, current.get(id), ALL_FIELDS);
+        }
+        List<SimBullet> flying = simulation.getBullets();
+        out.putShort((short) flying.size());
+        for (int i = 0; i < flying.size(); i++) {
+            writeBullet(out, flying.get(i));
+        }
+        out.putShort((short) 0);
+
+        List<SimBody> packs = simulation.getHealthPacks();
+        out.putShort((short) packs.size());
+        int countAt = out.position();
+        out.putShort((short) 0);
+        int written = 0;
+        for (int i = 0; i < packs.size(); i++) {
+            if (!packs.get(i).isAlive()) {
+                out.putShort((short) i);
+                written++;
+            }
+        }
+        out.putShort(countAt, (short) written);
+        NetProtocol.endFrame(out, frame);
+
+        remember(simulation);
+        return out.flip();
+    }
+
+    private boolean matchChanged(HeadlessSimulation simulation) {
+        return simulation.getScore() != score || simulation.getLives() != lives
+                || simulation.getDestroyedEnemy() != destroyed || outcome(simulation) != outcome;
+    }
+
+    private static void writeMatch(ByteBuffer out, HeadlessSimulation simulation) {
+        out.putInt(simulation.getScore());
+        out.put((byte) simulation.getLives());
+        out.put((byte) simulation.getDestroyedEnemy());
+        out.put((byte) outcome(simulation));
+    }
+
+    private static int outcome(HeadlessSimulation simulation) {
+        if (!simulation.isGameOver()) {
+            return 0;
+        }
+        return simulation.getDestroyedEnemy() == HeadlessSimulation.ENEMIES_TO_WIN ? 1 : 2;
+    }
+
+    private int changedFields(int id, SimTank tank) {
+        int fields = 0;
+        if ((float) tank.getX() != x[id] || (float) tank.getY() != y[id]) {
+            fields |= FIELD_POSITION;
+        }
+        if (tank.getDir().ordinal() != dir[id]) {
+            fields |= FIELD_DIR;
+        }
+        if (tank.getHp() != hp[id]) {
+            fields |= FIELD_HP;
+        }
+        if (tank.isAlive() != alive[id]) {
+            fields |= FIELD_ALIVE;
+        }
+        return fields;
+    }
+
+    private static void writeTank(ByteBuffer out, int id, SimTank tank, int fields) {
+        out.putShort((short) id);
+        out.put((byte) fields);
+        if ((fields & FIELD_SPAWN) != 0) {
+            out.put((byte) tank.getType().ordinal());
+        }
+        if ((fields & FIELD_POSITION) != 0) {
+            out.putFloat((float) tank.getX());
+            out.putFloat((float) tank.getY());
+        }
+        if ((fields & FIELD_DIR) != 0) {
+            out.put((byte) tank.getDir().ordinal());
+        }
+        if ((fields & FIELD_HP) != 0) {
+            out.put((byte) tank.getHp());
+        }
+        if ((fields & FIELD_ALIVE) != 0) {
+            out.put((byte) (tank.isAlive() ? 1 : 0));
+        }
+    }
+
+    private static void writeBullet(ByteBuffer out, SimBullet bullet) {
+        out.putInt(bullet.getId());
+        out.putFloat((float) bullet.getCenterX());
+        out.putFloat((float) bullet.getCenterY());
+        out.put((byte) bullet.getDir().ordinal());
+        out.put((byte) bullet.getOwnerType().ordinal());
+    }
+
+    private void remember(HeadlessSimulation simulation) {
+        List<SimTank> current = simulation.getTanks();
+        tanks = current.size();
+        if (tanks > x.length) {
+            int capacity = Math.max(tanks, x.length * 2);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            dir = Arrays.copyOf(dir, capacity);
+            hp = Arrays.copyOf(hp, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+        }
+        for (int id = 0; id < tanks; id++) {
+            SimTank tank = current.get(id);
+            x[id] = (float) tank.getX();
+            y[id] = (float) tank.getY();
+            dir[id] = (byte) tank.getDir().ordinal();
+            hp[id] = (byte) tank.getHp();
+            alive[id] = tank.isAlive();
+        }
+        List<SimBullet> flying = simulation.getBullets();
+        bullets = flying.size();
+        if (bullets > bulletIds.length) {
+            bulletIds = Arrays.copyOf(bulletIds, Math.max(bullets, bulletIds.length * 2));
+        }
+        for (int i = 0; i < bullets; i++) {
+            bulletIds[i] = flying.get(i).getId();
+        }
+        List<SimBody> packs = simulation.getHealthPacks();
+        if (packAlive.length != packs.size()) {
+            packAlive = new boolean[packs.size()];
+        }
+        for (int i = 0; i < packs.size(); i++) {
+            packAlive[i] = packs.get(i).isAlive();
+        }
+        score = simulation.getScore();
+        lives = simulation.getLives();
+        destroyed = simulation.getDestroyedEnemy();
+        outcome = outcome(simulation);
+    }
+
+    /**
+     * Returns an empty buffer large enough for a snapshot of the simulation in the worst case.
+     */
+    private ByteBuffer ensureCapacity(ByteBuffer buffer, HeadlessSimulation simulation) {
+        int needed = NetProtocol.FRAME_HEADER + 32
+                + simulation.getTanks().size() * 16
+                + (simulation.getBullets().size() + bullets) * 14
+                + simulation.getHealthPacks().size() * 2;
+        if (buffer.capacity() < needed) {
+            return ByteBuffer.allocate(Math.max(needed, buffer.capacity() * 2));
+        }
+        return buffer.clear();
+    }
+}
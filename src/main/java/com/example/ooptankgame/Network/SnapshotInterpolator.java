@@ -0,0 +1,320 @@
+package com.example.ooptankgame.Network;
+
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The SnapshotInterpolator class keeps the last snapshots of the other tanks and the bullets so
+ * they can be drawn moving smoothly at any frame rate, however unevenly the snapshots arrive.
+ *
+ * Key Responsibilities:
+ * - **Buffering**: {@link #record} stores every tank's position per snapshot in a ring of
+ *   {@link #HISTORY} ticks, and the tick and position each bullet was first seen at, plus the
+ *   tick it was removed in.
+ * - **Render Clock**: The other tanks are drawn {@link #getDelayTicks()} ticks in the past, so
+ *   there is usually a newer snapshot to move towards. {@link #advance} moves the render tick on
+ *   by the frame time and nudges it towards that delay behind the newest snapshot, by at most
+ *   10% of the speed, so late and early snapshots do not make the picture jump. It jumps only
+ *   when it is more than the whole history off.
+ * - **Interpolation**: A tank is drawn between the two snapshots around the render tick. When
+ *   the render tick passes the newest snapshot, because the next one is late, the tank stays
+ *   where it was last seen and the frame counts as starved.
+ * - **Bullets**: A bullet flies straight at a known speed, so its position at the render tick is
+ *   computed from where it was first seen. It shows from the tick it was fired until the tick it
+ *   was removed in, at the same delay as the tanks it flies between.
+ *
+ * The client's own tank is drawn by the {@link ClientPrediction} instead, ahead of the others.
+ */
+public final class SnapshotInterpolator {
+
+    /** Ticks of history kept per tank. */
+    public static final int HISTORY = 32;
+    /** Default delay: two snapshots at 60 ticks per second plus room for jitter. */
+    public static final double DEFAULT_DELAY_SECONDS = 0.1;
+    private static final double MAX_RATE_CHANGE = 0.1;
+    private static final int NO_SAMPLE = Integer.MIN_VALUE;
+
+    /**
+     * A bullet as drawn, from the tick it was first seen to the tick it was removed in.
+     */
+    public static final class Bullet {
+        private final int id;
+        private final int firstTick;
+        private final double firstX;
+        private final double firstY;
+        private final Dir dir;
+        private final TankGameType ownerType;
+        private int removedTick = Integer.MAX_VALUE;
+        private double x;
+        private double y;
+
+        private Bullet(int id, int firstTick, double firstX, double firstY, Dir dir, TankGameType ownerType) {
+            this.id = id;
+            this.firstTick = firstTick;
+            this.firstX = firstX;
+            this.firstY = firstY;
+            this.dir = dir;
+            this.ownerType = ownerType;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /** Center at the render tick. */
+        public double getCenterX() {
+            return x;
+        }
+
+        public double getCenterY() {
+            return y;
+        }
+
+        public Dir getDir() {
+            return dir;
+        }
+
+        public TankGameType getOwnerType() {
+            return ownerType;
+        }
+    }
+
+    private final int ticksPerSecond;
+    private final double delayTicks;
+    private final double bulletStep;
+
+    // Per tank a ring of HISTORY samples, slot tick % HISTORY
+    private int tanks = 0;
+    private int[] sampleTick = new int[0];
+    private float[] sampleX = new float[0];
+    private float[] sampleY = new float[0];
+    private Dir[] sampleDir = new Dir[0];
+    private boolean[] sampleAlive = new boolean[0];
+    private TankGameType[] type = new TankGameType[0];
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private Dir[] dir = new Dir[0];
+    private boolean[] alive = new boolean[0];
+
+    private final List<Bullet> bullets = new ArrayList<>();
+    private final List<Bullet> visible = new ArrayList<>();
+    private int lastBulletId = -1;
+
+    private int newestTick = -1;
+    private double renderTick = -1;
+    private long frames = 0;
+    private long starvedFrames = 0;
+
+    public SnapshotInterpolator(int ticksPerSecond) {
+        this(ticksPerSecond, DEFAULT_DELAY_SECONDS);
+    }
+
+    public SnapshotInterpolator(int ticksPerSecond, double delaySeconds) {
+        if (delaySeconds < 0 || delaySeconds * ticksPerSecond >= HISTORY - 1) {
+            throw new IllegalArgumentException("Delay must fit the history: " + delaySeconds + "s");
+        }
+        this.ticksPerSecond = ticksPerSecond;
+        this.delayTicks = delaySeconds * ticksPerSecond;
+        this.bulletStep = HeadlessSimulation.BULLET_SPEED / ticksPerSecond;
+    }
+
+    /**
+     * Stores the snapshot just applied to {@code world}. A full snapshot starts over, it begins a
+     * match or follows a reconnect.
+     */
+    public void record(ClientWorld world, boolean full) {
+        int tick = world.getTick();
+        if (full) {
+            tanks = 0;
+            Arrays.fill(sampleTick, NO_SAMPLE);
+            bullets.clear();
+            lastBulletId = -1;
+            renderTick = tick - delayTicks;
+        }
+        ensureTanks(world.getTankCount());
+        for (int id = 0; id < world.getTankCount(); id++) {
+            int slot = id * HISTORY + Math.floorMod(tick, HISTORY);
+            sampleTick[slot] = tick;
+            sampleX[slot] = world.getX(id);
+            sampleY[slot] = world.getY(id);
+            sampleDir[slot] = world.getDir(id);
+            sampleAlive[slot] = world.isAlive(id);
+            type[id] = world.getType(id);
+        }
+        tanks = world.getTankCount();
+
+        // Both lists are in ascending id order
+        List<ClientWorld.Bullet> flying = world.getBullets();
+        int known = 0;
+        for (int i = 0; i < flying.size(); i++) {
+            ClientWorld.Bullet bullet = flying.get(i);
+            if (bullet.getId() > lastBulletId) {
+                bullets.add(new Bullet(bullet.getId(), tick, bullet.getCenterX(), bullet.getCenterY(),
+                        bullet.getDir(), bullet.getOwnerType()));
+                lastBulletId = bullet.getId();
+            }
+        }
+        for (int i = 0; i < bullets.size(); i++) {
+            Bullet bullet = bullets.get(i);
+            if (bullet.removedTick != Integer.MAX_VALUE) {
+                continue;
+            }
+            while (known < flying.size() && flying.get(known).getId() < bullet.id) {
+                known++;
+            }
+            if (known == flying.size() || flying.get(known).getId() != bullet.id) {
+                bullet.removedTick = tick;
+            }
+        }
+        newestTick = tick;
+    }
+
+    /**
+     * Moves the render clock on by {@code seconds} of frame time and computes where every tank
+     * and bullet is drawn.
+     */
+    public void advance(double seconds) {
+        if (newestTick < 0) {
+            return;
+        }
+        double target = newestTick - delayTicks;
+        double ticks = seconds * ticksPerSecond;
+        if (Math.abs(renderTick - target) > HISTORY) {
+            renderTick = target;
+        } else {
+            double rate = 1 + Math.max(-MAX_RATE_CHANGE, Math.min(MAX_RATE_CHANGE, (target - renderTick) / HISTORY * 4));
+            renderTick += ticks * rate;
+        }
+        frames++;
+        if (renderTick > newestTick) {
+            starvedFrames++;
+        }
+
+        for (int id = 0; id < tanks; id++) {
+            interpolate(id);
+        }
+        visible.clear();
+        for (int i = bullets.size() - 1; i >= 0; i--) {
+            Bullet bullet = bullets.get(i);
+            if (bullet.removedTick < renderTick - HISTORY) {
+                bullets.remove(i); // Long gone, nothing renders this far back
+            }
+        }
+        for (int i = 0; i < bullets.size(); i++) {
+            Bullet bullet = bullets.get(i);
+            if (bullet.firstTick <= renderTick && renderTick < bullet.removedTick) {
+                double flown = (renderTick - bullet.firstTick) * bulletStep;
+                bullet.x = bullet.firstX + bullet.dir.getDx() * flown;
+                bullet.y = bullet.firstY + bullet.dir.getDy() * flown;
+                visible.add(bullet);
+            }
+        }
+    }
+
+    private void interpolate(int id) {
+        // Newest sample at or before the render tick, and the one after it
+        int base = id * HISTORY;
+        int before = -1;
+        int after = -1;
+        for (int i = 0; i < HISTORY; i++) {
+            int tick = sampleTick[base + i];
+            if (tick > newestTick || tick <= newestTick - HISTORY) {
+                continue; // Not written yet, or overwritten next
+            }
+            if (tick <= renderTick && (before < 0 || tick > sampleTick[base + before])) {
+                before = i;
+            } else if (tick > renderTick && (after < 0 || tick < sampleTick[base + after])) {
+                after = i;
+            }
+        }
+        if (before < 0 && after < 0) {
+            return;
+        }
+        if (before < 0) {
+            before = after; // Not seen yet at the render tick, shown where it appeared
+        }
+        if (after < 0) {
+            after = before; // Past the newest snapshot, held where it was last seen
+        }
+        int from = base + before;
+        int to = base + after;
+        double t = sampleTick[to] == sampleTick[from] ? 0
+                : (renderTick - sampleTick[from]) / (sampleTick[to] - sampleTick[from]);
+        x[id] = (float) (sampleX[from] + (sampleX[to] - sampleX[from]) * t);
+        y[id] = (float) (sampleY[from] + (sampleY[to] - sampleY[from]) * t);
+        // Turning and dying happen at once, at the tick they were seen
+        dir[id] = sampleDir[from];
+        alive[id] = sampleAlive[from];
+    }
+
+    private void ensureTanks(int count) {
+        if (count > type.length) {
+            int old = type.length;
+            int capacity = Math.max(count, Math.max(16, old * 2));
+            sampleTick = Arrays.copyOf(sampleTick, capacity * HISTORY);
+            Arrays.fill(sampleTick, old * HISTORY, capacity * HISTORY, NO_SAMPLE);
+            sampleX = Arrays.copyOf(sampleX, capacity * HISTORY);
+            sampleY = Arrays.copyOf(sampleY, capacity * HISTORY);
+            sampleDir = Arrays.copyOf(sampleDir, capacity * HISTORY);
+            sampleAlive = Arrays.copyOf(sampleAlive, capacity * HISTORY);
+            type = Arrays.copyOf(type, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            dir = Arrays.copyOf(dir, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+        }
+    }
+
+    public double getRenderTick() {
+        return renderTick;
+    }
+
+    public double getDelayTicks() {
+        return delayTicks;
+    }
+
+    public int getTankCount() {
+        return tanks;
+    }
+
+    public TankGameType getType(int id) {
+        return type[id];
+    }
+
+    /** Position of a tank at the render tick. */
+    public float getX(int id) {
+        return x[id];
+    }
+
+    public float getY(int id) {
+        return y[id];
+    }
+
+    public Dir getDir(int id) {
+        return dir[id];
+    }
+
+    public boolean isAlive(int id) {
+        return alive[id];
+    }
+
+    /** The bullets flying at the render tick, positioned by the last {@link #advance}. */
+    public List<Bullet> getBullets() {
+        return visible;
+    }
+
+    /** Frames rendered since the interpolator was made. */
+    public long getFrames() {
+        return frames;
+    }
+
+    /** Frames whose render tick was past the newest snapshot, so the tanks stood still. */
+    public long getStarvedFrames() {
+        return starvedFrames;
+    }
+}
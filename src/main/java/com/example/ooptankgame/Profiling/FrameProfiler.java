@@ -0,0 +1,157 @@
+package com.example.ooptankgame.Profiling;
+
+import com.example.ooptankgame.Enums.FramePhase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The FrameProfiler class records where the time of each frame goes, per {@link FramePhase},
+ * and keeps the median, 99th percentile and worst frame of each phase over the last frames.
+ *
+ * Key Responsibilities:
+ * - **Timing**: Code that runs during a frame reports how long it took with {@link #add}. A phase
+ *   reported several times in a frame, like every enemy's update, is summed into one value for
+ *   the frame.
+ * - **Frames**: {@link #endFrame} closes the frame: every phase's total goes into its
+ *   {@link RollingStats}, zero if the phase did not run, and the time since the previous frame
+ *   ended is recorded as {@link FramePhase#FRAME}.
+ * - **Reporting**: {@link #snapshot} summarizes every phase for the overlay and the logs, and
+ *   {@link #format} lays it out as a small text table.
+ *
+ * The profiler is plain Java and knows nothing about FXGL; {@link WorldProfiler} connects it to
+ * a game world. Adding a measurement is an array update, so timing every enemy costs little more
+ * than the two {@code System.nanoTime()} calls around it. Not thread-safe, all phases are timed
+ * on the JavaFX application thread.
+ */
+public final class FrameProfiler {
+
+    /** Frames the percentiles are taken over, ten seconds at 60 frames per second. */
+    public static final int DEFAULT_WINDOW = 600;
+    /** Header of the rows {@link Snapshot#toCsv} writes. */
+    public static final String CSV_HEADER = "time_ms,frames,phase,calls,samples,p50_ms,p99_ms,max_ms,mean_ms";
+
+    private static final FramePhase[] PHASES = FramePhase.values();
+
+    private final long[] frameNanos = new long[PHASES.length];
+    private final long[] calls = new long[PHASES.length];
+    private final RollingStats[] stats = new RollingStats[PHASES.length];
+    private long frames = 0;
+    private long lastFrameEnd = 0;
+
+    public FrameProfiler() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param window number of frames the percentiles are taken over
+     */
+    public FrameProfiler(int window) {
+        for (int i = 0; i < PHASES.length; i++) {
+            stats[i] = new RollingStats(window);
+        }
+    }
+
+    /**
+     * Adds {@code nanos} nanoseconds spent in {@code phase} to the current frame.
+     */
+    public void add(FramePhase phase, long nanos) {
+        frameNanos[phase.ordinal()] += nanos;
+        calls[phase.ordinal()]++;
+    }
+
+    /**
+     * Ends the current frame at {@code nowNanos}, a {@code System.nanoTime()} value.
+     */
+    public void endFrame(long nowNanos) {
+        if (lastFrameEnd != 0) {
+            add(FramePhase.FRAME, nowNanos - lastFrameEnd);
+        }
+        for (int i = 0; i < PHASES.length; i++) {
+            if (PHASES[i] != FramePhase.FRAME || lastFrameEnd != 0) {
+                stats[i].add(frameNanos[i]);
+            }
+            frameNanos[i] = 0;
+        }
+        lastFrameEnd = nowNanos;
+        frames++;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Summarizes every phase over the last frames.
+     *
+     * @param timeMillis wall clock time the snapshot is taken at, for the logs
+     */
+    public Snapshot snapshot(long timeMillis) {
+        List<PhaseStats> phases = new ArrayList<>(PHASES.length);
+        for (int i = 0; i < PHASES.length; i++) {
+            phases.add(new PhaseStats(PHASES[i], calls[i], stats[i].summary()));
+        }
+        return new Snapshot(timeMillis, frames, phases);
+    }
+
+    /**
+     * Returns the median, 99th percentile and worst time of every phase in milliseconds, one
+     * line per phase, for the overlay.
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%-11s %7s %7s %7s%n", "ms", "p50", "p99", "max"));
+        for (PhaseStats phase : snapshot(0).phases()) {
+            RollingStats.Summary summary = phase.summary();
+            text.append(String.format(Locale.ROOT, "%-11s %7.3f %7.3f %7.3f%n", phase.phase().getLabel(),
+                    summary.p50() / 1e6, summary.p99() / 1e6, summary.max() / 1e6));
+        }
+        return text.toString();
+    }
+
+    /**
+     * One phase of a {@link Snapshot}: how often it was timed since the game started, and the
+     * percentiles of its per-frame totals in nanoseconds.
+     */
+    public record PhaseStats(FramePhase phase, long calls, RollingStats.Summary summary) {
+    }
+
+    /**
+     * The state of all phases at one point in time.
+     */
+    public record Snapshot(long timeMillis, long frames, List<PhaseStats> phases) {
+
+        /**
+         * Returns one CSV row per phase, in the columns of {@link #CSV_HEADER}.
+         */
+        public String toCsv() {
+            StringBuilder csv = new StringBuilder();
+            for (PhaseStats phase : phases) {
+                RollingStats.Summary summary = phase.summary();
+                csv.append(String.format(Locale.ROOT, "%d,%d,%s,%d,%d,%.4f,%.4f,%.4f,%.4f%n", timeMillis, frames,
+                        phase.phase().name().toLowerCase(Locale.ROOT), phase.calls(), summary.samples(),
+                        summary.p50() / 1e6, summary.p99() / 1e6, summary.max() / 1e6, summary.mean() / 1e6));
+            }
+            return csv.toString();
+        }
+
+        public String toJson() {
+            StringBuilder json = new StringBuilder("{\n");
+            json.append("  \"timeMillis\": ").append(timeMillis).append(",\n");
+            json.append("  \"frames\": ").append(frames).append(",\n");
+            json.append("  \"phases\": {\n");
+            for (int i = 0; i < phases.size(); i++) {
+                PhaseStats phase = phases.get(i);
+                RollingStats.Summary summary = phase.summary();
+                json.append(String.format(Locale.ROOT, "    \"%s\": {\"calls\": %d, \"samples\": %d, \"p50Millis\": %.4f,"
+                                + " \"p99Millis\": %.4f, \"maxMillis\": %.4f, \"meanMillis\": %.4f}",
+                        phase.phase().name().toLowerCase(Locale.ROOT), phase.calls(), summary.samples(),
+                        summary.p50() / 1e6, summary.p99() / 1e6, summary.max() / 1e6, summary.mean() / 1e6));
+                json.append(i + 1 < phases.size() ? ",\n" : "\n");
+            }
+            json.append("  }\n");
+            json.append("}\n");
+            return json.toString();
+        }
+    }
+}
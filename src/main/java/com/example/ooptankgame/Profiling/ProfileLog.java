@@ -0,0 +1,84 @@
+package com.example.ooptankgame.Profiling;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The ProfileLog class writes {@link FrameProfiler} snapshots of one game session to a
+ * directory, by default {@code logs/}, next to the FXGL logs.
+ *
+ * Key Responsibilities:
+ * - **CSV History**: Every snapshot is appended to {@code profile-<start time>.csv}, one row per
+ *   phase, so the whole session can be plotted or compared with another one.
+ * - **JSON Latest**: {@code profile-<start time>.json} is replaced by the latest snapshot, for
+ *   tools that only want the current numbers.
+ * - **Background Writing**: {@link #writeAsync} hands the snapshot to a daemon thread, so a slow
+ *   disk never stalls a frame. Failures are reported on {@code System.err} and do not stop the game.
+ */
+public final class ProfileLog {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path csv;
+    private final Path json;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "profile-log");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProfileLog(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create " + directory, e);
+        }
+        String name = "profile-" + LocalDateTime.now().format(FILE_TIME);
+        this.csv = directory.resolve(name + ".csv");
+        this.json = directory.resolve(name + ".json");
+    }
+
+    /**
+     * Writes the snapshot on the calling thread.
+     */
+    public synchronized void write(FrameProfiler.Snapshot snapshot) {
+        try {
+            if (!Files.exists(csv)) {
+                Files.writeString(csv, FrameProfiler.CSV_HEADER + System.lineSeparator(), StandardCharsets.UTF_8);
+            }
+            Files.writeString(csv, snapshot.toCsv(), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            Files.writeString(json, snapshot.toJson(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write profile to " + csv.getParent(), e);
+        }
+    }
+
+    /**
+     * Writes the snapshot on the log's own thread, in the order the snapshots were handed in.
+     */
+    public void writeAsync(FrameProfiler.Snapshot snapshot) {
+        writer.execute(() -> {
+            try {
+                write(snapshot);
+            } catch (UncheckedIOException e) {
+                System.err.println(e.getMessage() + ": " + e.getCause().getMessage());
+            }
+        });
+    }
+
+    public Path getCsvFile() {
+        return csv;
+    }
+
+    public Path getJsonFile() {
+        return json;
+    }
+}
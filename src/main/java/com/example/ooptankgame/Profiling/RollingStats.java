@@ -0,0 +1,80 @@
+package com.example.ooptankgame.Profiling;
+
+import java.util.Arrays;
+
+/**
+ * The RollingStats class keeps the last {@code window} values of one measurement, such as the
+ * time a frame phase took, and summarizes them as percentiles.
+ *
+ * Key Responsibilities:
+ * - **Recording**: {@link #add} overwrites the oldest value in a ring buffer, so recording costs
+ *   the same whether the game ran for a minute or a day and never allocates.
+ * - **Summarizing**: {@link #summary} sorts a copy of the window and reads the median, the 99th
+ *   percentile and the maximum from it. That is only done when the numbers are shown or logged,
+ *   a few times per second at most.
+ *
+ * Not thread-safe, like the rest of the game loop it belongs to.
+ */
+public final class RollingStats {
+
+    private final long[] values;
+    private final long[] sorted;
+    private int next = 0;
+    private int size = 0;
+
+    public RollingStats(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.values = new long[window];
+        this.sorted = new long[window];
+    }
+
+    public void add(long value) {
+        values[next] = value;
+        next = next + 1 == values.length ? 0 : next + 1;
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getWindow() {
+        return values.length;
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the percentiles of the values in the window, all zero when it is empty.
+     */
+    public Summary summary() {
+        if (size == 0) {
+            return new Summary(0, 0, 0, 0, 0);
+        }
+        System.arraycopy(values, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += sorted[i];
+        }
+        return new Summary(size, rank(0.50), rank(0.99), sorted[size - 1], total / (double) size);
+    }
+
+    // Nearest rank: the smallest value at least p of the values are less than or equal to
+    private long rank(double p) {
+        return sorted[Math.max(0, (int) Math.ceil(p * size) - 1)];
+    }
+
+    /**
+     * Percentiles of one window, in the unit of the recorded values.
+     */
+    public record Summary(int samples, long p50, long p99, long max, double mean) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ooptankgame.Profiling;
+
+import com.almasb.fxgl.entity.GameWorld;
+import com.example.ooptankgame.Enums.FramePhase;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The WorldProfiler class gives the components, collision handlers and pools of a FXGL world
+ * the {@link FrameProfiler} to report their time to.
+ *
+ * Key Responsibilities:
+ * - **Lookup**: {@link #of} returns the world's profiler, or {@code null} when profiling is off,
+ *   in which case callers skip the timing altogether.
+ * - **Frame Boundaries**: {@link #install} listens to the JavaFX pulses of the game's scene. The
+ *   time between the pre-layout and post-layout listeners, CSS and layout of the scene graph, is
+ *   recorded as {@link FramePhase#LAYOUT}, and the post-layout listener ends the frame, after the
+ *   game update of that pulse has run. Drawing happens afterwards on JavaFX's render thread and
+ *   only shows in {@link FramePhase#FRAME}.
+ *
+ * Like the {@code LineOfSight}, profiling is per world and only exists after {@link #install}.
+ */
+public final class WorldProfiler {
+
+    private static final Map<GameWorld, FrameProfiler> PROFILERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private WorldProfiler() {
+    }
+
+    /**
+     * Creates the profiler of the given world, ending its frames with the pulses of {@code scene}.
+     */
+    public static FrameProfiler install(GameWorld world, Scene scene, int window) {
+        FrameProfiler profiler = new FrameProfiler(window);
+        long[] layoutStart = new long[1];
+        Runnable listen = () -> {
+            scene.addPreLayoutPulseListener(() -> layoutStart[0] = System.nanoTime());
+            scene.addPostLayoutPulseListener(() -> {
+                long now = System.nanoTime();
+                profiler.add(FramePhase.LAYOUT, now - layoutStart[0]);
+                profiler.endFrame(now);
+            });
+        };
+        // FXGL may initialize the game off the JavaFX thread, the scene must only be touched on it
+        if (Platform.isFxApplicationThread()) {
+            listen.run();
+        } else {
+            Platform.runLater(listen);
+        }
+        PROFILERS.put(world, profiler);
+        return profiler;
+    }
+
+    /**
+     * Returns the profiler of the given world, or {@code null} if none was installed.
+     */
+    public static FrameProfiler of(GameWorld world) {
+        return PROFILERS.get(world);
+    }
+}
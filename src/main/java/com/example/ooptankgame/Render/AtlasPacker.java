@@ -0,0 +1,203 @@
+package com.example.ooptankgame.Render;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build step that packs the textures listed in {@code atlas.list} into one {@link TextureAtlas}:
+ * {@code atlas.png} and its region index {@code atlas.tatl}, next to the list.
+ *
+ * Each line of the list is a texture path relative to the list, followed by its frame count if
+ * it is an animation sheet; {@code #} starts a comment. The textures are placed on shelves,
+ * tallest first, one pixel apart so no sprite picks up its neighbour's edge. An animation sheet
+ * is placed on a multiple of its frame size, so FXGL can cut its frames from the atlas as from a
+ * sheet of its own. The atlas is as wide as the widest texture or the square root of their area,
+ * rounded up to a power of two, and as high as the shelves need.
+ *
+ * Maven runs it on {@code target/classes/assets/textures} in the {@code process-classes} phase,
+ * like {@code LevelCompiler}. An atlas newer than its list and every texture in it is left alone.
+ * The textures stay in the jar for code that loads them on their own.
+ *
+ * Run with: {@code java com.example.ooptankgame.Render.AtlasPacker <folder>...}
+ */
+public final class AtlasPacker {
+
+    /** Name of the list of textures to pack. */
+    public static final String LIST = "atlas.list";
+    private static final int PADDING = 1;
+
+    /**
+     * A texture to pack and its size.
+     */
+    public record Entry(String name, int width, int height, int frames) {
+    }
+
+    private AtlasPacker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AtlasPacker <folder>...");
+            System.exit(2);
+        }
+        for (String arg : args) {
+            Path folder = Path.of(arg);
+            if (!Files.isRegularFile(folder.resolve(LIST))) {
+                System.err.println("No " + LIST + " in " + folder + ", skipped");
+                continue;
+            }
+            pack(folder);
+        }
+    }
+
+    /**
+     * Packs the textures listed in {@code folder/atlas.list} into the atlas next to it, unless it
+     * is up to date, and returns its index.
+     */
+    public static TextureAtlas pack(Path folder) throws IOException {
+        Path list = folder.resolve(LIST);
+        Path imageFile = folder.resolve(TextureAtlas.IMAGE);
+        Path indexFile = folder.resolve(TextureAtlas.INDEX);
+        Map<String, Integer> listed = readList(Files.readAllLines(list));
+        List<String> names = new ArrayList<>(listed.keySet());
+        List<Integer> frames = new ArrayList<>(listed.values());
+
+        if (upToDate(folder, names, list, imageFile, indexFile)) {
+            try (InputStream in = Files.newInputStream(indexFile)) {
+                return TextureAtlas.read(in);
+            }
+        }
+        List<BufferedImage> images = new ArrayList<>();
+        List<Entry> entries = new ArrayList<>();
+        long separateBytes = 0;
+        for (int i = 0; i < names.size(); i++) {
+            Path file = folder.resolve(names.get(i));
+            BufferedImage image = ImageIO.read(file.toFile());
+            if (image == null) {
+                throw new IllegalArgumentException("Not an image: " + file);
+            }
+            images.add(image);
+            entries.add(new Entry(names.get(i), image.getWidth(), image.getHeight(), frames.get(i)));
+            separateBytes += Files.size(file);
+        }
+        TextureAtlas atlas = layout(entries);
+
+        BufferedImage packed = new BufferedImage(atlas.getWidth(), atlas.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < entries.size(); i++) {
+            BufferedImage image = images.get(i);
+            TextureAtlas.Region region = atlas.get(entries.get(i).name());
+            int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+            packed.setRGB(region.x(), region.y(), region.width(), region.height(), pixels, 0, region.width());
+        }
+        ImageIO.write(packed, "png", imageFile.toFile());
+        try (OutputStream out = Files.newOutputStream(indexFile)) {
+            atlas.write(out);
+        }
+        System.out.printf("Packed %d textures (%,d bytes) into a %dx%d atlas (%,d bytes, %.0f%% used)%n",
+                entries.size(), separateBytes, atlas.getWidth(), atlas.getHeight(), Files.size(imageFile),
+                atlas.getFill() * 100);
+        return atlas;
+    }
+
+    /**
+     * Reads the lines of an {@code atlas.list}: each texture's path and its frames, 1 if none are given.
+     */
+    public static Map<String, Integer> readList(List<String> lines) {
+        Map<String, Integer> listed = new LinkedHashMap<>();
+        for (String line : lines) {
+            int comment = line.indexOf('#');
+            String[] fields = (comment >= 0 ? line.substring(0, comment) : line).trim().split("\\s+");
+            if (fields[0].isEmpty()) {
+                continue;
+            }
+            listed.put(fields[0], fields.length > 1 ? Integer.parseInt(fields[1]) : 1);
+        }
+        return listed;
+    }
+
+    private static boolean upToDate(Path folder, List<String> names, Path list, Path imageFile, Path indexFile) throws IOException {
+        if (!Files.exists(imageFile) || !Files.exists(indexFile)) {
+            return false;
+        }
+        FileTime built = Files.getLastModifiedTime(imageFile).compareTo(Files.getLastModifiedTime(indexFile)) < 0
+                ? Files.getLastModifiedTime(imageFile) : Files.getLastModifiedTime(indexFile);
+        if (Files.getLastModifiedTime(list).compareTo(built) > 0) {
+            return false;
+        }
+        for (String name : names) {
+            if (Files.getLastModifiedTime(folder.resolve(name)).compareTo(built) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Places the entries on shelves and returns where each went, without touching any pixels.
+     */
+    public static TextureAtlas layout(List<Entry> entries) {
+        int widest = 0;
+        long area = 0;
+        for (Entry entry : entries) {
+            if (entry.frames() < 1 || entry.width() / entry.frames() < 1) {
+                throw new IllegalArgumentException("Texture " + entry.name() + " is too narrow for " + entry.frames() + " frames");
+            }
+            widest = Math.max(widest, entry.width());
+            area += (long) (entry.width() + PADDING) * (entry.height() + PADDING);
+        }
+        int width = Math.max(powerOfTwo(widest), powerOfTwo((int) Math.ceil(Math.sqrt(area))));
+
+        List<Entry> order = new ArrayList<>(entries);
+        order.sort(Comparator.comparingInt(Entry::height).reversed().thenComparing(Entry::name));
+        List<TextureAtlas.Region> regions = new ArrayList<>();
+        int shelfTop = 0;
+        int shelfBottom = 0; // Lowest pixel row used by the current shelf, exclusive
+        int cursor = 0;
+        for (Entry entry : order) {
+            // A sheet's frames must line up with a grid of its frame size over the whole atlas
+            int alignX = entry.frames() > 1 ? entry.width() / entry.frames() : 1;
+            int alignY = entry.frames() > 1 ? entry.height() : 1;
+            int x = roundUp(cursor, alignX);
+            if (x + entry.width() > width) {
+                shelfTop = shelfBottom + PADDING;
+                cursor = 0;
+                x = 0;
+            }
+            int y = roundUp(shelfTop, alignY);
+            regions.add(new TextureAtlas.Region(entry.name(), x, y, entry.width(), entry.height(), entry.frames()));
+            cursor = x + entry.width() + PADDING;
+            shelfBottom = Math.max(shelfBottom, y + entry.height());
+        }
+        // Back in list order, so the index reads like the list
+        regions.sort(Comparator.comparingInt(region -> indexOf(entries, region.name())));
+        return new TextureAtlas(width, shelfBottom, regions);
+    }
+
+    private static int indexOf(List<Entry> entries, String name) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int roundUp(int value, int multiple) {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.ooptankgame.Render;
+
+import com.almasb.fxgl.texture.AnimationChannel;
+import com.almasb.fxgl.texture.Texture;
+import com.example.ooptankgame.Assets.GameAssets;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The AtlasTextures class hands out the game's textures from the {@link TextureAtlas} the build
+ * packed them into, so the game decodes one image instead of one per texture, and every view
+ * node shows a part of the same image, which the renderer keeps as one texture on the GPU.
+ *
+ * Key Responsibilities:
+ * - **Views**: {@link #texture} is an FXGL {@link Texture} of the whole atlas with its viewport
+ *   on the region, so it sizes and bounds like the texture it replaces.
+ * - **Animations**: {@link #channel} makes an {@link AnimationChannel} that cuts the frames of a
+ *   sheet from the atlas, which works since the packer put the sheet on its frame grid.
+ * - **Images**: {@link #image} is a copy of one region, for the canvas renderers, which turn
+ *   sprites into images of their own anyway. It is copied from the decoded atlas, not decoded again.
+ * - **Fallback**: When the build did not pack an atlas, for example when running from an IDE,
+ *   or with {@code --no-atlas}, the same methods hand out the separate textures, which
+ *   {@link GameAssets} preloaded.
+ *
+ * The atlas is loaded once, on the first {@link #get}, and shared by the whole game.
+ * {@code GameAssets} makes that first call on a loading thread.
+ */
+public final class AtlasTextures {
+
+    private static final String ROOT = "/assets/textures/";
+
+    private static AtlasTextures shared;
+    private static boolean loaded = false;
+    private static boolean enabled = true;
+
+    private final TextureAtlas index;
+    private final Image image;
+    private final long loadNanos;
+    private final Map<String, Image> images = new HashMap<>();
+
+    private AtlasTextures(TextureAtlas index, Image image, long loadNanos) {
+        this.index = index;
+        this.image = image;
+        this.loadNanos = loadNanos;
+    }
+
+    /**
+     * Returns the game's atlas, loading it on the first call, or {@code null} if the build packed
+     * none or it was turned off.
+     */
+    public static synchronized AtlasTextures get() {
+        if (!loaded) {
+            loaded = true;
+            shared = load();
+        }
+        return shared;
+    }
+
+    /**
+     * Turns the atlas off, or back on, before it is first used.
+     */
+    public static synchronized void setEnabled(boolean enabled) {
+        AtlasTextures.enabled = enabled;
+    }
+
+    /**
+     * Whether the build packed an atlas and it is not turned off, without loading it.
+     */
+    public static synchronized boolean isAvailable() {
+        return enabled && AtlasTextures.class.getResource(ROOT + TextureAtlas.INDEX) != null
+                && AtlasTextures.class.getResource(ROOT + TextureAtlas.IMAGE) != null;
+    }
+
+    private static AtlasTextures load() {
+        if (!isAvailable()) {
+            return null;
+        }
+        URL indexUrl = AtlasTextures.class.getResource(ROOT + TextureAtlas.INDEX);
+        URL imageUrl = AtlasTextures.class.getResource(ROOT + TextureAtlas.IMAGE);
+        long start = System.nanoTime();
+        TextureAtlas index;
+        try (InputStream in = indexUrl.openStream()) {
+            index = TextureAtlas.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read texture atlas index " + indexUrl, e);
+        }
+        Image image = new Image(imageUrl.toExternalForm());
+        if (image.isError()) {
+            throw new IllegalArgumentException("Failed to decode texture atlas " + imageUrl, image.getException());
+        }
+        return new AtlasTextures(index, image, System.nanoTime() - start);
+    }
+
+    /**
+     * A view of the texture {@code name}, e.g. {@code tanks/greenTank.png}, from the atlas if
+     * there is one and from its own file otherwise.
+     */
+    public static Texture texture(String name) {
+        AtlasTextures atlas = get();
+        return atlas != null ? atlas.newTexture(name) : new Texture(GameAssets.image(name));
+    }
+
+    /**
+     * The texture {@code name} as an image of its own, cut from the atlas if there is one.
+     */
+    public static Image image(String name) {
+        AtlasTextures atlas = get();
+        return atlas != null ? atlas.crop(name) : GameAssets.image(name);
+    }
+
+    /**
+     * An animation of the {@code frames} frames of the sheet {@code name}, played over {@code duration}.
+     */
+    public static AnimationChannel channel(String name, Duration duration, int frames) {
+        AtlasTextures atlas = get();
+        return atlas != null ? atlas.newChannel(name, duration, frames) : new AnimationChannel(GameAssets.image(name), duration, frames);
+    }
+
+    public Texture newTexture(String name) {
+        TextureAtlas.Region region = region(name);
+        Texture texture = new Texture(image);
+        texture.setViewport(new Rectangle2D(region.x(), region.y(), region.width(), region.height()));
+        return texture;
+    }
+
+    public Image crop(String name) {
+        return images.computeIfAbsent(name, key -> {
+            TextureAtlas.Region region = region(key);
+            return new WritableImage(image.getPixelReader(), region.x(), region.y(), region.width(), region.height());
+        });
+    }
+
+    public AnimationChannel newChannel(String name, Duration duration, int frames) {
+        TextureAtlas.Region region = region(name);
+        if (region.frames() != frames) {
+            throw new IllegalArgumentException("Animation " + name + " was packed with " + region.frames()
+                    + " frames, not " + frames);
+        }
+        int first = region.firstFrame(index.getWidth());
+        return new AnimationChannel(image, region.framesPerRow(index.getWidth()), region.frameWidth(), region.height(),
+                duration, first, first + frames - 1);
+    }
+
+    private TextureAtlas.Region region(String name) {
+        TextureAtlas.Region region = index.get(name);
+        if (region == null) {
+            throw new IllegalArgumentException("Texture " + name + " is not in the atlas");
+        }
+        return region;
+    }
+
+    public TextureAtlas getIndex() {
+        return index;
+    }
+
+    public Image getImage() {
+        return image;
+    }
+
+    /** Time it took to read the index and decode the atlas. */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ooptankgame.Render;
+
+import com.almasb.fxgl.app.scene.GameView;
+import com.almasb.fxgl.app.scene.Viewport;
+import com.almasb.fxgl.dsl.FXGL;
+import com.almasb.fxgl.entity.GameWorld;
+import com.example.ooptankgame.Components.SpriteComponent;
+import javafx.scene.canvas.Canvas;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The CanvasRenderer class draws the tanks, bullets, effects and health bars of a FXGL world onto
+ * one {@link Canvas}, for matches with more entities than the scene graph lays out in a frame.
+ *
+ * Key Responsibilities:
+ * - **Sprites**: Entities built for this renderer have no view nodes but a {@link SpriteComponent},
+ *   which joins the renderer on its first update and leaves it when the entity is removed.
+ * - **Drawing**: {@link #draw} redraws every visible sprite from its entity's state once per
+ *   frame through a {@link SpriteBatch}: tanks first, then their health bars, then bullets, then
+ *   effects, each group in the order it joined. Drawing the bars after all tanks rather than
+ *   after each keeps the batch on one image for longer. Parked pooled entities are hidden and skipped.
+ * - **Statistics**: Sprites drawn and culled in the last frame, for {@code --render-stats}.
+ *
+ * Like the {@code BulletLayer}, the renderer is per world and only exists after {@link #install};
+ * the factory checks {@link #of} and gives entities view nodes as before when it is {@code null}.
+ */
+public final class CanvasRenderer {
+
+    /** Draw order of the sprites, lowest first. */
+    public enum Layer {
+        TANKS, BULLETS, EFFECTS
+    }
+
+    private static final Map<GameWorld, CanvasRenderer> RENDERERS = Collections.synchronizedMap(new WeakHashMap<>());
+    // Below the bullet layer, above the level
+    private static final int Z_INDEX = 50;
+
+    private final SpriteBatch batch;
+    private final List<List<SpriteComponent>> layers = new ArrayList<>();
+
+    private CanvasRenderer() {
+        this.batch = new SpriteBatch(new Canvas(FXGL.getAppWidth(), FXGL.getAppHeight()));
+        for (int i = 0; i < Layer.values().length; i++) {
+            layers.add(new ArrayList<>());
+        }
+        FXGL.getGameScene().addGameView(new GameView(batch.getCanvas(), Z_INDEX));
+    }
+
+    /**
+     * Creates the renderer of the given world and adds its canvas to the game scene.
+     */
+    public static CanvasRenderer install(GameWorld world) {
+        CanvasRenderer renderer = new CanvasRenderer();
+        RENDERERS.put(world, renderer);
+        return renderer;
+    }
+
+    /**
+     * Returns the renderer of the given world, or {@code null} if none was installed.
+     */
+    public static CanvasRenderer of(GameWorld world) {
+        return RENDERERS.get(world);
+    }
+
+    public void add(SpriteComponent sprite) {
+        layers.get(sprite.getLayer().ordinal()).add(sprite);
+    }
+
+    public void remove(SpriteComponent sprite) {
+        layers.get(sprite.getLayer().ordinal()).remove(sprite);
+    }
+
+    /**
+     * Redraws all sprites at the current viewport.
+     */
+    public void draw() {
+        Viewport viewport = FXGL.getGameScene().getViewport();
+        batch.begin(viewport.getX(), viewport.getY());
+        for (int layer = 0; layer < layers.size(); layer++) {
+            List<SpriteComponent> sprites = layers.get(layer);
+            for (int i = 0; i < sprites.size(); i++) {
+                sprites.get(i).draw(batch);
+            }
+            if (layer == Layer.TANKS.ordinal()) {
+                for (int i = 0; i < sprites.size(); i++) {
+                    sprites.get(i).drawBar(batch);
+                }
+            }
+        }
+    }
+
+    /** Sprites in the renderer, visible or not. */
+    public int getSpriteCount() {
+        int count = 0;
+        for (List<SpriteComponent> sprites : layers) {
+            count += sprites.size();
+        }
+        return count;
+    }
+
+    public SpriteBatch getBatch() {
+        return batch;
+    }
+}
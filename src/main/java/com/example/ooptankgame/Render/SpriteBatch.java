@@ -0,0 +1,218 @@
+package com.example.ooptankgame.Render;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The SpriteBatch class draws many sprites onto one {@link Canvas} per frame, in place of an
+ * image node per sprite in the scene graph.
+ *
+ * Key Responsibilities:
+ * - **Turned Sprites**: A sprite turned by a quarter is drawn from a copy turned once up front
+ *   and kept per image, so drawing is a plain image copy with no transform on the canvas.
+ * - **Culling**: The canvas is the size of the window and follows the viewport, {@link #begin}
+ *   takes the viewport's position. Sprites out of view are skipped and counted.
+ * - **Health Bars**: {@link #bar} returns the picture of a bar at a given value, drawn once
+ *   and kept, so a bar is only painted again when the health it shows changes and every other
+ *   frame it is an image copy like the sprites.
+ * - **Animation Frames**: {@link #drawRegion} draws one frame of a sprite sheet.
+ * - **Image Switches**: Counts how often a drawing uses another image than the one before, each
+ *   of which makes the renderer bind another texture.
+ *
+ * Plain JavaFX, it knows nothing about entities: {@link CanvasRenderer} feeds it a FXGL world
+ * and {@code RenderBenchmark} feeds it plain arrays. Not thread-safe, it draws on the JavaFX
+ * application thread.
+ */
+public final class SpriteBatch {
+
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+    // Each image turned by 0 to 3 quarters clockwise, made on first use
+    private final Map<Image, Image[]> turned = new IdentityHashMap<>();
+    private final Map<Long, Image> bars = new HashMap<>();
+    private double left;
+    private double top;
+    private int drawn;
+    private int culled;
+    private int switches;
+    private Image lastImage;
+
+    public SpriteBatch(Canvas canvas) {
+        this.canvas = canvas;
+        this.graphics = canvas.getGraphicsContext2D();
+        graphics.setImageSmoothing(false);
+    }
+
+    /**
+     * Starts a frame: moves the canvas to the viewport at {@code left}, {@code top} and clears it.
+     */
+    public void begin(double left, double top) {
+        this.left = left;
+        this.top = top;
+        canvas.setTranslateX(left);
+        canvas.setTranslateY(top);
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        drawn = 0;
+        culled = 0;
+        switches = 0;
+        lastImage = null;
+    }
+
+    /**
+     * Draws {@code image} turned clockwise by {@code quarterTurns} quarters and scaled by
+     * {@code scale}, centered on the world position {@code centerX}, {@code centerY}.
+     */
+    public void draw(Image image, int quarterTurns, double centerX, double centerY, double scale) {
+        Image sprite = turn(image, quarterTurns);
+        double w = sprite.getWidth() * scale;
+        double h = sprite.getHeight() * scale;
+        double x = centerX - w / 2 - left;
+        double y = centerY - h / 2 - top;
+        if (outOfView(x, y, w, h)) {
+            return;
+        }
+        graphics.drawImage(sprite, x, y, w, h);
+        drawn(sprite);
+    }
+
+    /**
+     * Draws the region {@code sx}, {@code sy}, {@code sw}, {@code sh} of {@code sheet}, one frame of
+     * an animation, scaled by {@code scale} and centered on the world position {@code centerX},
+     * {@code centerY}.
+     */
+    public void drawRegion(Image sheet, double sx, double sy, double sw, double sh,
+                           double centerX, double centerY, double scale) {
+        double w = sw * scale;
+        double h = sh * scale;
+        double x = centerX - w / 2 - left;
+        double y = centerY - h / 2 - top;
+        if (outOfView(x, y, w, h)) {
+            return;
+        }
+        graphics.drawImage(sheet, sx, sy, sw, sh, x, y, w, h);
+        drawn(sheet);
+    }
+
+    /**
+     * Draws a bar made by {@link #bar} with its top left corner at the world position {@code x}, {@code y}.
+     */
+    public void drawBar(Image bar, double x, double y) {
+        if (outOfView(x - left, y - top, bar.getWidth(), bar.getHeight())) {
+            return;
+        }
+        graphics.drawImage(bar, x - left, y - top);
+        drawn(bar);
+    }
+
+    private void drawn(Image image) {
+        drawn++;
+        if (image != lastImage) {
+            switches++;
+            lastImage = image;
+        }
+    }
+
+    private boolean outOfView(double x, double y, double w, double h) {
+        if (x + w < 0 || y + h < 0 || x > canvas.getWidth() || y > canvas.getHeight()) {
+            culled++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the picture of a {@code width} x {@code height} health bar filled with {@code fill} to
+     * {@code value} of {@code max}, painted the first time it is asked for.
+     */
+    public Image bar(Color fill, int value, int max, int width, int height) {
+        long key = ((long) fill.hashCode() << 32) ^ ((long) value << 24) ^ ((long) max << 16) ^ ((long) width << 8) ^ height;
+        Image bar = bars.get(key);
+        if (bar == null) {
+            bar = paintBar(fill, value, max, width, height);
+            bars.put(key, bar);
+        }
+        return bar;
+    }
+
+    private static Image paintBar(Color fill, int value, int max, int width, int height) {
+        WritableImage bar = new WritableImage(width, height);
+        PixelWriter writer = bar.getPixelWriter();
+        int filled = max <= 0 ? 0 : (int) Math.round((width - 2) * Math.max(0, Math.min(value, max)) / (double) max);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean border = x == 0 || y == 0 || x == width - 1 || y == height - 1;
+                Color color = border ? Color.BLACK : x - 1 < filled ? fill : Color.rgb(64, 64, 64);
+                writer.setColor(x, y, color);
+            }
+        }
+        return bar;
+    }
+
+    private Image turn(Image image, int quarterTurns) {
+        int quarter = Math.floorMod(quarterTurns, 4);
+        if (quarter == 0) {
+            return image;
+        }
+        Image[] turns = turned.computeIfAbsent(image, original -> {
+            Image[] all = new Image[4];
+            all[0] = original;
+            for (int i = 1; i < 4; i++) {
+                all[i] = rotateClockwise(all[i - 1]);
+            }
+            return all;
+        });
+        return turns[quarter];
+    }
+
+    /**
+     * Returns a copy of {@code image} turned a quarter clockwise.
+     */
+    public static Image rotateClockwise(Image image) {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        PixelReader reader = image.getPixelReader();
+        WritableImage rotated = new WritableImage(height, width);
+        PixelWriter writer = rotated.getPixelWriter();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                writer.setArgb(height - 1 - y, x, reader.getArgb(x, y));
+            }
+        }
+        return rotated;
+    }
+
+    /**
+     * Quarter turns clockwise of an entity rotated by {@code degrees}, rounded to the nearest.
+     */
+    public static int quarterTurns(double degrees) {
+        return Math.floorMod((int) Math.round(degrees / 90), 4);
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /** Sprites and bars drawn since the last {@link #begin}. */
+    public int getDrawn() {
+        return drawn;
+    }
+
+    /** Sprites and bars skipped as out of view since the last {@link #begin}. */
+    public int getCulled() {
+        return culled;
+    }
+
+    /** Drawings since the last {@link #begin} that used another image than the drawing before. */
+    public int getSwitches() {
+        return switches;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.ooptankgame.Render;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The region index of the texture atlas {@link AtlasPacker} makes at build time: where each
+ * texture the game used to load on its own sits in the one atlas image.
+ *
+ * Regions are named by the texture path under {@code assets/textures}, e.g.
+ * {@code tanks/greenTank.png}, so code can ask for a texture by the name it always used. An
+ * animation sheet's region also has its frame count, and is placed on a multiple of its frame
+ * size, so its frames are cells of a grid over the whole atlas (see {@link Region#firstFrame}).
+ *
+ * The index file ({@code atlas.tatl}) is big-endian:
+ * <pre>
+ * header:  "TATL"  magic
+ *          i32     format version
+ *          i32 x 2 atlas width and height in pixels
+ * regions: i32     count, then per region: modified UTF-8 name, i32 x 5 x, y, width, height, frames
+ * </pre>
+ *
+ * Plain Java, shared by the build step and by {@link AtlasTextures}, which loads it in the game.
+ */
+public final class TextureAtlas {
+
+    /** Atlas image and index, under {@code assets/textures}. */
+    public static final String IMAGE = "atlas.png";
+    public static final String INDEX = "atlas.tatl";
+
+    static final int MAGIC = ('T' << 24) | ('A' << 16) | ('T' << 8) | 'L';
+    static final int VERSION = 1;
+
+    /**
+     * One texture in the atlas. {@code frames} is 1 for a single image.
+     */
+    public record Region(String name, int x, int y, int width, int height, int frames) {
+
+        /** Width of one animation frame, the sheet's width divided by its frames as FXGL does. */
+        public int frameWidth() {
+            return width / frames;
+        }
+
+        /** Frames per row of the atlas seen as a grid of this region's frames. */
+        public int framesPerRow(int atlasWidth) {
+            return atlasWidth / frameWidth();
+        }
+
+        /** Index of the region's first frame in that grid, its frames follow in the same row. */
+        public int firstFrame(int atlasWidth) {
+            return (y / height) * framesPerRow(atlasWidth) + x / frameWidth();
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final Map<String, Region> regions = new LinkedHashMap<>();
+
+    public TextureAtlas(int width, int height, List<Region> regions) {
+        this.width = width;
+        this.height = height;
+        for (Region region : regions) {
+            if (region.x() < 0 || region.y() < 0 || region.x() + region.width() > width || region.y() + region.height() > height) {
+                throw new IllegalArgumentException("Region " + region.name() + " is outside the " + width + "x" + height + " atlas");
+            }
+            if (region.frames() > 1 && (region.x() % region.frameWidth() != 0 || region.y() % region.height() != 0)) {
+                throw new IllegalArgumentException("Animation " + region.name() + " is not on its frame grid");
+            }
+            if (this.regions.put(region.name(), region) != null) {
+                throw new IllegalArgumentException("Region " + region.name() + " appears twice");
+            }
+        }
+    }
+
+    public static TextureAtlas read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a texture atlas index");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported texture atlas version " + version);
+        }
+        int width = in.readInt();
+        int height = in.readInt();
+        int count = in.readInt();
+        Region[] regions = new Region[count];
+        for (int i = 0; i < count; i++) {
+            regions[i] = new Region(in.readUTF(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        }
+        return new TextureAtlas(width, height, List.of(regions));
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(regions.size());
+        for (Region region : regions.values()) {
+            out.writeUTF(region.name());
+            out.writeInt(region.x());
+            out.writeInt(region.y());
+            out.writeInt(region.width());
+            out.writeInt(region.height());
+            out.writeInt(region.frames());
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns the region of a texture, or {@code null} if it is not in the atlas.
+     */
+    public Region get(String name) {
+        return regions.get(name);
+    }
+
+    public Map<String, Region> getRegions() {
+        return Collections.unmodifiableMap(regions);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /** Share of the atlas covered by regions, 0 to 1. */
+    public double getFill() {
+        long used = 0;
+        for (Region region : regions.values()) {
+            used += (long) region.width() * region.height();
+        }
+        return used / ((double) width * height);
+    }
+}
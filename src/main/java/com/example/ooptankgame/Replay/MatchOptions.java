@@ -0,0 +1,62 @@
+package com.example.ooptankgame.Replay;
+
+import java.nio.file.Path;
+
+/**
+ * Launch options of a deterministic match: the seed every random decision derives from, the
+ * fixed tick rate, and where to record a replay to or play one back from.
+ *
+ * Without any of the options the game runs as it always has: variable timestep and a fresh
+ * seed. Passing a seed, or recording or replaying, switches to a fixed timestep so the same
+ * seed and the same input play the same match.
+ *
+ * @param seed seed for the entity factory's random generators
+ * @param ticksPerSecond fixed update rate, 0 for the variable frame timestep
+ * @param recordTo replay file to write, or {@code null}
+ * @param replayFrom replay file to play back instead of the keyboard, or {@code null}
+ */
+public record MatchOptions(long seed, int ticksPerSecond, Path recordTo, Path replayFrom) {
+
+    public static final int DEFAULT_TICKS_PER_SECOND = 60;
+
+    public static MatchOptions defaults() {
+        return new MatchOptions(System.nanoTime(), 0, null, null);
+    }
+
+    public boolean isDeterministic() {
+        return ticksPerSecond > 0;
+    }
+
+    /**
+     * Seconds per tick in deterministic mode, or 0 when the frame's own tpf is used.
+     */
+    public double fixedTimestep() {
+        return isDeterministic() ? 1.0 / ticksPerSecond : 0;
+    }
+
+    /**
+     * Reads {@code --seed <long>}, {@code --hz <ticks>}, {@code --record <file>} and
+     * {@code --replay <file>}. Other arguments are left for the caller.
+     */
+    public static MatchOptions parse(String[] args) {
+        Long seed = null;
+        int ticksPerSecond = 0;
+        Path recordTo = null;
+        Path replayFrom = null;
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--hz" -> ticksPerSecond = Integer.parseInt(args[++i]);
+                case "--record" -> recordTo = Path.of(args[++i]);
+                case "--replay" -> replayFrom = Path.of(args[++i]);
+                default -> {
+                }
+            }
+        }
+        boolean deterministic = seed != null || recordTo != null || replayFrom != null || ticksPerSecond > 0;
+        if (deterministic && ticksPerSecond <= 0) {
+            ticksPerSecond = DEFAULT_TICKS_PER_SECOND;
+        }
+        return new MatchOptions(seed != null ? seed : System.nanoTime(), ticksPerSecond, recordTo, replayFrom);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ooptankgame.Replay;
+
+/**
+ * Layout of a replay file, shared by {@link ReplayWriter} and {@link ReplayReader}.
+ *
+ * <pre>
+ * header:  "TNKR"  magic
+ *          u8      format version
+ *          i64     match seed
+ *          i32     ticks per second of the fixed timestep
+ *          utf     map name, as passed to setLevelFromMap
+ * body:    runs of (u8 input, varint count), one run per change of the held input
+ * footer:  u8      END marker (0xFF, never a valid input)
+ *          varint  total number of ticks
+ * </pre>
+ *
+ * Inputs are the {@code PlayerInput} flags of one tick. Players hold the same keys for many
+ * ticks in a row, so run-length encoding brings a match down to a few bytes per second.
+ */
+final class ReplayFormat {
+
+    static final int MAGIC = ('T' << 24) | ('N' << 16) | ('K' << 8) | 'R';
+    static final int VERSION = 1;
+    static final int END = 0xFF;
+
+    private ReplayFormat() {
+    }
+}
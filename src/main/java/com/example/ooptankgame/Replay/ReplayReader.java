@@ -0,0 +1,129 @@
+package com.example.ooptankgame.Replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads a replay file written by {@link ReplayWriter} back one tick at a time. Like the
+ * writer it streams from disk and only holds the current run in memory.
+ *
+ * Once the recorded ticks are used up {@link #nextInput()} keeps returning 0, no input, so a
+ * replay that ends before the match does simply lets the player stand still.
+ */
+public final class ReplayReader implements Closeable {
+
+    private final DataInputStream in;
+    private final long seed;
+    private final int ticksPerSecond;
+    private final String mapName;
+    private int runInput = 0;
+    private long runRemaining = 0;
+    private long ticksRead = 0;
+    private long totalTicks = -1;
+
+    public ReplayReader(Path file) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 4096));
+        try {
+            if (in.readInt() != ReplayFormat.MAGIC) {
+                throw new IOException("Not a replay file: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != ReplayFormat.VERSION) {
+                throw new IOException("Unsupported replay version " + version + " in " + file);
+            }
+            seed = in.readLong();
+            ticksPerSecond = in.readInt();
+            mapName = in.readUTF();
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public String getMapName() {
+        return mapName;
+    }
+
+    /**
+     * Returns {@code true} while there are recorded ticks left.
+     */
+    public boolean hasNext() {
+        ensureRun();
+        return runRemaining > 0;
+    }
+
+    /**
+     * Returns the input of the next tick, or 0 once the recording has ended.
+     */
+    public int nextInput() {
+        ensureRun();
+        if (runRemaining == 0) {
+            return 0;
+        }
+        runRemaining--;
+        ticksRead++;
+        return runInput;
+    }
+
+    /**
+     * Total number of ticks in the recording, known once the end of the file was reached, -1 before.
+     */
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public long getTicksRead() {
+        return ticksRead;
+    }
+
+    private void ensureRun() {
+        if (runRemaining > 0 || totalTicks >= 0) {
+            return;
+        }
+        try {
+            int input = in.readUnsignedByte();
+            if (input == ReplayFormat.END) {
+                totalTicks = readVarLong(in);
+                return;
+            }
+            runInput = input;
+            runRemaining = readVarLong(in);
+        } catch (EOFException e) {
+            // Recording was cut off, e.g. the game was killed, play what we have
+            totalTicks = ticksRead;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read replay", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ooptankgame.Replay;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams the player's input of a match to a replay file, one call to {@link #record} per tick.
+ *
+ * Only the current run of identical inputs is held in memory; a run is written out as soon as
+ * the input changes, and the file buffer is small, so memory use stays flat however long the
+ * match lasts. See {@link ReplayFormat} for the layout.
+ */
+public final class ReplayWriter implements Closeable {
+
+    private final DataOutputStream out;
+    private int runInput = -1;
+    private long runLength = 0;
+    private long ticks = 0;
+    private boolean closed = false;
+
+    public ReplayWriter(Path file, long seed, int ticksPerSecond, String mapName) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 4096));
+        out.writeInt(ReplayFormat.MAGIC);
+        out.writeByte(ReplayFormat.VERSION);
+        out.writeLong(seed);
+        out.writeInt(ticksPerSecond);
+        out.writeUTF(mapName);
+    }
+
+    /**
+     * Records the {@code PlayerInput} flags held during one tick.
+     */
+    public void record(int input) {
+        if (closed) {
+            return;
+        }
+        if (input < 0 || input >= ReplayFormat.END) {
+            throw new IllegalArgumentException("Not a valid input: " + input);
+        }
+        ticks++;
+        if (input == runInput) {
+            runLength++;
+            return;
+        }
+        try {
+            flushRun();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write replay", e);
+        }
+        runInput = input;
+        runLength = 1;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    private void flushRun() throws IOException {
+        if (runLength > 0) {
+            out.writeByte(runInput);
+            writeVarLong(out, runLength);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushRun();
+            out.writeByte(ReplayFormat.END);
+            writeVarLong(out, ticks);
+        } finally {
+            out.close();
+        }
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.Level.LevelReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line entry point for playing a batch of headless matches on all cores.
+ *
+ * <pre>
+ * java -cp OOPTankGame.jar com.example.ooptankgame.Simulation.BatchMain [options]
+ *   --matches &lt;n&gt;            number of matches, default 1000
+ *   --seed &lt;long&gt;             batch seed, match i is seeded with seed + i, default 1
+ *   --threads &lt;n&gt;            worker threads, default all available processors
+ *   --map &lt;name&gt;              TMX map under assets/levels
+ *   --ticks &lt;n&gt;              tick limit per match, default 10 minutes at 60 Hz
+ *   --out &lt;file&gt;             also write the statistics as JSON to this file
+ *   --turn-from-up &lt;0-999&gt;   enemy turn threshold when heading up, default 880
+ *   --turn &lt;0-999&gt;           enemy turn threshold, default 980
+ *   --shoot &lt;0-999&gt;          enemy shoot threshold, default 980
+ *   --shoot-interval &lt;s&gt;     enemy shot cool-down in seconds, default 0.35
+ *   --blind-fire               enemies fire without checking that the shot can reach the player
+ * </pre>
+ */
+public final class BatchMain {
+
+    private BatchMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int matches = 1000;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String mapName = HeadlessSimulation.DEFAULT_MAP;
+        long maxTicks = 60 * 60 * 10;
+        Path out = null;
+        EnemyBrain.Settings defaults = EnemyBrain.Settings.DEFAULTS;
+        int turnFromUp = defaults.turnFromUpThreshold();
+        int turn = defaults.turnThreshold();
+        int shoot = defaults.shootThreshold();
+        double shootInterval = defaults.shootInterval();
+        boolean blindFire = Arrays.asList(args).contains("--blind-fire");
+        args = Arrays.stream(args).filter(arg -> !arg.equals("--blind-fire")).toArray(String[]::new);
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--matches" -> matches = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--map" -> mapName = value;
+                case "--ticks" -> maxTicks = Long.parseLong(value);
+                case "--out" -> out = Path.of(value);
+                case "--turn-from-up" -> turnFromUp = Integer.parseInt(value);
+                case "--turn" -> turn = Integer.parseInt(value);
+                case "--shoot" -> shoot = Integer.parseInt(value);
+                case "--shoot-interval" -> shootInterval = Double.parseDouble(value);
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        if (args.length % 2 != 0) {
+            System.err.println("Missing value for " + args[args.length - 1]);
+            System.exit(2);
+        }
+
+        EnemyBrain.Settings settings = new EnemyBrain.Settings(turnFromUp, turn, shoot,
+                defaults.blockedShootChance(), defaults.blockedTurnChance(), shootInterval);
+        BatchRunner runner = new BatchRunner(LevelReader.load(mapName), HeadlessSimulation.DEFAULT_TIMESTEP, maxTicks, settings,
+                !blindFire);
+
+        long start = System.nanoTime();
+        List<MatchResult> results = runner.run(matches, seed, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long ticks = 0;
+        for (MatchResult result : results) {
+            ticks += result.ticks();
+        }
+        BatchStatistics statistics = new BatchStatistics(results);
+        System.out.print(statistics);
+        System.out.printf("Played %d matches (%d ticks) on %d threads in %.2fs: %.0f matches/s, %.0f ticks/s%n",
+                matches, ticks, threads, seconds, matches / seconds, ticks / seconds);
+        if (out != null) {
+            Files.writeString(out, statistics.toJson());
+            System.out.println("Wrote " + out.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * The BatchRunner class plays many independent headless matches in parallel on a fork-join
+ * pool, for tuning the enemy AI against a large number of outcomes.
+ *
+ * Every match gets its own {@link HeadlessSimulation} and {@link PlayerBot}, seeded from the
+ * batch seed and the match index, so a batch is reproducible no matter how many threads run
+ * it or in which order the matches finish. The only thing the matches share is the parsed
+ * {@link TmxMap}, which is never modified. Nothing goes through FXGL's global vars, so there
+ * is no contention between workers and throughput scales with the number of cores.
+ */
+public final class BatchRunner {
+
+    private final TmxMap map;
+    private final double timestep;
+    private final long maxTicks;
+    private final EnemyBrain.Settings enemySettings;
+    private final boolean lineOfSight;
+
+    public BatchRunner(TmxMap map, double timestep, long maxTicks, EnemyBrain.Settings enemySettings) {
+        this(map, timestep, maxTicks, enemySettings, true);
+    }
+
+    /**
+     * @param lineOfSight whether enemies only fire at a player in sight, see {@link HeadlessSimulation#setLineOfSight}
+     */
+    public BatchRunner(TmxMap map, double timestep, long maxTicks, EnemyBrain.Settings enemySettings, boolean lineOfSight) {
+        this.map = map;
+        this.timestep = timestep;
+        this.maxTicks = maxTicks;
+        this.enemySettings = enemySettings;
+        this.lineOfSight = lineOfSight;
+    }
+
+    /**
+     * Seed of match {@code index} in a batch started with {@code batchSeed}.
+     */
+    public static long matchSeed(long batchSeed, int index) {
+        return batchSeed + index;
+    }
+
+    /**
+     * Plays a single match, the same one {@link #run} plays at this index.
+     */
+    public MatchResult play(long batchSeed, int index) {
+        long seed = matchSeed(batchSeed, index);
+        HeadlessSimulation simulation = new HeadlessSimulation(map, timestep, seed, new PlayerBot(seed), enemySettings);
+        simulation.setLineOfSight(lineOfSight);
+        return simulation.run(maxTicks);
+    }
+
+    /**
+     * Plays {@code matches} matches on {@code threads} worker threads and returns the results in
+     * match order.
+     */
+    public List<MatchResult> run(int matches, long batchSeed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            // A parallel stream started from inside the pool runs its tasks on that pool
+            return pool.submit(() -> IntStream.range(0, matches)
+                    .parallel()
+                    .mapToObj(index -> play(batchSeed, index))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A match failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
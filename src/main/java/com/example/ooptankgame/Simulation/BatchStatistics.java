@@ -0,0 +1,136 @@
+package com.example.ooptankgame.Simulation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregated outcome of a batch of matches: win rate, match length, shots fired and the
+ * score distribution, printable as text or JSON.
+ */
+public final class BatchStatistics {
+
+    private final int matches;
+    private final int wins;
+    private final int losses;
+    private final int timeouts;
+    private final double[] seconds;
+    private final double meanPlayerShots;
+    private final double meanEnemyShots;
+    private final double meanScore;
+    private final double meanLivesLeft;
+    private final Map<Integer, Integer> scoreCounts = new TreeMap<>();
+
+    public BatchStatistics(List<MatchResult> results) {
+        matches = results.size();
+        seconds = new double[matches];
+        int won = 0;
+        int lost = 0;
+        long playerShots = 0;
+        long enemyShots = 0;
+        long scores = 0;
+        long lives = 0;
+        for (int i = 0; i < matches; i++) {
+            MatchResult result = results.get(i);
+            switch (result.outcome()) {
+                case WIN -> won++;
+                case LOSS -> lost++;
+                default -> {
+                }
+            }
+            seconds[i] = result.seconds();
+            playerShots += result.playerShots();
+            enemyShots += result.enemyShots();
+            scores += result.score();
+            lives += result.lives();
+            scoreCounts.merge(result.score(), 1, Integer::sum);
+        }
+        Arrays.sort(seconds);
+        wins = won;
+        losses = lost;
+        timeouts = matches - won - lost;
+        meanPlayerShots = mean(playerShots);
+        meanEnemyShots = mean(enemyShots);
+        meanScore = mean(scores);
+        meanLivesLeft = mean(lives);
+    }
+
+    private double mean(long total) {
+        return matches == 0 ? 0 : (double) total / matches;
+    }
+
+    public int getMatches() {
+        return matches;
+    }
+
+    public double getWinRate() {
+        return matches == 0 ? 0 : (double) wins / matches;
+    }
+
+    /**
+     * Match length in simulated seconds at the given percentile, 0 to 100.
+     */
+    public double getLengthPercentile(double percentile) {
+        if (matches == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * matches) - 1;
+        return seconds[Math.max(0, Math.min(matches - 1, index))];
+    }
+
+    public double getMeanLength() {
+        double total = 0;
+        for (double s : seconds) {
+            total += s;
+        }
+        return matches == 0 ? 0 : total / matches;
+    }
+
+    /**
+     * Number of matches that ended with each score, in ascending score order.
+     */
+    public Map<Integer, Integer> getScoreCounts() {
+        return scoreCounts;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Matches:      %d (%d won, %d lost, %d timed out)%n", matches, wins, losses, timeouts));
+        text.append(String.format("Win rate:     %.1f%%%n", getWinRate() * 100));
+        text.append(String.format("Match length: mean %.1fs, p50 %.1fs, p90 %.1fs, max %.1fs%n",
+                getMeanLength(), getLengthPercentile(50), getLengthPercentile(90), getLengthPercentile(100)));
+        text.append(String.format("Shots fired:  %.1f by the player, %.1f by the enemies per match%n", meanPlayerShots, meanEnemyShots));
+        text.append(String.format("Score:        mean %.1f, lives left mean %.2f%n", meanScore, meanLivesLeft));
+        text.append("Score distribution:").append(System.lineSeparator());
+        scoreCounts.forEach((score, count) ->
+                text.append(String.format("  %4d: %6d (%.1f%%)%n", score, count, 100.0 * count / matches)));
+        return text.toString();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"matches\": ").append(matches).append(",\n");
+        json.append("  \"wins\": ").append(wins).append(",\n");
+        json.append("  \"losses\": ").append(losses).append(",\n");
+        json.append("  \"timeouts\": ").append(timeouts).append(",\n");
+        json.append("  \"winRate\": ").append(getWinRate()).append(",\n");
+        json.append("  \"lengthSeconds\": {\"mean\": ").append(getMeanLength())
+                .append(", \"p50\": ").append(getLengthPercentile(50))
+                .append(", \"p90\": ").append(getLengthPercentile(90))
+                .append(", \"max\": ").append(getLengthPercentile(100)).append("},\n");
+        json.append("  \"meanPlayerShots\": ").append(meanPlayerShots).append(",\n");
+        json.append("  \"meanEnemyShots\": ").append(meanEnemyShots).append(",\n");
+        json.append("  \"meanScore\": ").append(meanScore).append(",\n");
+        json.append("  \"meanLivesLeft\": ").append(meanLivesLeft).append(",\n");
+        json.append("  \"scoreDistribution\": {");
+        boolean first = true;
+        for (Map.Entry<Integer, Integer> entry : scoreCounts.entrySet()) {
+            json.append(first ? "" : ", ").append('"').append(entry.getKey()).append("\": ").append(entry.getValue());
+            first = false;
+        }
+        json.append("}\n}\n");
+        return json.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Replay.ReplayReader;
+import com.example.ooptankgame.Replay.ReplayWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Command line entry point for running matches without a display.
+ *
+ * <pre>
+ * java -cp OOPTankGame.jar com.example.ooptankgame.Simulation.HeadlessMain [options]
+ *   --map &lt;name&gt;      TMX map under assets/levels, default tmx/tankgamemapnewwalls.tmx
+ *   --seed &lt;long&gt;     seed of the first match, default 1
+ *   --matches &lt;n&gt;    number of matches to play one after another, default 1
+ *   --ticks &lt;n&gt;      tick limit per match, default 10 minutes of game time
+ *   --hz &lt;n&gt;         simulation rate, default 60 ticks per simulated second
+ *   --record &lt;file&gt;  record the player's input of the (single) match to a replay file
+ *   --replay &lt;file&gt;  play a recorded match back, seed, rate and map come from the file
+ *   --blind-fire      enemies fire without checking that the shot can reach the player
+ * </pre>
+ *
+ * Prints the result of every match, a hash of its final state and the overall simulation
+ * speed. Replaying a recording prints the same result and hash as the recorded run.
+ */
+public final class HeadlessMain {
+
+    private HeadlessMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String mapName = HeadlessSimulation.DEFAULT_MAP;
+        long seed = 1;
+        int matches = 1;
+        double hz = 60;
+        long maxTicks = -1;
+        Path recordTo = null;
+        Path replayFrom = null;
+        boolean blindFire = Arrays.asList(args).contains("--blind-fire");
+        args = Arrays.stream(args).filter(arg -> !arg.equals("--blind-fire")).toArray(String[]::new);
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--map" -> mapName = require(args[i], value);
+                case "--seed" -> seed = Long.parseLong(require(args[i], value));
+                case "--matches" -> matches = Integer.parseInt(require(args[i], value));
+                case "--ticks" -> maxTicks = Long.parseLong(require(args[i], value));
+                case "--hz" -> hz = Double.parseDouble(require(args[i], value));
+                case "--record" -> recordTo = Path.of(require(args[i], value));
+                case "--replay" -> replayFrom = Path.of(require(args[i], value));
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+            i++;
+        }
+        if (replayFrom != null) {
+            replay(replayFrom, maxTicks, blindFire);
+            return;
+        }
+        if (maxTicks < 0) {
+            maxTicks = Math.round(hz * 60 * 10);
+        }
+        if (recordTo != null) {
+            record(recordTo, mapName, seed, (int) hz, maxTicks, blindFire);
+            return;
+        }
+
+        TmxMap map = LevelReader.load(mapName);
+        long totalTicks = 0;
+        long start = System.nanoTime();
+        for (int match = 0; match < matches; match++) {
+            long matchSeed = seed + match;
+            HeadlessSimulation simulation = new HeadlessSimulation(map, 1.0 / hz, matchSeed, new PlayerBot(matchSeed));
+            simulation.setLineOfSight(!blindFire);
+            MatchResult result = simulation.run(maxTicks);
+            totalTicks += result.ticks();
+            System.out.println("Match " + (match + 1) + " (seed " + matchSeed + "): " + result
+                    + String.format(", state %016x", simulation.stateHash()));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Simulated %d ticks in %.2fs: %.0f ticks/s%n", totalTicks, seconds, totalTicks / seconds);
+    }
+
+    private static void record(Path file, String mapName, long seed, int hz, long maxTicks, boolean blindFire)
+            throws IOException {
+        HeadlessSimulation simulation;
+        try (ReplayWriter writer = new ReplayWriter(file, seed, hz, mapName)) {
+            PlayerController controller = new RecordingController(new PlayerBot(seed), writer);
+            simulation = new HeadlessSimulation(LevelReader.load(mapName), 1.0 / hz, seed, controller);
+            simulation.setLineOfSight(!blindFire);
+            simulation.run(maxTicks);
+        }
+        System.out.println("Recorded (seed " + seed + "): " + simulation.result()
+                + String.format(", state %016x", simulation.stateHash()));
+        System.out.printf("Wrote %s, %d bytes for %d ticks%n", file, Files.size(file), simulation.getTick());
+    }
+
+    private static void replay(Path file, long maxTicks, boolean blindFire) throws IOException {
+        try (ReplayReader reader = new ReplayReader(file)) {
+            int hz = reader.getTicksPerSecond();
+            HeadlessSimulation simulation = new HeadlessSimulation(LevelReader.load(reader.getMapName()), 1.0 / hz,
+                    reader.getSeed(), new ReplayController(reader));
+            simulation.setLineOfSight(!blindFire);
+            long start = System.nanoTime();
+            simulation.run(maxTicks < 0 ? Long.MAX_VALUE : maxTicks);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println("Replayed (seed " + reader.getSeed() + "): " + simulation.result()
+                    + String.format(", state %016x", simulation.stateHash()));
+            System.out.printf("Simulated %d ticks in %.3fs: %.0f ticks/s%n",
+                    simulation.getTick(), seconds, simulation.getTick() / seconds);
+        }
+    }
+
+    private static String require(String option, String value) {
+        if (value == null) {
+            System.err.println("Missing value for " + option);
+            System.exit(2);
+        }
+        return value;
+    }
+}
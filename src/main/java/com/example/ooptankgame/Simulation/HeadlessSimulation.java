@@ -0,0 +1,585 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.AI.SightGrid;
+import com.example.ooptankgame.Bullets.BulletSystem;
+import com.example.ooptankgame.Bullets.TankGun;
+import com.example.ooptankgame.Collision.SpatialGrid;
+import com.example.ooptankgame.Collision.SweptAabb;
+import com.example.ooptankgame.Collision.TankMove;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Events.GameEventQueue;
+import com.example.ooptankgame.Events.MatchRules;
+import com.example.ooptankgame.Level.TmxMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static com.example.ooptankgame.Enums.TankGameType.*;
+
+/**
+ * The HeadlessSimulation class runs a full tank match without JavaFX or the FXGL engine,
+ * so AI and balance experiments can run on machines with no display, as fast as the CPU
+ * allows.
+ *
+ * Key Responsibilities:
+ * - **Level Setup**: Reads the TMX map with {@link TmxMap} and creates the same things
+ *   {@code TankEntityFactory} spawns from it: walls, the player, six enemies and health packs,
+ *   with the same bounding box sizes.
+ * - **Fixed Timestep**: Every {@link #step()} advances the match by the same amount of time,
+ *   in the same order as a FXGL frame: player input, enemy updates, bullet flight, then the
+ *   collision rules.
+ * - **Tank Logic**: Player moves follow {@code PlayerComponent} (one move per tick) and enemies
+ *   are driven by the same {@link EnemyBrain} as {@code EnemyAIComponent}. Moves are resolved by
+ *   the components' {@link TankMove} against a {@link SpatialGrid}, on the tank's box turned to
+ *   face its direction like the entity's, and shots are cooled down and placed by their
+ *   {@link TankGun}. Enemies only fire when a {@link SightGrid} over the walls says the shot
+ *   would reach the player, unless {@link #setLineOfSight} turned that off.
+ * - **Collision Rules**: Applies the five {@code CollisionHandler} rules (bullet-wall,
+ *   bullet-enemy, bullet-player, player-health pack and enemy-health pack). Bullets have the
+ *   hit box and targets of {@link BulletSystem}, and damage, healing, lives, score and destroyed
+ *   enemies are decided by the same {@link MatchRules} the handlers use in the game.
+ * - **End Conditions**: The match is over when 6 enemies are destroyed or when the player is
+ *   hit with no lives left, same as in {@code TankApp}.
+ * - **Events**: The gameplay events of the last step can be read from {@link #getEvents()}.
+ * - **More Players**: {@link #addPlayer} puts another player tank on the map, each with its own
+ *   controller, for the network server. Players play together against the enemies: they block
+ *   each other, enemies shoot at whichever is in sight, and they share the lives of the
+ *   {@link MatchRules}. Every tank and bullet has an id that stays the same for the whole match.
+ *
+ * Simplifications: bullets that leave the map are dropped, and a tank picks up a health pack
+ * when the pack is what stops its move, which is when the two boxes touch.
+ *
+ * A simulation is single-threaded and owns all of its state, so separate instances can run
+ * on separate threads.
+ */
+public final class HeadlessSimulation {
+
+    public static final String DEFAULT_MAP = "tmx/tankgamemapnewwalls.tmx";
+    public static final double DEFAULT_TIMESTEP = 1.0 / 60;
+
+    /** Tank speed in pixels per second, see {@link TankMove}. */
+    public static final double TANK_SPEED = TankMove.SPEED;
+    /** Projectile speed used by {@code TankEntityFactory.newBullet}. */
+    public static final double BULLET_SPEED = 350;
+    /** {@code TankApp} ends the match when this many enemies are destroyed. */
+    public static final int ENEMIES_TO_WIN = MatchRules.ENEMIES_TO_WIN;
+
+    // Bounding boxes from TankEntityFactory, the enemy also gets the 39x39 texture as hit box
+    public static final double PLAYER_WIDTH = 32;
+    public static final double PLAYER_HEIGHT = 30;
+    public static final double ENEMY_SIZE = 39;
+    public static final double HEALTH_PACK_WIDTH = 32;
+    public static final double HEALTH_PACK_HEIGHT = 30;
+
+    // Players only meet each other when a server added more of them
+    private static final TankGameType[] PLAYER_BLOCKERS = {ENEMY, WALL, HEALTH_PACK, PLAYER};
+    private static final TankGameType[] ENEMY_BLOCKERS = {PLAYER, WALL, HEALTH_PACK};
+
+    private final TmxMap map;
+    private final double timestep;
+    private final EnemyBrain.Settings enemySettings;
+    private final SpatialGrid<SimBody> statics;
+    private final List<SimBody> walls = new ArrayList<>();
+    private final List<SimBody> healthPacks = new ArrayList<>();
+    private final List<SimTank> enemies = new ArrayList<>();
+    private final List<SimBullet> bullets = new ArrayList<>();
+    private final List<SimTank> tanks = new ArrayList<>(); // In the order they were added, the index is the id
+    private final List<SimTank> players = new ArrayList<>();
+    private final List<PlayerController> controllers = new ArrayList<>();
+    private int nextBulletId = 0;
+    private final List<SimBody> candidates = new ArrayList<>();
+    private SimTank player;
+    private SightGrid sight;
+
+    private final MatchRules rules = new MatchRules();
+
+    private long tick = 0;
+    private int playerShots = 0;
+    private int enemyShots = 0;
+    private final TankMove<SimBody> move = new TankMove<>();
+    private final double[] swept = new double[4];
+
+    /**
+     * @param map the level to play
+     * @param timestep seconds simulated by one {@link #step()}
+     * @param seed seed for the enemy brains, equal seeds play equal matches for equal input
+     * @param controller source of the player's input
+     */
+    public HeadlessSimulation(TmxMap map, double timestep, long seed, PlayerController controller) {
+        this(map, timestep, seed, controller, EnemyBrain.Settings.DEFAULTS);
+    }
+
+    /**
+     * Same as above but with enemy AI settings other than the ones the game ships with.
+     */
+    public HeadlessSimulation(TmxMap map, double timestep, long seed, PlayerController controller,
+                              EnemyBrain.Settings enemySettings) {
+        if (timestep <= 0) {
+            throw new IllegalArgumentException("Timestep must be positive: " + timestep);
+        }
+        this.map = map;
+        this.timestep = timestep;
+        this.enemySettings = enemySettings;
+        this.statics = new SpatialGrid<>(SpatialGrid.TILE_SIZE, map.getWidth(), map.getHeight());
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (TmxMap.MapObject object : map.getObjects()) {
+            switch (object.type()) {
+                case "wall" -> {
+                    // The factory reads width and height as Integers
+                    SimBody wall = new SimBody(WALL, object.x(), object.y(), (int) object.width(), (int) object.height());
+                    walls.add(wall);
+                    statics.insert(wall, wall.box[0], wall.box[1], wall.box[2], wall.box[3]);
+                }
+                case "healthpack" -> {
+                    SimBody pack = new SimBody(HEALTH_PACK, object.x(), object.y(), HEALTH_PACK_WIDTH, HEALTH_PACK_HEIGHT);
+                    healthPacks.add(pack);
+                    statics.insert(pack, pack.box[0], pack.box[1], pack.box[2], pack.box[3]);
+                }
+                case "playerSpawnPoint" ->
+                        player = addTank(newPlayer(object.x(), object.y()));
+                case "enemySpawnPoint" -> {
+                    EnemyBrain brain = new EnemyBrain(random.split(), enemySettings);
+                    TankGun gun = new TankGun(enemySettings.shootInterval(), TankGun.ENEMY_OFFSET_Y);
+                    enemies.add(addTank(new SimTank(ENEMY, object.x(), object.y(), ENEMY_SIZE, ENEMY_SIZE, brain.initialDir(), brain, gun)));
+                }
+                default -> {
+                }
+            }
+        }
+        if (player == null) {
+            throw new IllegalArgumentException("Map has no playerSpawnPoint");
+        }
+        players.add(player);
+        controllers.add(controller);
+        sight = new SightGrid(WallBitmap.rasterize(map));
+    }
+
+    private static SimTank newPlayer(double x, double y) {
+        return new SimTank(PLAYER, x, y, PLAYER_WIDTH, PLAYER_HEIGHT, Dir.UP, null,
+                new TankGun(TankGun.PLAYER_INTERVAL, TankGun.PLAYER_OFFSET_Y));
+    }
+
+    private SimTank addTank(SimTank tank) {
+        tank.id = tanks.size();
+        tanks.add(tank);
+        return tank;
+    }
+
+    /**
+     * Adds another player tank, driven by {@code controller}, at the free spot closest to the
+     * map's player spawn point. Call between steps.
+     *
+     * @throws IllegalStateException if there is no room left on the map
+     */
+    public SimTank addPlayer(PlayerController controller) {
+        double spawnX = player.getX();
+        double spawnY = player.getY();
+        int tile = SpatialGrid.TILE_SIZE;
+        int reach = Math.max(map.getWidth(), map.getHeight());
+        // Rings of whole tiles around the spawn point, so the search does not depend on anything random
+        for (int ring = 1; ring <= reach; ring++) {
+            for (int dy = -ring; dy <= ring; dy++) {
+                for (int dx = -ring; dx <= ring; dx++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != ring) {
+                        continue;
+                    }
+                    double x = spawnX + dx * tile;
+                    double y = spawnY + dy * tile;
+                    if (isFree(x, y, x + PLAYER_WIDTH, y + PLAYER_HEIGHT)) {
+                        SimTank tank = addTank(newPlayer(x, y));
+                        players.add(tank);
+                        controllers.add(controller);
+                        return tank;
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("No room for another player on " + map.getPixelWidth() + "x" + map.getPixelHeight() + " map");
+    }
+
+    private boolean isFree(double minX, double minY, double maxX, double maxY) {
+        if (minX < 0 || minY < 0 || maxX > map.getPixelWidth() || maxY > map.getPixelHeight()) {
+            return false;
+        }
+        double[] box = {minX, minY, maxX, maxY};
+        candidates.clear();
+        statics.query(minX, minY, maxX, maxY, candidates);
+        for (SimBody body : candidates) {
+            if (body.alive && SweptAabb.overlaps(box, body.box)) {
+                return false;
+            }
+        }
+        for (SimTank tank : tanks) {
+            if (tank.alive && SweptAabb.overlaps(box, tank.box)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Turns line of sight on (the default, as in the game) or off, in which case enemies fire
+     * whenever they decide to shoot. Call before the first step.
+     */
+    public void setLineOfSight(boolean enabled) {
+        if (!enabled) {
+            sight = null;
+        } else if (sight == null) {
+            sight = new SightGrid(WallBitmap.rasterize(map));
+        }
+    }
+
+    /**
+     * Advances the match by one timestep. Does nothing once the match is over.
+     */
+    public void step() {
+        if (rules.isGameOver()) {
+            return;
+        }
+        // Nothing drains the queue headless, it only holds the events of the last step
+        rules.getEvents().clear();
+        // Every tank component steps its gun before any of them acts in the tick
+        for (int i = 0; i < tanks.size(); i++) {
+            tanks.get(i).gun.advance(timestep);
+        }
+
+        // Input first, TankApp ignores it once the game is over
+        for (int i = 0; i < players.size(); i++) {
+            SimTank tank = players.get(i);
+            int input = controllers.get(i).nextInput(this);
+            if (tank.alive) {
+                Dir dir = PlayerInput.direction(input);
+                if (dir != null) {
+                    tank.turn(dir);
+                    moveTank(tank, timestep);
+                }
+                if (PlayerInput.isHeld(input, PlayerInput.SHOOT)) {
+                    shoot(tank);
+                }
+            }
+        }
+
+        for (int i = 0; i < enemies.size(); i++) {
+            SimTank enemy = enemies.get(i);
+            if (!enemy.alive) {
+                continue;
+            }
+            enemy.turn(enemy.brain.nextDir(enemy.dir));
+            moveEnemy(enemy, timestep);
+            if (enemy.brain.wantsToShoot()) {
+                fire(enemy);
+            }
+        }
+
+        double bulletStep = BULLET_SPEED * timestep;
+        for (int i = 0; i < bullets.size(); i++) {
+            SimBullet bullet = bullets.get(i);
+            bullet.translate(bullet.dir.getDx() * bulletStep, bullet.dir.getDy() * bulletStep);
+        }
+        resolveBulletHits();
+
+        tick++;
+    }
+
+    /**
+     * Steps until the match is over or {@code maxTicks} ticks have been simulated.
+     */
+    public MatchResult run(long maxTicks) {
+        while (!rules.isGameOver() && tick < maxTicks) {
+            step();
+        }
+        return result();
+    }
+
+    public MatchResult result() {
+        MatchResult.Outcome outcome;
+        if (rules.getDestroyedEnemy() == ENEMIES_TO_WIN) {
+            outcome = MatchResult.Outcome.WIN;
+        } else if (rules.isGameOver()) {
+            outcome = MatchResult.Outcome.LOSS;
+        } else {
+            outcome = MatchResult.Outcome.TIMEOUT;
+        }
+        return new MatchResult(outcome, tick, tick * timestep, rules.getScore(), rules.getLives(),
+                rules.getDestroyedEnemy(), playerShots, enemyShots);
+    }
+
+    private void moveEnemy(SimTank enemy, double seconds) {
+        boolean blocked = moveTank(enemy, seconds);
+        if (!enemy.alive || !blocked) {
+            return;
+        }
+        if (enemy.brain.shootWhenBlocked()) {
+            fire(enemy);
+        }
+        Dir turn = enemy.brain.turnWhenBlocked();
+        if (turn != null) {
+            enemy.dir = turn;
+            moveEnemy(enemy, seconds);
+        }
+    }
+
+    /**
+     * Moves the tank along its direction, returns {@code true} if something stopped it.
+     */
+    private boolean moveTank(SimTank tank, double seconds) {
+        int length = TankMove.length(seconds);
+        if (length <= 0) {
+            return false;
+        }
+        TankGameType[] blockers = tank.type == PLAYER ? PLAYER_BLOCKERS : ENEMY_BLOCKERS;
+        move.start(tank.box, tank.dir, length);
+
+        move.sweptBounds(swept);
+        candidates.clear();
+        statics.query(swept[0], swept[1], swept[2], swept[3], candidates);
+        for (int i = 0; i < candidates.size() && move.isMoving(); i++) {
+            SimBody body = candidates.get(i);
+            if (body.alive) {
+                move.against(body.box, body);
+            }
+        }
+        if (isAny(ENEMY, blockers)) {
+            moveAgainst(tank, enemies);
+        }
+        if (isAny(PLAYER, blockers)) {
+            moveAgainst(tank, players);
+        }
+
+        int steps = move.getSteps();
+        tank.translate(tank.dir.getDx() * steps, tank.dir.getDy() * steps);
+        SimBody blocker = move.getBlocker();
+        if (blocker != null && blocker.type == HEALTH_PACK) {
+            pickUp(tank, blocker);
+        }
+        return move.isBlocked();
+    }
+
+    private void moveAgainst(SimTank mover, List<SimTank> others) {
+        for (int i = 0; i < others.size() && move.isMoving(); i++) {
+            SimTank other = others.get(i);
+            if (other != mover && other.alive) {
+                move.against(other.box, null);
+            }
+        }
+    }
+
+    /**
+     * Enemy shot, held back unless it would reach a player, like {@code EnemyAIComponent.fire()}.
+     */
+    private void fire(SimTank enemy) {
+        if (sight != null && (!enemy.gun.isReady() || !canHitPlayer(enemy))) {
+            return;
+        }
+        shoot(enemy);
+    }
+
+    private boolean canHitPlayer(SimTank enemy) {
+        for (int i = 0; i < players.size(); i++) {
+            SimTank target = players.get(i);
+            if (target.alive && sight.canHit(enemy.getCenterX(), enemy.getCenterY(), enemy.dir, BulletSystem.HALF_WIDTH,
+                    target.box[0], target.box[1], target.box[2], target.box[3])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void shoot(SimTank tank) {
+        if (!tank.gun.isReady()) {
+            return;
+        }
+        bullets.add(new SimBullet(nextBulletId++, tank.gun.spawnX(tank.getCenterX()), tank.gun.spawnY(tank.getCenterY()),
+                tank.dir, tank.type));
+        tank.gun.fired();
+        if (tank.type == PLAYER) {
+            playerShots++;
+        } else {
+            enemyShots++;
+        }
+    }
+
+    private void resolveBulletHits() {
+        double width = map.getPixelWidth();
+        double height = map.getPixelHeight();
+        for (int i = 0; i < bullets.size(); i++) {
+            SimBullet bullet = bullets.get(i);
+            // Same order as BulletSystem.update: leaving the map, then a wall before a tank
+            if (bullet.box[2] < 0 || bullet.box[3] < 0 || bullet.box[0] > width || bullet.box[1] > height) {
+                bullet.alive = false;
+            } else if (bulletHitsWall(bullet)) {
+                // BulletWallHandler
+                bullet.alive = false;
+            } else if (BulletSystem.canHit(bullet.ownerType, ENEMY) && bulletHitsEnemy(bullet)) {
+                bullet.alive = false;
+            } else if (BulletSystem.canHit(bullet.ownerType, PLAYER) && bulletHitsPlayer(bullet)) {
+                bullet.alive = false;
+            }
+        }
+        bullets.removeIf(bullet -> !bullet.alive);
+    }
+
+    private boolean bulletHitsWall(SimBullet bullet) {
+        candidates.clear();
+        statics.query(bullet.box[0], bullet.box[1], bullet.box[2], bullet.box[3], candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            SimBody body = candidates.get(i);
+            if (body.type == WALL && SweptAabb.overlaps(bullet.box, body.box)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean bulletHitsEnemy(SimBullet bullet) {
+        for (int i = 0; i < enemies.size(); i++) {
+            SimTank enemy = enemies.get(i);
+            if (enemy.alive && SweptAabb.overlaps(bullet.box, enemy.box)) {
+                // BulletEnemyHandler
+                enemy.hp = rules.enemyHit(enemy.hp);
+                if (enemy.hp <= 0) {
+                    enemy.alive = false;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean bulletHitsPlayer(SimBullet bullet) {
+        for (int i = 0; i < players.size(); i++) {
+            SimTank target = players.get(i);
+            if (target.alive && SweptAabb.overlaps(bullet.box, target.box)) {
+                onPlayerHit(target);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void onPlayerHit(SimTank target) {
+        // BulletPlayerHandler
+        target.hp = rules.playerHit(target.hp);
+        if (target.hp <= 0) {
+            target.alive = false;
+        }
+    }
+
+    private void pickUp(SimTank tank, SimBody pack) {
+        // PlayerHealthPackHandler and EnemyHealthPackHandler
+        pack.alive = false;
+        statics.remove(pack);
+        tank.hp = rules.healthPackPicked(tank.type == PLAYER, tank.hp);
+    }
+
+    /**
+     * Returns a hash of the whole match state, for checking that a replay reproduces a match
+     * bit for bit.
+     */
+    public long stateHash() {
+        long hash = tick;
+        hash = hash * 31 + rules.getLives();
+        hash = hash * 31 + rules.getScore();
+        hash = hash * 31 + rules.getDestroyedEnemy();
+        for (SimTank tank : players) {
+            hash = hash * 31 + hashTank(tank);
+        }
+        for (SimTank enemy : enemies) {
+            hash = hash * 31 + hashTank(enemy);
+        }
+        for (SimBullet bullet : bullets) {
+            hash = hash * 31 + Double.doubleToLongBits(bullet.centerX);
+            hash = hash * 31 + Double.doubleToLongBits(bullet.centerY);
+        }
+        for (SimBody pack : healthPacks) {
+            hash = hash * 31 + (pack.alive ? 1 : 0);
+        }
+        return hash;
+    }
+
+    private static long hashTank(SimTank tank) {
+        long hash = Double.doubleToLongBits(tank.x);
+        hash = hash * 31 + Double.doubleToLongBits(tank.y);
+        hash = hash * 31 + tank.dir.ordinal();
+        hash = hash * 31 + tank.hp;
+        return hash * 31 + (tank.alive ? 1 : 0);
+    }
+
+    private static boolean isAny(TankGameType type, TankGameType[] types) {
+        for (TankGameType t : types) {
+            if (t == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public TmxMap getMap() {
+        return map;
+    }
+
+    public double getTimestep() {
+        return timestep;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public boolean isGameOver() {
+        return rules.isGameOver();
+    }
+
+    public int getLives() {
+        return rules.getLives();
+    }
+
+    public int getScore() {
+        return rules.getScore();
+    }
+
+    public int getDestroyedEnemy() {
+        return rules.getDestroyedEnemy();
+    }
+
+    /** The gameplay events of the last {@link #step()}. */
+    public GameEventQueue getEvents() {
+        return rules.getEvents();
+    }
+
+    public SimTank getPlayer() {
+        return player;
+    }
+
+    /** The player tanks, starting with {@link #getPlayer()}. */
+    public List<SimTank> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /** Every tank, indexed by {@link SimTank#getId()}. */
+    public List<SimTank> getTanks() {
+        return Collections.unmodifiableList(tanks);
+    }
+
+    public List<SimTank> getEnemies() {
+        return Collections.unmodifiableList(enemies);
+    }
+
+    public List<SimBullet> getBullets() {
+        return Collections.unmodifiableList(bullets);
+    }
+
+    public List<SimBody> getWalls() {
+        return Collections.unmodifiableList(walls);
+    }
+
+    public List<SimBody> getHealthPacks() {
+        return Collections.unmodifiableList(healthPacks);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.ooptankgame.Simulation;
+
+/**
+ * Outcome and statistics of one headless match.
+ *
+ * @param outcome how the match ended
+ * @param ticks number of simulated ticks
+ * @param seconds simulated game time
+ * @param score final score, 10 per destroyed enemy and 5 per health pack picked up by the player
+ * @param lives lives the player had left
+ * @param destroyedEnemy number of enemies destroyed
+ * @param playerShots bullets fired by the player
+ * @param enemyShots bullets fired by all enemies together
+ */
+public record MatchResult(Outcome outcome, long ticks, double seconds, int score, int lives,
+                          int destroyedEnemy, int playerShots, int enemyShots) {
+
+    public enum Outcome {
+        /** All enemies were destroyed. */
+        WIN,
+        /** The player was destroyed with no lives left. */
+        LOSS,
+        /** The tick limit was reached first. */
+        TIMEOUT
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s after %d ticks (%.1fs): score %d, lives %d, enemies destroyed %d, shots %d/%d (player/enemy)",
+                outcome, ticks, seconds, score, lives, destroyedEnemy, playerShots, enemyShots);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.Enums.Dir;
+
+import java.util.SplittableRandom;
+
+/**
+ * A simple scripted stand-in for a human player, used when a match runs headless.
+ *
+ * The bot drives toward the closest enemy along the axis with the larger distance and fires
+ * once the enemy is roughly lined up on either axis. When it gets stuck on a wall it picks a
+ * random direction and commits to it for a short while before chasing again. All randomness
+ * comes from its own seeded generator.
+ */
+public final class PlayerBot implements PlayerController {
+
+    /** How far off-axis, in pixels, an enemy can be and still be shot at. */
+    private static final double AIM_TOLERANCE = 12;
+
+    private final SplittableRandom random;
+    private Dir wanderDir;
+    private int wanderTicks = 0;
+    private double lastX = Double.NaN;
+    private double lastY = Double.NaN;
+
+    public PlayerBot(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int nextInput(HeadlessSimulation simulation) {
+        SimTank player = simulation.getPlayer();
+        if (!player.isAlive()) {
+            return PlayerInput.NONE;
+        }
+        boolean stuck = player.getX() == lastX && player.getY() == lastY;
+        lastX = player.getX();
+        lastY = player.getY();
+
+        SimTank target = closestEnemy(simulation, player);
+        if (target == null) {
+            return PlayerInput.NONE;
+        }
+        double dx = target.getCenterX() - player.getCenterX();
+        double dy = target.getCenterY() - player.getCenterY();
+
+        // Lined up, turn toward the enemy and fire
+        if (Math.abs(dx) < AIM_TOLERANCE) {
+            return PlayerInput.of(dy < 0 ? Dir.UP : Dir.DOWN) | PlayerInput.SHOOT;
+        }
+        if (Math.abs(dy) < AIM_TOLERANCE) {
+            return PlayerInput.of(dx < 0 ? Dir.LEFT : Dir.RIGHT) | PlayerInput.SHOOT;
+        }
+
+        if (stuck && wanderTicks == 0) {
+            wanderDir = Dir.values()[random.nextInt(4)];
+            wanderTicks = 30 + random.nextInt(60);
+        }
+        if (wanderTicks > 0) {
+            wanderTicks--;
+            return PlayerInput.of(wanderDir);
+        }
+        if (Math.abs(dx) > Math.abs(dy)) {
+            return PlayerInput.of(dx < 0 ? Dir.LEFT : Dir.RIGHT);
+        }
+        return PlayerInput.of(dy < 0 ? Dir.UP : Dir.DOWN);
+    }
+
+    private static SimTank closestEnemy(HeadlessSimulation simulation, SimTank player) {
+        SimTank closest = null;
+        double best = Double.MAX_VALUE;
+        for (SimTank enemy : simulation.getEnemies()) {
+            if (!enemy.isAlive()) {
+                continue;
+            }
+            double dx = enemy.getCenterX() - player.getCenterX();
+            double dy = enemy.getCenterY() - player.getCenterY();
+            double distance = dx * dx + dy * dy;
+            if (distance < best) {
+                best = distance;
+                closest = enemy;
+            }
+        }
+        return closest;
+    }
+}
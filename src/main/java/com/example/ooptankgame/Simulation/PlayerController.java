@@ -0,0 +1,14 @@
+package com.example.ooptankgame.Simulation;
+
+/**
+ * Supplies the player's input for each tick of a {@link HeadlessSimulation}, standing in for
+ * the keyboard.
+ */
+@FunctionalInterface
+public interface PlayerController {
+
+    /**
+     * Returns the {@link PlayerInput} flags held during the coming tick.
+     */
+    int nextInput(HeadlessSimulation simulation);
+}
@@ -0,0 +1,53 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.Enums.Dir;
+
+/**
+ * Bit flags for the player's held actions in one tick, matching the key bindings of
+ * {@code TankApp.initInput()}: W/UP, S/DOWN, A/LEFT, D/RIGHT and SPACE/F.
+ *
+ * Like in the game, the tank moves at most once per tick and the first held direction in
+ * the order up, down, left, right wins.
+ */
+public final class PlayerInput {
+
+    public static final int NONE = 0;
+    public static final int UP = 1;
+    public static final int DOWN = 1 << 1;
+    public static final int LEFT = 1 << 2;
+    public static final int RIGHT = 1 << 3;
+    public static final int SHOOT = 1 << 4;
+
+    private PlayerInput() {
+    }
+
+    public static boolean isHeld(int input, int action) {
+        return (input & action) != 0;
+    }
+
+    /**
+     * Returns the direction the tank moves in for this input, or {@code null} if no direction is
+     * held. Same priority as the onKey bindings: the first direction to move wins the frame.
+     */
+    public static Dir direction(int input) {
+        if (isHeld(input, UP)) {
+            return Dir.UP;
+        } else if (isHeld(input, DOWN)) {
+            return Dir.DOWN;
+        } else if (isHeld(input, LEFT)) {
+            return Dir.LEFT;
+        } else if (isHeld(input, RIGHT)) {
+            return Dir.RIGHT;
+        }
+        return null;
+    }
+
+    public static int of(Dir dir) {
+        return switch (dir) {
+            case UP -> UP;
+            case DOWN -> DOWN;
+            case LEFT -> LEFT;
+            case RIGHT -> RIGHT;
+        };
+    }
+}
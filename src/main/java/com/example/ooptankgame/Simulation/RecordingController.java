@@ -0,0 +1,24 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.Replay.ReplayWriter;
+
+/**
+ * Passes through the input of another controller and records every tick of it to a replay.
+ */
+public final class RecordingController implements PlayerController {
+
+    private final PlayerController source;
+    private final ReplayWriter writer;
+
+    public RecordingController(PlayerController source, ReplayWriter writer) {
+        this.source = source;
+        this.writer = writer;
+    }
+
+    @Override
+    public int nextInput(HeadlessSimulation simulation) {
+        int input = source.nextInput(simulation);
+        writer.record(input);
+        return input;
+    }
+}
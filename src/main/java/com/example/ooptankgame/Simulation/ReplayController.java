@@ -0,0 +1,20 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.Replay.ReplayReader;
+
+/**
+ * Plays back the player's input from a replay file, one recorded tick per simulation tick.
+ */
+public final class ReplayController implements PlayerController {
+
+    private final ReplayReader reader;
+
+    public ReplayController(ReplayReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public int nextInput(HeadlessSimulation simulation) {
+        return reader.nextInput();
+    }
+}
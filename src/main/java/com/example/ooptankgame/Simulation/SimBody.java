@@ -0,0 +1,44 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.Enums.TankGameType;
+
+/**
+ * A static box in the headless simulation: a wall or a health pack spawned from the map.
+ * Bounds are stored as {minX, minY, maxX, maxY} so they can go straight into
+ * {@link com.example.ooptankgame.Collision.SweptAabb}.
+ */
+public final class SimBody {
+
+    final TankGameType type;
+    final double[] box;
+    boolean alive = true;
+
+    SimBody(TankGameType type, double x, double y, double width, double height) {
+        this.type = type;
+        this.box = new double[]{x, y, x + width, y + height};
+    }
+
+    public TankGameType getType() {
+        return type;
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    public double getX() {
+        return box[0];
+    }
+
+    public double getY() {
+        return box[1];
+    }
+
+    public double getWidth() {
+        return box[2] - box[0];
+    }
+
+    public double getHeight() {
+        return box[3] - box[1];
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.Bullets.BulletSystem;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+
+/**
+ * A bullet in the headless simulation. Like the {@code bullet} entity it flies in a straight
+ * line along its direction, with the hit box and targets of {@link BulletSystem}.
+ */
+public final class SimBullet {
+
+    final int id;
+    final double[] box = new double[4]; // Turned to face dir, see BulletSystem.bounds
+    final Dir dir;
+    final TankGameType ownerType;
+    double centerX;
+    double centerY;
+    boolean alive = true;
+
+    SimBullet(int id, double x, double y, Dir dir, TankGameType ownerType) {
+        this.id = id;
+        // x and y are the spawn position of the 8x10 texture, same as the SpawnData
+        this.centerX = x + 4;
+        this.centerY = y + 5;
+        this.dir = dir;
+        this.ownerType = ownerType;
+        updateBox();
+    }
+
+    void translate(double dx, double dy) {
+        centerX += dx;
+        centerY += dy;
+        updateBox();
+    }
+
+    private void updateBox() {
+        BulletSystem.bounds(centerX, centerY, dir.getDx(), dir.getDy(), box);
+    }
+
+    /** Number of the bullet, counting the shots of the match from 0. */
+    public int getId() {
+        return id;
+    }
+
+    public Dir getDir() {
+        return dir;
+    }
+
+    public TankGameType getOwnerType() {
+        return ownerType;
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    public double getCenterX() {
+        return centerX;
+    }
+
+    public double getCenterY() {
+        return centerY;
+    }
+}
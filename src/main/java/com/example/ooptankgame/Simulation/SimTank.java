@@ -0,0 +1,97 @@
+package com.example.ooptankgame.Simulation;
+
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.Bullets.TankGun;
+import com.example.ooptankgame.Collision.TankMove;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Events.MatchRules;
+
+/**
+ * A player or enemy tank in the headless simulation, holding what the FXGL entity keeps
+ * in its {@code HealthIntComponent}, {@code PlayerComponent} or {@code EnemyAIComponent},
+ * with the same {@link TankMove} box and {@link TankGun}.
+ */
+public final class SimTank {
+
+    final TankGameType type;
+    final double width;
+    final double height;
+    final double[] box = new double[4]; // Turned to face dir, see TankMove.turnedBounds
+    final EnemyBrain brain;
+    final TankGun gun;
+    int id; // Set when the simulation adds the tank
+    Dir dir;
+    double x;
+    double y;
+    int hp = MatchRules.TANK_HEALTH;
+    boolean alive = true;
+
+    SimTank(TankGameType type, double x, double y, double width, double height, Dir dir, EnemyBrain brain, TankGun gun) {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.dir = dir;
+        this.brain = brain;
+        this.gun = gun;
+        updateBox();
+    }
+
+    void translate(double dx, double dy) {
+        x += dx;
+        y += dy;
+        updateBox();
+    }
+
+    /**
+     * Faces the tank in {@code dir}, turning its box about its center like the entity's.
+     */
+    void turn(Dir dir) {
+        this.dir = dir;
+        updateBox();
+    }
+
+    private void updateBox() {
+        TankMove.turnedBounds(x, y, width, height, dir, box);
+    }
+
+    /** Index of the tank in {@link HeadlessSimulation#getTanks()}. */
+    public int getId() {
+        return id;
+    }
+
+    public TankGameType getType() {
+        return type;
+    }
+
+    public Dir getDir() {
+        return dir;
+    }
+
+    public int getHp() {
+        return hp;
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    /** Position of the tank, the top left corner of its unturned box like the entity's x. */
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getCenterX() {
+        return (box[0] + box[2]) / 2;
+    }
+
+    public double getCenterY() {
+        return (box[1] + box[3]) / 2;
+    }
+}
@@ -2,19 +2,75 @@ package com.example.ooptankgame;
 
 import com.almasb.fxgl.app.GameApplication;
 import com.almasb.fxgl.app.GameSettings;
+import com.almasb.fxgl.app.scene.LoadingScene;
+import com.almasb.fxgl.app.scene.SceneFactory;
+import com.almasb.fxgl.app.scene.Viewport;
+import com.almasb.fxgl.core.EngineService;
 import com.almasb.fxgl.dsl.FXGL;
 import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.logging.Logger;
 import com.almasb.fxgl.texture.Texture;
+import com.example.ooptankgame.AI.DecisionScheduler;
+import com.example.ooptankgame.AI.EnemyScheduler;
+import com.example.ooptankgame.AI.LineOfSight;
+import com.example.ooptankgame.AI.PursuitField;
+import com.example.ooptankgame.AI.SightGrid;
+import com.example.ooptankgame.Assets.AssetLoadingScene;
+import com.example.ooptankgame.Assets.GameAssets;
+import com.example.ooptankgame.Bullets.BulletLayer;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.WallBitmap;
 import com.example.ooptankgame.CollisionHandler.*;
 import com.example.ooptankgame.Components.PlayerComponent;
+import com.example.ooptankgame.Components.TileChunksComponent;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.FramePhase;
+import com.example.ooptankgame.Enums.GameEventType;
+import com.example.ooptankgame.Enums.TelemetryLevel;
+import com.example.ooptankgame.Events.GameEventQueue;
+import com.example.ooptankgame.Events.GameEvents;
+import com.example.ooptankgame.Events.MatchRules;
 import com.example.ooptankgame.Factory.TankEntityFactory;
+import com.example.ooptankgame.Level.CompiledLevelLoader;
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Loop.FixedStepClock;
+import com.example.ooptankgame.Loop.FixedStepLoop;
+import com.example.ooptankgame.Network.ServerMain;
+import com.example.ooptankgame.Profiling.FrameProfiler;
+import com.example.ooptankgame.Profiling.ProfileLog;
+import com.example.ooptankgame.Profiling.RollingStats;
+import com.example.ooptankgame.Profiling.WorldProfiler;
+import com.example.ooptankgame.Render.AtlasTextures;
+import com.example.ooptankgame.Render.CanvasRenderer;
+import com.example.ooptankgame.Replay.MatchOptions;
+import com.example.ooptankgame.Replay.ReplayReader;
+import com.example.ooptankgame.Replay.ReplayWriter;
+import com.example.ooptankgame.Simulation.BatchMain;
+import com.example.ooptankgame.Simulation.HeadlessMain;
+import com.example.ooptankgame.Simulation.PlayerInput;
+import com.example.ooptankgame.Telemetry.GameTelemetry;
+import com.example.ooptankgame.Telemetry.TelemetryLog;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import kotlin.Unit;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import static com.almasb.fxgl.dsl.FXGL.getGameWorld;
 import static com.almasb.fxgl.dsl.FXGL.setLevelFromMap;
 import static com.almasb.fxgl.dsl.FXGLForKtKt.*;
@@ -27,62 +83,277 @@ import static com.example.ooptankgame.Enums.TankGameType.PLAYER;
  *
  * Key Responsibilities:
  * - **Game Initialization**: Sets up game settings such as title and dimensions,
- *   initializes game variables, and loads the game level from a TMX map file.
+ *   initializes game variables, and loads the game level from a TMX map file, or from the
+ *   binary level the build compiled from it (see {@link LevelReader}).
+ * - **Asset Preloading**: Before the first match the textures, the level and its tilesets are
+ *   decoded on background threads by {@link GameAssets} while an {@link AssetLoadingScene} shows
+ *   the progress. The match starts once they are all loaded, so nothing is decoded on the JavaFX
+ *   thread mid-game, the Game Over screen included. Each one's load time goes to FXGL's log at
+ *   debug level.
  * - **Player Management**: Retrieves and manages the player entity and its associated
  *   component for handling player actions.
  * - **User Interface**: Displays player lives and score on the screen, updating
  *   dynamically based on game events.
- * - **Input Handling**: Maps keyboard inputs to player actions (movement and shooting).
+ * - **Input Handling**: Maps keyboard inputs to player actions (movement and shooting). Keys
+ *   only mark the input as held, it is applied once per tick in {@link #tick}, which is
+ *   also where a replay is recorded or played back.
+ * - **Fixed Timestep**: The tanks, the AI and the bullet layer advance in ticks of a
+ *   {@link FixedStepClock}, {@code --sim-hz} per second (60 by default), however fast the game
+ *   renders. A {@link FixedStepLoop} runs the ticks each frame is due, at most a few when a frame
+ *   was slow, and draws the tanks between their last two ticks. {@code --render-stats} and the
+ *   profile overlay show the tick and frame times apart.
+ * - **Deterministic Matches**: With {@code --seed}, {@code --record} or {@code --replay} the game
+ *   runs at a fixed tick rate and seeds every enemy from the match seed (see {@link MatchOptions}),
+ *   so a recorded match replays the same way. FXGL then updates at the tick rate and every
+ *   frame is exactly one tick, since the bullet entities and the collisions still move and are
+ *   checked once per frame.
+ * - **Static Walls**: With {@code --wall-bitmap} the walls of the level are rasterized into a
+ *   {@link WallBitmap} before the level loads and not spawned at all, so they are not entities in
+ *   the physics world. The bitmap's 4 pixel cells make the walls up to 4 pixels larger, so tanks
+ *   stop a little earlier than against the wall entities the game spawns by default.
+ * - **Bullet Layer**: With {@code --bullet-layer} bullets are simulated and drawn by a
+ *   {@link BulletLayer} instead of being entities, for matches with thousands of bullets.
+ * - **Canvas Rendering**: With {@code --canvas-render} the tanks, their health bars, the bullet
+ *   entities and the effects have no nodes in the scene graph and are drawn onto one canvas per
+ *   frame by a {@link CanvasRenderer}, which saves the layout and CSS passes of thousands of nodes.
+ * - **Texture Atlas**: The sprites come from the one atlas image the build packed them into (see
+ *   {@link AtlasTextures}), decoded once at startup. {@code --no-atlas} loads them one by one as
+ *   before, and {@code --render-stats} counts the image switches of a frame to compare the two.
+ * - **Pursuit**: With {@code --pursuit} the enemies chase the player along one shared
+ *   {@link PursuitField} instead of roaming at random.
+ * - **Line of Sight**: Enemies only fire when the player is straight ahead with no wall in
+ *   between, see {@link LineOfSight}. {@code --blind-fire} brings back the old blind shooting.
+ * - **AI Scheduling**: Enemy decisions are spread over ticks by a {@link DecisionScheduler},
+ *   within {@code --ai-budget} milliseconds per tick and at most {@code --ai-slice} enemies
+ *   per tick. {@code --ai-threads} computes the decisions on that many threads. Seeded
+ *   matches only use a slice and threads, and only when given, so they stay repeatable.
+ * - **Large Maps**: {@code --map} picks another map under {@code assets/levels}. On a map larger
+ *   than the window the viewport follows the player, and only the tile chunks in view are in the
+ *   scene graph (see {@link TileChunksComponent}). {@code --render-stats} logs the frame rate and
+ *   scene graph size every few seconds. How long the level took to load goes to FXGL's log.
+ * - **Profiling**: With {@code --profile} the input, AI, component updates, collisions, spawns and
+ *   layout of every frame are timed by a {@link FrameProfiler}. F3 shows their median, 99th
+ *   percentile and worst time of the last ten seconds under the lives, and every ten seconds they
+ *   are written to {@code logs/} as CSV and JSON (see {@link ProfileLog}).
+ * - **Telemetry**: Shots, hits, pickups, spawns and, at {@code --telemetry debug}, frame times are
+ *   recorded to compressed files in {@code logs/} by a {@link TelemetryLog}, off the game thread.
+ *   {@code --telemetry off} records nothing and F4 switches between the levels while playing,
+ *   showing the new level as a notification. The number of events written and dropped goes to
+ *   FXGL's log when the game exits.
  * - **Collision Handling**: Registers collision handlers to manage interactions
  *   between bullets, players, enemies, and health packs.
+ * - **Gameplay Events**: The handlers apply the world's {@link MatchRules}, which queue what
+ *   happened. The queue is drained once at the start of every update: the lives, score and
+ *   destroyed enemies are copied into the global vars the UI is bound to, and the Game Over
+ *   screen is shown, so their listeners run once per frame and never inside the physics step.
  */
 public class TankApp extends GameApplication {
 
     private Entity player; // The player entity
     private PlayerComponent playerComponent; // Component to manage player behavior
 
+    private static final String LEVEL = "tmx/tankgamemapnewwalls.tmx";
+    private static final Logger log = Logger.get(TankApp.class);
+    private static String mapName = LEVEL; // Set by --map in main
+    private static MatchOptions options = MatchOptions.defaults(); // Set from the command line in main
+    private int heldInput = PlayerInput.NONE; // PlayerInput bits of the keys held this tick
+    private ReplayWriter replayWriter;
+    private ReplayReader replayReader;
+    private static boolean useBulletLayer = false; // Set by --bullet-layer in main
+    private static boolean useWallBitmap = false; // Set by --wall-bitmap in main
+    private BulletLayer bulletLayer;
+    private static boolean useCanvasRenderer = false; // Set by --canvas-render in main
+    private CanvasRenderer canvasRenderer;
+    private static boolean usePursuit = false; // Set by --pursuit in main
+    private PursuitField pursuit;
+    private static boolean blindFire = false; // Set by --blind-fire in main
+    private LineOfSight lineOfSight;
+    private static int aiSlice = 0; // Set by --ai-slice in main, 0 for no limit
+    private static double aiBudgetMillis = EnemyScheduler.DEFAULT_BUDGET_MILLIS; // Set by --ai-budget in main
+    private static int aiThreads = 1; // Set by --ai-threads in main
+    private DecisionScheduler aiScheduler;
+    private static int simHz = FixedStepClock.DEFAULT_TICKS_PER_SECOND; // Set by --sim-hz in main
+    private FixedStepLoop fixedLoop;
+    private final Runnable tickTask = this::tick; // Kept, not rebuilt every frame
+    private FixedStepLoop.View playerView; // Followed by the viewport on maps larger than the window
+    private int worldWidth;
+    private int worldHeight;
+    private static boolean logRenderStats = false; // Set by --render-stats in main
+    private long statsStart = 0;
+    private int statsFrames = 0;
+    private static boolean profile = false; // Set by --profile in main
+    private static final long PROFILE_LOG_NANOS = 10_000_000_000L;
+    private static final int PROFILE_TEXT_FRAMES = 30;
+    private FrameProfiler profiler;
+    private ProfileLog profileLog;
+    private Text profileText;
+    private long profileLogged = 0;
+    private MatchRules rules;
+    private static TelemetryLevel telemetryLevel = TelemetryLevel.INFO; // Set by --telemetry in main
+    private TelemetryLog telemetry;
+    private boolean telemetryClosed = false;
+    private final GameEventQueue.Listener gameEventListener = this::onGameEvent; // Kept, not rebuilt every frame
+    private boolean gameOverPending = false;
+    private Texture gameOverView; // Made with the level, so the end of the match decodes nothing
+
     @Override
     protected void initSettings(GameSettings settings) {
         // Set the title and dimensions of the game window
         settings.setTitle("Carsons Tank Game");
         settings.setWidth(32 * 30);
         settings.setHeight(32 * 30);
+        if (options.isDeterministic()) {
+            // Every update advances the game by exactly 1/hz seconds
+            settings.setTicksPerSecond(options.ticksPerSecond());
+        }
+        // Closes the telemetry while FXGL's log is still open to take its summary
+        settings.addEngineService(TelemetryExit.class);
+        settings.setSceneFactory(new SceneFactory() {
+            @Override
+            public LoadingScene newLoadingScene() {
+                return new AssetLoadingScene();
+            }
+        });
+    }
+
+    @Override
+    protected void onPreInit() {
+        // Decoding starts while FXGL is still setting up, initGame waits for whatever is left
+        GameAssets.preload(mapName);
     }
 
     @Override
     protected void initGame() {
-        // Add entity factory for creating game entities
-        getGameWorld().addEntityFactory(new TankEntityFactory());
-        // Load the game level from a TMX map file
-        setLevelFromMap("tmx/tankgamemapnewwalls.tmx");
+        String level = mapName;
+        MatchOptions match = options;
+        // The collision handlers report to these rules from the first frame on
+        rules = GameEvents.install(getGameWorld());
+        if (telemetry == null) {
+            // One log for the whole session, written out when the game exits
+            telemetry = new TelemetryLog(Path.of("logs"), telemetryLevel);
+            Runtime.getRuntime().addShutdownHook(new Thread(this::closeTelemetry));
+        }
+        GameTelemetry.install(getGameWorld(), telemetry);
+        if (profile) {
+            // Before the level spawns anything, so the first spawns are timed too
+            profiler = WorldProfiler.install(getGameWorld(), FXGL.getPrimaryStage().getScene(), FrameProfiler.DEFAULT_WINDOW);
+            profileLog = new ProfileLog(Path.of("logs"));
+        }
+        try {
+            if (match.replayFrom() != null) {
+                // Seed, tick rate and map come from the recording
+                replayReader = new ReplayReader(match.replayFrom());
+                level = replayReader.getMapName();
+                match = new MatchOptions(replayReader.getSeed(), replayReader.getTicksPerSecond(), null, match.replayFrom());
+            } else if (match.recordTo() != null) {
+                replayWriter = new ReplayWriter(match.recordTo(), match.seed(), match.ticksPerSecond(), level);
+                Runtime.getRuntime().addShutdownHook(new Thread(this::closeReplay));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open replay", e);
+        }
+
+        // A replay may play another map than the one preloaded, that one is loaded on the spot
+        long waitStart = System.nanoTime();
+        GameAssets assets = GameAssets.preload(level);
+        assets.getCache().awaitAll();
+        AtlasTextures atlas = AtlasTextures.get();
+        log.infof("Waited %.1f ms for the preloaded assets, textures %s", (System.nanoTime() - waitStart) / 1e6,
+                atlas == null ? "one by one" : String.format("from a %dx%d atlas of %d textures",
+                        atlas.getIndex().getWidth(), atlas.getIndex().getHeight(), atlas.getIndex().getRegions().size()));
+        // The load time of every asset is only of interest when tuning the preloading
+        log.debug("Preloaded assets:%n%s".formatted(assets.getCache().format()));
+
+        // Add entity factory for creating game entities, which makes the animations from the preloaded textures
+        getGameWorld().addEntityFactory(match.isDeterministic()
+                ? new TankEntityFactory(match.seed(), match.fixedTimestep())
+                : new TankEntityFactory());
+        gameOverView = AtlasTextures.texture("ui/GameOver.png");
+        // Deterministic matches already update at a fixed rate, one tick per frame keeps them repeatable
+        FixedStepClock clock = match.isDeterministic()
+                ? new FixedStepClock(match.ticksPerSecond(), 1, true)
+                : new FixedStepClock(simHz);
+        fixedLoop = FixedStepLoop.install(getGameWorld(), clock);
+        // Enemies join the scheduler and the loop on their first update
+        if (!match.isDeterministic()) {
+            aiScheduler = EnemyScheduler.install(getGameWorld(), aiSlice > 0 ? aiSlice : Integer.MAX_VALUE,
+                    Math.round(aiBudgetMillis * 1e6), aiThreads);
+        } else if (aiSlice > 0 || aiThreads > 1) {
+            aiScheduler = EnemyScheduler.install(getGameWorld(), aiSlice > 0 ? aiSlice : Integer.MAX_VALUE, 0, aiThreads);
+        }
+        // Load the game level, from the level file compiled at build time if there is one
+        long loadStart = System.nanoTime();
+        URL compiled = LevelReader.find(level);
+        TmxMap map = null;
+        if (compiled != null || useWallBitmap) {
+            map = assets.level(level);
+        }
+        WallBitmap walls = null;
+        if (useWallBitmap) {
+            // Must be in place before the level is built, which then spawns no walls, see CompiledLevelLoader
+            walls = WallBitmap.rasterize(map);
+            EntitySpatialIndex.of(getGameWorld()).setWalls(walls);
+        }
+        if (useCanvasRenderer) {
+            // Must be in place before the map spawns its tanks, see TankEntityFactory
+            canvasRenderer = CanvasRenderer.install(getGameWorld());
+        }
+        if (compiled != null) {
+            getGameWorld().setLevel(CompiledLevelLoader.build(map, assets.tiles(level, compiled), getGameWorld()));
+        } else if (useWallBitmap) {
+            // FXGL's TMX loader would spawn every wall, the compiled level's loader builds the TMX map without them
+            URL tmx = TankApp.class.getResource(TmxMap.LEVELS_ROOT + level);
+            getGameWorld().setLevel(CompiledLevelLoader.build(map, tmx, getGameWorld()));
+        } else {
+            setLevelFromMap(level);
+        }
+        log.infof("Loaded %s in %.1f ms from %s, %s", level, (System.nanoTime() - loadStart) / 1e6,
+                compiled != null ? "the compiled level" : "TMX",
+                walls == null ? "walls as entities" : String.format("walls as a %dx%d bitmap (%d bytes)",
+                        walls.getColumns(), walls.getRows(), walls.sizeInBytes()));
+        worldWidth = map != null ? map.getPixelWidth() : getAppWidth();
+        worldHeight = map != null ? map.getPixelHeight() : getAppHeight();
+        if (useBulletLayer) {
+            bulletLayer = BulletLayer.install(getGameWorld(), worldWidth, worldHeight);
+        }
+
+        if (usePursuit || !blindFire) {
+            // The AI needs the walls even when they are entities
+            WallBitmap aiWalls = walls != null ? walls : WallBitmap.rasterize(map != null ? map : assets.level(level));
+            if (usePursuit) {
+                pursuit = PursuitField.install(getGameWorld(), aiWalls);
+            }
+            if (!blindFire) {
+                lineOfSight = LineOfSight.install(getGameWorld(), aiWalls);
+            }
+        }
 
         // Retrieve the player component for managing player actions
-        playerComponent = getGameWorld().getSingleton(PLAYER).getComponent(PlayerComponent.class);
-
-        // Listener to check when all enemies are destroyed
-        getip("destroyedEnemy").addListener((ob, ov, nv) -> {
-            if (nv.intValue() == 6) { // Check if 6 enemies have been destroyed
-                set("gameOver", true); // Set game over state
-                Texture texture = FXGL.getAssetLoader().loadTexture("ui/GameOver.png");
-                texture.setTranslateX((32 * 30) / 2); // Center the Game Over texture
-                texture.setTranslateY((32 * 30) / 2);
-                texture.setScaleX(5);
-                texture.setScaleY(5);
-
-                Rectangle darkOverlay = new Rectangle(FXGL.getAppWidth(), FXGL.getAppHeight(), Color.rgb(0, 0, 0, .7));
-                FXGL.getGameScene().addUINode(darkOverlay); // Add overlay for Game Over effect
-                FXGL.getGameScene().addUINode(texture); // Add Game Over texture to scene
+        player = getGameWorld().getSingleton(PLAYER);
+        playerComponent = player.getComponent(PlayerComponent.class);
+
+        // Scroll with the player on maps larger than the window
+        if (worldWidth > getAppWidth() || worldHeight > getAppHeight()) {
+            getGameScene().getViewport().setBounds(0, 0, worldWidth, worldHeight);
+            // Not bound to the entity, which moves in ticks, but moved to its view every frame
+            playerView = fixedLoop.track(player);
+        }
+
+        // Finish the recording as soon as the match is decided
+        getbp("gameOver").addListener((ob, ov, nv) -> {
+            if (nv) {
+                closeReplay();
             }
         });
     }
 
     @Override
     protected void initGameVars(Map<String, Object> vars) {
-        // Initialize game variables such as lives and score
+        // Initialize game variables such as lives and score, the MatchRules keep them up to date
         vars.put("spawnedEnemy", 6);
         vars.put("gameOver", false);
         vars.put("destroyedEnemy", 0);
-        vars.put("lives", 3);
+        vars.put("lives", MatchRules.START_LIVES);
         vars.put("score", 0);
     }
 
@@ -109,58 +380,326 @@ public class TankApp extends GameApplication {
 
         FXGL.addUINode(livesText); // Add lives text to UI
         FXGL.addUINode(scoreText); // Add score text to UI
+
+        if (profiler != null) {
+            // Frame profile under the lives, F3 shows and hides it
+            profileText = new Text();
+            profileText.setFont(Font.font("Monospaced", 14));
+            profileText.setTranslateX(32);
+            profileText.setTranslateY(70);
+            profileText.setFill(Color.BLACK);
+            profileText.setVisible(false);
+            FXGL.addUINode(profileText);
+        }
     }
 
     @Override
     protected void initInput() {
         // Map keyboard inputs to player actions for movement and shooting
-        onKey(KeyCode.W, () -> { moveUpAction(); return Unit.INSTANCE; });
-        onKey(KeyCode.UP, () -> { moveUpAction(); return Unit.INSTANCE; });
+        onKey(KeyCode.W, () -> { hold(PlayerInput.UP); return Unit.INSTANCE; });
+        onKey(KeyCode.UP, () -> { hold(PlayerInput.UP); return Unit.INSTANCE; });
+
+        onKey(KeyCode.S, () -> { hold(PlayerInput.DOWN); return Unit.INSTANCE; });
+        onKey(KeyCode.DOWN, () -> { hold(PlayerInput.DOWN); return Unit.INSTANCE; });
 
-        onKey(KeyCode.S, () -> { moveDownAction(); return Unit.INSTANCE; });
-        onKey(KeyCode.DOWN, () -> { moveDownAction(); return Unit.INSTANCE; });
+        onKey(KeyCode.A, () -> { hold(PlayerInput.LEFT); return Unit.INSTANCE; });
+        onKey(KeyCode.LEFT, () -> { hold(PlayerInput.LEFT); return Unit.INSTANCE; });
 
-        onKey(KeyCode.A, () -> { moveLeftAction(); return Unit.INSTANCE; });
-        onKey(KeyCode.LEFT, () -> { moveLeftAction(); return Unit.INSTANCE; });
+        onKey(KeyCode.D, () -> { hold(PlayerInput.RIGHT); return Unit.INSTANCE; });
+        onKey(KeyCode.RIGHT, () -> { hold(PlayerInput.RIGHT); return Unit.INSTANCE; });
 
-        onKey(KeyCode.D, () -> { moveRightAction(); return Unit.INSTANCE; });
-        onKey(KeyCode.RIGHT, () -> { moveRightAction(); return Unit.INSTANCE; });
+        onKey(KeyCode.SPACE, () -> { hold(PlayerInput.SHOOT); return Unit.INSTANCE; });
+        onKey(KeyCode.F, () -> { hold(PlayerInput.SHOOT); return Unit.INSTANCE; });
 
-        onKey(KeyCode.SPACE, () -> { shootAction(); return Unit.INSTANCE; });
-        onKey(KeyCode.F, () -> { shootAction(); return Unit.INSTANCE; });
+        onKeyDown(KeyCode.F3, () -> { toggleProfile(); return Unit.INSTANCE; });
+        onKeyDown(KeyCode.F4, () -> { cycleTelemetry(); return Unit.INSTANCE; });
     }
 
-    private boolean tankIsReady() {
-        return !getb("gameOver"); // Check if the tank is ready to perform actions
+    private void hold(int input) {
+        heldInput |= input;
     }
 
-    private void shootAction() {
-        if (tankIsReady()) {
-            playerComponent.shoot(); // Call shoot method from PlayerComponent
+    private void toggleProfile() {
+        if (profileText != null) {
+            profileText.setText(profiler.format() + fixedLoop.getClock().format());
+            profileText.setVisible(!profileText.isVisible());
         }
     }
 
-    private void moveRightAction() {
-        if (tankIsReady()) {
-            playerComponent.right(); // Move right if tank is ready
+    // DEBUG, INFO, OFF and round again
+    private void cycleTelemetry() {
+        TelemetryLevel[] levels = TelemetryLevel.values();
+        telemetry.setLevel(levels[(telemetry.getLevel().ordinal() + 1) % levels.length]);
+        FXGL.getNotificationService().pushNotification("Telemetry " + telemetry.getLevel());
+    }
+
+    @Override
+    protected void onUpdate(double tpf) {
+        long frameStart = System.nanoTime();
+        long start = profiler != null ? frameStart : 0;
+        drainGameEvents();
+        lap(FramePhase.INPUT, start);
+        int ticks = fixedLoop.runFrame(tpf, tickTask);
+        if (ticks > 0) {
+            // Keys held during a frame without a tick count towards the next one
+            heldInput = PlayerInput.NONE;
+        }
+        followPlayer();
+        if (canvasRenderer != null) {
+            start = profiler != null ? System.nanoTime() : 0;
+            canvasRenderer.draw();
+            lap(FramePhase.SPRITES, start);
+        }
+        if (bulletLayer != null) {
+            start = profiler != null ? System.nanoTime() : 0;
+            bulletLayer.draw(fixedLoop.getClock().getAlpha());
+            lap(FramePhase.BULLETS, start);
+        }
+        if (profiler != null) {
+            showProfile();
+        }
+        if (logRenderStats) {
+            logRenderStats();
         }
+        telemetry.frame(ticks, (long) (tpf * 1e9), System.nanoTime() - frameStart);
     }
 
-    private void moveLeftAction() {
-        if (tankIsReady()) {
-            playerComponent.left(); // Move left if tank is ready
+    // One tick of the game after the components stepped, run by the fixed step loop
+    private void tick() {
+        long start = profiler != null ? System.nanoTime() : 0;
+        // One input per tick, from the recording when replaying, otherwise from the keyboard
+        int input = replayReader != null ? replayReader.nextInput() : heldInput;
+        if (replayWriter != null) {
+            replayWriter.record(input);
         }
+        applyInput(input);
+        start = lap(FramePhase.INPUT, start);
+
+        if (lineOfSight != null) {
+            lineOfSight.onUpdate(player);
+        }
+        if (aiScheduler != null) {
+            aiScheduler.runFrame();
+        }
+        if (pursuit != null) {
+            pursuit.onUpdate(player);
+        }
+        start = lap(FramePhase.AI, start);
+        if (bulletLayer != null) {
+            bulletLayer.update(fixedLoop.getClock().getTickSeconds());
+            lap(FramePhase.BULLETS, start);
+        }
+    }
+
+    // Centers the viewport on where the player is drawn, within the world
+    private void followPlayer() {
+        if (playerView == null) {
+            return;
+        }
+        Viewport viewport = getGameScene().getViewport();
+        double x = playerView.getRenderX() + player.getWidth() / 2 - getAppWidth() / 2.0;
+        double y = playerView.getRenderY() + player.getHeight() / 2 - getAppHeight() / 2.0;
+        viewport.setX(Math.max(0, Math.min(worldWidth - getAppWidth(), x)));
+        viewport.setY(Math.max(0, Math.min(worldHeight - getAppHeight(), y)));
     }
 
-    private void moveDownAction() {
-        if (tankIsReady()) {
-            playerComponent.down(); // Move down if tank is ready
+    // Applies what the collision rules reported since the last update, counted as input in the profile
+    private void drainGameEvents() {
+        if (rules.getEvents().drain(gameEventListener) == 0) {
+            return;
+        }
+        // One update of each var however many collisions there were, equal values fire no listener
+        set("lives", rules.getLives());
+        set("score", rules.getScore());
+        set("destroyedEnemy", rules.getDestroyedEnemy());
+        if (gameOverPending) {
+            gameOverPending = false;
+            set("gameOver", true); // Set game over state
+            showGameOver();
         }
     }
 
-    private void moveUpAction() {
-        if (tankIsReady()) {
-            playerComponent.up(); // Move up if tank is ready
+    private void onGameEvent(GameEventType type, int value) {
+        // The counters are read from the rules once the queue is empty, only the end of the match needs acting on
+        if (type == GameEventType.GAME_OVER) {
+            gameOverPending = true;
+        }
+    }
+
+    private void showGameOver() {
+        Texture texture = gameOverView;
+        texture.setTranslateX((32 * 30) / 2); // Center the Game Over texture
+        texture.setTranslateY((32 * 30) / 2);
+        texture.setScaleX(5);
+        texture.setScaleY(5);
+
+        Rectangle darkOverlay = new Rectangle(FXGL.getAppWidth(), FXGL.getAppHeight(), Color.rgb(0, 0, 0, .7));
+        FXGL.getGameScene().addUINode(darkOverlay); // Add overlay for Game Over effect
+        FXGL.getGameScene().addUINode(texture); // Add Game Over texture to scene
+    }
+
+    // Adds the time since start to the phase and returns the current time, the start of the next phase
+    private long lap(FramePhase phase, long start) {
+        if (profiler == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        profiler.add(phase, now - start);
+        return now;
+    }
+
+    private void showProfile() {
+        if (profileText != null && profileText.isVisible() && profiler.getFrames() % PROFILE_TEXT_FRAMES == 0) {
+            profileText.setText(profiler.format() + fixedLoop.getClock().format());
+        }
+        long now = System.nanoTime();
+        if (profileLogged == 0) {
+            profileLogged = now;
+        } else if (now - profileLogged >= PROFILE_LOG_NANOS) {
+            profileLog.writeAsync(profiler.snapshot(System.currentTimeMillis()));
+            profileLogged = now;
+        }
+    }
+
+    private void logRenderStats() {
+        long now = System.nanoTime();
+        if (statsStart == 0) {
+            statsStart = now;
+            return;
+        }
+        statsFrames++;
+        if (now - statsStart < 5_000_000_000L) {
+            return;
+        }
+        String details = getGameWorld().getEntitiesByComponent(TileChunksComponent.class).stream()
+                .map(entity -> entity.getComponent(TileChunksComponent.class).getStreamer())
+                .map(tiles -> String.format(", tile chunks %d shown, %d cached, %d baked (%.1f ms each)",
+                        tiles.getShownCount(), tiles.getCachedCount(), tiles.getBakedCount(), tiles.getAverageBakeMillis()))
+                .findFirst().orElse("");
+        FixedStepClock clock = fixedLoop.getClock();
+        RollingStats.Summary ticks = clock.getTickNanos().summary();
+        RollingStats.Summary frames = clock.getFrameNanos().summary();
+        details += String.format(", %d Hz sim ticks %.3f ms (p99 %.3f ms), frames %.3f ms (p99 %.3f ms), %d ticks dropped",
+                clock.getTicksPerSecond(), ticks.p50() / 1e6, ticks.p99() / 1e6,
+                frames.p50() / 1e6, frames.p99() / 1e6, clock.getDroppedTicks());
+        Set<Image> images = Collections.newSetFromMap(new IdentityHashMap<>());
+        int[] views = new int[2];
+        countImageViews(getGameScene().getRoot(), images, views, new Image[1]);
+        details += String.format(", %d image views drawing from %d images with %d image switches",
+                views[0], images.size(), views[1]);
+        if (canvasRenderer != null) {
+            details += String.format(", %d sprites on the canvas, %d drawn with %d image switches and %d culled in the last frame",
+                    canvasRenderer.getSpriteCount(), canvasRenderer.getBatch().getDrawn(),
+                    canvasRenderer.getBatch().getSwitches(), canvasRenderer.getBatch().getCulled());
+        }
+        if (aiScheduler != null) {
+            details += String.format(", AI %.3f ms per tick deciding on %d threads (%.3f ms at most) and %.3f ms moving,"
+                            + " %.1f decisions and %.1f deferred per tick, %d ticks between decisions at most",
+                    aiScheduler.getDecisionMillisPerFrame(), aiScheduler.getThreads(), aiScheduler.getMaxDecisionMillis(),
+                    aiScheduler.getMovementMillisPerFrame(), aiScheduler.getDecisionsPerFrame(),
+                    aiScheduler.getDeferredPerFrame(), aiScheduler.getMaxWaitFrames());
+            aiScheduler.resetStatistics();
+        }
+        if (lineOfSight != null) {
+            SightGrid grid = lineOfSight.getGrid();
+            details += String.format(", player in sight %d of %d times, %d raycasts (%.0f%% cached)",
+                    lineOfSight.getInSight(), lineOfSight.getChecks(), grid.getQueries(),
+                    grid.getQueries() == 0 ? 0.0 : 100.0 * grid.getCacheHits() / grid.getQueries());
+        }
+        if (pursuit != null) {
+            details += String.format(", pursuit %.3f ms per tick at most, %d searches",
+                    pursuit.getMaxUpdateNanos() / 1e6, pursuit.getFlowField().getSearches());
+        }
+        log.infof("%.1f fps, %d scene nodes%s", statsFrames / ((now - statsStart) / 1e9),
+                countNodes(getGameScene().getRoot()), details);
+        statsStart = now;
+        statsFrames = 0;
+    }
+
+    private static int countNodes(Parent parent) {
+        int count = 1;
+        for (Node child : parent.getChildrenUnmodifiable()) {
+            count += child instanceof Parent p ? countNodes(p) : 1;
+        }
+        return count;
+    }
+
+    // Counts the visible image views in draw order into views[0], and into views[1] how often one
+    // shows another image than the one drawn before it, each of which binds another texture
+    private static void countImageViews(Parent parent, Set<Image> images, int[] views, Image[] last) {
+        for (Node child : parent.getChildrenUnmodifiable()) {
+            if (!child.isVisible()) {
+                continue;
+            }
+            if (child instanceof ImageView view && view.getImage() != null) {
+                views[0]++;
+                images.add(view.getImage());
+                if (view.getImage() != last[0]) {
+                    views[1]++;
+                    last[0] = view.getImage();
+                }
+            } else if (child instanceof Parent p) {
+                countImageViews(p, images, views, last);
+            }
+        }
+    }
+
+    private boolean tankIsReady() {
+        return !rules.isGameOver(); // Check if the tank is ready to perform actions
+    }
+
+    private void applyInput(int input) {
+        if (!tankIsReady()) {
+            return;
+        }
+        // Same priority as the key handlers used to have: up, down, left, right
+        Dir dir = PlayerInput.direction(input);
+        if (dir != null) {
+            switch (dir) {
+                case UP -> playerComponent.up();
+                case DOWN -> playerComponent.down();
+                case LEFT -> playerComponent.left();
+                case RIGHT -> playerComponent.right();
+            }
+        }
+        if (PlayerInput.isHeld(input, PlayerInput.SHOOT)) {
+            playerComponent.shoot(); // Call shoot method from PlayerComponent
+        }
+    }
+
+    private synchronized void closeReplay() {
+        try {
+            if (replayWriter != null) {
+                replayWriter.close();
+                replayWriter = null;
+            }
+            if (replayReader != null) {
+                replayReader.close();
+                replayReader = null;
+            }
+        } catch (IOException e) {
+            log.warning("Failed to close replay", e);
+        }
+    }
+
+    // Called when FXGL exits, and from the shutdown hook for any other way out
+    private synchronized void closeTelemetry() {
+        if (telemetry == null || telemetryClosed) {
+            return;
+        }
+        telemetryClosed = true;
+        telemetry.close();
+        log.info(telemetry.format());
+    }
+
+    /**
+     * Closes the game's telemetry when FXGL exits. FXGL closes its log right after its services
+     * exit, long before the shutdown hooks run.
+     */
+    public static final class TelemetryExit extends EngineService {
+        @Override
+        public void onExit() {
+            FXGL.<TankApp>getAppCast().closeTelemetry();
         }
     }
 
@@ -174,7 +713,41 @@ public class TankApp extends GameApplication {
         getPhysicsWorld().addCollisionHandler(new EnemyHealthPackHandler());
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // "--headless", "--batch" and "--server" run without a window, see HeadlessMain, BatchMain and ServerMain
+        if (args.length > 0 && args[0].equals("--headless")) {
+            HeadlessMain.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchMain.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--server")) {
+            ServerMain.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        options = MatchOptions.parse(args); // --seed, --hz, --record and --replay
+        useBulletLayer = Arrays.asList(args).contains("--bullet-layer");
+        useCanvasRenderer = Arrays.asList(args).contains("--canvas-render");
+        AtlasTextures.setEnabled(!Arrays.asList(args).contains("--no-atlas"));
+        useWallBitmap = Arrays.asList(args).contains("--wall-bitmap");
+        usePursuit = Arrays.asList(args).contains("--pursuit");
+        blindFire = Arrays.asList(args).contains("--blind-fire");
+        logRenderStats = Arrays.asList(args).contains("--render-stats");
+        profile = Arrays.asList(args).contains("--profile");
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--map" -> mapName = args[i + 1];
+                case "--ai-slice" -> aiSlice = Integer.parseInt(args[i + 1]);
+                case "--ai-budget" -> aiBudgetMillis = Double.parseDouble(args[i + 1]);
+                case "--ai-threads" -> aiThreads = Integer.parseInt(args[i + 1]);
+                case "--sim-hz" -> simHz = Integer.parseInt(args[i + 1]);
+                case "--telemetry" -> telemetryLevel = TelemetryLevel.valueOf(args[i + 1].toUpperCase(Locale.ROOT));
+                default -> {
+                }
+            }
+        }
         launch(args); // Launch the game application
     }
 }
@@ -0,0 +1,42 @@
+package com.example.ooptankgame.Telemetry;
+
+import com.almasb.fxgl.entity.GameWorld;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The GameTelemetry class gives the components, collision handlers and the entity pool of a FXGL
+ * world the {@link TelemetryLog} of the session played in it.
+ *
+ * Key Responsibilities:
+ * - **Lookup**: {@link #of} returns the world's log, which the game's code records shots, hits,
+ *   pickups and spawns into instead of printing them.
+ * - **Setup**: {@link #install} attaches a log to a world. {@code TankApp} creates it once per
+ *   session and closes it when the game exits.
+ *
+ * Like the {@code GameEvents}, the log is per world and only exists after {@link #install}, so a
+ * world without one, like the headless benchmarks', records nothing.
+ */
+public final class GameTelemetry {
+
+    private static final Map<GameWorld, TelemetryLog> LOGS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private GameTelemetry() {
+    }
+
+    /**
+     * Makes the given log the one of the world.
+     */
+    public static void install(GameWorld world, TelemetryLog log) {
+        LOGS.put(world, log);
+    }
+
+    /**
+     * Returns the log of the given world, or {@code null} if none was installed.
+     */
+    public static TelemetryLog of(GameWorld world) {
+        return LOGS.get(world);
+    }
+}
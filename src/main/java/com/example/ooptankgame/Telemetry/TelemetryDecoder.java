@@ -0,0 +1,209 @@
+package com.example.ooptankgame.Telemetry;
+
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Enums.TelemetryType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The TelemetryDecoder class turns the files of a {@link TelemetryLog} back into events.
+ *
+ * Key Responsibilities:
+ * - **Reading**: {@link #read} hands every event of a file to a {@link Visitor}. A file cut short,
+ *   because the game was killed, is read up to its last whole event.
+ * - **CSV**: {@link #main} writes the events of the given files, or of every telemetry file in
+ *   the given folders, as one CSV table ({@link #CSV_HEADER}), with the subjects and directions
+ *   by name, to a file or the console.
+ *
+ * Run with: {@code java -cp target/classes com.example.ooptankgame.Telemetry.TelemetryDecoder [--out events.csv] [logs/]}
+ */
+public final class TelemetryDecoder {
+
+    public static final String CSV_HEADER = "session,time_ms,event,subject,value,x,y,extra";
+
+    /** Spawn names of the game, the {@code SPAWN} events only carry their hash codes. */
+    private static final String[] SPAWN_NAMES = {
+            "bullet", "explode", "heal", "healthpack", "wall", "playerSpawnPoint", "enemySpawnPoint"};
+    private static final Map<Integer, String> SPAWNS = new HashMap<>();
+
+    static {
+        for (String name : SPAWN_NAMES) {
+            SPAWNS.put(name.hashCode(), name);
+        }
+    }
+
+    /**
+     * Receives the events of a file, in the order they were recorded.
+     */
+    public interface Visitor {
+        void event(long nanos, TelemetryType type, int subject, int value, float x, float y, int extra);
+    }
+
+    /** The header of a file. */
+    public record Header(long sessionStart, int fileIndex) {
+    }
+
+    private TelemetryDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path out = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out")) {
+                if (i + 1 == args.length) {
+                    System.err.println("Missing value for --out");
+                    System.exit(2);
+                }
+                out = Path.of(args[++i]);
+            } else {
+                inputs.add(Path.of(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add(Path.of("logs"));
+        }
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            files.addAll(files(input));
+        }
+        if (files.isEmpty()) {
+            System.err.println("No telemetry files in " + inputs);
+            System.exit(1);
+        }
+        PrintWriter csv = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                out != null ? Files.newOutputStream(out) : System.out, StandardCharsets.UTF_8)));
+        csv.println(CSV_HEADER);
+        long events = 0;
+        for (Path file : files) {
+            String session = session(file);
+            events += read(file, (nanos, type, subject, value, x, y, extra) -> csv.printf(Locale.ROOT,
+                    "%s,%.3f,%s,%s,%s,%.1f,%.1f,%d%n", session, nanos / 1e6, type,
+                    subjectName(type, subject), valueName(type, value), x, y, extra));
+        }
+        csv.flush();
+        if (out != null) {
+            csv.close();
+            System.out.println("Wrote " + events + " events from " + files.size() + " files to " + out.toAbsolutePath());
+        }
+    }
+
+    /**
+     * The telemetry files in {@code input}, sorted so the files of a session follow each other, or
+     * {@code input} itself if it is a file.
+     */
+    public static List<Path> files(Path input) {
+        if (!Files.isDirectory(input)) {
+            return List.of(input);
+        }
+        try (Stream<Path> paths = Files.list(input)) {
+            return paths.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(TelemetryFormat.PREFIX) && name.endsWith(TelemetryFormat.EXTENSION);
+            }).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list " + input, e);
+        }
+    }
+
+    /**
+     * Reads the file's events into {@code visitor} and returns how many there were.
+     */
+    public static long read(Path file, Visitor visitor) throws IOException {
+        TelemetryType[] types = TelemetryType.values();
+        long count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file)), 1 << 16))) {
+            readHeader(in, file);
+            byte[] event = new byte[TelemetryFormat.EVENT_BYTES];
+            ByteBuffer buffer = ByteBuffer.wrap(event);
+            int first;
+            while ((first = in.read()) >= 0) {
+                event[0] = (byte) first;
+                in.readFully(event, 1, event.length - 1);
+                buffer.clear();
+                long nanos = buffer.getLong();
+                int type = buffer.getInt();
+                if (type < 0 || type >= types.length) {
+                    throw new IllegalArgumentException(file + " has an event of unknown type " + type);
+                }
+                visitor.event(nanos, types[type], buffer.getInt(), buffer.getInt(),
+                        buffer.getFloat(), buffer.getFloat(), buffer.getInt());
+                count++;
+            }
+        } catch (EOFException e) {
+            // The game stopped before closing the file, what it flushed until then is read
+            System.err.println(file + " is cut short after " + count + " events");
+        }
+        return count;
+    }
+
+    /**
+     * Reads only the header of the file.
+     */
+    public static Header header(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(file)))) {
+            return readHeader(in, file);
+        }
+    }
+
+    private static Header readHeader(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != TelemetryFormat.MAGIC) {
+            throw new IllegalArgumentException(file + " is not a telemetry file");
+        }
+        int version = in.readInt();
+        if (version != TelemetryFormat.VERSION) {
+            throw new IllegalArgumentException(file + " has format version " + version
+                    + ", expected " + TelemetryFormat.VERSION);
+        }
+        Header header = new Header(in.readLong(), in.readInt());
+        int eventBytes = in.readInt();
+        if (eventBytes != TelemetryFormat.EVENT_BYTES) {
+            throw new IllegalArgumentException(file + " has " + eventBytes + " byte events, expected "
+                    + TelemetryFormat.EVENT_BYTES);
+        }
+        return header;
+    }
+
+    // The session part of the file name, telemetry-<start time>
+    private static String session(Path file) {
+        String name = file.getFileName().toString();
+        int index = name.lastIndexOf('-');
+        return index > 0 && name.startsWith(TelemetryFormat.PREFIX) ? name.substring(0, index) : name;
+    }
+
+    private static String subjectName(TelemetryType type, int subject) {
+        return switch (type) {
+            case SHOT, HIT, PICKUP -> subject >= 0 && subject < TankGameType.values().length
+                    ? TankGameType.values()[subject].name() : Integer.toString(subject);
+            case SPAWN -> SPAWNS.getOrDefault(subject, Integer.toHexString(subject));
+            case FRAME -> Integer.toString(subject);
+        };
+    }
+
+    private static String valueName(TelemetryType type, int value) {
+        if (type == TelemetryType.SHOT && value >= 0 && value < Dir.values().length) {
+            return Dir.values()[value].name();
+        }
+        return Integer.toString(value);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ooptankgame.Telemetry;
+
+/**
+ * Layout of a telemetry file ({@code telemetry-<start time>-<n>.tlm.gz}), shared by
+ * {@link TelemetryWriter} and {@link TelemetryDecoder}. The file is a gzip stream of big-endian
+ * numbers, a header followed by fixed-size events:
+ *
+ * <pre>
+ * header: "TTLM"  magic
+ *         i32     format version
+ *         i64     session start, milliseconds since the epoch
+ *         i32     index of the file in the session, from 0
+ *         i32     event size in bytes
+ * event:  i64     nanoseconds since the session start
+ *         i32     type, the {@code TelemetryType} ordinal
+ *         i32     subject
+ *         i32     value
+ *         f32 x 2 x, y
+ *         i32     extra
+ * </pre>
+ *
+ * See {@code TelemetryType} for what subject, value and extra mean for each type. The writer
+ * flushes the stream every second, so a file cut short by a crash still decodes up to then.
+ */
+final class TelemetryFormat {
+
+    static final int MAGIC = ('T' << 24) | ('T' << 16) | ('L' << 8) | 'M';
+    static final int VERSION = 1;
+    static final int EVENT_BYTES = 32;
+    static final String PREFIX = "telemetry-";
+    static final String EXTENSION = ".tlm.gz";
+
+    private TelemetryFormat() {
+    }
+}
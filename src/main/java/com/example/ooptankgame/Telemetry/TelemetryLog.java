@@ -0,0 +1,208 @@
+package com.example.ooptankgame.Telemetry;
+
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Enums.TelemetryLevel;
+import com.example.ooptankgame.Enums.TelemetryType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The TelemetryLog class records what happens in a game session, shots, hits, pickups, spawns
+ * and frame times, to compressed binary files in a directory, by default {@code logs/}, in place
+ * of printing to the console from the game loop.
+ *
+ * Key Responsibilities:
+ * - **Recording**: {@link #record} and the helpers named after the {@link TelemetryType}s put a
+ *   fixed-size event into a {@link TelemetryRing}. They allocate nothing, take no lock and never
+ *   wait for the disk, so they are safe to call from the physics step and the AI workers.
+ * - **Filtering**: Events below the current {@link TelemetryLevel} are not recorded at all. The
+ *   level can be changed while the game runs, {@code OFF} costs one volatile read per event.
+ * - **Background Writing**: A daemon thread drains the ring every few milliseconds into
+ *   {@code telemetry-<start time>-<n>.tlm.gz}, starts a new file every
+ *   {@link #DEFAULT_EVENTS_PER_FILE} events and keeps the newest {@link #DEFAULT_MAX_FILES}.
+ *   Failures are reported on {@code System.err} and do not stop the game.
+ *
+ * Files are opened on the first event, so a session that records nothing leaves none behind.
+ * {@link TelemetryDecoder} turns them into CSV.
+ */
+public final class TelemetryLog implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final long DEFAULT_EVENTS_PER_FILE = 1 << 20;
+    public static final int DEFAULT_MAX_FILES = 8;
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final TelemetryRing ring;
+    private final TelemetryWriter writer;
+    private final long startNanos = System.nanoTime();
+    private final Thread thread;
+    private volatile TelemetryLevel level;
+    private volatile boolean closed;
+    private volatile long written;
+    private volatile boolean failed;
+
+    public TelemetryLog(Path directory, TelemetryLevel level) {
+        this(directory, level, DEFAULT_CAPACITY, DEFAULT_EVENTS_PER_FILE, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * @param capacity      events the ring holds before further events are dropped
+     * @param eventsPerFile events written to a file before the next one is started
+     * @param maxFiles      files of the session kept on disk, older ones are deleted
+     */
+    public TelemetryLog(Path directory, TelemetryLevel level, int capacity, long eventsPerFile, int maxFiles) {
+        if (eventsPerFile < 1 || maxFiles < 1) {
+            throw new IllegalArgumentException("Need at least one event per file and one file, got "
+                    + eventsPerFile + " and " + maxFiles);
+        }
+        this.ring = new TelemetryRing(capacity);
+        this.writer = new TelemetryWriter(directory, System.currentTimeMillis(), eventsPerFile, maxFiles);
+        this.level = level;
+        this.thread = new Thread(this::run, "telemetry-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Whether events of the given type are recorded at the current level.
+     */
+    public boolean isEnabled(TelemetryType type) {
+        return type.getLevel().ordinal() >= level.ordinal();
+    }
+
+    /**
+     * Records an event, if its type is enabled. See {@link TelemetryType} for the meaning of the numbers.
+     */
+    public void record(TelemetryType type, int subject, int value, double x, double y, int extra) {
+        if (isEnabled(type)) {
+            ring.offer(System.nanoTime() - startNanos, type.ordinal(), subject, value, (float) x, (float) y, extra);
+        }
+    }
+
+    public void shot(TankGameType shooter, Dir dir, double x, double y) {
+        record(TelemetryType.SHOT, shooter.ordinal(), dir.ordinal(), x, y, 0);
+    }
+
+    public void hit(TankGameType target, int healthLeft, double x, double y) {
+        record(TelemetryType.HIT, target.ordinal(), healthLeft, x, y, 0);
+    }
+
+    public void pickup(TankGameType picker, int healthAfter, double x, double y) {
+        record(TelemetryType.PICKUP, picker.ordinal(), healthAfter, x, y, 0);
+    }
+
+    public void spawn(String spawnName, boolean reused, double x, double y) {
+        // String caches its hash code, so this does not allocate
+        record(TelemetryType.SPAWN, spawnName.hashCode(), reused ? 1 : 0, x, y, 0);
+    }
+
+    public void frame(int ticks, long frameNanos, long updateNanos) {
+        record(TelemetryType.FRAME, ticks, (int) (frameNanos / 1000), 0, 0, (int) (updateNanos / 1000));
+    }
+
+    public TelemetryLevel getLevel() {
+        return level;
+    }
+
+    public void setLevel(TelemetryLevel level) {
+        this.level = level;
+    }
+
+    /** Events written to the files so far. */
+    public long getWritten() {
+        return written;
+    }
+
+    /** Events lost because the writer fell a whole ring behind. */
+    public long getDropped() {
+        return ring.getDropped();
+    }
+
+    /** Files of the session still on disk, oldest first. Only settled once the log is closed. */
+    public List<Path> getFiles() {
+        return writer.getFiles();
+    }
+
+    /**
+     * Stops recording, writes what is left in the ring and closes the current file.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A one-line summary, like {@code telemetry: 1234 events in 1 file, 0 dropped}.
+     */
+    public String format() {
+        int files = writer.getFilesWritten();
+        return String.format("telemetry: %d events in %d file%s, %d dropped", written, files,
+                files == 1 ? "" : "s", getDropped());
+    }
+
+    private void run() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        long lastFlush = System.nanoTime();
+        while (true) {
+            // Read the flag before draining, so the events recorded before close() are written
+            boolean closing = closed;
+            buffer.clear();
+            int drained = ring.drain(buffer);
+            if (drained > 0) {
+                buffer.flip();
+                write(buffer, drained);
+                continue;
+            }
+            if (closing) {
+                break;
+            }
+            if (System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                lastFlush = System.nanoTime();
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void write(ByteBuffer buffer, int events) {
+        if (failed) {
+            // Keep draining so the game does not notice, but the events go nowhere
+            return;
+        }
+        try {
+            writer.write(buffer);
+            written += events;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        if (!failed) {
+            failed = true;
+            System.err.println("Failed to write telemetry, recording stopped: " + e.getMessage());
+        }
+    }
+}
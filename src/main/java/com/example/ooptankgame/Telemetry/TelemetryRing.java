@@ -0,0 +1,125 @@
+package com.example.ooptankgame.Telemetry;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The TelemetryRing class is a bounded, lock-free queue of fixed-size telemetry events, written
+ * by any number of game threads and read by one background thread.
+ *
+ * Key Responsibilities:
+ * - **Offering**: {@link #offer} claims the next slot with a compare-and-set, writes the event
+ *   into a preallocated {@code long[]} and publishes it by moving the slot's sequence number on.
+ *   It allocates nothing and never waits: when the reader has fallen a whole ring behind, the
+ *   event is dropped and counted instead of stalling a frame.
+ * - **Draining**: {@link #drain} copies the published events, in order, into a buffer in the
+ *   file layout of {@link TelemetryFormat} and frees their slots.
+ *
+ * Each slot takes 64 bytes, one cache line, so threads writing neighbouring slots do not slow
+ * each other down. The design is the bounded queue of Dmitry Vyukov: a slot is free for the
+ * writer of position {@code p} when its sequence is {@code p}, and holds a published event for
+ * the reader when its sequence is {@code p + 1}.
+ */
+public final class TelemetryRing {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int STRIDE = 8; // longs per slot
+    private static final int SEQUENCE = 0;
+    private static final int TIME = 1;
+    private static final int TYPE_SUBJECT = 2;
+    private static final int VALUE_EXTRA = 3;
+    private static final int POSITION = 4;
+
+    private final long[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Next position to write
+    private final AtomicLong dropped = new AtomicLong();
+    private long tail = 0; // Next position to read, only touched by the reader
+
+    /**
+     * @param capacity events the ring holds, rounded up to a power of two
+     */
+    public TelemetryRing(int capacity) {
+        if (capacity < 2 || capacity > 1 << 24) {
+            throw new IllegalArgumentException("Ring capacity must be between 2 and 2^24, got " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new long[size * STRIDE];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i * STRIDE + SEQUENCE] = i;
+        }
+    }
+
+    /**
+     * Queues an event, or drops it if the ring is full. Returns whether it was queued.
+     */
+    public boolean offer(long nanos, int type, int subject, int value, float x, float y, int extra) {
+        long position = head.get();
+        int slot;
+        while (true) {
+            slot = (int) (position & mask) * STRIDE;
+            long sequence = (long) SLOTS.getAcquire(slots, slot + SEQUENCE);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                // Another writer took this position, try the next one
+                position = head.get();
+            }
+        }
+        slots[slot + TIME] = nanos;
+        slots[slot + TYPE_SUBJECT] = ((long) type << 32) | (subject & 0xFFFFFFFFL);
+        slots[slot + VALUE_EXTRA] = ((long) value << 32) | (extra & 0xFFFFFFFFL);
+        slots[slot + POSITION] = ((long) Float.floatToRawIntBits(x) << 32) | (Float.floatToRawIntBits(y) & 0xFFFFFFFFL);
+        SLOTS.setRelease(slots, slot + SEQUENCE, position + 1);
+        return true;
+    }
+
+    /**
+     * Moves the published events into {@code out}, as many as fit, and returns how many it moved.
+     * Only one thread may drain.
+     */
+    public int drain(ByteBuffer out) {
+        int count = 0;
+        while (out.remaining() >= TelemetryFormat.EVENT_BYTES) {
+            int slot = (int) (tail & mask) * STRIDE;
+            long sequence = (long) SLOTS.getAcquire(slots, slot + SEQUENCE);
+            if (sequence != tail + 1) {
+                break;
+            }
+            long typeSubject = slots[slot + TYPE_SUBJECT];
+            long valueExtra = slots[slot + VALUE_EXTRA];
+            long position = slots[slot + POSITION];
+            out.putLong(slots[slot + TIME]);
+            out.putInt((int) (typeSubject >>> 32));
+            out.putInt((int) typeSubject);
+            out.putInt((int) (valueExtra >>> 32));
+            out.putInt((int) (position >>> 32));
+            out.putInt((int) position);
+            out.putInt((int) valueExtra);
+            // Free the slot for the writer one lap ahead
+            SLOTS.setRelease(slots, slot + SEQUENCE, tail + mask + 1);
+            tail++;
+            count++;
+        }
+        return count;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /** Events dropped because the ring was full. */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
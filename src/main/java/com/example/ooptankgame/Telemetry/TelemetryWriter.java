@@ -0,0 +1,114 @@
+package com.example.ooptankgame.Telemetry;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes drained telemetry events into rotating gzip files of one session, see
+ * {@link TelemetryFormat}. A file is closed and the next one started after a fixed number of
+ * events, and only the newest few files of the session are kept. Used by the background thread
+ * of a {@link TelemetryLog}, not thread-safe.
+ */
+final class TelemetryWriter implements AutoCloseable {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final long sessionStart;
+    private final String session;
+    private final long eventsPerFile;
+    private final int maxFiles;
+    private final Deque<Path> kept = new ArrayDeque<>();
+    private final List<Path> written = new ArrayList<>();
+    private final byte[] chunk = new byte[1 << 16];
+    private OutputStream out;
+    private int fileIndex = -1;
+    private long eventsInFile;
+
+    TelemetryWriter(Path directory, long sessionStart, long eventsPerFile, int maxFiles) {
+        this.directory = directory;
+        this.sessionStart = sessionStart;
+        this.session = TelemetryFormat.PREFIX
+                + LocalDateTime.ofInstant(Instant.ofEpochMilli(sessionStart), ZoneId.systemDefault()).format(FILE_TIME);
+        this.eventsPerFile = eventsPerFile;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Writes the events between the buffer's position and limit, starting new files as needed.
+     */
+    void write(ByteBuffer events) throws IOException {
+        while (events.hasRemaining()) {
+            if (out == null || eventsInFile == eventsPerFile) {
+                nextFile();
+            }
+            long fit = Math.min(eventsPerFile - eventsInFile, events.remaining() / TelemetryFormat.EVENT_BYTES);
+            int bytes = (int) Math.min(fit * TelemetryFormat.EVENT_BYTES, chunk.length);
+            events.get(chunk, 0, bytes);
+            out.write(chunk, 0, bytes);
+            eventsInFile += bytes / TelemetryFormat.EVENT_BYTES;
+        }
+    }
+
+    /**
+     * Pushes everything written so far into the current file, so it can be decoded as it is.
+     */
+    void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void nextFile() throws IOException {
+        close();
+        fileIndex++;
+        eventsInFile = 0;
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("%s-%03d%s", session, fileIndex, TelemetryFormat.EXTENSION));
+        // Sync flush, so flush() ends a deflate block and everything before it can be decoded
+        out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16), 1 << 16, true);
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(TelemetryFormat.MAGIC);
+        header.writeInt(TelemetryFormat.VERSION);
+        header.writeLong(sessionStart);
+        header.writeInt(fileIndex);
+        header.writeInt(TelemetryFormat.EVENT_BYTES);
+        written.add(file);
+        kept.addLast(file);
+        while (kept.size() > maxFiles) {
+            Files.deleteIfExists(kept.removeFirst());
+        }
+    }
+
+    /** Files of the session still on disk, oldest first. */
+    List<Path> getFiles() {
+        return List.copyOf(kept);
+    }
+
+    /** Files started in the session, including the ones rotated away. */
+    int getFilesWritten() {
+        return written.size();
+    }
+}
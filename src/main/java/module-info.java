@@ -1,6 +1,9 @@
 module com.example.ooptankgame {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.xml;
+    requires java.desktop; // ImageIO for the build-time atlas packer
+    requires jdk.management;
 
     requires com.almasb.fxgl.all;
 
@@ -23,4 +26,11 @@ module com.example.ooptankgame {
     opens com.example.ooptankgame.Factory to javafx.fxml;
     exports com.example.ooptankgame.Enums;
     opens com.example.ooptankgame.Enums to javafx.fxml;
+    exports com.example.ooptankgame.Collision;
+    opens com.example.ooptankgame.Collision to javafx.fxml;
+    exports com.example.ooptankgame.AI;
+    exports com.example.ooptankgame.Bullets;
+    exports com.example.ooptankgame.Level;
+    exports com.example.ooptankgame.Simulation;
+    exports com.example.ooptankgame.Replay;
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.example.ooptankgame.Collision;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.physics.BoundingShape;
+import com.almasb.fxgl.physics.HitBox;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.ooptankgame.Enums.TankGameType.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a tank move resolved with {@link SweptAabb} ends at exactly the same position as
+ * the pixel-stepping loop it replaced in {@code PlayerComponent.move()} and
+ * {@code EnemyAIComponent.move()}.
+ *
+ * Every case builds a standalone {@link GameWorld} with entities shaped like the ones
+ * {@code TankEntityFactory} spawns: the player's 32x30 box, the enemy's 32x30 and 39x39 boxes,
+ * health packs and walls at fractional coordinates like the ones Tiled writes into the TMX. The
+ * tanks turn about the center of their bounding box like after {@code EntityBuilder.bbox()}, some
+ * face the direction they move and some stay unturned. {@link EntitySpatialIndex#maxSteps} gives
+ * the move, and the reference is the old loop on the same entities: {@code translate} one pixel,
+ * {@code isCollidingWith} against every obstacle, translate back and stop on the first hit.
+ */
+class SweptAabbTest {
+
+    private static final int CASES = 2_000;
+    private static final TankGameType[] TYPES = {PLAYER, ENEMY, WALL, HEALTH_PACK};
+    private static final Dir[] DIRS = Dir.values();
+
+    @Test
+    void stopsWhereThePixelSteppingLoopStops() {
+        Random random = new Random(2024);
+        List<Entity> obstacles = new ArrayList<>();
+        int blockedCases = 0;
+
+        for (int c = 0; c < CASES; c++) {
+            GameWorld world = new GameWorld();
+            EntitySpatialIndex index = EntitySpatialIndex.of(world);
+            boolean wholePixels = random.nextBoolean();
+            Dir dir = DIRS[random.nextInt(DIRS.length)];
+
+            Entity mover = random.nextBoolean() ? player(64 + random.nextInt(160), 64 + random.nextInt(160))
+                    : enemy(64 + random.nextInt(160), 64 + random.nextInt(160));
+            if (random.nextBoolean()) {
+                EntitySpatialIndex.rotate(mover, angle(dir));
+            }
+            world.addEntity(mover);
+
+            obstacles.clear();
+            int count = 1 + random.nextInt(8);
+            for (int i = 0; i < count; i++) {
+                Entity obstacle = obstacle(random, wholePixels);
+                world.addEntity(obstacle);
+                obstacles.add(obstacle);
+            }
+            // Up to a 400ms frame hitch at 100px/s
+            int length = random.nextInt(41);
+
+            String before = describe(mover, dir, length, obstacles);
+            int actual = index.maxSteps(mover, dir, length, TYPES);
+            int expected = stepLoop(mover, dir, length, obstacles);
+
+            int caseNumber = c;
+            assertEquals(expected, actual, () -> "case " + caseNumber + ": " + before);
+            if (actual < length) {
+                blockedCases++;
+            }
+        }
+        // The layouts must actually block moves, or the comparison proves little
+        assertTrue(blockedCases > CASES / 10, blockedCases + " of " + CASES + " cases blocked");
+    }
+
+    /**
+     * Old movement loop, returns the number of steps actually taken.
+     */
+    private static int stepLoop(Entity tank, Dir dir, int length, List<Entity> obstacles) {
+        for (int i = 0; i < length; i++) {
+            tank.translate(dir.getDx(), dir.getDy());
+            boolean collision = false;
+            for (Entity obstacle : obstacles) {
+                if (obstacle.getBoundingBoxComponent().isCollidingWith(tank.getBoundingBoxComponent())) {
+                    collision = true;
+                    break;
+                }
+            }
+            if (collision) {
+                tank.translate(-dir.getDx(), -dir.getDy());
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private static Entity obstacle(Random random, boolean wholePixels) {
+        double x = random.nextInt(288);
+        double y = random.nextInt(288);
+        if (!wholePixels) {
+            x += random.nextDouble();
+            y += random.nextDouble();
+        }
+        switch (random.nextInt(4)) {
+            case 0 -> {
+                Entity enemy = enemy(x, y);
+                EntitySpatialIndex.rotate(enemy, angle(DIRS[random.nextInt(DIRS.length)]));
+                return enemy;
+            }
+            case 1 -> {
+                Entity player = player(x, y);
+                EntitySpatialIndex.rotate(player, angle(DIRS[random.nextInt(DIRS.length)]));
+                return player;
+            }
+            case 2 -> {
+                return tank(HEALTH_PACK, x, y, 32, 30);
+            }
+            default -> {
+                double w = 8 + random.nextInt(120);
+                double h = 8 + random.nextInt(120);
+                if (!wholePixels) {
+                    w += random.nextDouble();
+                    h += random.nextDouble();
+                }
+                return tank(WALL, x, y, w, h);
+            }
+        }
+    }
+
+    private static Entity player(double x, double y) {
+        return tank(PLAYER, x, y, 32, 30);
+    }
+
+    /**
+     * Like the enemy of the factory: its own 32x30 box and the 39x39 box of its texture.
+     */
+    private static Entity enemy(double x, double y) {
+        Entity enemy = tank(ENEMY, x, y, 32, 30);
+        enemy.getBoundingBoxComponent().addHitBox(new HitBox(BoundingShape.box(39, 39)));
+        enemy.getTransformComponent().setRotationOrigin(new Point2D(39 / 2.0, 39 / 2.0));
+        return enemy;
+    }
+
+    private static Entity tank(TankGameType type, double x, double y, double width, double height) {
+        Entity entity = new Entity();
+        entity.setType(type);
+        entity.setPosition(x, y);
+        entity.getBoundingBoxComponent().addHitBox(new HitBox(BoundingShape.box(width, height)));
+        // Like EntityBuilder.bbox()
+        entity.getTransformComponent().setRotationOrigin(new Point2D(width / 2, height / 2));
+        return entity;
+    }
+
+    private static double angle(Dir dir) {
+        return switch (dir) {
+            case UP -> 0;
+            case RIGHT -> 90;
+            case DOWN -> 180;
+            case LEFT -> 270;
+        };
+    }
+
+    private static String describe(Entity tank, Dir dir, int length, List<Entity> obstacles) {
+        StringBuilder text = new StringBuilder(String.format("%s %s dir %s length %d", tank.getType(), bounds(tank), dir, length));
+        for (Entity obstacle : obstacles) {
+            text.append(System.lineSeparator()).append("  ").append(obstacle.getType()).append(' ').append(bounds(obstacle));
+        }
+        return text.toString();
+    }
+
+    private static String bounds(Entity entity) {
+        double[] box = new double[4];
+        EntitySpatialIndex.worldBounds(entity, box);
+        return String.format("[%s, %s, %s, %s] angle %s", box[0], box[1], box[2], box[3], entity.getRotation());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.ooptankgame.Components;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.physics.BoundingShape;
+import com.almasb.fxgl.physics.HitBox;
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.SweptAabb;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Level.TmxMap;
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that a tank move allocates nothing once the game has warmed up, so a long match does not
+ * build up garbage collection pauses.
+ *
+ * A player and 200 enemies roam the 30x30 map in a standalone {@link GameWorld}, its walls in a
+ * {@link WallBitmap}. Each frame advances every tank with its {@code step}, which moves the enemies
+ * through {@code EnemyAIComponent.move()}, and turns the player with {@code up()}, {@code right()}
+ * and so on, which move it through {@code PlayerComponent.move()}. The enemies never shoot, since a
+ * shot spawns an entity.
+ *
+ * After a warm-up, so the spatial grid cells and candidate lists have grown and the JIT has
+ * compiled the loop, the bytes allocated by this thread are read from the JVM's allocation counter
+ * around the measured frames, minus what reading the counter itself costs, and must stay far below
+ * one byte per move.
+ */
+class MoveAllocationTest {
+
+    private static final int ENEMIES = 200;
+    private static final int WARMUP_FRAMES = 10_000;
+    private static final int FRAMES = 5_000;
+    private static final int TANK_SIZE = 39;
+    private static final double TPF = 1.0 / 60;
+    // One object per move would be 16 bytes a move. What is left after the warm-up is the grid's
+    // cells growing the first time that many tanks crowd into them, and the JVM recompiling.
+    private static final double MAX_BYTES_PER_MOVE = 0.01;
+    private static final EnemyBrain.Settings NEVER_SHOOT = new EnemyBrain.Settings(
+            EnemyBrain.TURN_FROM_UP_THRESHOLD, EnemyBrain.TURN_THRESHOLD, 999, 0, EnemyBrain.BLOCKED_TURN_CHANCE,
+            EnemyBrain.SHOOT_INTERVAL);
+
+    private final List<double[]> placed = new ArrayList<>();
+    private final EnemyAIComponent[] enemies = new EnemyAIComponent[ENEMIES];
+    private PlayerComponent player;
+    private Entity playerEntity;
+    private int playerDir;
+
+    @Test
+    void movesAllocateNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "This JVM does not count allocated bytes per thread");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        createWorld(TmxMap.load("tmx/tankgamemapnewwalls.tmx"));
+        SplittableRandom turns = new SplittableRandom(5);
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+            frame(turns);
+        }
+        double startX = playerEntity.getX();
+        double startY = playerEntity.getY();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        long baseline = threads.getCurrentThreadAllocatedBytes() - before;
+        before = threads.getCurrentThreadAllocatedBytes();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            frame(turns);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before - baseline;
+
+        assertTrue(playerEntity.getX() != startX || playerEntity.getY() != startY, "the player never moved");
+        long moves = FRAMES * (ENEMIES + 1L);
+        assertTrue(allocated < moves * MAX_BYTES_PER_MOVE, allocated + " bytes allocated by " + moves + " moves");
+    }
+
+    private void createWorld(TmxMap map) {
+        GameWorld world = new GameWorld();
+        WallBitmap walls = WallBitmap.rasterize(map);
+        // Close the gaps in the outer walls, a tank roaming off the map would keep growing the grid
+        int width = map.getPixelWidth();
+        int height = map.getPixelHeight();
+        walls.fill(0, 0, width, 1);
+        walls.fill(0, height - 1, width, height);
+        walls.fill(0, 0, 1, height);
+        walls.fill(width - 1, 0, width, height);
+        EntitySpatialIndex.of(world).setWalls(walls);
+
+        SplittableRandom random = new SplittableRandom(17);
+        player = new PlayerComponent(TPF);
+        playerEntity = tank(TankGameType.PLAYER, openBox(random, map, walls));
+        playerEntity.addComponent(player);
+        world.addEntity(playerEntity);
+        for (int i = 0; i < ENEMIES; i++) {
+            enemies[i] = new EnemyAIComponent(new EnemyBrain(random.split(), NEVER_SHOOT), TPF);
+            Entity enemy = tank(TankGameType.ENEMY, openBox(random, map, walls));
+            enemy.addComponent(enemies[i]);
+            world.addEntity(enemy);
+        }
+    }
+
+    private void frame(SplittableRandom turns) {
+        player.step(TPF);
+        if (turns.nextInt(40) == 0) {
+            playerDir = turns.nextInt(4);
+        }
+        switch (playerDir) {
+            case 0 -> player.up();
+            case 1 -> player.down();
+            case 2 -> player.left();
+            default -> player.right();
+        }
+        for (EnemyAIComponent enemy : enemies) {
+            enemy.step(TPF);
+        }
+    }
+
+    private static Entity tank(TankGameType type, double[] box) {
+        Entity tank = new Entity();
+        tank.setType(type);
+        tank.setPosition(box[0], box[1]);
+        tank.getBoundingBoxComponent().addHitBox(new HitBox(BoundingShape.box(TANK_SIZE, TANK_SIZE)));
+        // Turn in place, as the game's tanks do
+        tank.getTransformComponent().setRotationOrigin(new Point2D(TANK_SIZE / 2.0, TANK_SIZE / 2.0));
+        return tank;
+    }
+
+    /**
+     * A random tank box clear of the walls and of the tanks placed so far.
+     */
+    private double[] openBox(SplittableRandom random, TmxMap map, WallBitmap walls) {
+        while (true) {
+            double x = random.nextInt(map.getPixelWidth() - TANK_SIZE);
+            double y = random.nextInt(map.getPixelHeight() - TANK_SIZE);
+            double[] box = {x, y, x + TANK_SIZE, y + TANK_SIZE};
+            if (walls.overlaps(box[0], box[1], box[2], box[3])
+                    || placed.stream().anyMatch(other -> SweptAabb.overlaps(box, other))) {
+                continue;
+            }
+            placed.add(box);
+            return box;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.ooptankgame.Components;
+
+import com.almasb.fxgl.app.scene.Viewport;
+import com.almasb.fxgl.dsl.components.ProjectileComponent;
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.EntityFactory;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.entity.SpawnData;
+import com.almasb.fxgl.entity.Spawns;
+import com.almasb.fxgl.physics.BoundingShape;
+import com.almasb.fxgl.physics.HitBox;
+import com.almasb.fxgl.texture.AnimatedTexture;
+import com.almasb.fxgl.texture.AnimationChannel;
+import com.example.ooptankgame.AI.EnemyBrain;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.WallBitmap;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Level.TileChunkBaker;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Profiling.WorldProfiler;
+import javafx.geometry.Point2D;
+import javafx.scene.image.WritableImage;
+import javafx.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Updates the components that time themselves with the world's {@code FrameProfiler} in a world
+ * that has none, as in every game started without {@code --profile}. The profiler, and the other
+ * optional per-world parts, must be looked up as nullable and not through FXGL's
+ * {@code LazyValue}, which throws on a null value.
+ */
+class UpdateWithoutProfilerTest {
+
+    private static final double TPF = 1.0 / 60;
+
+    private GameWorld world;
+
+    @BeforeEach
+    void createWorld() {
+        world = new GameWorld();
+        world.addEntityFactory(new BulletFactory());
+        assertNull(WorldProfiler.of(world));
+    }
+
+    @Test
+    void enemyMovesWithoutProfilerPursuitOrLineOfSight() {
+        Entity enemy = tank(TankGameType.ENEMY, 100, 100);
+        enemy.addComponent(new EnemyAIComponent(new EnemyBrain(new SplittableRandom(1)), TPF));
+        world.addEntity(enemy);
+        Point2D start = enemy.getPosition();
+
+        update(120);
+
+        assertNotEquals(start, enemy.getPosition());
+    }
+
+    @Test
+    void bulletFliesWithoutProfiler() {
+        // Walls far from the bullet, so it checks the bitmap every frame without touching it
+        EntitySpatialIndex.of(world).setWalls(new WallBitmap(WallBitmap.DEFAULT_CELL_SIZE, 100, 100));
+        Entity bullet = new Entity();
+        bullet.setType(TankGameType.BULLET);
+        bullet.setPosition(50, 50);
+        bullet.getBoundingBoxComponent().addHitBox(new HitBox(BoundingShape.box(8, 9)));
+        bullet.addComponent(new ProjectileComponent(new Point2D(1, 0), 60));
+        bullet.addComponent(new BulletWallComponent());
+        world.addEntity(bullet);
+
+        update(30);
+
+        assertTrue(bullet.isActive());
+        assertTrue(bullet.getX() > 50);
+    }
+
+    @Test
+    void effectEndsWithoutProfiler() {
+        AnimationChannel channel = new AnimationChannel(new WritableImage(64, 64), 1, 64, 64, Duration.seconds(0.5), 0, 0);
+        Entity effect = new Entity();
+        effect.addComponent(new EffectComponent(new AnimatedTexture(channel), Duration.seconds(0.5)));
+        world.addEntity(effect);
+
+        update(60);
+
+        // Not pooled, so the pool removes it from the world once the animation is over
+        assertFalse(effect.isActive());
+    }
+
+    @Test
+    void tileChunksStreamWithoutProfiler() {
+        TmxMap map = TmxMap.load("tmx/tankgamemapnewwalls.tmx");
+        int[][] pixels = new int[map.getTilesets().size()][];
+        int[] widths = new int[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            TmxMap.Tileset tileset = map.getTilesets().get(i);
+            widths[i] = tileset.columns() * tileset.tileWidth();
+            int rows = (tileset.tileCount() + tileset.columns() - 1) / tileset.columns();
+            pixels[i] = new int[widths[i] * rows * tileset.tileHeight()];
+        }
+        TileChunksComponent chunks = new TileChunksComponent(new TileChunkBaker(map, pixels, widths,
+                TileChunkBaker.DEFAULT_CHUNK_TILES), TileChunksComponent.DEFAULT_CACHE_SIZE, new Viewport(800, 600));
+        Entity tiles = new Entity();
+        tiles.addComponent(chunks);
+        world.addEntity(tiles);
+
+        update(10);
+
+        assertTrue(chunks.getStreamer().getShownCount() > 0);
+    }
+
+    /** Bullets without a view, the game's factory needs the running app for its textures. */
+    public static final class BulletFactory implements EntityFactory {
+        @Spawns("bullet")
+        public Entity bullet(SpawnData data) {
+            Entity bullet = new Entity();
+            bullet.setType(TankGameType.BULLET);
+            bullet.setPosition(data.getX(), data.getY());
+            return bullet;
+        }
+    }
+
+    private Entity tank(TankGameType type, double x, double y) {
+        Entity tank = new Entity();
+        tank.setType(type);
+        tank.setPosition(x, y);
+        tank.getBoundingBoxComponent().addHitBox(new HitBox(BoundingShape.box(39, 39)));
+        return tank;
+    }
+
+    private void update(int frames) {
+        for (int i = 0; i < frames; i++) {
+            world.onUpdate(TPF);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ooptankgame.Level;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Resolves tileset image paths the way {@link CompiledLevelLoader} does for the tile chunks, with
+ * the map in a folder, as when running from the build output, and in a jar, as when running the
+ * packaged game. The resolved URLs must open the tileset image next to the map.
+ */
+class CompiledLevelLoaderTest {
+
+    private static final String MAP = "assets/levels/tmx/map.tnkl";
+    private static final String TILESET = "assets/levels/tilesets/ground tiles.png";
+    private static final String PATH = "../tilesets/ground tiles.png"; // As Tiled writes it into the map
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void resolvesAgainstAFileUrl() throws IOException {
+        write(folder.resolve(MAP), "map");
+        write(folder.resolve(TILESET), "tiles");
+        URL map = folder.resolve(MAP).toUri().toURL();
+
+        assertEquals("tiles", read(CompiledLevelLoader.resolve(map, PATH)));
+    }
+
+    @Test
+    void resolvesAgainstAJarUrl() throws IOException {
+        Path jar = folder.resolve("game.jar");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            entry(out, MAP, "map");
+            entry(out, TILESET, "tiles");
+        }
+        URL map = URI.create("jar:" + jar.toUri() + "!/" + MAP).toURL();
+
+        assertEquals("tiles", read(CompiledLevelLoader.resolve(map, PATH)));
+    }
+
+    private static void write(Path file, String text) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, text);
+    }
+
+    private static void entry(ZipOutputStream out, String name, String text) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+
+    private static String read(String url) throws IOException {
+        try (InputStream in = URI.create(url).toURL().openStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.ooptankgame.Loop;
+
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import com.example.ooptankgame.Simulation.PlayerBot;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the {@link FixedStepClock} plays the same game at any render rate.
+ *
+ * For each frame pattern the clock drives a seeded {@link HeadlessSimulation} through 60 seconds
+ * of frames: steady 30, 60, 75, 144 and 240 frames per second, 60 with a random jitter of up to
+ * 50%, and 60 with a 300ms hitch every two seconds. A pattern fails if:
+ * - a frame ran more than the clock's limit of ticks, or its alpha left [0, 1],
+ * - the ticks run plus the ticks dropped are not the frame time divided by the tick length,
+ * - ticks were dropped although no frame was longer than the limit allows,
+ * - the match differs, by its state hash, from the same number of ticks stepped one by one.
+ *
+ * For comparison each pattern also prints how fast a tank would have moved at its frame rate
+ * with the old per-frame step of {@code round(tpf * 100)} pixels.
+ */
+class FixedStepClockTest {
+
+    private static final int HZ = 60;
+    private static final double SECONDS = 60;
+    private static final long SEED = 1;
+
+    private static TmxMap map;
+
+    /**
+     * Frame times of one render pattern.
+     */
+    private interface Frames {
+        double next(int frame);
+    }
+
+    @BeforeAll
+    static void loadMap() {
+        map = LevelReader.load(HeadlessSimulation.DEFAULT_MAP);
+    }
+
+    @Test
+    void steady30Fps() {
+        check("30 fps", frame -> 1.0 / 30);
+    }
+
+    @Test
+    void steady60Fps() {
+        check("60 fps", frame -> 1.0 / 60);
+    }
+
+    @Test
+    void steady75Fps() {
+        check("75 fps", frame -> 1.0 / 75);
+    }
+
+    @Test
+    void steady144Fps() {
+        check("144 fps", frame -> 1.0 / 144);
+    }
+
+    @Test
+    void steady240Fps() {
+        check("240 fps", frame -> 1.0 / 240);
+    }
+
+    @Test
+    void jitter() {
+        SplittableRandom random = new SplittableRandom(3);
+        check("60 fps +-50%", frame -> (0.5 + random.nextDouble()) / 60);
+    }
+
+    @Test
+    void hitches() {
+        check("60 fps, hitches", frame -> frame % 120 == 119 ? 0.3 : 1.0 / 60);
+    }
+
+    private static void check(String name, Frames frames) {
+        FixedStepClock clock = new FixedStepClock(HZ);
+        HeadlessSimulation simulation = new HeadlessSimulation(map, clock.getTickSeconds(), SEED, new PlayerBot(SEED));
+        double time = 0;
+        double oldPixels = 0;
+        boolean overlong = false;
+        for (int frame = 0; time < SECONDS; frame++) {
+            double tpf = frames.next(frame);
+            time += tpf;
+            oldPixels += Math.round((float) (tpf * HeadlessSimulation.TANK_SPEED));
+            overlong |= tpf > clock.getMaxTicksPerFrame() * clock.getTickSeconds();
+            int ticks = clock.advance(tpf);
+            assertTrue(ticks <= clock.getMaxTicksPerFrame(), name + ": frame " + frame + " ran " + ticks + " ticks");
+            assertTrue(clock.getAlpha() >= 0 && clock.getAlpha() <= 1, name + ": frame " + frame + " alpha " + clock.getAlpha());
+            for (int i = 0; i < ticks; i++) {
+                long start = System.nanoTime();
+                simulation.step();
+                clock.recordTick(System.nanoTime() - start);
+            }
+        }
+        long due = (long) (time * HZ + 1e-6);
+        assertEquals(due, clock.getTicks() + clock.getDroppedTicks(),
+                name + ": " + clock.getTicks() + " ticks run and " + clock.getDroppedTicks() + " dropped");
+        if (!overlong) {
+            assertEquals(0, clock.getDroppedTicks(), name + ": ticks dropped without a long frame");
+        }
+        HeadlessSimulation reference = new HeadlessSimulation(map, clock.getTickSeconds(), SEED, new PlayerBot(SEED));
+        for (long i = 0; i < clock.getTicks(); i++) {
+            reference.step();
+        }
+        assertEquals(reference.stateHash(), simulation.stateHash(), name + ": state differs from the ticks stepped one by one");
+
+        double newSpeed = Math.round((float) (HeadlessSimulation.TANK_SPEED / HZ)) * (double) clock.getTicks() / time;
+        System.out.printf("%-16s %5d frames, %4d ticks, %3d dropped in %2d frames | tank %5.1f px/s (per-frame step: %5.1f px/s)"
+                        + " | tick p50 %.3f ms p99 %.3f ms%n",
+                name, clock.getFrames(), clock.getTicks(), clock.getDroppedTicks(), clock.getOverloadedFrames(),
+                newSpeed, oldPixels / time, clock.getTickNanos().summary().p50() / 1e6, clock.getTickNanos().summary().p99() / 1e6);
+    }
+}
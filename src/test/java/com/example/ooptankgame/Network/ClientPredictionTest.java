@@ -0,0 +1,176 @@
+package com.example.ooptankgame.Network;
+
+import com.almasb.fxgl.entity.Entity;
+import com.almasb.fxgl.entity.GameWorld;
+import com.almasb.fxgl.physics.BoundingShape;
+import com.almasb.fxgl.physics.HitBox;
+import com.example.ooptankgame.Collision.EntitySpatialIndex;
+import com.example.ooptankgame.Collision.SweptAabb;
+import com.example.ooptankgame.Components.PlayerComponent;
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import com.example.ooptankgame.Simulation.PlayerInput;
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link ClientPrediction} moves the own tank exactly like the game's
+ * {@link PlayerComponent}, so the copy of the movement rules cannot drift from the real ones.
+ *
+ * The client gets the welcome and the first full snapshot of a {@link HeadlessSimulation} on
+ * the default map. The same match is built as entities in a standalone {@link GameWorld}, the way
+ * {@code TankEntityFactory} spawns it: walls, health packs and the enemies where the snapshot put
+ * them, and the player tank with a real {@code PlayerComponent}. Both then play the same random
+ * input for a few minutes of ticks and must end every tick at the same position and direction.
+ *
+ * The tank turns with its moves like in the game, so its 32x30 box is compared turned as well.
+ * The {@code PlayerHealthPackHandler} the component leaves the pickup to is done by the test: a
+ * pack that stops the move is removed, the rule the server and the prediction play by.
+ */
+class ClientPredictionTest {
+
+    private static final int HZ = 60;
+    private static final int TICKS = 20_000;
+    private static final long SEED = 1;
+    private static final int TANK_ID = 0;
+    private static final int[] INPUTS = {
+            PlayerInput.NONE, PlayerInput.of(Dir.UP), PlayerInput.of(Dir.DOWN), PlayerInput.of(Dir.LEFT), PlayerInput.of(Dir.RIGHT)
+    };
+    private static final TankGameType[] PACKS = {TankGameType.HEALTH_PACK};
+
+    private final List<Entity> touching = new ArrayList<>();
+    private final double[] bounds = new double[4];
+    private final double[] packBounds = new double[4];
+
+    @Test
+    void predictsTheMovesOfThePlayerComponent() {
+        TmxMap map = LevelReader.load(HeadlessSimulation.DEFAULT_MAP);
+        HeadlessSimulation simulation = new HeadlessSimulation(map, 1.0 / HZ, SEED, sim -> PlayerInput.NONE);
+        ClientWorld client = connect(simulation);
+        ClientPrediction prediction = new ClientPrediction(map, HZ);
+        prediction.reconcile(client);
+        assertTrue(prediction.isActive(), "the prediction did not start from the snapshot");
+
+        GameWorld world = new GameWorld();
+        EntitySpatialIndex index = EntitySpatialIndex.of(world);
+        spawnLevel(world, map, client);
+        PlayerComponent player = new PlayerComponent(1.0 / HZ);
+        Entity tank = box(TankGameType.PLAYER, client.getX(TANK_ID), client.getY(TANK_ID),
+                HeadlessSimulation.PLAYER_WIDTH, HeadlessSimulation.PLAYER_HEIGHT);
+        tank.addComponent(player);
+        world.addEntity(tank);
+
+        SplittableRandom random = new SplittableRandom(7);
+        int input = PlayerInput.NONE;
+        int length = Math.round((float) (HeadlessSimulation.TANK_SPEED / HZ));
+        int blocked = 0;
+        int packsTaken = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            if (random.nextInt(HZ / 2) == 0) {
+                input = INPUTS[random.nextInt(INPUTS.length)];
+            }
+            double x = tank.getX();
+            double y = tank.getY();
+            player.step(1.0 / HZ);
+            Dir dir = PlayerInput.direction(input);
+            if (dir != null) {
+                switch (dir) {
+                    case UP -> player.up();
+                    case DOWN -> player.down();
+                    case LEFT -> player.left();
+                    default -> player.right();
+                }
+                if (Math.abs(tank.getX() - x) + Math.abs(tank.getY() - y) < length) {
+                    blocked++;
+                    packsTaken += takeHealthPacks(world, index, tank, dir);
+                }
+            }
+            prediction.predict(client, tick + 1, input);
+
+            assertEquals(tank.getX(), prediction.getX(), "x at tick " + tick);
+            assertEquals(tank.getY(), prediction.getY(), "y at tick " + tick);
+            if (dir != null) {
+                assertEquals(dir, prediction.getDir(), "direction at tick " + tick);
+            }
+        }
+        // The tank must actually run into things, or the comparison proves little
+        assertTrue(blocked > TICKS / 20, blocked + " of " + TICKS + " ticks blocked");
+        assertTrue(packsTaken > 0, "no health pack taken");
+    }
+
+    /**
+     * A client that got the welcome and the first full snapshot of the match.
+     */
+    private static ClientWorld connect(HeadlessSimulation simulation) {
+        ClientWorld client = new ClientWorld();
+        ByteBuffer welcome = ByteBuffer.allocate(256);
+        NetProtocol.writeWelcome(welcome, TANK_ID, HZ, HeadlessSimulation.DEFAULT_MAP);
+        welcome.flip().position(NetProtocol.FRAME_HEADER + 1);
+        client.applyWelcome(welcome);
+        ByteBuffer snapshot = new SnapshotEncoder().writeFull(simulation);
+        snapshot.position(NetProtocol.FRAME_HEADER + 1);
+        client.applySnapshot(snapshot);
+        return client;
+    }
+
+    /**
+     * Walls and health packs from the map with the sizes {@code TankEntityFactory} gives them, and
+     * the other tanks where the snapshot put them.
+     */
+    private static void spawnLevel(GameWorld world, TmxMap map, ClientWorld client) {
+        for (TmxMap.MapObject object : map.getObjects()) {
+            if (object.type().equals("wall")) {
+                world.addEntity(box(TankGameType.WALL, object.x(), object.y(), (int) object.width(), (int) object.height()));
+            } else if (object.type().equals("healthpack")) {
+                world.addEntity(box(TankGameType.HEALTH_PACK, object.x(), object.y(),
+                        HeadlessSimulation.HEALTH_PACK_WIDTH, HeadlessSimulation.HEALTH_PACK_HEIGHT));
+            }
+        }
+        for (int id = 0; id < client.getTankCount(); id++) {
+            if (id != TANK_ID && client.isAlive(id) && client.getType(id) == TankGameType.ENEMY) {
+                world.addEntity(box(TankGameType.ENEMY, client.getX(id), client.getY(id),
+                        HeadlessSimulation.ENEMY_SIZE, HeadlessSimulation.ENEMY_SIZE));
+            }
+        }
+    }
+
+    /**
+     * Removes the health packs that stopped the tank's move, returns how many.
+     */
+    private int takeHealthPacks(GameWorld world, EntitySpatialIndex index, Entity tank, Dir dir) {
+        EntitySpatialIndex.worldBounds(tank, bounds);
+        touching.clear();
+        index.query(bounds[0] - 1, bounds[1] - 1, bounds[2] + 1, bounds[3] + 1, PACKS, touching);
+        int taken = 0;
+        for (Entity pack : touching) {
+            EntitySpatialIndex.worldBounds(pack, packBounds);
+            // Touching it in the direction of the move, not one more pixel is possible
+            if (SweptAabb.stepsBeforeContact(bounds, dir.getDx(), dir.getDy(), 1, packBounds) == 0) {
+                world.removeEntity(pack);
+                taken++;
+            }
+        }
+        return taken;
+    }
+
+    private static Entity box(TankGameType type, double x, double y, double width, double height) {
+        Entity entity = new Entity();
+        entity.setType(type);
+        entity.setPosition(x, y);
+        entity.getBoundingBoxComponent().addHitBox(new HitBox(BoundingShape.box(width, height)));
+        // Like EntityBuilder.bbox()
+        entity.getTransformComponent().setRotationOrigin(new Point2D(width / 2, height / 2));
+        return entity;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ooptankgame.Network;
+
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a client sending malformed frames is dropped on its own: a frame too short to hold
+ * an input, one longer than the server's read buffer, which would otherwise never complete, and
+ * one of a type clients do not send. A well-behaved client on the same server keeps playing.
+ */
+class GameServerTest {
+
+    private static final int HZ = 60;
+    private static final long TIMEOUT_NANOS = 5_000_000_000L;
+
+    @Test
+    void dropsClientsThatSendShortFrames() throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(NetProtocol.FRAME_HEADER + 3);
+        frame.putInt(3).put(NetProtocol.INPUT).put((byte) 0).put((byte) 0);
+        checkDropped(frame.flip());
+    }
+
+    @Test
+    void dropsClientsThatSendFramesLongerThanTheBuffer() throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(NetProtocol.FRAME_HEADER + 1000);
+        frame.putInt(1000).put(NetProtocol.COMMAND);
+        checkDropped(frame.position(frame.capacity()).flip());
+    }
+
+    @Test
+    void dropsClientsThatSendServerMessages() throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(NetProtocol.FRAME_HEADER + NetProtocol.INPUT_PAYLOAD);
+        frame.putInt(NetProtocol.INPUT_PAYLOAD).put(NetProtocol.SNAPSHOT).putInt(1).put((byte) 0);
+        checkDropped(frame.flip());
+    }
+
+    private static void checkDropped(ByteBuffer frame) throws IOException {
+        String mapName = HeadlessSimulation.DEFAULT_MAP;
+        try (GameServer server = new GameServer(LevelReader.load(mapName), mapName, HZ, 1, 0);
+             GameClient good = GameClient.connect("localhost", server.getPort());
+             SocketChannel bad = SocketChannel.open(new InetSocketAddress("localhost", server.getPort()))) {
+            long deadline = System.nanoTime() + TIMEOUT_NANOS;
+            while (server.getClientCount() < 2 && System.nanoTime() < deadline) {
+                server.tick();
+            }
+            assertEquals(2, server.getClientCount(), "clients connected");
+
+            while (frame.hasRemaining()) {
+                bad.write(frame);
+            }
+            // The bad client reads what it is sent, so it is not dropped for being slow instead
+            bad.configureBlocking(false);
+            ByteBuffer sink = ByteBuffer.allocate(1 << 16);
+            while (server.getClientCount() > 1 && System.nanoTime() < deadline) {
+                server.tick();
+                good.poll();
+                while (bad.read(sink.clear()) > 0) {
+                    // Discarded
+                }
+            }
+            assertEquals(1, server.getClientCount(), "clients left after the malformed frame");
+
+            for (int i = 0; i < HZ; i++) {
+                server.tick();
+            }
+            while (good.getWorld().getTick() != server.getSimulation().getTick() && System.nanoTime() < deadline) {
+                assertTrue(good.poll() >= 0, "the good client was dropped");
+            }
+            assertEquals(server.getSimulation().getTick(), good.getWorld().getTick(), "tick the good client saw");
+        }
+    }
+}
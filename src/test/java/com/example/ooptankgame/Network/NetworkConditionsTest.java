@@ -0,0 +1,282 @@
+package com.example.ooptankgame.Network;
+
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Level.TmxMap;
+import com.example.ooptankgame.Profiling.RollingStats;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import com.example.ooptankgame.Simulation.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plays a networked match through a link with simulated latency, jitter and packet loss and
+ * reports how well {@link ClientPrediction} and {@link SnapshotInterpolator} hide it.
+ *
+ * A {@link GameServer} runs with one predicting client, whose connection goes through a local
+ * proxy that holds every chunk of bytes back by the latency plus a random jitter, and three more
+ * clients connected directly, so there are other players to interpolate and bump into. A lost
+ * chunk arrives after a 200ms retransmission timeout instead, and, as on TCP, holds up
+ * everything behind it. Time is simulated: the server ticks at 60 Hz and the client renders at
+ * 120 frames per second of game time, so every run plays the same and takes far less than the
+ * minute of game time it covers.
+ *
+ * For each link the test prints:
+ * - **Input delay**: the time from sending a command to getting its ack, which is how late the
+ *   tank would move without prediction.
+ * - **Corrections**: how often a snapshot put the own tank somewhere else than it was predicted,
+ *   per 100 predicted ticks and per second, and how far, in pixels.
+ * - **Starved frames**: frames whose render tick was past the newest snapshot, so the other
+ *   tanks stood still for a frame.
+ *
+ * On links without loss the prediction must hardly ever be corrected and the interpolation must
+ * never run out of snapshots. With loss both happen, but must stay rare.
+ */
+class NetworkConditionsTest {
+
+    private static final int HZ = 60;
+    private static final double FRAME_SECONDS = 1.0 / 120;
+    private static final double RETRANSMIT_SECONDS = 0.2;
+    private static final int OTHER_CLIENTS = 3;
+    private static final double SECONDS = 60;
+    private static final int[] INPUTS = {
+            PlayerInput.NONE, PlayerInput.of(Dir.UP), PlayerInput.of(Dir.DOWN), PlayerInput.of(Dir.LEFT), PlayerInput.of(Dir.RIGHT)
+    };
+
+    /**
+     * One-way delay and jitter in milliseconds, and the share of chunks lost.
+     */
+    private record Link(double latencyMillis, double jitterMillis, double loss) {
+        @Override
+        public String toString() {
+            return String.format("%3.0fms +%2.0fms jitter, %2.0f%% loss", latencyMillis, jitterMillis, loss * 100);
+        }
+    }
+
+    /**
+     * What one match through a link measured.
+     */
+    private record Result(RollingStats.Summary inputDelay, double correctionsPer100Ticks, double starvedShare) {
+    }
+
+    @Test
+    void clearLinksNeedNoCorrections() {
+        TmxMap map = LevelReader.load(HeadlessSimulation.DEFAULT_MAP);
+        for (Link link : new Link[]{new Link(0, 0, 0), new Link(30, 5, 0)}) {
+            Result result = run(map, HeadlessSimulation.DEFAULT_MAP, link);
+            assertTrue(result.inputDelay().p50() >= 2 * link.latencyMillis(), link + ": input faster than the round trip");
+            assertTrue(result.correctionsPer100Ticks() < 0.5, link + ": " + result.correctionsPer100Ticks() + " corrections per 100 ticks");
+            assertEquals(0, result.starvedShare(), link + ": interpolation ran out of snapshots");
+        }
+    }
+
+    @Test
+    void lossyLinksNeedFewCorrections() {
+        TmxMap map = LevelReader.load(HeadlessSimulation.DEFAULT_MAP);
+        for (Link link : new Link[]{new Link(50, 10, 0.01), new Link(100, 20, 0.02), new Link(150, 50, 0.05)}) {
+            Result result = run(map, HeadlessSimulation.DEFAULT_MAP, link);
+            assertTrue(result.inputDelay().p50() >= 2 * link.latencyMillis(), link + ": input faster than the round trip");
+            assertTrue(result.correctionsPer100Ticks() < 5, link + ": " + result.correctionsPer100Ticks() + " corrections per 100 ticks");
+            assertTrue(result.starvedShare() < 0.25, link + ": " + result.starvedShare() * 100 + "% of frames starved");
+        }
+    }
+
+    private static Result run(TmxMap map, String mapName, Link link) {
+        SplittableRandom random = new SplittableRandom(5);
+        ClientPrediction prediction = new ClientPrediction(map, HZ);
+        SnapshotInterpolator interpolator = new SnapshotInterpolator(HZ);
+        double[] sentAt = new double[1024];
+        RollingStats inputDelay = new RollingStats(1 << 14);
+        double[] now = {0};
+        int[] lastAck = {0};
+
+        try (GameServer server = new GameServer(map, mapName, HZ, 7, 0);
+             LaggyLink proxy = new LaggyLink(server.getPort(), link, random.split())) {
+            GameClient client = GameClient.connect("localhost", proxy.getPort());
+            proxy.accept();
+            List<GameClient> others = new ArrayList<>();
+            for (int i = 0; i < OTHER_CLIENTS; i++) {
+                others.add(GameClient.connect("localhost", server.getPort()));
+            }
+            client.setSnapshotListener((world, full) -> {
+                if (full) {
+                    prediction.reset();
+                }
+                if (world.getInputAck() != lastAck[0]) {
+                    lastAck[0] = world.getInputAck();
+                    inputDelay.add(Math.round((now[0] - sentAt[lastAck[0] % sentAt.length]) * 1000));
+                }
+                prediction.reconcile(world);
+                interpolator.record(world, full);
+            });
+
+            double nextCommand = 0;
+            double nextTick = 0.5 / HZ;
+            int input = PlayerInput.NONE;
+            while (now[0] < SECONDS) {
+                proxy.pump(now[0]);
+                // The client plays one command per tick, the server ticks on its own clock half a tick later
+                if (now[0] >= nextCommand) {
+                    nextCommand += 1.0 / HZ;
+                    if (random.nextInt(HZ) == 0) {
+                        input = INPUTS[random.nextInt(INPUTS.length)];
+                    }
+                    ClientWorld world = client.getWorld();
+                    int sequence = client.sendCommand(input);
+                    sentAt[sequence % sentAt.length] = now[0];
+                    prediction.predict(world, sequence, input);
+                    for (GameClient other : others) {
+                        if (random.nextInt(HZ) == 0) {
+                            other.sendInput(INPUTS[random.nextInt(INPUTS.length)] | PlayerInput.SHOOT);
+                        }
+                    }
+                }
+                if (now[0] >= nextTick) {
+                    server.tick();
+                    nextTick += 1.0 / HZ;
+                }
+                proxy.pump(now[0]);
+                client.poll();
+                for (GameClient other : others) {
+                    other.poll();
+                }
+                prediction.advance(FRAME_SECONDS);
+                interpolator.advance(FRAME_SECONDS);
+                now[0] += FRAME_SECONDS;
+            }
+
+            RollingStats.Summary delay = inputDelay.summary();
+            RollingStats.Summary sizes = prediction.getCorrectionSizes().summary();
+            double corrections = 100.0 * prediction.getCorrections() / Math.max(1, prediction.getPredicted());
+            double starved = (double) interpolator.getStarvedFrames() / Math.max(1, interpolator.getFrames());
+            System.out.printf("%s: input delay p50 %3dms p99 %3dms | corrections %5.2f per 100 ticks, %5.2f/s,"
+                            + " p50 %5.2fpx p99 %5.2fpx max %5.2fpx | starved frames %5.2f%%%n",
+                    link, delay.p50(), delay.p99(), corrections, prediction.getCorrections() / SECONDS,
+                    sizes.p50() / 100.0, sizes.p99() / 100.0, sizes.max() / 100.0, 100 * starved);
+            client.close();
+            for (GameClient other : others) {
+                other.close();
+            }
+            assertTrue(prediction.getPredicted() > 0, link + ": nothing was predicted");
+            return new Result(delay, corrections, starved);
+        }
+    }
+
+    /**
+     * A proxy between one client and the server that holds back what it forwards, both ways.
+     */
+    private static final class LaggyLink implements AutoCloseable {
+
+        private record Chunk(ByteBuffer data, double due) {
+        }
+
+        private final ServerSocketChannel listener;
+        private final int serverPort;
+        private final Link link;
+        private final SplittableRandom random;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        private SocketChannel client;
+        private SocketChannel server;
+        private final ArrayDeque<Chunk> up = new ArrayDeque<>();
+        private final ArrayDeque<Chunk> down = new ArrayDeque<>();
+        private final double[] lastDue = new double[2];
+
+        private LaggyLink(int serverPort, Link link, SplittableRandom random) {
+            this.serverPort = serverPort;
+            this.link = link;
+            this.random = random;
+            try {
+                listener = ServerSocketChannel.open();
+                listener.bind(new InetSocketAddress("localhost", 0));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private int getPort() {
+            try {
+                return ((InetSocketAddress) listener.getLocalAddress()).getPort();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void accept() {
+            try {
+                client = listener.accept();
+                client.configureBlocking(false);
+                server = SocketChannel.open(new InetSocketAddress("localhost", serverPort));
+                server.configureBlocking(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Reads what either side sent and forwards what is due at {@code now}.
+         */
+        private void pump(double now) {
+            try {
+                receive(client, up, 0, now);
+                receive(server, down, 1, now);
+                forward(up, server, now);
+                forward(down, client, now);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void receive(SocketChannel from, ArrayDeque<Chunk> queue, int direction, double now) throws IOException {
+            buffer.clear();
+            if (from.read(buffer) <= 0) {
+                return;
+            }
+            buffer.flip();
+            ByteBuffer data = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+            double delay = (link.latencyMillis + random.nextDouble() * link.jitterMillis) / 1000;
+            if (random.nextDouble() < link.loss) {
+                delay += RETRANSMIT_SECONDS;
+            }
+            // In order, a late chunk holds up the ones after it
+            lastDue[direction] = Math.max(now + delay, lastDue[direction]);
+            queue.add(new Chunk(data, lastDue[direction]));
+        }
+
+        private static void forward(ArrayDeque<Chunk> queue, SocketChannel to, double now) throws IOException {
+            while (!queue.isEmpty() && queue.peek().due <= now) {
+                ByteBuffer data = queue.peek().data;
+                to.write(data);
+                if (data.hasRemaining()) {
+                    return; // The receiver is full, the rest goes next time
+                }
+                queue.poll();
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (client != null) {
+                    client.close();
+                    server.close();
+                }
+                listener.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
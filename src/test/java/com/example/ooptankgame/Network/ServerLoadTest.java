@@ -0,0 +1,166 @@
+package com.example.ooptankgame.Network;
+
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Level.LevelReader;
+import com.example.ooptankgame.Profiling.RollingStats;
+import com.example.ooptankgame.Simulation.HeadlessSimulation;
+import com.example.ooptankgame.Simulation.PlayerInput;
+import com.example.ooptankgame.Simulation.SimBody;
+import com.example.ooptankgame.Simulation.SimBullet;
+import com.example.ooptankgame.Simulation.SimTank;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of the {@link GameServer} with 64 simulated clients on the loopback interface.
+ *
+ * Every client connects, takes a player tank and changes its input at random every second or
+ * so: one of the four directions or standing still, shooting half of the time. The server ticks
+ * as fast as it can, driven from this thread together with the clients, so the numbers are the
+ * server's own cost and not the time between ticks. Matches end and restart during the run, so
+ * the full snapshots sent at the start of a match are part of it.
+ *
+ * Prints the server's tick time, including reading input and encoding and queueing the
+ * snapshots, the bytes per tick each client receives and what that is per second at 60 ticks
+ * per second, and the size of a delta against a full snapshot of the same match.
+ *
+ * Afterwards every client's {@link ClientWorld} must match the server's simulation: every tank,
+ * bullet and health pack, and the score.
+ */
+class ServerLoadTest {
+
+    private static final int CLIENTS = 64;
+    private static final int HZ = 60;
+    private static final int WARMUP_TICKS = 1_200;
+    private static final int TICKS = 7_200;
+    private static final double EPSILON = 0.01;
+    private static final int[] INPUTS = {
+            PlayerInput.NONE, PlayerInput.of(Dir.UP), PlayerInput.of(Dir.DOWN), PlayerInput.of(Dir.LEFT), PlayerInput.of(Dir.RIGHT)
+    };
+
+    @Test
+    void clientsMatchTheServerUnderLoad() {
+        String mapName = HeadlessSimulation.DEFAULT_MAP;
+        SplittableRandom random = new SplittableRandom(3);
+        List<String> differences = new ArrayList<>();
+
+        try (GameServer server = new GameServer(LevelReader.load(mapName), mapName, HZ, 1, 0)) {
+            List<GameClient> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(GameClient.connect("localhost", server.getPort()));
+                // The server accepts at the start of a tick, one at a time keeps the accept backlog short
+                while (server.getClientCount() <= i) {
+                    server.tick();
+                }
+            }
+
+            drive(server, clients, random, WARMUP_TICKS);
+            server.getTickNanos().clear();
+            long ticks = server.getTicks();
+            long sent = server.getBytesSent();
+            long deltaBytes = server.getDeltaBytes();
+            long received = server.getBytesReceived();
+            long start = System.nanoTime();
+            drive(server, clients, random, TICKS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            ticks = server.getTicks() - ticks;
+            RollingStats.Summary tick = server.getTickNanos().summary();
+            double perClientTick = (server.getBytesSent() - sent) / (double) (ticks * CLIENTS);
+            double deltaPerClientTick = (server.getDeltaBytes() - deltaBytes) / (double) (ticks * CLIENTS);
+            int fullSize = new SnapshotEncoder().writeFull(server.getSimulation()).remaining();
+            System.out.printf("%d clients, %d ticks in %.2fs, %d matches (tick times of the last %d ticks)%n",
+                    CLIENTS, ticks, seconds, server.getMatches(), tick.samples());
+            System.out.printf("Server tick: p50 %.3fms  p99 %.3fms  max %.3fms%n",
+                    tick.p50() / 1e6, tick.p99() / 1e6, tick.max() / 1e6);
+            System.out.printf("Sent per client: %.1f bytes/tick, %.1f KB/s at %d Hz (all clients %.1f KB/s)%n",
+                    perClientTick, perClientTick * HZ / 1024, HZ, perClientTick * HZ * CLIENTS / 1024);
+            System.out.printf("Delta snapshot: %.1f bytes on average, full snapshot now %d bytes%n",
+                    deltaPerClientTick, fullSize);
+            System.out.printf("Received from all clients: %.1f bytes/tick%n",
+                    (server.getBytesReceived() - received) / (double) ticks);
+
+            // Stop changing input and let every client catch up with the last snapshot
+            server.tick();
+            for (GameClient client : clients) {
+                long deadline = System.nanoTime() + 5_000_000_000L;
+                while (client.getWorld().getTick() != server.getSimulation().getTick() && System.nanoTime() < deadline) {
+                    client.poll();
+                }
+                compare(server.getSimulation(), client.getWorld(), differences);
+            }
+            for (GameClient client : clients) {
+                client.close();
+            }
+        }
+        assertTrue(differences.isEmpty(), differences.size() + " differences between server and clients, first: "
+                + (differences.isEmpty() ? "" : differences.get(0)));
+    }
+
+    private static void drive(GameServer server, List<GameClient> clients, SplittableRandom random, int ticks) {
+        for (int t = 0; t < ticks; t++) {
+            for (GameClient client : clients) {
+                if (random.nextInt(HZ) == 0) {
+                    int input = INPUTS[random.nextInt(INPUTS.length)];
+                    client.sendInput(random.nextBoolean() ? input | PlayerInput.SHOOT : input);
+                }
+            }
+            server.tick();
+            for (GameClient client : clients) {
+                if (client.poll() < 0) {
+                    throw new IllegalStateException("Server dropped a client");
+                }
+            }
+        }
+    }
+
+    private static void compare(HeadlessSimulation simulation, ClientWorld world, List<String> differences) {
+        if (world.getTick() != simulation.getTick()) {
+            differences.add("Client at tick " + world.getTick() + ", server at " + simulation.getTick());
+            return;
+        }
+        if (world.getScore() != simulation.getScore() || world.getLives() != simulation.getLives()
+                || world.getDestroyedEnemy() != simulation.getDestroyedEnemy()
+                || world.isGameOver() != simulation.isGameOver()) {
+            differences.add("Match state differs at tick " + simulation.getTick());
+        }
+        List<SimTank> tanks = simulation.getTanks();
+        if (world.getTankCount() != tanks.size()) {
+            differences.add("Client has " + world.getTankCount() + " tanks, server " + tanks.size());
+            return;
+        }
+        for (SimTank tank : tanks) {
+            int id = tank.getId();
+            if (world.getType(id) != tank.getType() || Math.abs(world.getX(id) - tank.getX()) > EPSILON
+                    || Math.abs(world.getY(id) - tank.getY()) > EPSILON || world.getDir(id) != tank.getDir()
+                    || world.getHp(id) != tank.getHp() || world.isAlive(id) != tank.isAlive()) {
+                differences.add("Tank " + id + " differs at tick " + simulation.getTick());
+            }
+        }
+        List<SimBullet> bullets = simulation.getBullets();
+        List<ClientWorld.Bullet> known = world.getBullets();
+        if (known.size() != bullets.size()) {
+            differences.add("Client has " + known.size() + " bullets, server " + bullets.size());
+            return;
+        }
+        for (int i = 0; i < bullets.size(); i++) {
+            SimBullet bullet = bullets.get(i);
+            ClientWorld.Bullet copy = known.get(i);
+            if (copy.getId() != bullet.getId() || Math.abs(copy.getCenterX() - bullet.getCenterX()) > EPSILON
+                    || Math.abs(copy.getCenterY() - bullet.getCenterY()) > EPSILON) {
+                differences.add("Bullet " + bullet.getId() + " differs at tick " + simulation.getTick());
+            }
+        }
+        List<SimBody> packs = simulation.getHealthPacks();
+        for (int i = 0; i < packs.size(); i++) {
+            if (world.isHealthPackAlive(i) != packs.get(i).isAlive()) {
+                differences.add("Health pack " + i + " differs at tick " + simulation.getTick());
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.ooptankgame.Telemetry;
+
+import com.example.ooptankgame.Enums.Dir;
+import com.example.ooptankgame.Enums.TankGameType;
+import com.example.ooptankgame.Enums.TelemetryLevel;
+import com.example.ooptankgame.Enums.TelemetryType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks the {@link TelemetryLog} the game records into:
+ *
+ * - **Allocation**: Recording shots, hits, pickups, spawns and frames on the game thread
+ *   allocates nothing, read from the JVM's allocation counter like {@code MoveAllocationTest}.
+ * - **Round Trip**: Four threads record as fast as they can into a small ring. Every event that was
+ *   not dropped comes back out of the files through the {@link TelemetryDecoder}, in the order
+ *   each thread recorded it, and the files rotate after their event count.
+ * - **Retention**: Only the newest files of a session are kept.
+ * - **Levels**: Nothing is recorded below the level, and the level takes effect at once.
+ *
+ * The files go to a temporary folder JUnit deletes afterwards. Prints the recording cost per event.
+ */
+class TelemetryLogTest {
+
+    private static final int ALLOCATION_EVENTS = 1_000_000;
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 250_000;
+    private static final long EVENTS_PER_FILE = 100_000;
+    private static final Dir[] DIRS = Dir.values(); // values() clones the array every call
+    // One object per event would be 16 bytes an event. What other tests in the same JVM leave
+    // behind, like the JIT recompiling, can add a few hundred bytes once.
+    private static final double MAX_BYTES_PER_EVENT = 0.01;
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void recordingAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "This JVM does not count allocated bytes per thread");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        try (TelemetryLog log = new TelemetryLog(folder, TelemetryLevel.DEBUG)) {
+            // Warm up so the JIT has compiled the recording methods
+            recordGameEvents(log, ALLOCATION_EVENTS);
+            long before = threads.getCurrentThreadAllocatedBytes();
+            long baseline = threads.getCurrentThreadAllocatedBytes() - before;
+            before = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            recordGameEvents(log, ALLOCATION_EVENTS);
+            long nanos = System.nanoTime() - start;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before - baseline;
+            System.out.printf("allocation: %d events recorded in %.1f ns each, %d bytes allocated (%d dropped)%n",
+                    ALLOCATION_EVENTS, (double) nanos / ALLOCATION_EVENTS, allocated, log.getDropped());
+            assertTrue(allocated < ALLOCATION_EVENTS * MAX_BYTES_PER_EVENT,
+                    allocated + " bytes allocated by " + ALLOCATION_EVENTS + " events");
+        }
+    }
+
+    private static void recordGameEvents(TelemetryLog log, int events) {
+        for (int i = 0; i < events; i += 5) {
+            log.shot(TankGameType.PLAYER, DIRS[i & 3], i, i + 1);
+            log.hit(TankGameType.ENEMY, i & 3, i, i + 1);
+            log.pickup(TankGameType.ENEMY, 3, i, i + 1);
+            log.spawn("explode", (i & 1) == 0, i, i + 1);
+            log.frame(1, 16_666_667, 2_000_000);
+        }
+    }
+
+    @Test
+    void eventsComeBackInOrder() throws IOException, InterruptedException {
+        TelemetryLog log = new TelemetryLog(folder, TelemetryLevel.DEBUG, 1 << 12, EVENTS_PER_FILE, Integer.MAX_VALUE);
+        Thread[] producers = new Thread[PRODUCERS];
+        long start = System.nanoTime();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                    log.record(TelemetryType.FRAME, producer, i, i, -producer, producer);
+                    if ((i & 1023) == 1023) {
+                        // Let the writer in now and then, like a game between frames, so not all is dropped
+                        Thread.yield();
+                    }
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        long nanos = System.nanoTime() - start;
+        log.close();
+
+        int[] next = new int[PRODUCERS];
+        long[] decoded = new long[1];
+        boolean[] inOrder = {true};
+        List<Path> files = TelemetryDecoder.files(folder);
+        for (Path file : files) {
+            decoded[0] += TelemetryDecoder.read(file, (time, type, subject, value, x, y, extra) -> {
+                // Events of one producer come out in its order, the ones dropped in between are missing
+                inOrder[0] &= type == TelemetryType.FRAME && subject >= 0 && subject < PRODUCERS
+                        && value >= next[subject] && x == value && y == -subject && extra == subject;
+                if (subject >= 0 && subject < PRODUCERS) {
+                    next[subject] = value + 1;
+                }
+            });
+        }
+        long offered = (long) PRODUCERS * EVENTS_PER_PRODUCER;
+        long expectedFiles = (log.getWritten() + EVENTS_PER_FILE - 1) / EVENTS_PER_FILE;
+        System.out.printf("round trip: %d threads offered %d events in %.1f ns each, %d written to %d files, %d dropped%n",
+                PRODUCERS, offered, (double) nanos * PRODUCERS / offered, log.getWritten(), files.size(), log.getDropped());
+        assertTrue(inOrder[0], "events came back out of order or changed");
+        assertEquals(log.getWritten(), decoded[0], "events decoded");
+        assertEquals(offered, log.getWritten() + log.getDropped(), "events written and dropped");
+        assertEquals(expectedFiles, files.size(), "files");
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(i, TelemetryDecoder.header(files.get(i)).fileIndex(), files.get(i).getFileName() + " index");
+        }
+    }
+
+    @Test
+    void keepsOnlyTheNewestFiles() throws IOException {
+        int maxFiles = 3;
+        TelemetryLog log = new TelemetryLog(folder, TelemetryLevel.INFO, 1 << 16, 1_000, maxFiles);
+        for (int i = 0; i < 20_000; i++) {
+            log.spawn("bullet", false, i, i);
+        }
+        log.close();
+        List<Path> files = TelemetryDecoder.files(folder);
+        System.out.printf("retention: %d events in files of 1000, %s kept%n", log.getWritten(),
+                Arrays.toString(files.stream().map(Path::getFileName).toArray()));
+        assertEquals(log.getFiles(), files, "files on disk");
+        assertEquals(maxFiles, files.size(), "files kept");
+    }
+
+    @Test
+    void recordsNothingBelowTheLevel() throws IOException {
+        Map<TelemetryType, Integer> counts = new EnumMap<>(TelemetryType.class);
+        TelemetryLog log = new TelemetryLog(folder, TelemetryLevel.INFO);
+        log.frame(1, 0, 0); // Below INFO
+        log.shot(TankGameType.ENEMY, Dir.LEFT, 0, 0);
+        log.setLevel(TelemetryLevel.OFF);
+        log.shot(TankGameType.ENEMY, Dir.LEFT, 0, 0);
+        log.frame(1, 0, 0);
+        log.setLevel(TelemetryLevel.DEBUG);
+        log.frame(1, 0, 0);
+        log.hit(TankGameType.PLAYER, 2, 0, 0);
+        log.close();
+        for (Path file : TelemetryDecoder.files(folder)) {
+            TelemetryDecoder.read(file, (time, type, subject, value, x, y, extra) -> counts.merge(type, 1, Integer::sum));
+        }
+        assertEquals(Map.of(TelemetryType.SHOT, 1, TelemetryType.FRAME, 1, TelemetryType.HIT, 1), counts,
+                "one shot, frame and hit");
+    }
+}